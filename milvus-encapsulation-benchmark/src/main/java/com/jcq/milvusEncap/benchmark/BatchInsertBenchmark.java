@@ -0,0 +1,106 @@
+package com.jcq.milvusEncap.benchmark;
+
+import com.google.gson.JsonObject;
+import com.jcq.milvusEncap.codec.ColumnarInsertBatch;
+import com.jcq.milvusEncap.codec.ColumnarInsertEncoder;
+import com.jcq.milvusEncap.codec.MilvusEntityCodecs;
+import com.jcq.milvusEncap.codec.MilvusEntityMetadata;
+import com.jcq.milvusEncap.dal.dataobject.agent.SamplesDO;
+import com.jcq.milvusEncap.schema.EntitySchema;
+import com.jcq.milvusEncap.schema.EntitySchemaResolver;
+import io.milvus.v2.service.collection.response.DescribeCollectionResp;
+import io.milvus.v2.service.vector.request.InsertReq;
+import io.milvus.v2.utils.DataUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 批量插入的请求编码，从实体列表到发送给 Milvus 的 gRPC InsertRequest，结果按行计算（gc.alloc.rate.norm 为每行分配的字节数）
+ *
+ * <ul>
+ *     <li>rows：编码为 JsonObject 行数据，再由 SDK 解析为 gRPC 请求（与 client.insert 的处理一致）</li>
+ *     <li>columnar：{@link ColumnarInsertEncoder} 按列直接编码为 gRPC 请求</li>
+ * </ul>
+ *
+ * <p>向量维度取 SamplesDO 上声明的 1024，列式编码会校验维度</p>
+ *
+ * @author : jucunqi
+ * @since : 2025/10/16
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BatchInsertBenchmark {
+
+    private static final int BATCH_SIZE = 256;
+    private static final int DIM = 1024;
+
+    private MilvusEntityMetadata<SamplesDO> metadata;
+    private ColumnarInsertEncoder<SamplesDO> encoder;
+    private DescribeCollectionResp describe;
+    private List<SamplesDO> entities;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(BenchmarkData.SEED);
+        entities = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            entities.add(BenchmarkData.sample(i + 1L, DIM, random));
+        }
+        metadata = MilvusEntityCodecs.metadata(SamplesDO.class);
+        encoder = ColumnarInsertEncoder.of(metadata);
+        if (!encoder.isColumnar()) {
+            throw new IllegalStateException("SamplesDO 不支持按列编码");
+        }
+        EntitySchema schema = EntitySchemaResolver.resolve(SamplesDO.class);
+        describe = DescribeCollectionResp.builder()
+                .collectionName(schema.getCollectionName())
+                .collectionSchema(schema.getCollectionSchema())
+                .build();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void rows(Blackhole blackhole) {
+        List<JsonObject> rows = new ArrayList<>(entities.size());
+        long payloadBytes = 0;
+        for (SamplesDO entity : entities) {
+            JsonObject row = metadata.getCodec().toRow(entity);
+            payloadBytes += row.toString().length();
+            rows.add(row);
+        }
+        InsertReq request = InsertReq.builder()
+                .collectionName(metadata.getCollectionName())
+                .data(rows)
+                .build();
+        blackhole.consume(payloadBytes);
+        blackhole.consume(new DataUtils.InsertBuilderWrapper().convertGrpcInsertRequest(request, describe));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void columnar(Blackhole blackhole) {
+        ColumnarInsertBatch batch = encoder.encode(metadata.getCollectionName(), entities);
+        blackhole.consume(batch.getPayloadBytes());
+        blackhole.consume(batch.toInsertRequest());
+    }
+
+}
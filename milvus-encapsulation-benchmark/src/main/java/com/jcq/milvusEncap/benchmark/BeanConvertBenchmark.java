@@ -0,0 +1,80 @@
+package com.jcq.milvusEncap.benchmark;
+
+import cn.hutool.core.bean.BeanUtil;
+import com.jcq.milvusEncap.controller.samples.vo.SamplesRespVO;
+import com.jcq.milvusEncap.dal.dataobject.agent.SamplesDO;
+import com.jcq.milvusEncap.dal.pojo.PageResult;
+import com.jcq.milvusEncap.util.BeanCopier;
+import com.jcq.milvusEncap.util.BeanUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 分页结果 DO -> RespVO 的转换，对应 SamplesController 分页接口的 BeanUtils.toBean(pageResult, SamplesRespVO.class)
+ *
+ * <ul>
+ *     <li>hutool：引入 BeanCopier 之前的实现，每行调用一次 BeanUtil.toBean</li>
+ *     <li>copy：BeanCopier，复制向量数组</li>
+ *     <li>share：BeanCopier，共享向量数组（分页接口的用法）</li>
+ * </ul>
+ *
+ * @author : jucunqi
+ * @since : 2025/10/16
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BeanConvertBenchmark {
+
+    @Param({"128", "384", "768", "1536"})
+    private int dim;
+
+    @Param({"10", "100"})
+    private int pageSize;
+
+    @Param({"hutool", "copy", "share"})
+    private String mode;
+
+    private PageResult<SamplesDO> page;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(BenchmarkData.SEED);
+        List<SamplesDO> list = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            list.add(BenchmarkData.sample(i, dim, random));
+        }
+        page = new PageResult<>(list, 10_000L);
+    }
+
+    @Benchmark
+    public PageResult<SamplesRespVO> toBeanPage() {
+        if ("hutool".equals(mode)) {
+            List<SamplesRespVO> list = new ArrayList<>(page.getList().size());
+            for (SamplesDO sample : page.getList()) {
+                list.add(BeanUtil.toBean(sample, SamplesRespVO.class));
+            }
+            return new PageResult<>(list, page.getTotal());
+        }
+        return BeanUtils.toBean(page, SamplesRespVO.class,
+                "share".equals(mode) ? BeanCopier.ArrayMode.SHARE : BeanCopier.ArrayMode.COPY);
+    }
+
+}
@@ -0,0 +1,69 @@
+package com.jcq.milvusEncap.benchmark;
+
+import com.jcq.milvusEncap.dal.dataobject.agent.SamplesDO;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * 基准测试使用的样例数据，固定随机种子保证每次运行的数据一致
+ *
+ * @author : jucunqi
+ * @since : 2025/10/16
+ */
+final class BenchmarkData {
+
+    static final long SEED = 20251016L;
+
+    private BenchmarkData() {
+    }
+
+    static float[] vector(int dim, Random random) {
+        float[] vector = new float[dim];
+        for (int i = 0; i < dim; i++) {
+            vector[i] = random.nextFloat() * 2 - 1;
+        }
+        return vector;
+    }
+
+    static SamplesDO sample(long id, int dim, Random random) {
+        long now = System.currentTimeMillis();
+        return SamplesDO.builder()
+                .sampleId(id)
+                .agentId(id % 16)
+                .agentName("agent-" + (id % 16))
+                .sampleQuestion("如何在 Milvus 中创建一个带 Partition Key 的集合？" + id)
+                .sampleAnswer("在实体的字段上添加 @PartitionKey 注解，启动时会自动创建集合与索引。" + id)
+                .sampleVector(vector(dim, random))
+                .sampleStatus("ENABLED")
+                .createdTime(now)
+                .updatedTime(now)
+                .build();
+    }
+
+    /**
+     * 与 SDK 查询结果中的 QueryResult.getEntity() 结构一致：key 为列名，向量为 List&lt;Float&gt;
+     */
+    static Map<String, Object> row(long id, int dim, Random random) {
+        SamplesDO sample = sample(id, dim, random);
+        List<Float> vector = new ArrayList<>(dim);
+        for (float value : sample.getSampleVector()) {
+            vector.add(value);
+        }
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("sample_id", sample.getSampleId());
+        row.put("agent_id", sample.getAgentId());
+        row.put("agent_name", sample.getAgentName());
+        row.put("sample_question", sample.getSampleQuestion());
+        row.put("sample_answer", sample.getSampleAnswer());
+        row.put("sample_vector", vector);
+        row.put("sample_status", sample.getSampleStatus());
+        row.put("created_time", sample.getCreatedTime());
+        row.put("updated_time", sample.getUpdatedTime());
+        return row;
+    }
+
+}
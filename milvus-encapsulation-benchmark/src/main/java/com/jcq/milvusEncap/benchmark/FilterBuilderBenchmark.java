@@ -0,0 +1,75 @@
+package com.jcq.milvusEncap.benchmark;
+
+import com.jcq.milvusEncap.dal.dataobject.agent.SamplesDO;
+import com.jcq.milvusEncap.service.milvus.MilvusLambdaQueryWrapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 查询构造器：wrapper 包含 Lambda 解析与条件拼接的完整过程（每次请求都会执行），buildFilter 只测拼接
+ *
+ * @author : jucunqi
+ * @since : 2025/10/16
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class FilterBuilderBenchmark {
+
+    private static final List<String> STATUSES = Arrays.asList("ENABLED", "DISABLED", "PENDING");
+
+    @Param({"1", "4", "8", "16"})
+    private int conditions;
+
+    private MilvusLambdaQueryWrapper<SamplesDO> prepared;
+
+    @Setup
+    public void setUp() {
+        prepared = newWrapper(conditions);
+    }
+
+    @Benchmark
+    public String wrapper() {
+        return newWrapper(conditions).buildFilter();
+    }
+
+    @Benchmark
+    public String buildFilter() {
+        return prepared.buildFilter();
+    }
+
+    /**
+     * 按 分区键等于 / 范围 / like / in / 不等于 轮流添加条件，与分页、导出接口常见的组合一致
+     */
+    private static MilvusLambdaQueryWrapper<SamplesDO> newWrapper(int conditions) {
+        MilvusLambdaQueryWrapper<SamplesDO> wrapper = new MilvusLambdaQueryWrapper<>();
+        for (int i = 0; i < conditions; i++) {
+            switch (i % 6) {
+                case 0 -> wrapper.eqIfPresent(SamplesDO::getAgentId, 7L + i);
+                case 1 -> wrapper.ge(SamplesDO::getCreatedTime, 1_700_000_000_000L + i);
+                case 2 -> wrapper.lt(SamplesDO::getUpdatedTime, 1_800_000_000_000L + i);
+                case 3 -> wrapper.likeIfPresent(SamplesDO::getAgentName, "agent-" + i);
+                case 4 -> wrapper.in(SamplesDO::getSampleStatus, STATUSES);
+                default -> wrapper.ne(SamplesDO::getSampleQuestion, "q" + i);
+            }
+        }
+        return wrapper;
+    }
+
+}
@@ -0,0 +1,38 @@
+package com.jcq.milvusEncap.benchmark;
+
+import org.openjdk.jmh.Main;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * 基准测试入口，在 JMH 命令行参数的基础上默认开启 GC profiler，同时输出吞吐量与分配速率（gc.alloc.rate.norm）
+ *
+ * <pre>
+ * mvn -f milvus-encapsulation-processor install
+ * mvn -f milvus-encapsulation-benchmark package
+ * java -jar milvus-encapsulation-benchmark/target/benchmarks.jar RowCodec -p dim=768
+ * </pre>
+ *
+ * @author : jucunqi
+ * @since : 2025/10/16
+ */
+public class MilvusBenchmarks {
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        if (commandLine.shouldHelp() || commandLine.shouldList() || commandLine.shouldListWithParams()
+                || commandLine.shouldListProfilers() || commandLine.shouldListResultFormats()) {
+            Main.main(args);
+            return;
+        }
+        Options options = new OptionsBuilder()
+                .parent(commandLine)
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+
+}
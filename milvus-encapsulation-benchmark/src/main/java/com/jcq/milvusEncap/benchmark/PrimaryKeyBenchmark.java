@@ -0,0 +1,77 @@
+package com.jcq.milvusEncap.benchmark;
+
+import com.jcq.milvusEncap.codec.MilvusEntityCodecs;
+import com.jcq.milvusEncap.codec.MilvusEntityMetadata;
+import com.jcq.milvusEncap.dal.dataobject.agent.SamplesDO;
+import com.jcq.milvusEncap.util.MilvusUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MilvusUtil 中基于反射的主键、向量字段工具方法，与实体元数据（生成或反射实现）的对应方法对比
+ *
+ * @author : jucunqi
+ * @since : 2025/10/16
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PrimaryKeyBenchmark {
+
+    private MilvusEntityMetadata<SamplesDO> metadata;
+    private SamplesDO entity;
+
+    @Setup
+    public void setUp() {
+        metadata = MilvusEntityCodecs.metadata(SamplesDO.class);
+        entity = BenchmarkData.sample(42L, 128, new Random(BenchmarkData.SEED));
+    }
+
+    @Benchmark
+    public Long getPrimaryKeyValue() throws IllegalAccessException {
+        return MilvusUtil.getPrimaryKeyValue(entity);
+    }
+
+    @Benchmark
+    public String getPrimaryKeyFieldName() {
+        return MilvusUtil.getPrimaryKeyFieldName(SamplesDO.class);
+    }
+
+    @Benchmark
+    public String getVectorFieldName() {
+        return MilvusUtil.getVectorFieldName(SamplesDO.class);
+    }
+
+    @Benchmark
+    public SamplesDO setAutoPrimaryKeyToNull() throws IllegalAccessException {
+        entity.setSampleId(42L);
+        MilvusUtil.setAutoPrimaryKeyToNull(entity);
+        return entity;
+    }
+
+    @Benchmark
+    public Long metadataPrimaryKey() {
+        entity.setSampleId(42L);
+        return metadata.getPrimaryKey(entity);
+    }
+
+    @Benchmark
+    public String metadataPrimaryKeyColumn() {
+        return metadata.getPrimaryKeyColumn();
+    }
+
+}
@@ -0,0 +1,102 @@
+package com.jcq.milvusEncap.benchmark;
+
+import com.alibaba.fastjson.JSON;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonObject;
+import com.jcq.milvusEncap.codec.MilvusEntityCodecs;
+import com.jcq.milvusEncap.codec.MilvusRowCodec;
+import com.jcq.milvusEncap.codec.MilvusRowValues;
+import com.jcq.milvusEncap.dal.dataobject.agent.SamplesDO;
+import com.jcq.milvusEncap.strategy.CamelToUnderlineNamingStrategy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 实体与行数据互转：encode 对应 insert 构建请求，decode 对应 completeResult / search 解析单行结果
+ *
+ * <ul>
+ *     <li>generated：注解处理器生成的编解码器</li>
+ *     <li>reflective：未生成时回退的反射实现（Gson 编码、fastjson 解码）</li>
+ *     <li>json：引入编解码器之前的实现，Gson 序列化为字符串再解析、fastjson 先序列化再反序列化，作为对照</li>
+ * </ul>
+ *
+ * @author : jucunqi
+ * @since : 2025/10/16
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RowCodecBenchmark {
+
+    @Param({"128", "384", "768", "1536"})
+    private int dim;
+
+    @Param({"generated", "reflective", "json"})
+    private String codec;
+
+    private MilvusRowCodec<SamplesDO> rowCodec;
+    private Gson gson;
+    private SamplesDO entity;
+    private Map<String, Object> row;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(BenchmarkData.SEED);
+        entity = BenchmarkData.sample(1L, dim, random);
+        row = BenchmarkData.row(1L, dim, random);
+        rowCodec = "generated".equals(codec)
+                ? MilvusEntityCodecs.metadata(SamplesDO.class).getCodec()
+                : MilvusEntityCodecs.reflectiveCodec(SamplesDO.class);
+        gson = new GsonBuilder().setFieldNamingStrategy(new CamelToUnderlineNamingStrategy())
+                .setPrettyPrinting()
+                .create();
+        if ("generated".equals(codec) && !MilvusEntityCodecs.isGenerated(SamplesDO.class)) {
+            throw new IllegalStateException("未找到生成的编解码器，请先 install milvus-encapsulation-processor 再打包基准测试");
+        }
+    }
+
+    @Benchmark
+    public void encode(Blackhole blackhole) {
+        if ("json".equals(codec)) {
+            String entityJson = gson.toJson(entity);
+            blackhole.consume(gson.fromJson(entityJson, JsonObject.class));
+            blackhole.consume(entityJson.length());
+            return;
+        }
+        JsonObject encoded = rowCodec.toRow(entity);
+        blackhole.consume(encoded);
+        // insert 中按序列化后的长度统计数据量
+        blackhole.consume(encoded.toString().length());
+    }
+
+    @Benchmark
+    public void decode(Blackhole blackhole) {
+        if ("json".equals(codec)) {
+            String jsonStr = JSON.toJSONString(row);
+            blackhole.consume(JSON.parseObject(jsonStr, SamplesDO.class));
+            blackhole.consume(jsonStr.length());
+            return;
+        }
+        blackhole.consume(rowCodec.fromRow(row));
+        blackhole.consume(MilvusRowValues.estimateSize(row));
+    }
+
+}
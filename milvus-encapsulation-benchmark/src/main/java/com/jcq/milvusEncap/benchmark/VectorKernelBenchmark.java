@@ -0,0 +1,158 @@
+package com.jcq.milvusEncap.benchmark;
+
+import com.jcq.milvusEncap.vector.VectorKernel;
+import com.jcq.milvusEncap.vector.VectorKernels;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 精确重排的距离计算：每次调用为一个查询向量与 {@value #CANDIDATES} 个候选向量计算距离（topK=10、oversample=10），
+ * naive 为单累加器的直观写法，scalar 为 4 路展开的标量实现，simd 为 Vector API 实现
+ *
+ * @author : jucunqi
+ * @since : 2025/10/16
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+@State(Scope.Thread)
+public class VectorKernelBenchmark {
+
+    private static final int CANDIDATES = 100;
+
+    @Param({"128", "384", "768", "1024", "1536"})
+    private int dim;
+
+    private float[] query;
+    private float[][] candidates;
+    private VectorKernel scalar;
+    private VectorKernel simd;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(BenchmarkData.SEED);
+        query = BenchmarkData.vector(dim, random);
+        candidates = new float[CANDIDATES][];
+        for (int i = 0; i < CANDIDATES; i++) {
+            candidates[i] = BenchmarkData.vector(dim, random);
+        }
+        scalar = VectorKernels.scalar();
+        simd = VectorKernels.simd();
+        if (simd == null) {
+            throw new IllegalStateException("运行时缺少 jdk.incubator.vector 模块");
+        }
+    }
+
+    @Benchmark
+    public float naiveDot() {
+        float sum = 0;
+        for (float[] candidate : candidates) {
+            float dot = 0;
+            for (int i = 0; i < dim; i++) {
+                dot += query[i] * candidate[i];
+            }
+            sum += dot;
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public float scalarDot() {
+        float sum = 0;
+        for (float[] candidate : candidates) {
+            sum += scalar.dot(query, candidate, dim);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public float simdDot() {
+        float sum = 0;
+        for (float[] candidate : candidates) {
+            sum += simd.dot(query, candidate, dim);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public float naiveL2() {
+        float sum = 0;
+        for (float[] candidate : candidates) {
+            float distance = 0;
+            for (int i = 0; i < dim; i++) {
+                float d = query[i] - candidate[i];
+                distance += d * d;
+            }
+            sum += distance;
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public float scalarL2() {
+        float sum = 0;
+        for (float[] candidate : candidates) {
+            sum += scalar.squaredL2(query, candidate, dim);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public float simdL2() {
+        float sum = 0;
+        for (float[] candidate : candidates) {
+            sum += simd.squaredL2(query, candidate, dim);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public float naiveCosine() {
+        float sum = 0;
+        for (float[] candidate : candidates) {
+            float dot = 0;
+            float normQuery = 0;
+            float normCandidate = 0;
+            for (int i = 0; i < dim; i++) {
+                dot += query[i] * candidate[i];
+                normQuery += query[i] * query[i];
+                normCandidate += candidate[i] * candidate[i];
+            }
+            sum += (float) (dot / Math.sqrt((double) normQuery * normCandidate));
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public float scalarCosine() {
+        float sum = 0;
+        for (float[] candidate : candidates) {
+            sum += scalar.cosine(query, candidate, dim);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public float simdCosine() {
+        float sum = 0;
+        for (float[] candidate : candidates) {
+            sum += simd.cosine(query, candidate, dim);
+        }
+        return sum;
+    }
+
+}
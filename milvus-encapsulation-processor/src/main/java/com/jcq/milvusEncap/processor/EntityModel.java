@@ -0,0 +1,318 @@
+package com.jcq.milvusEncap.processor;
+
+import cn.hutool.core.text.CharSequenceUtil;
+
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 编译期解析出的实体模型：集合名、字段、主键、向量字段、Partition Key，以及生成编解码器所需的访问方法
+ *
+ * <p>注解处理器不依赖应用模块，注解按全限定名匹配</p>
+ *
+ * @author : jucunqi
+ * @since : 2025/10/16
+ */
+final class EntityModel {
+
+    static final String ANNOTATION_PACKAGE = "com.jcq.milvusEncap.annotation.";
+    static final String COLLECTION_NAME = ANNOTATION_PACKAGE + "CollectionName";
+    static final String PRIMARY_KEY = ANNOTATION_PACKAGE + "PrimaryKey";
+    static final String PARTITION_KEY = ANNOTATION_PACKAGE + "PartitionKey";
+
+    // 能生成 getter/setter 的 Lombok 注解
+    private static final String LOMBOK_DATA = "lombok.Data";
+    private static final String LOMBOK_GETTER = "lombok.Getter";
+    private static final String LOMBOK_SETTER = "lombok.Setter";
+    private static final String LOMBOK_NO_ARGS_CONSTRUCTOR = "lombok.NoArgsConstructor";
+
+    /**
+     * 属性类型与 MilvusRowValues 中转换方法的对应关系
+     */
+    enum ValueKind {
+        LONG("toLong", "Long"),
+        INTEGER("toInteger", "Integer"),
+        SHORT("toShort", "Short"),
+        BYTE("toByte", "Byte"),
+        FLOAT("toFloat", "Float"),
+        DOUBLE("toDouble", "Double"),
+        BOOLEAN("toBoolean", "Boolean"),
+        STRING("toStr", "String"),
+        FLOAT_VECTOR("toFloatArray", "float[]"),
+        // float16 / bfloat16 向量，保存半精度原始位
+        HALF_VECTOR("toShortArray", "short[]");
+
+        final String converter;
+        // 非基本类型属性在生成代码中的声明类型
+        final String referenceType;
+
+        ValueKind(String converter, String referenceType) {
+            this.converter = converter;
+            this.referenceType = referenceType;
+        }
+    }
+
+    static final class EntityField {
+
+        final TypeElement owner;
+        final String name;
+        final String column;
+        final TypeMirror type;
+        // 不支持的类型为 null
+        final ValueKind kind;
+        final boolean primitive;
+        final String getter;
+        final String setter;
+        // getter/setter 是否可用（手写或由 Lombok 生成）
+        final boolean accessible;
+
+        private EntityField(VariableElement field, TypeElement owner) {
+            this.owner = owner;
+            this.name = field.getSimpleName().toString();
+            this.column = CharSequenceUtil.toSymbolCase(name, '_');
+            this.type = field.asType();
+            this.primitive = type.getKind().isPrimitive();
+            this.kind = resolveKind(type);
+            String property = name;
+            if (type.getKind() == TypeKind.BOOLEAN && name.length() > 2 && name.startsWith("is")
+                    && Character.isUpperCase(name.charAt(2))) {
+                // Lombok 对 boolean isXxx 生成 isXxx() / setXxx()
+                property = name.substring(2);
+                this.getter = name;
+            } else {
+                this.getter = (type.getKind() == TypeKind.BOOLEAN ? "is" : "get") + capitalize(property);
+            }
+            this.setter = "set" + capitalize(property);
+            this.accessible = hasAccessor(owner, field, getter, 0, LOMBOK_GETTER)
+                    && hasAccessor(owner, field, setter, 1, LOMBOK_SETTER);
+        }
+
+        boolean isVector() {
+            return kind == ValueKind.FLOAT_VECTOR || kind == ValueKind.HALF_VECTOR;
+        }
+    }
+
+    final TypeElement type;
+    final String packageName;
+    final String entityName;
+    final String metadataName;
+    final String codecName;
+    final String collectionName;
+    final List<EntityField> fields = new ArrayList<>();
+    EntityField primaryKey;
+    boolean autoId;
+    EntityField partitionKey;
+    EntityField vector;
+    boolean hasNoArgsConstructor;
+
+    private EntityModel(TypeElement type, Elements elements) {
+        this.type = type;
+        this.packageName = elements.getPackageOf(type).getQualifiedName().toString();
+        this.entityName = type.getQualifiedName().toString();
+        // 内部类：Outer.Inner -> Outer_Inner_MilvusMetadata
+        String prefix = packageName.isEmpty() ? entityName : entityName.substring(packageName.length() + 1);
+        prefix = prefix.replace('.', '_');
+        this.metadataName = prefix + "_MilvusMetadata";
+        this.codecName = prefix + "_MilvusCodec";
+        AnnotationMirror collection = findAnnotation(type, COLLECTION_NAME);
+        this.collectionName = collection == null ? "" : stringValue(collection, elements, "value").trim();
+    }
+
+    /**
+     * 解析实体，非法的定义（如多个主键）通过 errors 返回
+     */
+    static EntityModel parse(TypeElement type, Elements elements, List<String> errors) {
+        EntityModel model = new EntityModel(type, elements);
+        if (model.collectionName.isEmpty()) {
+            errors.add(String.format("实体类[%s]的@CollectionName注解value为空", model.entityName));
+        }
+
+        // 父类字段在前
+        List<TypeElement> hierarchy = new ArrayList<>();
+        for (TypeElement current = type; current != null; current = superclassOf(current)) {
+            hierarchy.add(0, current);
+        }
+        for (TypeElement owner : hierarchy) {
+            for (VariableElement field : ElementFilter.fieldsIn(owner.getEnclosedElements())) {
+                if (field.getModifiers().contains(Modifier.STATIC) || field.getModifiers().contains(Modifier.TRANSIENT)) {
+                    continue;
+                }
+                EntityField entityField = new EntityField(field, owner);
+                model.fields.add(entityField);
+
+                AnnotationMirror primaryKey = findAnnotation(field, PRIMARY_KEY);
+                if (primaryKey != null) {
+                    if (model.primaryKey != null) {
+                        errors.add(String.format("实体类[%s]存在多个 @PrimaryKey 注解字段：[%s] 和 [%s]，仅允许一个主键",
+                                model.entityName, model.primaryKey.name, entityField.name));
+                    }
+                    model.primaryKey = entityField;
+                    model.autoId = "auto".equals(stringValue(primaryKey, elements, "type"));
+                }
+                if (findAnnotation(field, PARTITION_KEY) != null) {
+                    if (model.partitionKey != null) {
+                        errors.add(String.format("类[%s]及其父类中存在多个@PartitionKey注解的字段：[%s] 和 [%s]",
+                                model.entityName, model.partitionKey.name, entityField.name));
+                    }
+                    model.partitionKey = entityField;
+                }
+            }
+        }
+
+        // 向量字段与 MilvusUtil.getVectorFieldName 一致：子类优先的第一个 float[] 或 short[] 属性
+        for (int i = hierarchy.size() - 1; i >= 0 && model.vector == null; i--) {
+            TypeElement owner = hierarchy.get(i);
+            model.vector = model.fields.stream()
+                    .filter(field -> field.owner == owner && field.isVector())
+                    .findFirst()
+                    .orElse(null);
+        }
+
+        model.hasNoArgsConstructor = findAnnotation(type, LOMBOK_NO_ARGS_CONSTRUCTOR) != null
+                || ElementFilter.constructorsIn(type.getEnclosedElements()).stream()
+                .anyMatch(constructor -> constructor.getParameters().isEmpty()
+                        && !constructor.getModifiers().contains(Modifier.PRIVATE));
+        return model;
+    }
+
+    /**
+     * 所有字段的类型都受支持、都有 getter/setter 且可以无参构造时才生成编解码器，否则运行时使用反射实现
+     */
+    boolean supportsCodec() {
+        return hasNoArgsConstructor && fields.stream().allMatch(field -> field.kind != null && field.accessible);
+    }
+
+    /**
+     * 主键列名，与 MilvusUtil.getPrimaryKeyFieldName 保持一致：不论主键由谁生成都驼峰转下划线
+     */
+    String primaryKeyColumn() {
+        return primaryKey.column;
+    }
+
+    private static TypeElement superclassOf(TypeElement type) {
+        TypeMirror superclass = type.getSuperclass();
+        if (superclass.getKind() != TypeKind.DECLARED) {
+            return null;
+        }
+        TypeElement element = (TypeElement) ((DeclaredType) superclass).asElement();
+        return element.getQualifiedName().contentEquals(Object.class.getName()) ? null : element;
+    }
+
+    private static ValueKind resolveKind(TypeMirror type) {
+        switch (type.getKind()) {
+            case LONG:
+                return ValueKind.LONG;
+            case INT:
+                return ValueKind.INTEGER;
+            case SHORT:
+                return ValueKind.SHORT;
+            case BYTE:
+                return ValueKind.BYTE;
+            case FLOAT:
+                return ValueKind.FLOAT;
+            case DOUBLE:
+                return ValueKind.DOUBLE;
+            case BOOLEAN:
+                return ValueKind.BOOLEAN;
+            case ARRAY:
+                TypeKind component = ((ArrayType) type).getComponentType().getKind();
+                if (component == TypeKind.FLOAT) {
+                    return ValueKind.FLOAT_VECTOR;
+                }
+                return component == TypeKind.SHORT ? ValueKind.HALF_VECTOR : null;
+            case DECLARED:
+                String name = ((TypeElement) ((DeclaredType) type).asElement()).getQualifiedName().toString();
+                switch (name) {
+                    case "java.lang.Long":
+                        return ValueKind.LONG;
+                    case "java.lang.Integer":
+                        return ValueKind.INTEGER;
+                    case "java.lang.Short":
+                        return ValueKind.SHORT;
+                    case "java.lang.Byte":
+                        return ValueKind.BYTE;
+                    case "java.lang.Float":
+                        return ValueKind.FLOAT;
+                    case "java.lang.Double":
+                        return ValueKind.DOUBLE;
+                    case "java.lang.Boolean":
+                        return ValueKind.BOOLEAN;
+                    case "java.lang.String":
+                        return ValueKind.STRING;
+                    default:
+                        return null;
+                }
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * 访问方法已经存在（手写，或 Lombok 先于本处理器运行），或者字段/类上有会生成该方法的 Lombok 注解
+     */
+    private static boolean hasAccessor(TypeElement owner, VariableElement field, String methodName, int parameters,
+                                       String lombokAnnotation) {
+        for (ExecutableElement method : ElementFilter.methodsIn(owner.getEnclosedElements())) {
+            if (method.getSimpleName().contentEquals(methodName) && method.getParameters().size() == parameters) {
+                return !method.getModifiers().contains(Modifier.PRIVATE);
+            }
+        }
+        return findAnnotation(field, lombokAnnotation) != null
+                || findAnnotation(owner, lombokAnnotation) != null
+                || findAnnotation(owner, LOMBOK_DATA) != null;
+    }
+
+    static AnnotationMirror findAnnotation(Element element, String annotationName) {
+        for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+            TypeElement annotationType = (TypeElement) mirror.getAnnotationType().asElement();
+            if (annotationType.getQualifiedName().contentEquals(annotationName)) {
+                return mirror;
+            }
+        }
+        return null;
+    }
+
+    private static String stringValue(AnnotationMirror mirror, Elements elements, String name) {
+        for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry
+                : elements.getElementValuesWithDefaults(mirror).entrySet()) {
+            if (entry.getKey().getSimpleName().contentEquals(name)) {
+                return String.valueOf(entry.getValue().getValue());
+            }
+        }
+        return "";
+    }
+
+    private static String capitalize(String name) {
+        return Character.toUpperCase(name.charAt(0)) + name.substring(1);
+    }
+
+    static boolean isAccessibleFromPackage(TypeElement type) {
+        for (Element current = type; current.getKind() != ElementKind.PACKAGE; current = current.getEnclosingElement()) {
+            if (current.getModifiers().contains(Modifier.PRIVATE)) {
+                return false;
+            }
+            if (current.getEnclosingElement().getKind() != ElementKind.PACKAGE
+                    && !current.getModifiers().contains(Modifier.STATIC)) {
+                // 非静态内部类无法直接实例化
+                return false;
+            }
+        }
+        return true;
+    }
+
+}
@@ -0,0 +1,181 @@
+package com.jcq.milvusEncap.processor;
+
+import com.jcq.milvusEncap.processor.EntityModel.EntityField;
+
+import javax.lang.model.type.TypeKind;
+
+/**
+ * 生成实体的 {@code _MilvusMetadata} 与 {@code _MilvusCodec} 源码，生成的代码只使用全限定类名，避免与实体所在包中的类重名
+ *
+ * @author : jucunqi
+ * @since : 2025/10/16
+ */
+final class EntitySourceGenerator {
+
+    private static final String CODEC_PACKAGE = "com.jcq.milvusEncap.codec.";
+    private static final String ROW_VALUES = CODEC_PACKAGE + "MilvusRowValues";
+    private static final String GENERATED = "@javax.annotation.processing.Generated(\""
+            + MilvusEntityProcessor.class.getName() + "\")";
+
+    private EntitySourceGenerator() {
+    }
+
+    static String metadataSource(EntityModel model) {
+        String entity = model.entityName;
+        StringBuilder source = new StringBuilder();
+        header(source, model);
+        source.append("/**\n")
+                .append(" * {@link ").append(entity).append("} 的 Milvus 元数据，由 MilvusEntityProcessor 生成，请勿手动修改\n")
+                .append(" */\n")
+                .append(GENERATED).append('\n')
+                .append("public final class ").append(model.metadataName)
+                .append(" implements ").append(CODEC_PACKAGE).append("MilvusEntityMetadata<").append(entity).append("> {\n\n");
+
+        source.append("    private static final java.util.List<String> FIELD_NAMES = java.util.List.of(");
+        joinQuoted(source, model, false);
+        source.append(");\n");
+        source.append("    private static final java.util.List<String> COLUMN_NAMES = java.util.List.of(");
+        joinQuoted(source, model, true);
+        source.append(");\n");
+        source.append("    private static final ").append(CODEC_PACKAGE).append("MilvusRowCodec<").append(entity).append("> CODEC = ");
+        if (model.supportsCodec()) {
+            source.append("new ").append(model.codecName).append("();\n\n");
+        } else {
+            source.append(CODEC_PACKAGE).append("MilvusEntityCodecs.reflectiveCodec(").append(entity).append(".class);\n\n");
+        }
+
+        method(source, "Class<" + entity + ">", "getEntityClass()", "return " + entity + ".class;");
+        method(source, "String", "getCollectionName()", "return " + quote(model.collectionName) + ";");
+        method(source, "java.util.List<String>", "getFieldNames()", "return FIELD_NAMES;");
+        method(source, "java.util.List<String>", "getColumnNames()", "return COLUMN_NAMES;");
+        method(source, "String", "getPrimaryKeyColumn()", model.primaryKey == null
+                ? "throw new IllegalArgumentException(\"未找到@PrimaryKey注解的字段\");"
+                : "return " + quote(model.primaryKeyColumn()) + ";");
+        method(source, "boolean", "isAutoId()", "return " + model.autoId + ";");
+        method(source, "String", "getVectorColumn()",
+                "return " + (model.vector == null ? "null" : quote(model.vector.column)) + ";");
+        method(source, "String", "getPartitionKeyColumn()",
+                "return " + (model.partitionKey == null ? "null" : quote(model.partitionKey.column)) + ";");
+        method(source, "Long", "getPrimaryKey(" + entity + " entity)", primaryKeyBody(model));
+        method(source, CODEC_PACKAGE + "MilvusRowCodec<" + entity + ">", "getCodec()", "return CODEC;");
+
+        source.setLength(source.length() - 1);
+        source.append("}\n");
+        return source.toString();
+    }
+
+    static String codecSource(EntityModel model) {
+        String entity = model.entityName;
+        StringBuilder source = new StringBuilder();
+        header(source, model);
+        source.append("/**\n")
+                .append(" * {@link ").append(entity).append("} 与 Milvus 行数据之间的编解码器，由 MilvusEntityProcessor 生成，请勿手动修改\n")
+                .append(" */\n")
+                .append(GENERATED).append('\n')
+                .append("public final class ").append(model.codecName)
+                .append(" implements ").append(CODEC_PACKAGE).append("MilvusRowCodec<").append(entity).append("> {\n\n");
+
+        // 编码：与 Gson 的默认行为一致，值为 null 的字段不输出；自增主键不输出
+        source.append("    @Override\n")
+                .append("    public com.google.gson.JsonObject toRow(").append(entity).append(" entity) {\n")
+                .append("        com.google.gson.JsonObject row = new com.google.gson.JsonObject();\n");
+        for (EntityField field : model.fields) {
+            if (field == model.primaryKey && model.autoId) {
+                continue;
+            }
+            String getter = "entity." + field.getter + "()";
+            if (field.primitive) {
+                source.append("        row.addProperty(\"").append(field.column).append("\", ").append(getter).append(");\n");
+                continue;
+            }
+            // 局部变量名加 Value 后缀，不会与 row、entity 重名
+            String value = field.name + "Value";
+            String put = field.isVector()
+                    ? "row.add(\"" + field.column + "\", " + ROW_VALUES + ".toJsonArray(" + value + "));"
+                    : "row.addProperty(\"" + field.column + "\", " + value + ");";
+            source.append("        ").append(field.kind.referenceType).append(' ').append(value).append(" = ")
+                    .append(getter).append(";\n")
+                    .append("        if (").append(value).append(" != null) {\n")
+                    .append("            ").append(put).append('\n')
+                    .append("        }\n");
+        }
+        source.append("        return row;\n")
+                .append("    }\n\n");
+
+        // 解码：不存在或为 null 的列保持默认值
+        source.append("    @Override\n")
+                .append("    public ").append(entity).append(" fromRow(java.util.Map<String, Object> row) {\n")
+                .append("        ").append(entity).append(" entity = new ").append(entity).append("();\n")
+                .append("        Object value;\n");
+        for (EntityField field : model.fields) {
+            source.append("        if ((value = row.get(\"").append(field.column).append("\")) != null) {\n")
+                    .append("            entity.").append(field.setter).append('(')
+                    .append(ROW_VALUES).append('.').append(field.kind.converter).append("(value));\n")
+                    .append("        }\n");
+        }
+        source.append("        return entity;\n")
+                .append("    }\n")
+                .append("}\n");
+        return source.toString();
+    }
+
+    /**
+     * 与 MilvusUtil.getPrimaryKeyValue 一致：仅支持 Long/Integer/long/int，值为 null 时抛出异常
+     */
+    private static String primaryKeyBody(EntityModel model) {
+        String entity = model.entityName;
+        EntityField primaryKey = model.primaryKey;
+        if (primaryKey == null) {
+            return "throw new IllegalArgumentException(\"实体类[" + entity + "]未找到 @PrimaryKey 注解字段，请为主键字段添加该注解\");";
+        }
+        if (!primaryKey.accessible) {
+            return "try {\n"
+                    + "            return com.jcq.milvusEncap.util.MilvusUtil.getPrimaryKeyValue(entity);\n"
+                    + "        } catch (IllegalAccessException e) {\n"
+                    + "            throw new IllegalStateException(e);\n"
+                    + "        }";
+        }
+        String value = "entity." + primaryKey.getter + "()";
+        if (primaryKey.type.getKind() == TypeKind.LONG || primaryKey.type.getKind() == TypeKind.INT) {
+            return "return (long) " + value + ";";
+        }
+        String nullCheck = "Object value = " + value + ";\n"
+                + "        if (value == null) {\n"
+                + "            throw new IllegalArgumentException(\"实体类[" + entity + "]的主键字段[" + primaryKey.name
+                + "]值为 null，无法获取主键\");\n"
+                + "        }\n";
+        if (primaryKey.kind == EntityModel.ValueKind.LONG || primaryKey.kind == EntityModel.ValueKind.INTEGER) {
+            return nullCheck + "        return ((Number) value).longValue();";
+        }
+        return nullCheck + "        throw new IllegalArgumentException(String.format(\"实体类[" + entity + "]的主键字段["
+                + primaryKey.name + "]类型不支持（当前类型：%s），仅支持 Long/Integer/int\", value.getClass().getName()));";
+    }
+
+    private static void header(StringBuilder source, EntityModel model) {
+        if (!model.packageName.isEmpty()) {
+            source.append("package ").append(model.packageName).append(";\n\n");
+        }
+    }
+
+    private static void method(StringBuilder source, String returnType, String signature, String body) {
+        source.append("    @Override\n")
+                .append("    public ").append(returnType).append(' ').append(signature).append(" {\n")
+                .append("        ").append(body).append('\n')
+                .append("    }\n\n");
+    }
+
+    private static void joinQuoted(StringBuilder source, EntityModel model, boolean column) {
+        for (int i = 0; i < model.fields.size(); i++) {
+            if (i > 0) {
+                source.append(", ");
+            }
+            EntityField field = model.fields.get(i);
+            source.append(quote(column ? field.column : field.name));
+        }
+    }
+
+    private static String quote(String value) {
+        return '"' + value.replace("\\", "\\\\").replace("\"", "\\\"") + '"';
+    }
+
+}
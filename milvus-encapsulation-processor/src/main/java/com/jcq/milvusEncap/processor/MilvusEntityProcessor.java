@@ -0,0 +1,129 @@
+package com.jcq.milvusEncap.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.Filer;
+import javax.annotation.processing.FilerException;
+import javax.annotation.processing.Messager;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * 为每个标注了 {@code @CollectionName} 的实体生成 {@code <实体类名>_MilvusMetadata}（集合名、字段与列名、主键、
+ * 向量字段、Partition Key）与 {@code <实体类名>_MilvusCodec}（实体与行数据互转，直接调用 getter/setter），
+ * 并写入 META-INF/services，运行时由 MilvusEntityCodecs 加载，替代反射与 JSON 中转
+ *
+ * <p>实体含有不支持的属性类型（只支持数值、布尔、String、float[]、short[]）或无法无参构造时只生成元数据，编解码仍使用反射实现</p>
+ *
+ * @author : jucunqi
+ * @since : 2025/10/16
+ */
+@SupportedAnnotationTypes(EntityModel.COLLECTION_NAME)
+public class MilvusEntityProcessor extends AbstractProcessor {
+
+    private static final String SERVICE_FILE = "META-INF/services/com.jcq.milvusEncap.codec.MilvusEntityMetadata";
+
+    private Filer filer;
+    private Messager messager;
+    // 已生成的元数据类，处理结束时统一写入 META-INF/services
+    private final Set<String> generatedMetadata = new TreeSet<>();
+
+    @Override
+    public synchronized void init(ProcessingEnvironment processingEnv) {
+        super.init(processingEnv);
+        this.filer = processingEnv.getFiler();
+        this.messager = processingEnv.getMessager();
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        if (roundEnv.processingOver()) {
+            writeServiceFile();
+            return false;
+        }
+        for (TypeElement annotation : annotations) {
+            for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+                if (element.getKind() == ElementKind.CLASS) {
+                    generate((TypeElement) element);
+                }
+            }
+        }
+        // 不独占注解，其他处理器仍可以处理 @CollectionName
+        return false;
+    }
+
+    private void generate(TypeElement type) {
+        if (type.getModifiers().contains(Modifier.ABSTRACT) || !EntityModel.isAccessibleFromPackage(type)) {
+            messager.printMessage(Diagnostic.Kind.WARNING,
+                    "抽象类、私有类或非静态内部类无法生成Milvus元数据，运行时使用反射实现", type);
+            return;
+        }
+        List<String> errors = new ArrayList<>();
+        EntityModel model = EntityModel.parse(type, processingEnv.getElementUtils(), errors);
+        if (!errors.isEmpty()) {
+            errors.forEach(error -> messager.printMessage(Diagnostic.Kind.ERROR, error, type));
+            return;
+        }
+        String prefix = model.packageName.isEmpty() ? "" : model.packageName + ".";
+        try {
+            write(prefix + model.metadataName, EntitySourceGenerator.metadataSource(model), type);
+            if (model.supportsCodec()) {
+                write(prefix + model.codecName, EntitySourceGenerator.codecSource(model), type);
+            } else {
+                messager.printMessage(Diagnostic.Kind.NOTE,
+                        "实体含有不支持的属性类型、缺少getter/setter或无参构造方法，编解码使用反射实现", type);
+            }
+            generatedMetadata.add(prefix + model.metadataName);
+        } catch (IOException e) {
+            messager.printMessage(Diagnostic.Kind.ERROR, "生成Milvus元数据失败: " + e.getMessage(), type);
+        }
+    }
+
+    private void write(String className, String source, TypeElement origin) throws IOException {
+        try (Writer writer = filer.createSourceFile(className, origin).openWriter()) {
+            writer.write(source);
+        }
+    }
+
+    private void writeServiceFile() {
+        if (generatedMetadata.isEmpty()) {
+            return;
+        }
+        try {
+            FileObject file = filer.createResource(StandardLocation.CLASS_OUTPUT, "", SERVICE_FILE);
+            try (Writer writer = new OutputStreamWriter(file.openOutputStream(), StandardCharsets.UTF_8)) {
+                for (String className : generatedMetadata) {
+                    writer.write(className);
+                    writer.write('\n');
+                }
+            }
+        } catch (FilerException e) {
+            // 同一次编译中已经写过
+            messager.printMessage(Diagnostic.Kind.NOTE, "META-INF/services 已存在: " + e.getMessage());
+        } catch (IOException e) {
+            messager.printMessage(Diagnostic.Kind.ERROR, "写入 " + SERVICE_FILE + " 失败: " + e.getMessage());
+        }
+    }
+
+}
@@ -0,0 +1,17 @@
+package com.jcq.milvusEncap.annotation;
+
+import java.lang.annotation.*;
+
+/**
+ * 用于Milvus实体类的字符串属性上，声明 VarChar 字段的最大长度，未标注时使用 65535
+ *
+ * @author : jucunqi
+ * @since : 2025/10/16
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.ANNOTATION_TYPE})
+public @interface MaxLength {
+
+    int value();
+}
@@ -0,0 +1,21 @@
+package com.jcq.milvusEncap.annotation;
+
+import java.lang.annotation.*;
+
+/**
+ * 用于Milvus实体类的属性上，表明该字段为集合的 Partition Key，
+ * 对该字段的等于/in 过滤条件会让服务端只扫描对应的分区
+ *
+ * @author : jucunqi
+ * @since : 2025/10/16
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.ANNOTATION_TYPE})
+public @interface PartitionKey {
+
+    /**
+     * 建表时的分区数量，Milvus 默认为16
+     */
+    int numPartitions() default 16;
+}
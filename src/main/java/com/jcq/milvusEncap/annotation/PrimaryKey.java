@@ -14,5 +14,15 @@ import java.lang.annotation.*;
 public @interface PrimaryKey {
 
     String value() default "";
+
+    /**
+     * 主键的生成方式
+     * <ul>
+     *     <li>auto：由 Milvus 生成，写入时忽略实体上的值</li>
+     *     <li>snowflake、uuid 或自定义 {@link com.jcq.milvusEncap.id.PrimaryKeyGenerator} 的类型：写入前在客户端生成，
+     *     实体上已有值时沿用（见 {@link com.jcq.milvusEncap.id.PrimaryKeyGenerators}）；uuid 主键可能重复，只适用于数据量小的集合</li>
+     *     <li>其他值（如 manual）：由调用方赋值</li>
+     * </ul>
+     */
     String type() default "auto";
 }
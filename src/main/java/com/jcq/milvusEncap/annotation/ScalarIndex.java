@@ -0,0 +1,22 @@
+package com.jcq.milvusEncap.annotation;
+
+import io.milvus.v2.common.IndexParam;
+
+import java.lang.annotation.*;
+
+/**
+ * 用于Milvus实体类的标量属性上，为常用的过滤字段创建标量索引
+ *
+ * @author : jucunqi
+ * @since : 2025/10/16
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.ANNOTATION_TYPE})
+public @interface ScalarIndex {
+
+    /**
+     * 索引类型，常用 INVERTED、STL_SORT（数值）、TRIE（字符串）、BITMAP（取值较少的字段）
+     */
+    IndexParam.IndexType value() default IndexParam.IndexType.INVERTED;
+}
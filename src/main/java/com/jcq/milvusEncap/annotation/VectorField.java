@@ -0,0 +1,44 @@
+package com.jcq.milvusEncap.annotation;
+
+import io.milvus.v2.common.DataType;
+import io.milvus.v2.common.IndexParam;
+
+import java.lang.annotation.*;
+
+/**
+ * 用于Milvus实体类的向量属性上，声明向量维度与索引配置，启动时据此创建集合与索引并检查已有集合是否一致
+ *
+ * @author : jucunqi
+ * @since : 2025/10/16
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.ANNOTATION_TYPE})
+public @interface VectorField {
+
+    /**
+     * 向量维度
+     */
+    int dim();
+
+    /**
+     * 向量类型：float[] 属性对应 FloatVector；short[] 属性保存半精度原始位，对应 Float16Vector 或 BFloat16Vector，
+     * 每维 2 字节，传输与内存占用减半，可用 HalfFloats 与 float[] 相互转换
+     */
+    DataType dataType() default DataType.FloatVector;
+
+    /**
+     * 相似度度量
+     */
+    IndexParam.MetricType metricType() default IndexParam.MetricType.COSINE;
+
+    /**
+     * 索引类型，常用 HNSW、IVF_FLAT、IVF_SQ8、IVF_PQ、DISKANN
+     */
+    IndexParam.IndexType indexType() default IndexParam.IndexType.HNSW;
+
+    /**
+     * 索引构建参数，格式为 key=value，如 HNSW 的 {"M=16", "efConstruction=200"}、IVF 的 {"nlist=1024"}
+     */
+    String[] params() default {};
+}
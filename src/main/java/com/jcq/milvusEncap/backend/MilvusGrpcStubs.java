@@ -0,0 +1,63 @@
+package com.jcq.milvusEncap.backend;
+
+import io.milvus.grpc.MilvusServiceGrpc;
+import io.milvus.v2.client.MilvusClientV2;
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+
+/**
+ * 获取 MilvusClientV2 内部的 gRPC 阻塞 stub，用于发送 SDK 没有开放的请求形式（如按列组装的插入请求）
+ *
+ * <p>SDK 没有公开 stub，这里调用其私有的 getRpcStub()，得到的 stub 与 SDK 自身调用一致：
+ * 带有客户端配置的 waitForReady、rpc deadline 与数据库、鉴权等拦截器。SDK 版本变化导致方法不存在时返回 null，
+ * 调用方应回退到 SDK 的公开接口</p>
+ *
+ * @author : jucunqi
+ * @since : 2025/10/16
+ */
+@Slf4j
+final class MilvusGrpcStubs {
+
+    private static final MethodHandle GET_RPC_STUB = lookupGetRpcStub();
+
+    private MilvusGrpcStubs() {
+    }
+
+    /**
+     * 当前 SDK 是否支持直接获取 stub
+     */
+    static boolean isAvailable() {
+        return GET_RPC_STUB != null;
+    }
+
+    /**
+     * @return 客户端的阻塞 stub，不支持时返回 null
+     */
+    static MilvusServiceGrpc.MilvusServiceBlockingStub blockingStub(MilvusClientV2 client) {
+        if (GET_RPC_STUB == null) {
+            return null;
+        }
+        try {
+            return (MilvusServiceGrpc.MilvusServiceBlockingStub) GET_RPC_STUB.invokeExact(client);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static MethodHandle lookupGetRpcStub() {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(MilvusClientV2.class, MethodHandles.lookup());
+            return lookup.findVirtual(MilvusClientV2.class, "getRpcStub",
+                    MethodType.methodType(MilvusServiceGrpc.MilvusServiceBlockingStub.class));
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            log.warn("无法获取Milvus客户端的gRPC stub，批量插入改为按行编码，原因: {}", e.toString());
+            return null;
+        }
+    }
+
+}
@@ -0,0 +1,80 @@
+package com.jcq.milvusEncap.backend;
+
+import com.jcq.milvusEncap.codec.ColumnarInsertBatch;
+import com.jcq.milvusEncap.codec.MilvusEntityMetadata;
+import com.jcq.milvusEncap.service.milvus.MilvusOperationContext;
+import io.milvus.v2.service.vector.request.DeleteReq;
+import io.milvus.v2.service.vector.request.InsertReq;
+import io.milvus.v2.service.vector.request.QueryIteratorReq;
+import io.milvus.v2.service.vector.request.QueryReq;
+import io.milvus.v2.service.vector.request.SearchReq;
+import io.milvus.v2.service.vector.response.DeleteResp;
+import io.milvus.v2.service.vector.response.InsertResp;
+import io.milvus.v2.service.vector.response.QueryResp;
+import io.milvus.v2.service.vector.response.SearchResp;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * MilvusBaseService 之下的存储后端，请求与响应沿用 SDK 的类型，编码/解码、监控打点与异常处理仍由 MilvusBaseService 负责
+ *
+ * <p>通过 milvus.backend.type 选择：remote（默认）经连接池访问 Milvus 集群；embedded 在进程内使用 HNSW 索引，
+ * 不依赖 Milvus 服务，适用于边缘部署与集成测试</p>
+ *
+ * <p>实现需要填充上下文中的 endpoint 与 serverNanos（borrow 阶段只有 remote 有）</p>
+ *
+ * @author : jucunqi
+ * @since : 2025/10/16
+ */
+public interface MilvusStorageBackend {
+
+    /**
+     * 注册实体对应的集合，服务初始化时调用
+     * @param metadata 实体元数据
+     */
+    void register(MilvusEntityMetadata<?> metadata);
+
+    InsertResp insert(MilvusOperationContext context, InsertReq request) throws Exception;
+
+    /**
+     * 批量插入，默认按行写入；支持列式请求的后端可以直接发送已编码的列数据
+     */
+    default InsertResp insertColumns(MilvusOperationContext context, ColumnarInsertBatch batch) throws Exception {
+        return insert(context, batch.toInsertReq());
+    }
+
+    /**
+     * 按主键覆盖写入，主键由客户端生成时使用，同一批数据重复发送不会产生重复行；
+     * 默认按 insert 写入，适用于插入时已按主键覆盖的后端
+     */
+    default InsertResp upsert(MilvusOperationContext context, InsertReq request) throws Exception {
+        return insert(context, request);
+    }
+
+    /**
+     * 批量覆盖写入，默认按行写入
+     */
+    default InsertResp upsertColumns(MilvusOperationContext context, ColumnarInsertBatch batch) throws Exception {
+        return upsert(context, batch.toInsertReq());
+    }
+
+    DeleteResp delete(MilvusOperationContext context, DeleteReq request) throws Exception;
+
+    /**
+     * 查询数据，outputFields 为 count(*) 时返回一行统计结果
+     */
+    QueryResp query(MilvusOperationContext context, QueryReq request) throws Exception;
+
+    SearchResp search(MilvusOperationContext context, SearchReq request) throws Exception;
+
+    /**
+     * 按批次导出数据
+     * @param batchConsumer 每批数据回调一次，行数据的 key 为列名
+     * @return 导出的总行数
+     */
+    long export(MilvusOperationContext context, QueryIteratorReq request,
+                Consumer<List<Map<String, Object>>> batchConsumer) throws Exception;
+
+}
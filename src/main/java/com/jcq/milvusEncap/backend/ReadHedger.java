@@ -0,0 +1,276 @@
+package com.jcq.milvusEncap.backend;
+
+import com.jcq.milvusEncap.service.milvus.MilvusOperation;
+import io.grpc.Context;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Consumer;
+
+/**
+ * 读请求对冲（hedged request）：请求超过该类操作近期延迟的某个分位数仍未返回时，再发送一个相同的请求，先返回的结果生效，另一个被取消
+ *
+ * <ul>
+ *     <li>第一个请求在调用方线程中执行，只有需要对冲时才使用额外的线程，未触发对冲的请求没有线程切换</li>
+ *     <li>对冲延迟 = max(近期成功请求延迟的分位数, 最小延迟)，每类操作单独统计，样本不足时不对冲</li>
+ *     <li>对冲请求先返回时，样本记为第一个请求截至此刻的耗时（其真实延迟只会更长），而不是对冲请求自身的延迟，
+ *     否则慢请求都被较快的对冲结果代替，分位数被低估，对冲越来越早</li>
+ *     <li>预算：每个请求积累 budgetPercent% 个对冲额度，发送一次对冲消耗 1 个，对冲数量不超过流量的该比例（最多积攒 {@value #MAX_CREDITS} 个）</li>
+ *     <li>落后的请求通过 gRPC Context 取消，取消原因为 TimeoutException，gRPC 返回 DEADLINE_EXCEEDED，SDK 不会重试</li>
+ *     <li>第一个请求失败而对冲请求仍在执行时，等待对冲请求的结果</li>
+ * </ul>
+ *
+ * @author : jucunqi
+ * @since : 2025/10/16
+ */
+final class ReadHedger implements AutoCloseable {
+
+    static final String SENT = "sent";
+    static final String WON = "won";
+    static final String REJECTED = "rejected";
+
+    // 每类操作保留的最近样本数
+    private static final int WINDOW = 1024;
+    // 每记录多少个样本重新计算一次分位数
+    private static final int RECOMPUTE_INTERVAL = 64;
+    // 样本数达到后才开始对冲
+    private static final int MIN_SAMPLES = 128;
+    // 对冲额度以 1/1000 为单位
+    private static final long CREDIT = 1000;
+    private static final int MAX_CREDITS = 10;
+
+    private final double percentile;
+    private final long minDelayNanos;
+    private final long creditPerRequest;
+    private final AtomicLong credits = new AtomicLong();
+    private final Map<MilvusOperation, LatencyWindow> windows = new EnumMap<>(MilvusOperation.class);
+    private final ScheduledThreadPoolExecutor scheduler;
+    private final ExecutorService executor;
+
+    /**
+     * @param percentile 对冲延迟取近期延迟的分位数，如 0.95
+     * @param minDelayNanos 对冲延迟的下限
+     * @param budgetPercent 对冲请求占读请求的最大百分比
+     */
+    ReadHedger(double percentile, long minDelayNanos, double budgetPercent) {
+        this.percentile = Math.min(Math.max(percentile, 0), 1);
+        this.minDelayNanos = Math.max(minDelayNanos, 0);
+        this.creditPerRequest = Math.round(Math.max(budgetPercent, 0) / 100 * CREDIT);
+        for (MilvusOperation operation : MilvusOperation.values()) {
+            windows.put(operation, new LatencyWindow());
+        }
+        this.scheduler = new ScheduledThreadPoolExecutor(1, daemonThreads("milvus-hedge-timer-"));
+        this.scheduler.setRemoveOnCancelPolicy(true);
+        this.executor = Executors.newCachedThreadPool(daemonThreads("milvus-hedge-"));
+    }
+
+    /**
+     * 执行读请求，超过对冲延迟仍未返回时发送对冲请求
+     * @param primary 第一个请求，在当前线程执行
+     * @param hedge 对冲请求，在对冲线程中执行，应选择与第一个请求不同的客户端
+     * @param listener 对冲的结果（sent / won / rejected），用于计数，在对冲线程中调用
+     */
+    <S> Result<S> call(MilvusOperation operation, Callable<S> primary, Callable<S> hedge,
+                       Consumer<String> listener) throws Exception {
+        LatencyWindow window = windows.get(operation);
+        credits.accumulateAndGet(creditPerRequest, (current, delta) -> Math.min(current + delta, MAX_CREDITS * CREDIT));
+        long delay = window.delayNanos;
+        long start = System.nanoTime();
+        if (delay < 0) {
+            S result = primary.call();
+            window.record(System.nanoTime() - start);
+            return new Result<>(result, false, false);
+        }
+
+        Flight<S> flight = new Flight<>(Context.current().withCancellation(), start);
+        ScheduledFuture<?> timer = scheduler.schedule(() -> launch(flight, window, hedge, listener),
+                delay, TimeUnit.NANOSECONDS);
+        try {
+            S result = flight.primaryContext.call(primary);
+            if (flight.winner.complete(result)) {
+                window.record(System.nanoTime() - start);
+                return new Result<>(result, flight.sent, false);
+            }
+            // 对冲请求先返回
+            return new Result<>(flight.winner.join(), true, true);
+        } catch (Exception e) {
+            if (flight.winner.isDone()) {
+                // 对冲请求先返回，第一个请求因被取消而失败
+                return new Result<>(flight.winner.join(), true, true);
+            }
+            if (!timer.cancel(false)) {
+                // 对冲已经发出（或刚刚决定不发），等待它的结果
+                try {
+                    return new Result<>(flight.hedgeResult.get(), true, true);
+                } catch (ExecutionException hedgeError) {
+                    e.addSuppressed(hedgeError.getCause());
+                } catch (CancellationException ignored) {
+                    // 没有发出对冲请求
+                }
+            }
+            throw e;
+        } finally {
+            timer.cancel(false);
+            flight.primaryContext.cancel(null);
+            Context.CancellableContext hedgeContext = flight.hedgeContext;
+            if (hedgeContext != null && !flight.hedgeResult.isDone()) {
+                hedgeContext.cancel(lost());
+            }
+        }
+    }
+
+    private <S> void launch(Flight<S> flight, LatencyWindow window, Callable<S> hedge, Consumer<String> listener) {
+        if (flight.winner.isDone()) {
+            flight.hedgeResult.cancel(false);
+            return;
+        }
+        if (!acquireCredit()) {
+            listener.accept(REJECTED);
+            flight.hedgeResult.cancel(false);
+            return;
+        }
+        flight.sent = true;
+        listener.accept(SENT);
+        try {
+            executor.execute(() -> runHedge(flight, window, hedge, listener));
+        } catch (RejectedExecutionException e) {
+            flight.hedgeResult.completeExceptionally(e);
+        }
+    }
+
+    private <S> void runHedge(Flight<S> flight, LatencyWindow window, Callable<S> hedge, Consumer<String> listener) {
+        // 不继承定时线程的 Context，只由 Flight 控制取消
+        Context.CancellableContext context = Context.ROOT.withCancellation();
+        flight.hedgeContext = context;
+        if (flight.winner.isDone()) {
+            context.cancel(null);
+            flight.hedgeResult.cancel(false);
+            return;
+        }
+        try {
+            S result = context.call(hedge);
+            flight.hedgeResult.complete(result);
+            if (flight.winner.complete(result)) {
+                // 第一个请求的延迟在此处被截断
+                window.record(System.nanoTime() - flight.start);
+                listener.accept(WON);
+                flight.primaryContext.cancel(lost());
+            }
+        } catch (Exception e) {
+            flight.hedgeResult.completeExceptionally(e);
+        } finally {
+            context.cancel(null);
+        }
+    }
+
+    private boolean acquireCredit() {
+        while (true) {
+            long current = credits.get();
+            if (current < CREDIT) {
+                return false;
+            }
+            if (credits.compareAndSet(current, current - CREDIT)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * 当前的对冲延迟，样本不足时为 -1
+     */
+    long delayNanos(MilvusOperation operation) {
+        return windows.get(operation).delayNanos;
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+        executor.shutdownNow();
+    }
+
+    private static TimeoutException lost() {
+        return new TimeoutException("对冲的另一个请求已先返回");
+    }
+
+    private static ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * 一次读请求的结果
+     * @param hedged 是否发送了对冲请求
+     * @param hedgeWon 结果是否来自对冲请求
+     */
+    record Result<S>(S value, boolean hedged, boolean hedgeWon) {
+    }
+
+    /**
+     * 一次可能被对冲的读请求的状态
+     */
+    private static final class Flight<S> {
+
+        private final Context.CancellableContext primaryContext;
+        // 第一个请求的开始时间
+        private final long start;
+        // 先返回的成功结果
+        private final CompletableFuture<S> winner = new CompletableFuture<>();
+        // 对冲请求自己的结果，没有发出对冲时为 cancelled
+        private final CompletableFuture<S> hedgeResult = new CompletableFuture<>();
+        private volatile Context.CancellableContext hedgeContext;
+        private volatile boolean sent;
+
+        private Flight(Context.CancellableContext primaryContext, long start) {
+            this.primaryContext = primaryContext;
+            this.start = start;
+        }
+
+    }
+
+    /**
+     * 一类操作最近的成功请求延迟，定期计算分位数
+     */
+    private final class LatencyWindow {
+
+        private final AtomicLongArray samples = new AtomicLongArray(WINDOW);
+        private final AtomicLong count = new AtomicLong();
+        private volatile long delayNanos = -1;
+
+        private void record(long nanos) {
+            long n = count.incrementAndGet();
+            samples.set((int) ((n - 1) % WINDOW), nanos);
+            if (n >= MIN_SAMPLES && n % RECOMPUTE_INTERVAL == 0) {
+                int size = (int) Math.min(n, WINDOW);
+                long[] sorted = new long[size];
+                for (int i = 0; i < size; i++) {
+                    sorted[i] = samples.get(i);
+                }
+                Arrays.sort(sorted);
+                int index = (int) Math.min(size - 1, Math.ceil(percentile * size) - 1);
+                delayNanos = Math.max(sorted[Math.max(index, 0)], minDelayNanos);
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,397 @@
+package com.jcq.milvusEncap.backend;
+
+import com.jcq.milvusEncap.codec.ColumnarInsertBatch;
+import com.jcq.milvusEncap.codec.MilvusEntityMetadata;
+import com.jcq.milvusEncap.monitor.MilvusMetrics;
+import com.jcq.milvusEncap.monitor.jfr.MilvusBorrowEvent;
+import com.jcq.milvusEncap.monitor.jfr.MilvusFlightRecorder;
+import com.jcq.milvusEncap.pool.MilvusClientPool;
+import com.jcq.milvusEncap.routing.MilvusEndpoint;
+import com.jcq.milvusEncap.routing.MilvusRouter;
+import com.jcq.milvusEncap.service.milvus.MilvusCallback;
+import com.jcq.milvusEncap.service.milvus.MilvusOperationContext;
+import com.jcq.milvusEncap.workload.WorkloadScheduler;
+import io.grpc.Context;
+import io.milvus.common.utils.GTsDict;
+import io.milvus.grpc.InsertRequest;
+import io.milvus.grpc.MutationResult;
+import io.milvus.grpc.QueryRequest;
+import io.milvus.grpc.QueryResults;
+import io.milvus.grpc.SearchRequest;
+import io.milvus.grpc.SearchResults;
+import io.milvus.grpc.UpsertRequest;
+import io.milvus.orm.iterator.QueryIterator;
+import io.milvus.response.QueryResultsWrapper;
+import io.milvus.v2.client.MilvusClientV2;
+import io.milvus.v2.exception.ErrorCode;
+import io.milvus.v2.exception.MilvusClientException;
+import io.milvus.v2.service.vector.request.DeleteReq;
+import io.milvus.v2.service.vector.request.InsertReq;
+import io.milvus.v2.service.vector.request.QueryIteratorReq;
+import io.milvus.v2.service.vector.request.QueryReq;
+import io.milvus.v2.service.vector.request.SearchReq;
+import io.milvus.v2.service.vector.request.UpsertReq;
+import io.milvus.v2.service.vector.response.DeleteResp;
+import io.milvus.v2.service.vector.response.InsertResp;
+import io.milvus.v2.service.vector.response.QueryResp;
+import io.milvus.v2.service.vector.response.SearchResp;
+import io.milvus.v2.service.vector.response.UpsertResp;
+import io.milvus.v2.utils.ConvertUtils;
+import io.milvus.v2.utils.VectorUtils;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * 默认的存储后端：按路由选择节点，从连接池获取客户端访问 Milvus 集群
+ *
+ * @author : jucunqi
+ * @since : 2025/10/16
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "milvus.backend", name = "type", havingValue = "remote", matchIfMissing = true)
+public class RemoteMilvusBackend implements MilvusStorageBackend {
+
+    @Value("${milvus.client-key}")
+    private String clientKey;
+    @Resource
+    private MilvusRouter router;
+    @Resource
+    private MilvusMetrics milvusMetrics;
+    @Resource
+    private WorkloadScheduler workloadScheduler;
+    @Value("${milvus.hedge.enabled:false}")
+    private boolean hedgeEnabled;
+    @Value("${milvus.hedge.percentile:0.95}")
+    private double hedgePercentile;
+    @Value("${milvus.hedge.min-delay-ms:5}")
+    private long hedgeMinDelayMs;
+    @Value("${milvus.hedge.budget-percent:5}")
+    private double hedgeBudgetPercent;
+
+    // 读请求对冲，未开启时为 null
+    private ReadHedger hedger;
+
+    @PostConstruct
+    public void init() {
+        if (hedgeEnabled) {
+            hedger = new ReadHedger(hedgePercentile, TimeUnit.MILLISECONDS.toNanos(hedgeMinDelayMs), hedgeBudgetPercent);
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        if (hedger != null) {
+            hedger.close();
+        }
+    }
+
+    @Override
+    public void register(MilvusEntityMetadata<?> metadata) {
+        // 集合由 MilvusSchemaInitializer 在启动时创建
+    }
+
+    @Override
+    public InsertResp insert(MilvusOperationContext context, InsertReq request) throws Exception {
+        return execute(context, (client, ctx) -> {
+            InsertResp result = client.insert(request);
+            ctx.setWriteTimestamp(lastWriteTimestamp(request.getCollectionName()));
+            return result;
+        });
+    }
+
+    /**
+     * 列式批次直接组装 gRPC 请求发送，跳过 SDK 的 JsonObject 行数据解析；SDK 不支持获取 stub 时按行写入
+     */
+    @Override
+    public InsertResp insertColumns(MilvusOperationContext context, ColumnarInsertBatch batch) throws Exception {
+        if (!batch.isColumnar() || !MilvusGrpcStubs.isAvailable()) {
+            return insert(context, batch.toInsertReq());
+        }
+        InsertRequest request = batch.toInsertRequest();
+        return execute(context, (client, ctx) -> {
+            MutationResult result = MilvusGrpcStubs.blockingStub(client).insert(request);
+            InsertResp resp = toInsertResp(result, result.getInsertCnt());
+            recordWrite(ctx, request.getCollectionName(), result.getTimestamp());
+            return resp;
+        });
+    }
+
+    /**
+     * Milvus 的 insert 不按主键去重，客户端生成主键的数据通过 upsert 写入，SDK 重试或故障转移重发时不会产生重复行
+     */
+    @Override
+    public InsertResp upsert(MilvusOperationContext context, InsertReq request) throws Exception {
+        UpsertReq upsert = UpsertReq.builder()
+                .collectionName(request.getCollectionName())
+                .partitionName(request.getPartitionName())
+                .data(request.getData())
+                .build();
+        return execute(context, (client, ctx) -> {
+            UpsertResp result = client.upsert(upsert);
+            ctx.setWriteTimestamp(lastWriteTimestamp(upsert.getCollectionName()));
+            return InsertResp.builder()
+                    .InsertCnt(result.getUpsertCnt())
+                    .build();
+        });
+    }
+
+    @Override
+    public InsertResp upsertColumns(MilvusOperationContext context, ColumnarInsertBatch batch) throws Exception {
+        if (!batch.isColumnar() || !MilvusGrpcStubs.isAvailable()) {
+            return upsert(context, batch.toInsertReq());
+        }
+        UpsertRequest request = batch.toUpsertRequest();
+        return execute(context, (client, ctx) -> {
+            MutationResult result = MilvusGrpcStubs.blockingStub(client).upsert(request);
+            InsertResp resp = toInsertResp(result, result.getUpsertCnt());
+            recordWrite(ctx, request.getCollectionName(), result.getTimestamp());
+            return resp;
+        });
+    }
+
+    private static InsertResp toInsertResp(MutationResult result, long count) {
+        checkStatus(result.getStatus());
+        List<Object> primaryKeys = result.getIDs().hasStrId()
+                ? new ArrayList<>(result.getIDs().getStrId().getDataList())
+                : new ArrayList<>(result.getIDs().getIntId().getDataList());
+        return InsertResp.builder()
+                .InsertCnt(count)
+                .primaryKeys(primaryKeys)
+                .build();
+    }
+
+    /**
+     * 直接发送的写请求不经过 SDK，需要自己记录提交时间戳：写入上下文供会话使用，
+     * 并更新 SDK 的集合时间戳，使 SESSION 级别的检索同样能读到这次写入
+     */
+    private static void recordWrite(MilvusOperationContext context, String collectionName, long timestamp) {
+        context.setWriteTimestamp(timestamp);
+        if (timestamp > 0) {
+            GTsDict.getInstance().updateCollectionTs(collectionName, timestamp);
+        }
+    }
+
+    /**
+     * SDK 的 insert/upsert/delete 响应中没有时间戳，只会把它记录到进程内按集合名称区分的 GTsDict；
+     * 读到的值不小于本次写入的时间戳（可能来自之后的其他写入），作为保证时间戳只会更严格
+     */
+    private static long lastWriteTimestamp(String collectionName) {
+        Long timestamp = GTsDict.getInstance().getCollectionTs(collectionName);
+        return timestamp == null ? 0 : timestamp;
+    }
+
+    /**
+     * 只按 code 判断（已废弃的 error_code 不再读取），失败时抛出与 SDK 接口相同的异常
+     */
+    private static void checkStatus(io.milvus.grpc.Status status) {
+        if (status.getCode() != 0) {
+            throw new MilvusClientException(ErrorCode.SERVER_ERROR, status.getReason(), status.getCode(), 0);
+        }
+    }
+
+    @Override
+    public DeleteResp delete(MilvusOperationContext context, DeleteReq request) throws Exception {
+        return execute(context, (client, ctx) -> {
+            DeleteResp result = client.delete(request);
+            ctx.setWriteTimestamp(lastWriteTimestamp(request.getCollectionName()));
+            return result;
+        });
+    }
+
+    /**
+     * 带保证时间戳的查询直接组装 gRPC 请求发送：SDK 的 QueryReq 没有保证时间戳，SESSION 级别的查询也不会带上写入时间戳
+     */
+    @Override
+    public QueryResp query(MilvusOperationContext context, QueryReq request) throws Exception {
+        long guaranteeTimestamp = context.getGuaranteeTimestamp();
+        if (guaranteeTimestamp > 0 && MilvusGrpcStubs.isAvailable()) {
+            return executeRead(context, (client, ctx) -> queryWithGuarantee(client, request, guaranteeTimestamp));
+        }
+        return executeRead(context, (client, ctx) -> client.query(request));
+    }
+
+    static QueryResp queryWithGuarantee(MilvusClientV2 client, QueryReq request, long guaranteeTimestamp) {
+        QueryRequest grpcRequest = new VectorUtils().ConvertToGrpcQueryRequest(request).toBuilder()
+                .setGuaranteeTimestamp(guaranteeTimestamp)
+                .build();
+        QueryResults results = MilvusGrpcStubs.blockingStub(client).query(grpcRequest);
+        checkStatus(results.getStatus());
+        return QueryResp.builder()
+                .queryResults(new ConvertUtils().getEntities(results))
+                .sessionTs(results.getSessionTs())
+                .build();
+    }
+
+    /**
+     * 带保证时间戳的检索与查询一样直接组装 gRPC 请求，保证时间戳只随本次请求发送：
+     * 不写入进程内按集合名称共享的 GTsDict，其他会话或未使用会话的 SESSION 检索不需要等待这个时间戳
+     */
+    @Override
+    public SearchResp search(MilvusOperationContext context, SearchReq request) throws Exception {
+        long guaranteeTimestamp = context.getGuaranteeTimestamp();
+        if (guaranteeTimestamp > 0 && MilvusGrpcStubs.isAvailable()) {
+            return executeRead(context, (client, ctx) -> searchWithGuarantee(client, request, guaranteeTimestamp));
+        }
+        return executeRead(context, (client, ctx) -> client.search(request));
+    }
+
+    static SearchResp searchWithGuarantee(MilvusClientV2 client, SearchReq request, long guaranteeTimestamp) {
+        SearchRequest grpcRequest = new VectorUtils().ConvertToGrpcSearchRequest(request).toBuilder()
+                .setGuaranteeTimestamp(guaranteeTimestamp)
+                .build();
+        SearchResults results = MilvusGrpcStubs.blockingStub(client).search(grpcRequest);
+        checkStatus(results.getStatus());
+        return SearchResp.builder()
+                .searchResults(new ConvertUtils().getEntities(results))
+                .sessionTs(results.getSessionTs())
+                .recalls(results.getResults().getRecallsList())
+                .build();
+    }
+
+    @Override
+    public long export(MilvusOperationContext context, QueryIteratorReq request,
+                       Consumer<List<Map<String, Object>>> batchConsumer) throws Exception {
+
+        // 导出期间一直占用同一个客户端，回调已经产生了副作用，失败后不换节点重试
+        return callWithClient(context, (client, ctx) -> {
+            QueryIterator iterator = client.queryIterator(request);
+            try {
+                long total = 0;
+                while (true) {
+                    List<QueryResultsWrapper.RowRecord> records = iterator.next();
+                    if (records == null || records.isEmpty()) {
+                        return total;
+                    }
+                    List<Map<String, Object>> rows = new ArrayList<>(records.size());
+                    for (QueryResultsWrapper.RowRecord record : records) {
+                        rows.add(record.getFieldValues());
+                    }
+                    batchConsumer.accept(rows);
+                    total += rows.size();
+                }
+            } finally {
+                iterator.close();
+            }
+        }, false);
+    }
+
+    /**
+     * 读操作遇到节点不可达时可以换节点重试
+     */
+    private <S> S execute(MilvusOperationContext context, MilvusCallback<S> call) throws Exception {
+        return callWithClient(context, call, !context.getOperation().isWrite());
+    }
+
+    /**
+     * 开启对冲时，超过对冲延迟仍未返回的查询/检索再发送一次，优先发往另一个节点，没有其他节点时使用同一节点连接池中的另一个客户端
+     */
+    private <S> S executeRead(MilvusOperationContext context, MilvusCallback<S> call) throws Exception {
+        if (hedger == null) {
+            return execute(context, call);
+        }
+        MilvusEndpoint endpoint = router.route(context.getOperation(), context.getConsistencyLevel(), null);
+        // 对冲请求使用单独的上下文，避免与第一个请求并发修改，胜出后再合并
+        MilvusOperationContext hedgeContext = new MilvusOperationContext(context.getOperation(), context.getCollectionName());
+        hedgeContext.setConsistencyLevel(context.getConsistencyLevel());
+        hedgeContext.setGuaranteeTimestamp(context.getGuaranteeTimestamp());
+        hedgeContext.setWorkloadClass(context.getWorkloadClass());
+        hedgeContext.setTenant(context.getTenant());
+        hedgeContext.setDatabase(context.getDatabase());
+        ReadHedger.Result<S> result = hedger.call(context.getOperation(),
+                () -> callWithClient(endpoint, context, call, true),
+                () -> {
+                    MilvusEndpoint other = router.route(context.getOperation(), context.getConsistencyLevel(), endpoint);
+                    return callWithClient(other != null ? other : endpoint, hedgeContext, call, true);
+                },
+                outcome -> milvusMetrics.recordHedge(context.getCollectionName(), context.getOperation(), outcome));
+        context.setHedged(result.hedged());
+        if (result.hedgeWon()) {
+            context.setEndpoint(hedgeContext.getEndpoint());
+            context.setBorrowNanos(hedgeContext.getBorrowNanos());
+            context.setServerNanos(hedgeContext.getServerNanos());
+        }
+        return result.value();
+    }
+
+    /**
+     * 按操作类型与一致性级别选择节点后执行调用，可重试的操作在节点不可达时换一个节点重试一次
+     */
+    private <S> S callWithClient(MilvusOperationContext context, MilvusCallback<S> call, boolean retryable) throws Exception {
+        MilvusEndpoint endpoint = router.route(context.getOperation(), context.getConsistencyLevel(), null);
+        return callWithClient(endpoint, context, call, retryable);
+    }
+
+    private <S> S callWithClient(MilvusEndpoint endpoint, MilvusOperationContext context, MilvusCallback<S> call,
+                                 boolean retryable) throws Exception {
+        try {
+            return callWithClient(endpoint, context, call);
+        } catch (Exception e) {
+            // 被取消（对冲的另一个请求已先返回）的请求不再重试
+            MilvusEndpoint fallback = retryable && !Context.current().isCancelled() && MilvusRouter.isUnavailable(e)
+                    ? router.route(context.getOperation(), context.getConsistencyLevel(), endpoint)
+                    : null;
+            if (fallback == null) {
+                throw e;
+            }
+            log.warn("Milvus节点[{}]不可用，{}改由节点[{}]执行，原因: {}", endpoint.getName(),
+                    context.getOperation().getDescription(), fallback.getName(), e.getMessage());
+            return callWithClient(fallback, context, call);
+        }
+    }
+
+    /**
+     * 获取客户端、执行调用、归还客户端，记录 borrow 与 server 阶段耗时
+     *
+     * <p>开启负载类别隔离时，先按类别获取执行机会（计入 borrow 阶段），再从该类别对应的连接池 key 获取客户端；
+     * 开启多租户时从节点上该 database 的连接池获取</p>
+     */
+    private <S> S callWithClient(MilvusEndpoint endpoint, MilvusOperationContext context, MilvusCallback<S> call) throws Exception {
+
+        context.setEndpoint(endpoint.getName());
+        String poolKey = workloadScheduler.poolKey(clientKey, context.getWorkloadClass());
+        // 指标中区分 database，默认 database 沿用原来的 key
+        String metricKey = context.getDatabase() == null ? poolKey : poolKey + "@" + context.getDatabase();
+        return router.call(endpoint, target -> {
+            MilvusClientPool pool = target.getPool(context.getDatabase());
+            // 从集群、按 database 创建的连接池以及负载类别的 key 都在首次获取时注册连接池指标
+            milvusMetrics.bindPoolKey(target.getName(), context.getDatabase(), pool, poolKey);
+            MilvusClientV2 client = null;
+            long borrowStart = System.nanoTime();
+            try (WorkloadScheduler.Permit ignored = workloadScheduler.acquire(context.getWorkloadClass())) {
+                MilvusBorrowEvent borrowEvent = MilvusFlightRecorder.beginBorrow();
+                // 获取客户端
+                try {
+                    client = pool.getClient(poolKey);
+                } finally {
+                    MilvusFlightRecorder.commitBorrow(borrowEvent, metricKey, context.getCollectionName(), client != null);
+                }
+                long borrowed = System.nanoTime();
+                context.setBorrowNanos(borrowed - borrowStart);
+                milvusMetrics.recordBorrow(metricKey, borrowed - borrowStart);
+
+                S response = call.doInClient(client, context);
+                long serverNanos = System.nanoTime() - borrowed;
+                context.setServerNanos(serverNanos);
+                router.onSuccess(target, serverNanos);
+                return response;
+            } finally {
+                if (client != null) {
+                    pool.returnClient(poolKey, client);
+                }
+            }
+        });
+    }
+
+}
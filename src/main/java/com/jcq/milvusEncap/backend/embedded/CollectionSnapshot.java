@@ -0,0 +1,64 @@
+package com.jcq.milvusEncap.backend.embedded;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * 集合快照文件：先写临时文件再原子替换，进程在写快照期间退出不会破坏上一份快照
+ *
+ * @author : jucunqi
+ * @since : 2025/10/16
+ */
+final class CollectionSnapshot {
+
+    private static final int MAGIC = 0x4D564531;
+    private static final int VERSION = 1;
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private CollectionSnapshot() {
+    }
+
+    static Path file(Path dataDir, String collectionName) {
+        return dataDir.resolve(collectionName + ".snapshot");
+    }
+
+    static void save(EmbeddedCollection collection, Path file) throws IOException {
+        Files.createDirectories(file.getParent());
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        long version;
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp), BUFFER_SIZE))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            version = collection.write(out);
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        collection.markSaved(version);
+    }
+
+    /**
+     * @return 快照文件不存在时返回 false
+     */
+    static boolean restore(EmbeddedCollection collection, Path file) throws IOException {
+        if (!Files.exists(file)) {
+            return false;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), BUFFER_SIZE))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("不是集合快照文件: " + file);
+            }
+            int version = in.readInt();
+            if (version != VERSION) {
+                throw new IOException("不支持的快照版本 " + version + ": " + file);
+            }
+            collection.read(in);
+        }
+        return true;
+    }
+
+}
@@ -0,0 +1,772 @@
+package com.jcq.milvusEncap.backend.embedded;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.jcq.milvusEncap.schema.EntitySchema;
+import io.milvus.v2.common.DataType;
+import io.milvus.v2.common.IndexParam;
+import io.milvus.v2.service.collection.request.CreateCollectionReq;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+import java.util.function.Predicate;
+
+/**
+ * 嵌入式后端中的一个集合：标量数据保存在堆内（以列名为 key 的行），向量保存在 VectorStorage，并维护一个 HNSW 索引
+ *
+ * <p>只支持 Int64 主键与一个 FloatVector 字段。写入相同主键的数据时覆盖旧数据；删除只打标记，
+ * 节点继续参与 HNSW 导航。已删除节点占比超过 compactRatio 时，以及写快照前，按原顺序为存活节点重新编号并重建索引，
+ * 反复覆盖写入相同主键不会使向量存储与索引无限增长。分区被忽略（Partition Key 集合的分区裁剪对结果没有影响）</p>
+ *
+ * <p>COSINE 集合中保存归一化后的向量与原始模长，查询返回的向量由两者还原</p>
+ *
+ * @author : jucunqi
+ * @since : 2025/10/16
+ */
+final class EmbeddedCollection implements AutoCloseable {
+
+    static final String COUNT_FIELD = "count(*)";
+
+    /**
+     * 检索命中的一行，score 与 Milvus 一致：COSINE/IP 越大越相似，L2 为距离平方、越小越相似
+     */
+    record Hit(long primaryKey, Map<String, Object> entity, float score) {
+    }
+
+    private final String name;
+    private final CreateCollectionReq.FieldSchema primaryField;
+    private final CreateCollectionReq.FieldSchema vectorField;
+    private final List<CreateCollectionReq.FieldSchema> scalarFields = new ArrayList<>();
+    private final Set<String> fieldNames = new LinkedHashSet<>();
+    private final int dim;
+    private final String metric;
+    private final int efSearch;
+    private final int bruteForceThreshold;
+    private final double compactRatio;
+    private final int m;
+    private final int efConstruction;
+    private final VectorStorage storage;
+    private HnswIndex index;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    // 节点序号 -> 行数据（不含向量），已删除的节点为 null
+    private final List<Map<String, Object>> rows = new ArrayList<>();
+    private final NavigableMap<Long, Integer> primaryKeys = new TreeMap<>();
+    private float[] norms = new float[VectorStorage.CHUNK_VECTORS];
+    private long lastId;
+    private volatile long version;
+    private volatile long savedVersion;
+
+    /**
+     * @param compactRatio 已删除节点占全部节点的比例超过该值时压缩，不大于 0 时只在写快照前压缩
+     */
+    EmbeddedCollection(EntitySchema schema, VectorStorageFactory storageFactory, int efSearch, int bruteForceThreshold,
+                       double compactRatio) throws IOException {
+        this.name = schema.getCollectionName();
+        CreateCollectionReq.FieldSchema primary = null;
+        CreateCollectionReq.FieldSchema vector = null;
+        for (CreateCollectionReq.FieldSchema field : schema.getCollectionSchema().getFieldSchemaList()) {
+            fieldNames.add(field.getName());
+            if (Boolean.TRUE.equals(field.getIsPrimaryKey())) {
+                primary = field;
+            } else if (field.getDataType() == DataType.FloatVector) {
+                if (vector != null) {
+                    throw new IllegalArgumentException("嵌入式后端只支持一个向量字段: " + name);
+                }
+                vector = field;
+            } else {
+                scalarFields.add(field);
+            }
+        }
+        if (primary == null || primary.getDataType() != DataType.Int64) {
+            throw new IllegalArgumentException("嵌入式后端只支持 Int64 主键: " + name);
+        }
+        if (vector == null) {
+            throw new IllegalArgumentException("嵌入式后端要求集合包含一个 FloatVector 字段: " + name);
+        }
+        this.primaryField = primary;
+        this.vectorField = vector;
+        this.dim = vector.getDimension();
+
+        IndexParam vectorIndex = schema.getIndexParams().stream()
+                .filter(param -> vectorField.getName().equals(param.getFieldName()))
+                .findFirst()
+                .orElse(null);
+        Map<String, Object> params = vectorIndex == null || vectorIndex.getExtraParams() == null
+                ? Collections.emptyMap() : vectorIndex.getExtraParams();
+        this.metric = vectorIndex == null || vectorIndex.getMetricType() == null
+                ? IndexParam.MetricType.L2.name() : vectorIndex.getMetricType().name();
+        this.efSearch = efSearch;
+        this.bruteForceThreshold = bruteForceThreshold;
+        this.compactRatio = compactRatio;
+        this.m = intParam(params, "M", 16);
+        this.efConstruction = intParam(params, "efConstruction", 200);
+        this.storage = storageFactory.create(name, dim);
+        this.index = newIndex();
+    }
+
+    private HnswIndex newIndex() {
+        return new HnswIndex(m, efConstruction,
+                metric.equals("L2") ? storage::squaredL2 : (node, query) -> -storage.dot(node, query), storage);
+    }
+
+    /**
+     * 为集合创建向量存储
+     */
+    @FunctionalInterface
+    interface VectorStorageFactory {
+        VectorStorage create(String collectionName, int dim) throws IOException;
+    }
+
+    String getName() {
+        return name;
+    }
+
+    String getPrimaryFieldName() {
+        return primaryField.getName();
+    }
+
+    int size() {
+        lock.readLock().lock();
+        try {
+            return primaryKeys.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 向量存储与索引中的节点数，包含尚未压缩的已删除节点
+     */
+    int nodeCount() {
+        lock.readLock().lock();
+        try {
+            return rows.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    boolean isDirty() {
+        return version != savedVersion;
+    }
+
+    void markSaved(long savedVersion) {
+        this.savedVersion = savedVersion;
+    }
+
+    /**
+     * 写入数据，返回每行的主键。自增主键集合忽略传入的主键，按时间戳生成递增主键
+     */
+    List<Long> insert(List<JsonObject> data) throws IOException {
+        // 先在锁外完成解析与校验，一行出错时整批都不写入
+        List<Map<String, Object>> parsed = new ArrayList<>(data.size());
+        List<float[]> vectors = new ArrayList<>(data.size());
+        boolean autoId = Boolean.TRUE.equals(primaryField.getAutoID());
+        for (JsonObject row : data) {
+            Map<String, Object> values = new LinkedHashMap<>();
+            if (!autoId) {
+                JsonElement primaryKey = row.get(primaryField.getName());
+                if (primaryKey == null || primaryKey.isJsonNull()) {
+                    throw new IllegalArgumentException("The field: " + primaryField.getName() + " is not provided.");
+                }
+                values.put(primaryField.getName(), primaryKey.getAsLong());
+            }
+            for (CreateCollectionReq.FieldSchema field : scalarFields) {
+                values.put(field.getName(), convert(field, row.get(field.getName())));
+            }
+            parsed.add(values);
+            vectors.add(toVector(row.get(vectorField.getName())));
+        }
+
+        List<Long> ids = new ArrayList<>(data.size());
+        lock.writeLock().lock();
+        try {
+            for (int i = 0; i < parsed.size(); i++) {
+                Map<String, Object> values = parsed.get(i);
+                long primaryKey;
+                if (autoId) {
+                    lastId = Math.max(lastId + 1, System.currentTimeMillis() << 18);
+                    primaryKey = lastId;
+                    Map<String, Object> withKey = new LinkedHashMap<>();
+                    withKey.put(primaryField.getName(), primaryKey);
+                    withKey.putAll(values);
+                    values = withKey;
+                } else {
+                    primaryKey = (Long) values.get(primaryField.getName());
+                    lastId = Math.max(lastId, primaryKey);
+                    remove(primaryKey);
+                }
+                int node = rows.size();
+                float[] vector = vectors.get(i);
+                if (metric.equals("COSINE")) {
+                    vector = normalize(vector, node);
+                }
+                storage.set(node, vector);
+                index.add(node, vector);
+                rows.add(values);
+                primaryKeys.put(primaryKey, node);
+                ids.add(primaryKey);
+            }
+            version++;
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        return ids;
+    }
+
+    /**
+     * 按主键或过滤条件删除数据，返回删除的行数
+     */
+    long delete(List<?> ids, String filter) {
+        lock.writeLock().lock();
+        try {
+            List<Long> targets = new ArrayList<>();
+            if (ids != null && !ids.isEmpty()) {
+                ids.forEach(id -> targets.add(((Number) id).longValue()));
+            } else {
+                scan(filter, node -> targets.add((Long) rows.get(node).get(primaryField.getName())));
+            }
+            long deleted = 0;
+            for (Long id : targets) {
+                if (remove(id)) {
+                    deleted++;
+                }
+            }
+            if (deleted > 0) {
+                version++;
+                compactIfNeeded();
+            }
+            return deleted;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    long count(String filter) {
+        lock.readLock().lock();
+        try {
+            if (filter == null || filter.isBlank()) {
+                return primaryKeys.size();
+            }
+            long[] count = new long[1];
+            scan(filter, node -> count[0]++);
+            return count[0];
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 按主键顺序返回满足条件的行，limit 不大于 0 时不限制条数
+     */
+    List<Map<String, Object>> query(List<?> ids, String filter, long offset, long limit, List<String> outputFields) {
+        List<String> outputs = resolveOutputFields(outputFields);
+        lock.readLock().lock();
+        try {
+            List<Map<String, Object>> result = new ArrayList<>();
+            long[] skipped = new long[1];
+            Predicate<Integer> collector = node -> {
+                if (skipped[0]++ < offset) {
+                    return true;
+                }
+                result.add(output(node, outputs));
+                return limit <= 0 || result.size() < limit;
+            };
+            if (ids != null && !ids.isEmpty()) {
+                Predicate<Map<String, Object>> predicate = FilterExpression.parse(filter, fieldNames);
+                for (Integer node : lookup(ids)) {
+                    if (predicate.test(rows.get(node)) && !collector.test(node)) {
+                        break;
+                    }
+                }
+            } else {
+                scanWhile(filter, collector);
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 按主键顺序分批导出，回调在锁外执行，导出期间的写入对尚未导出的部分可见
+     */
+    long export(String filter, long batchSize, List<String> outputFields, Consumer<List<Map<String, Object>>> consumer) {
+        List<String> outputs = resolveOutputFields(outputFields);
+        Predicate<Map<String, Object>> predicate = FilterExpression.parse(filter, fieldNames);
+        long total = 0;
+        Long cursor = null;
+        while (true) {
+            List<Map<String, Object>> batch = new ArrayList<>();
+            lock.readLock().lock();
+            try {
+                Map<Long, Integer> remaining = cursor == null ? primaryKeys : primaryKeys.tailMap(cursor, false);
+                for (Map.Entry<Long, Integer> entry : remaining.entrySet()) {
+                    cursor = entry.getKey();
+                    if (predicate.test(rows.get(entry.getValue()))) {
+                        batch.add(output(entry.getValue(), outputs));
+                        if (batch.size() >= batchSize) {
+                            break;
+                        }
+                    }
+                }
+            } finally {
+                lock.readLock().unlock();
+            }
+            if (batch.isEmpty()) {
+                return total;
+            }
+            consumer.accept(batch);
+            total += batch.size();
+        }
+    }
+
+    /**
+     * 向量检索：满足过滤条件的行不超过阈值时精确计算，否则在 HNSW 图上检索并跳过不满足条件的节点
+     * @param metricType 请求指定的度量方式，为空时使用索引的度量方式
+     * @param ef 候选集大小，不大于 0 时使用默认值
+     */
+    List<Hit> search(float[] query, String metricType, String filter, int topK, int offset, int ef,
+                     List<String> outputFields) {
+        if (query.length != dim) {
+            throw new IllegalArgumentException(String.format("vector dimension mismatch, expected %d, actual %d",
+                    dim, query.length));
+        }
+        if (metricType != null && !metricType.equalsIgnoreCase(metric)) {
+            throw new IllegalArgumentException(String.format("metric type not match, expected %s, actual %s",
+                    metric, metricType));
+        }
+        List<String> outputs = resolveOutputFields(outputFields);
+        float[] target = metric.equals("COSINE") ? normalize(query, -1) : query;
+        int keep = topK + offset;
+
+        lock.readLock().lock();
+        try {
+            HnswIndex.Result result;
+            if (primaryKeys.size() <= bruteForceThreshold) {
+                BitSet matched = new BitSet(rows.size());
+                scan(filter, matched::set);
+                result = exact(target, matched, keep);
+            } else if (filter == null || filter.isBlank()) {
+                result = index.search(target, keep, Math.max(ef > 0 ? ef : efSearch, keep), node -> rows.get(node) != null);
+            } else {
+                BitSet matched = new BitSet(rows.size());
+                scan(filter, matched::set);
+                result = matched.cardinality() <= bruteForceThreshold
+                        ? exact(target, matched, keep)
+                        : index.search(target, keep, Math.max(ef > 0 ? ef : efSearch, keep), matched::get);
+            }
+
+            List<Hit> hits = new ArrayList<>();
+            for (int i = offset; i < result.nodes().length; i++) {
+                int node = result.nodes()[i];
+                float distance = result.distances()[i];
+                hits.add(new Hit((Long) rows.get(node).get(primaryField.getName()), output(node, outputs),
+                        metric.equals("L2") ? distance : -distance));
+            }
+            return hits;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 对候选节点逐个计算距离
+     */
+    private HnswIndex.Result exact(float[] target, BitSet matched, int keep) {
+        NodeHeap heap = NodeHeap.max(keep + 1);
+        boolean l2 = metric.equals("L2");
+        for (int node = matched.nextSetBit(0); node >= 0; node = matched.nextSetBit(node + 1)) {
+            float distance = l2 ? storage.squaredL2(node, target) : -storage.dot(node, target);
+            if (heap.size() < keep || distance < heap.peekDistance()) {
+                heap.push(node, distance);
+                if (heap.size() > keep) {
+                    heap.pop();
+                }
+            }
+        }
+        return heap.drainAscending();
+    }
+
+    /**
+     * 解析输出字段：为空时只输出主键，* 展开为全部字段，主键始终输出
+     */
+    List<String> resolveOutputFields(List<String> requested) {
+        Set<String> fields = new LinkedHashSet<>();
+        fields.add(primaryField.getName());
+        if (requested != null) {
+            for (String field : requested) {
+                if ("*".equals(field)) {
+                    fields.addAll(fieldNames);
+                } else if (fieldNames.contains(field)) {
+                    fields.add(field);
+                } else {
+                    throw new IllegalArgumentException("field " + field + " not exist");
+                }
+            }
+        }
+        return new ArrayList<>(fields);
+    }
+
+    private Map<String, Object> output(int node, List<String> outputs) {
+        Map<String, Object> row = rows.get(node);
+        Map<String, Object> entity = new LinkedHashMap<>();
+        for (String field : outputs) {
+            entity.put(field, field.equals(vectorField.getName()) ? vector(node) : row.get(field));
+        }
+        return entity;
+    }
+
+    private float[] vector(int node) {
+        float[] vector = storage.get(node);
+        if (metric.equals("COSINE")) {
+            float norm = norms[node];
+            for (int i = 0; i < vector.length; i++) {
+                vector[i] *= norm;
+            }
+        }
+        return vector;
+    }
+
+    /**
+     * 返回归一化后的向量，node 不小于 0 时记录原始模长
+     */
+    private float[] normalize(float[] vector, int node) {
+        double sum = 0;
+        for (float value : vector) {
+            sum += value * value;
+        }
+        float norm = (float) Math.sqrt(sum);
+        if (node >= 0) {
+            if (node >= norms.length) {
+                norms = Arrays.copyOf(norms, Math.max(node + 1, norms.length * 2));
+            }
+            norms[node] = norm;
+        }
+        float[] normalized = new float[vector.length];
+        if (norm > 0) {
+            for (int i = 0; i < vector.length; i++) {
+                normalized[i] = vector[i] / norm;
+            }
+        }
+        return normalized;
+    }
+
+    private void scan(String filter, IntConsumer consumer) {
+        scanWhile(filter, node -> {
+            consumer.accept(node);
+            return true;
+        });
+    }
+
+    /**
+     * 按主键顺序遍历满足条件的节点，回调返回 false 时停止；过滤条件只是按主键等值或 in 时直接定位
+     */
+    private void scanWhile(String filter, Predicate<Integer> consumer) {
+        List<Object> keys = FilterExpression.equalityValues(filter, primaryField.getName());
+        if (keys != null && keys.stream().allMatch(key -> key instanceof Long)) {
+            for (Integer node : lookup(keys)) {
+                if (!consumer.test(node)) {
+                    return;
+                }
+            }
+            return;
+        }
+        Predicate<Map<String, Object>> predicate = FilterExpression.parse(filter, fieldNames);
+        for (Integer node : primaryKeys.values()) {
+            if (predicate.test(rows.get(node)) && !consumer.test(node)) {
+                return;
+            }
+        }
+    }
+
+    private Collection<Integer> lookup(List<?> keys) {
+        // 按主键排序并去重，与全表扫描的输出顺序一致
+        TreeMap<Long, Integer> nodes = new TreeMap<>();
+        for (Object key : keys) {
+            long primaryKey = ((Number) key).longValue();
+            Integer node = primaryKeys.get(primaryKey);
+            if (node != null) {
+                nodes.put(primaryKey, node);
+            }
+        }
+        return nodes.values();
+    }
+
+    private boolean remove(long primaryKey) {
+        Integer node = primaryKeys.remove(primaryKey);
+        if (node == null) {
+            return false;
+        }
+        rows.set(node, null);
+        return true;
+    }
+
+    private void compactIfNeeded() {
+        int deleted = rows.size() - primaryKeys.size();
+        if (compactRatio > 0 && deleted > 0 && deleted > rows.size() * compactRatio) {
+            compact();
+        }
+    }
+
+    /**
+     * 按原顺序为存活节点重新编号（只会前移），并用存活节点重建 HNSW 索引，需要持有写锁
+     */
+    private void compact() {
+        List<Map<String, Object>> live = new ArrayList<>(primaryKeys.size());
+        HnswIndex rebuilt = newIndex();
+        for (int node = 0; node < rows.size(); node++) {
+            Map<String, Object> row = rows.get(node);
+            if (row == null) {
+                continue;
+            }
+            int target = live.size();
+            if (target != node) {
+                storage.copy(node, target);
+                norms[target] = norms[node];
+            }
+            rebuilt.add(target, storage.get(target));
+            live.add(row);
+            primaryKeys.put((Long) row.get(primaryField.getName()), target);
+        }
+        rows.clear();
+        rows.addAll(live);
+        storage.truncate(live.size());
+        index = rebuilt;
+    }
+
+    private float[] toVector(JsonElement value) {
+        if (value == null || value.isJsonNull()) {
+            throw new IllegalArgumentException("The field: " + vectorField.getName() + " is not provided.");
+        }
+        JsonArray array = value.getAsJsonArray();
+        if (array.size() != dim) {
+            throw new IllegalArgumentException(String.format("vector dimension mismatch, field %s expected %d, actual %d",
+                    vectorField.getName(), dim, array.size()));
+        }
+        float[] vector = new float[dim];
+        for (int i = 0; i < dim; i++) {
+            vector[i] = array.get(i).getAsFloat();
+        }
+        return vector;
+    }
+
+    /**
+     * 按字段类型转换 JSON 中的值，数值类型与 SDK 查询返回的类型一致
+     */
+    private Object convert(CreateCollectionReq.FieldSchema field, JsonElement value) {
+        if (value == null || value.isJsonNull()) {
+            return null;
+        }
+        return switch (field.getDataType()) {
+            case Int64 -> value.getAsLong();
+            case Int32, Int16, Int8 -> value.getAsInt();
+            case Bool -> value.getAsBoolean();
+            case Float -> value.getAsFloat();
+            case Double -> value.getAsDouble();
+            case VarChar, String -> {
+                String text = value.getAsString();
+                Integer maxLength = field.getMaxLength();
+                if (maxLength != null && text.length() > maxLength) {
+                    throw new IllegalArgumentException(String.format("the length of field %s exceeds max length %d",
+                            field.getName(), maxLength));
+                }
+                yield text;
+            }
+            case JSON -> value;
+            default -> throw new IllegalArgumentException(String.format("嵌入式后端不支持字段类型 %s: %s",
+                    field.getDataType(), field.getName()));
+        };
+    }
+
+    private static int intParam(Map<String, Object> params, String name, int defaultValue) {
+        Object value = params.get(name);
+        return value instanceof Number number ? number.intValue() : defaultValue;
+    }
+
+    /**
+     * 写出集合的全部数据与索引，写出期间阻塞写入；有已删除的节点时先压缩，快照中只包含存活节点
+     * @return 写出的数据版本，快照落盘后通过 {@link #markSaved(long)} 标记
+     */
+    long write(DataOutput out) throws IOException {
+        lock.writeLock().lock();
+        try {
+            if (rows.size() > primaryKeys.size()) {
+                compact();
+            }
+            // 降级为读锁，写快照期间不阻塞检索
+            lock.readLock().lock();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        try {
+            long writing = version;
+            out.writeUTF(name);
+            out.writeInt(dim);
+            out.writeUTF(metric);
+            out.writeInt(scalarFields.size());
+            for (CreateCollectionReq.FieldSchema field : scalarFields) {
+                out.writeUTF(field.getName());
+            }
+            out.writeLong(lastId);
+            out.writeInt(rows.size());
+            for (int node = 0; node < rows.size(); node++) {
+                Map<String, Object> row = rows.get(node);
+                out.writeBoolean(row != null);
+                if (row != null) {
+                    out.writeLong((Long) row.get(primaryField.getName()));
+                    for (CreateCollectionReq.FieldSchema field : scalarFields) {
+                        writeValue(out, row.get(field.getName()));
+                    }
+                }
+                for (float value : storage.get(node)) {
+                    out.writeFloat(value);
+                }
+                out.writeFloat(metric.equals("COSINE") ? norms[node] : 0);
+            }
+            index.write(out);
+            return writing;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 从快照恢复数据，只能在集合为空时调用
+     */
+    void read(DataInput in) throws IOException {
+        lock.writeLock().lock();
+        try {
+            if (!rows.isEmpty()) {
+                throw new IllegalStateException("集合已有数据，不能从快照恢复: " + name);
+            }
+            String snapshotName = in.readUTF();
+            int snapshotDim = in.readInt();
+            String snapshotMetric = in.readUTF();
+            List<String> snapshotFields = new ArrayList<>();
+            int fieldCount = in.readInt();
+            for (int i = 0; i < fieldCount; i++) {
+                snapshotFields.add(in.readUTF());
+            }
+            List<String> currentFields = scalarFields.stream().map(CreateCollectionReq.FieldSchema::getName).toList();
+            if (!snapshotName.equals(name) || snapshotDim != dim || !snapshotMetric.equals(metric)
+                    || !snapshotFields.equals(currentFields)) {
+                throw new IOException(String.format("快照与集合定义不一致: 快照[%s, dim=%d, %s, %s]，当前[%s, dim=%d, %s, %s]",
+                        snapshotName, snapshotDim, snapshotMetric, snapshotFields, name, dim, metric, currentFields));
+            }
+            lastId = in.readLong();
+            int count = in.readInt();
+            float[] vector = new float[dim];
+            for (int node = 0; node < count; node++) {
+                Map<String, Object> row = null;
+                if (in.readBoolean()) {
+                    row = new LinkedHashMap<>();
+                    long primaryKey = in.readLong();
+                    row.put(primaryField.getName(), primaryKey);
+                    for (CreateCollectionReq.FieldSchema field : scalarFields) {
+                        row.put(field.getName(), readValue(in));
+                    }
+                    primaryKeys.put(primaryKey, node);
+                }
+                rows.add(row);
+                for (int i = 0; i < dim; i++) {
+                    vector[i] = in.readFloat();
+                }
+                storage.set(node, vector);
+                float norm = in.readFloat();
+                if (node >= norms.length) {
+                    norms = Arrays.copyOf(norms, Math.max(node + 1, norms.length * 2));
+                }
+                norms[node] = norm;
+            }
+            index.read(in);
+            version = savedVersion;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static void writeValue(DataOutput out, Object value) throws IOException {
+        if (value == null) {
+            out.writeByte(0);
+        } else if (value instanceof Long number) {
+            out.writeByte(1);
+            out.writeLong(number);
+        } else if (value instanceof Integer number) {
+            out.writeByte(2);
+            out.writeInt(number);
+        } else if (value instanceof Boolean bool) {
+            out.writeByte(3);
+            out.writeBoolean(bool);
+        } else if (value instanceof Float number) {
+            out.writeByte(4);
+            out.writeFloat(number);
+        } else if (value instanceof Double number) {
+            out.writeByte(5);
+            out.writeDouble(number);
+        } else if (value instanceof String text) {
+            out.writeByte(6);
+            writeString(out, text);
+        } else if (value instanceof JsonElement json) {
+            out.writeByte(7);
+            writeString(out, json.toString());
+        } else {
+            throw new IOException("不支持写入快照的值类型: " + value.getClass().getName());
+        }
+    }
+
+    private static Object readValue(DataInput in) throws IOException {
+        byte tag = in.readByte();
+        return switch (tag) {
+            case 0 -> null;
+            case 1 -> in.readLong();
+            case 2 -> in.readInt();
+            case 3 -> in.readBoolean();
+            case 4 -> in.readFloat();
+            case 5 -> in.readDouble();
+            case 6 -> readString(in);
+            case 7 -> JsonParser.parseString(readString(in));
+            default -> throw new IOException("快照中存在未知的值类型: " + tag);
+        };
+    }
+
+    // writeUTF 最长只支持 65535 字节，VarChar 字段可能更长
+    private static void writeString(DataOutput out, String text) throws IOException {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInput in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public void close() {
+        storage.close();
+    }
+
+}
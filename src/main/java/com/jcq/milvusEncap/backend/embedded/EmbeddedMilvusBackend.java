@@ -0,0 +1,245 @@
+package com.jcq.milvusEncap.backend.embedded;
+
+import com.jcq.milvusEncap.backend.MilvusStorageBackend;
+import com.jcq.milvusEncap.codec.MilvusEntityMetadata;
+import com.jcq.milvusEncap.schema.EntitySchemaResolver;
+import com.jcq.milvusEncap.service.milvus.MilvusOperationContext;
+import io.milvus.v2.service.vector.request.DeleteReq;
+import io.milvus.v2.service.vector.request.InsertReq;
+import io.milvus.v2.service.vector.request.QueryIteratorReq;
+import io.milvus.v2.service.vector.request.QueryReq;
+import io.milvus.v2.service.vector.request.SearchReq;
+import io.milvus.v2.service.vector.request.data.BaseVector;
+import io.milvus.v2.service.vector.response.DeleteResp;
+import io.milvus.v2.service.vector.response.InsertResp;
+import io.milvus.v2.service.vector.response.QueryResp;
+import io.milvus.v2.service.vector.response.SearchResp;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * 进程内的存储后端：每个集合在本地维护 HNSW 索引与标量数据，不依赖 Milvus 服务，适用于数据量小的租户、边缘部署与集成测试
+ *
+ * <p>配置 milvus.backend.type=embedded 时启用：</p>
+ * <ul>
+ *     <li>milvus.backend.embedded.storage：向量存储方式，offheap（默认，DirectByteBuffer）或 mmap（文件映射）</li>
+ *     <li>milvus.backend.embedded.data-dir：快照目录，为空时不持久化（mmap 模式使用临时目录）</li>
+ *     <li>milvus.backend.embedded.snapshot-interval-ms：有写入的集合定期写快照，停机时也会写一次</li>
+ *     <li>milvus.backend.embedded.ef-search：HNSW 检索的候选集大小，可通过检索参数 ef 单独指定</li>
+ *     <li>milvus.backend.embedded.brute-force-threshold：数据量或满足过滤条件的行数不超过该值时精确计算</li>
+ *     <li>milvus.backend.embedded.compact-ratio：已删除（含被覆盖写入）的节点占比超过该值时重建集合的向量存储与索引，写快照前也会重建</li>
+ * </ul>
+ *
+ * @author : jucunqi
+ * @since : 2025/10/16
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "milvus.backend", name = "type", havingValue = "embedded")
+public class EmbeddedMilvusBackend implements MilvusStorageBackend {
+
+    public static final String ENDPOINT = "embedded";
+
+    @Value("${milvus.backend.embedded.storage:offheap}")
+    private String storage;
+    @Value("${milvus.backend.embedded.data-dir:}")
+    private String dataDir;
+    @Value("${milvus.backend.embedded.ef-search:64}")
+    private int efSearch;
+    @Value("${milvus.backend.embedded.brute-force-threshold:1024}")
+    private int bruteForceThreshold;
+    @Value("${milvus.backend.embedded.compact-ratio:0.3}")
+    private double compactRatio;
+
+    private final Map<String, EmbeddedCollection> collections = new ConcurrentHashMap<>();
+    private Path mmapDir;
+
+    @Override
+    public synchronized void register(MilvusEntityMetadata<?> metadata) {
+        if (collections.containsKey(metadata.getCollectionName())) {
+            return;
+        }
+        try {
+            EmbeddedCollection collection = new EmbeddedCollection(EntitySchemaResolver.resolve(metadata.getEntityClass()),
+                    this::createStorage, efSearch, bruteForceThreshold, compactRatio);
+            if (!dataDir.isBlank()
+                    && CollectionSnapshot.restore(collection, CollectionSnapshot.file(Path.of(dataDir), collection.getName()))) {
+                log.info("嵌入式集合[{}]已从快照恢复，共 {} 行", collection.getName(), collection.size());
+            }
+            collections.put(collection.getName(), collection);
+        } catch (IOException e) {
+            throw new IllegalStateException("初始化嵌入式集合[" + metadata.getCollectionName() + "]失败: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public InsertResp insert(MilvusOperationContext context, InsertReq request) throws Exception {
+        return measure(context, () -> {
+            List<Long> ids = collection(request.getCollectionName()).insert(request.getData());
+            return InsertResp.builder()
+                    .InsertCnt(ids.size())
+                    .primaryKeys(new ArrayList<>(ids))
+                    .build();
+        });
+    }
+
+    @Override
+    public DeleteResp delete(MilvusOperationContext context, DeleteReq request) throws Exception {
+        return measure(context, () -> DeleteResp.builder()
+                .deleteCnt(collection(request.getCollectionName()).delete(request.getIds(), request.getFilter()))
+                .build());
+    }
+
+    @Override
+    public QueryResp query(MilvusOperationContext context, QueryReq request) throws Exception {
+        return measure(context, () -> {
+            EmbeddedCollection collection = collection(request.getCollectionName());
+            List<QueryResp.QueryResult> results = new ArrayList<>();
+            List<String> outputFields = request.getOutputFields();
+            if (outputFields != null && outputFields.contains(EmbeddedCollection.COUNT_FIELD)) {
+                // count(*) 只返回一行统计结果
+                results.add(QueryResp.QueryResult.builder()
+                        .entity(Collections.singletonMap(EmbeddedCollection.COUNT_FIELD, collection.count(request.getFilter())))
+                        .build());
+            } else {
+                for (Map<String, Object> entity : collection.query(request.getIds(), request.getFilter(),
+                        request.getOffset(), request.getLimit(), outputFields)) {
+                    results.add(QueryResp.QueryResult.builder().entity(entity).build());
+                }
+            }
+            return QueryResp.builder().queryResults(results).build();
+        });
+    }
+
+    @Override
+    public SearchResp search(MilvusOperationContext context, SearchReq request) throws Exception {
+        return measure(context, () -> {
+            EmbeddedCollection collection = collection(request.getCollectionName());
+            int topK = request.getTopK() > 0 ? request.getTopK() : (int) request.getLimit();
+            Map<String, Object> params = request.getSearchParams();
+            int ef = params != null && params.get("ef") instanceof Number number ? number.intValue() : 0;
+            String metricType = request.getMetricType() == null ? null : request.getMetricType().name();
+
+            List<List<SearchResp.SearchResult>> results = new ArrayList<>();
+            for (BaseVector vector : request.getData()) {
+                List<SearchResp.SearchResult> hits = new ArrayList<>();
+                for (EmbeddedCollection.Hit hit : collection.search(toFloatArray(vector), metricType, request.getFilter(),
+                        topK, (int) request.getOffset(), ef, request.getOutputFields())) {
+                    hits.add(SearchResp.SearchResult.builder()
+                            .id(hit.primaryKey())
+                            .primaryKey(collection.getPrimaryFieldName())
+                            .entity(hit.entity())
+                            .score(hit.score())
+                            .build());
+                }
+                results.add(hits);
+            }
+            return SearchResp.builder().searchResults(results).build();
+        });
+    }
+
+    @Override
+    public long export(MilvusOperationContext context, QueryIteratorReq request,
+                       Consumer<List<Map<String, Object>>> batchConsumer) throws Exception {
+        return measure(context, () -> collection(request.getCollectionName())
+                .export(request.getExpr(), request.getBatchSize(), request.getOutputFields(), batchConsumer));
+    }
+
+    /**
+     * 为有写入的集合写快照
+     */
+    @Scheduled(initialDelayString = "${milvus.backend.embedded.snapshot-interval-ms:60000}",
+            fixedDelayString = "${milvus.backend.embedded.snapshot-interval-ms:60000}")
+    public void snapshot() {
+        if (dataDir.isBlank()) {
+            return;
+        }
+        for (EmbeddedCollection collection : collections.values()) {
+            if (!collection.isDirty()) {
+                continue;
+            }
+            long start = System.nanoTime();
+            try {
+                CollectionSnapshot.save(collection, CollectionSnapshot.file(Path.of(dataDir), collection.getName()));
+                log.info("嵌入式集合[{}]快照完成，共 {} 行，耗时 {} ms", collection.getName(), collection.size(),
+                        (System.nanoTime() - start) / 1_000_000);
+            } catch (IOException e) {
+                log.error("嵌入式集合[{}]写快照失败，原因: {}", collection.getName(), e.getMessage(), e);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        snapshot();
+        collections.values().forEach(EmbeddedCollection::close);
+        collections.clear();
+    }
+
+    private EmbeddedCollection collection(String collectionName) {
+        EmbeddedCollection collection = collections.get(collectionName);
+        if (collection == null) {
+            throw new IllegalArgumentException("collection not found[collection=" + collectionName + "]");
+        }
+        return collection;
+    }
+
+    private VectorStorage createStorage(String collectionName, int dim) throws IOException {
+        if ("mmap".equalsIgnoreCase(storage)) {
+            return VectorStorage.mmap(dim, mmapDir().resolve(collectionName + ".vectors"));
+        }
+        if (!"offheap".equalsIgnoreCase(storage)) {
+            throw new IllegalArgumentException("milvus.backend.embedded.storage 只支持 offheap 或 mmap: " + storage);
+        }
+        return VectorStorage.offHeap(dim);
+    }
+
+    private synchronized Path mmapDir() throws IOException {
+        if (mmapDir == null) {
+            mmapDir = dataDir.isBlank() ? Files.createTempDirectory("milvus-embedded") : Path.of(dataDir);
+        }
+        return mmapDir;
+    }
+
+    /**
+     * 记录 server 阶段耗时，嵌入式后端没有获取客户端的阶段
+     */
+    private static <S> S measure(MilvusOperationContext context, Callable<S> call) throws Exception {
+        context.setEndpoint(ENDPOINT);
+        long start = System.nanoTime();
+        S response = call.call();
+        context.setServerNanos(System.nanoTime() - start);
+        return response;
+    }
+
+    private static float[] toFloatArray(BaseVector vector) {
+        Object data = vector.getData();
+        if (data instanceof float[] array) {
+            return array;
+        }
+        if (!(data instanceof List<?> list)) {
+            throw new IllegalArgumentException("嵌入式后端只支持 FloatVector 检索");
+        }
+        float[] array = new float[list.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = ((Number) list.get(i)).floatValue();
+        }
+        return array;
+    }
+
+}
@@ -0,0 +1,323 @@
+package com.jcq.milvusEncap.backend.embedded;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+/**
+ * 在进程内对行数据求值的过滤表达式，覆盖 MilvusLambdaQueryWrapper、SDK（按主键删除、QueryIterator）生成的表达式：
+ * {@code == != > >= < <=}、{@code in [..]}、{@code not in [..]}、{@code like "%x%"}，
+ * 以及 {@code and / or / not}（含 {@code && || !}）与括号
+ *
+ * <p>引用了集合中不存在的字段时抛出 IllegalArgumentException，与 Milvus 返回错误的行为一致</p>
+ *
+ * @author : jucunqi
+ * @since : 2025/10/16
+ */
+public final class FilterExpression {
+
+    // 业务中的过滤条件模式有限，解析结果按 (字段集合, 表达式) 缓存
+    private static final int CACHE_LIMIT = 4096;
+    private static final Map<String, Predicate<Map<String, Object>>> CACHE = new ConcurrentHashMap<>();
+
+    private final String expr;
+    private final Set<String> fields;
+    private int pos;
+
+    private FilterExpression(String expr, Set<String> fields) {
+        this.expr = expr;
+        this.fields = fields;
+    }
+
+    /**
+     * 解析过滤表达式，表达式为空时匹配全部行
+     * @param expr 过滤表达式
+     * @param fields 集合中的全部字段名
+     * @return 以列名为 key 的行数据的断言
+     */
+    public static Predicate<Map<String, Object>> parse(String expr, Set<String> fields) {
+        if (expr == null || expr.isBlank()) {
+            return row -> true;
+        }
+        String key = fields.hashCode() + "|" + expr;
+        Predicate<Map<String, Object>> predicate = CACHE.get(key);
+        if (predicate == null) {
+            FilterExpression parser = new FilterExpression(expr, fields);
+            predicate = parser.parseOr();
+            parser.skipSpaces();
+            if (parser.pos < expr.length()) {
+                throw parser.error("无法解析的内容");
+            }
+            if (CACHE.size() >= CACHE_LIMIT) {
+                CACHE.clear();
+            }
+            CACHE.put(key, predicate);
+        }
+        return predicate;
+    }
+
+    /**
+     * 表达式只是 {@code field == 值} 或 {@code field in [..]} 时返回这些值，否则返回 null，用于按主键直接定位数据
+     */
+    public static List<Object> equalityValues(String expr, String field) {
+        if (expr == null || expr.isBlank()) {
+            return null;
+        }
+        FilterExpression parser = new FilterExpression(expr, Set.of(field));
+        try {
+            if (!field.equals(parser.identifier())) {
+                return null;
+            }
+            List<Object> values;
+            if (parser.accept("==")) {
+                values = List.of(parser.literal());
+            } else if (parser.acceptKeyword("in")) {
+                values = parser.list();
+            } else {
+                return null;
+            }
+            parser.skipSpaces();
+            return parser.pos == expr.length() ? values : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private Predicate<Map<String, Object>> parseOr() {
+        Predicate<Map<String, Object>> left = parseAnd();
+        while (acceptKeyword("or") || accept("||")) {
+            left = left.or(parseAnd());
+        }
+        return left;
+    }
+
+    private Predicate<Map<String, Object>> parseAnd() {
+        Predicate<Map<String, Object>> left = parseNot();
+        while (acceptKeyword("and") || accept("&&")) {
+            left = left.and(parseNot());
+        }
+        return left;
+    }
+
+    private Predicate<Map<String, Object>> parseNot() {
+        if (acceptKeyword("not") || (!peek("!=") && accept("!"))) {
+            return parseNot().negate();
+        }
+        return parsePrimary();
+    }
+
+    private Predicate<Map<String, Object>> parsePrimary() {
+        if (accept("(")) {
+            Predicate<Map<String, Object>> inner = parseOr();
+            expect(")");
+            return inner;
+        }
+        String field = identifier();
+        if (!fields.contains(field)) {
+            throw new IllegalArgumentException(String.format("field %s not exist, expr: %s", field, expr));
+        }
+        if (acceptKeyword("in")) {
+            List<Object> values = list();
+            return row -> containsValue(values, row.get(field));
+        }
+        if (acceptKeyword("not")) {
+            if (!acceptKeyword("in")) {
+                throw error("not 之后只支持 in");
+            }
+            List<Object> values = list();
+            return row -> row.get(field) != null && !containsValue(values, row.get(field));
+        }
+        if (acceptKeyword("like")) {
+            Object pattern = literal();
+            if (!(pattern instanceof String text)) {
+                throw error("like 只支持字符串");
+            }
+            Pattern regex = likePattern(text);
+            return row -> row.get(field) != null && regex.matcher(row.get(field).toString()).matches();
+        }
+        for (String operator : new String[]{"==", "!=", ">=", "<=", ">", "<"}) {
+            if (accept(operator)) {
+                Object value = literal();
+                return row -> compare(row.get(field), operator, value);
+            }
+        }
+        throw error("缺少比较运算符");
+    }
+
+    private List<Object> list() {
+        expect("[");
+        List<Object> values = new ArrayList<>();
+        if (accept("]")) {
+            return values;
+        }
+        do {
+            values.add(literal());
+        } while (accept(","));
+        expect("]");
+        return values;
+    }
+
+    private Object literal() {
+        skipSpaces();
+        if (pos >= expr.length()) {
+            throw error("缺少值");
+        }
+        char c = expr.charAt(pos);
+        if (c == '"' || c == '\'') {
+            StringBuilder text = new StringBuilder();
+            pos++;
+            while (pos < expr.length() && expr.charAt(pos) != c) {
+                if (expr.charAt(pos) == '\\' && pos + 1 < expr.length()) {
+                    pos++;
+                }
+                text.append(expr.charAt(pos++));
+            }
+            expect(String.valueOf(c));
+            return text.toString();
+        }
+        if (acceptKeyword("true")) {
+            return Boolean.TRUE;
+        }
+        if (acceptKeyword("false")) {
+            return Boolean.FALSE;
+        }
+        int start = pos;
+        while (pos < expr.length() && "+-.0123456789eE".indexOf(expr.charAt(pos)) >= 0) {
+            pos++;
+        }
+        String number = expr.substring(start, pos);
+        if (number.isEmpty()) {
+            throw error("无法识别的值");
+        }
+        if (number.contains(".") || number.contains("e") || number.contains("E")) {
+            return Double.valueOf(number);
+        }
+        return Long.valueOf(number);
+    }
+
+    private String identifier() {
+        skipSpaces();
+        int start = pos;
+        while (pos < expr.length() && (Character.isLetterOrDigit(expr.charAt(pos)) || expr.charAt(pos) == '_'
+                || expr.charAt(pos) == '$')) {
+            pos++;
+        }
+        if (start == pos) {
+            throw error("缺少字段名");
+        }
+        return expr.substring(start, pos);
+    }
+
+    private boolean acceptKeyword(String keyword) {
+        skipSpaces();
+        int end = pos + keyword.length();
+        if (end <= expr.length() && expr.regionMatches(true, pos, keyword, 0, keyword.length())
+                && (end == expr.length() || !Character.isLetterOrDigit(expr.charAt(end)) && expr.charAt(end) != '_')) {
+            pos = end;
+            return true;
+        }
+        return false;
+    }
+
+    private boolean peek(String token) {
+        skipSpaces();
+        return expr.startsWith(token, pos);
+    }
+
+    private boolean accept(String token) {
+        if (peek(token)) {
+            pos += token.length();
+            return true;
+        }
+        return false;
+    }
+
+    private void expect(String token) {
+        if (!accept(token)) {
+            throw error("缺少 " + token);
+        }
+    }
+
+    private void skipSpaces() {
+        while (pos < expr.length() && Character.isWhitespace(expr.charAt(pos))) {
+            pos++;
+        }
+    }
+
+    private IllegalArgumentException error(String message) {
+        return new IllegalArgumentException(String.format("cannot parse expression: %s, %s (位置 %d)", expr, message, pos));
+    }
+
+    private static boolean containsValue(List<Object> values, Object actual) {
+        if (actual == null) {
+            return false;
+        }
+        for (Object value : values) {
+            if (compare(actual, "==", value)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean compare(Object actual, String operator, Object expected) {
+        if (actual == null) {
+            return false;
+        }
+        int result;
+        if (actual instanceof Number number && expected instanceof Number other) {
+            result = isIntegral(number) && isIntegral(other)
+                    ? Long.compare(number.longValue(), other.longValue())
+                    : Double.compare(number.doubleValue(), other.doubleValue());
+        } else if (actual instanceof String text && expected instanceof String other) {
+            result = text.compareTo(other);
+        } else if (operator.equals("==")) {
+            return Objects.equals(actual, expected);
+        } else if (operator.equals("!=")) {
+            return !Objects.equals(actual, expected);
+        } else {
+            throw new IllegalArgumentException(String.format("cannot compare %s with %s", actual, expected));
+        }
+        return switch (operator) {
+            case "==" -> result == 0;
+            case "!=" -> result != 0;
+            case ">" -> result > 0;
+            case ">=" -> result >= 0;
+            case "<" -> result < 0;
+            default -> result <= 0;
+        };
+    }
+
+    private static boolean isIntegral(Number number) {
+        return number instanceof Long || number instanceof Integer || number instanceof Short || number instanceof Byte;
+    }
+
+    /**
+     * Milvus 的 like 只支持 % 通配符
+     */
+    private static Pattern likePattern(String like) {
+        StringBuilder regex = new StringBuilder();
+        StringBuilder literal = new StringBuilder();
+        for (char c : like.toCharArray()) {
+            if (c == '%') {
+                if (!literal.isEmpty()) {
+                    regex.append(Pattern.quote(literal.toString()));
+                    literal.setLength(0);
+                }
+                regex.append(".*");
+            } else {
+                literal.append(c);
+            }
+        }
+        if (!literal.isEmpty()) {
+            regex.append(Pattern.quote(literal.toString()));
+        }
+        return Pattern.compile(regex.toString(), Pattern.DOTALL);
+    }
+
+}
@@ -0,0 +1,324 @@
+package com.jcq.milvusEncap.backend.embedded;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.function.IntPredicate;
+
+/**
+ * HNSW（Hierarchical Navigable Small World）图索引，节点为 VectorStorage 中的向量序号，按写入顺序从 0 开始连续分配
+ *
+ * <p>参数与 Milvus 一致：M 为每层的最大邻居数（第 0 层为 2M），efConstruction 为构建时的候选集大小，
+ * 检索时的 ef 越大召回率越高。邻居选择使用论文中的启发式算法，避免邻居集中在同一个方向。
+ * 删除的节点保留在图中继续参与导航，由调用方通过 accept 从结果中排除，已删除节点过多时由调用方重建索引</p>
+ *
+ * <p>本类不做同步：写入需要持有写锁，检索可以在读锁下并发执行</p>
+ *
+ * @author : jucunqi
+ * @since : 2025/10/16
+ */
+final class HnswIndex {
+
+    /**
+     * 查询向量到节点的距离，越小越相似
+     */
+    @FunctionalInterface
+    interface Distance {
+        float between(int node, float[] query);
+    }
+
+    /**
+     * 按距离从小到大排列的检索结果
+     */
+    record Result(int[] nodes, float[] distances) {
+    }
+
+    private static final ThreadLocal<Visited> VISITED = ThreadLocal.withInitial(Visited::new);
+
+    private final int m;
+    private final int maxM0;
+    private final int efConstruction;
+    private final double levelMultiplier;
+    private final Distance distance;
+    private final VectorStorage storage;
+    private final SplittableRandom random = new SplittableRandom(42);
+
+    // links[node][level] 的第一个元素为邻居数，之后是邻居序号
+    private int[][][] links = new int[0][][];
+    private int size;
+    private int entryPoint = -1;
+    private int maxLevel = -1;
+
+    HnswIndex(int m, int efConstruction, Distance distance, VectorStorage storage) {
+        this.m = Math.max(2, m);
+        this.maxM0 = this.m * 2;
+        this.efConstruction = Math.max(efConstruction, this.m);
+        this.levelMultiplier = 1 / Math.log(this.m);
+        this.distance = distance;
+        this.storage = storage;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * 将向量已写入 storage 的节点加入图中，node 必须等于当前节点数
+     */
+    void add(int node, float[] vector) {
+        if (node != size) {
+            throw new IllegalStateException("节点需要按顺序加入索引, expected " + size + ", actual " + node);
+        }
+        int level = (int) (-Math.log(1 - random.nextDouble()) * levelMultiplier);
+        if (node == links.length) {
+            links = Arrays.copyOf(links, Math.max(16, links.length * 2));
+        }
+        int[][] nodeLinks = new int[level + 1][];
+        for (int l = 0; l <= level; l++) {
+            nodeLinks[l] = new int[maxConnections(l) + 1];
+        }
+        links[node] = nodeLinks;
+        size++;
+
+        if (entryPoint < 0) {
+            entryPoint = node;
+            maxLevel = level;
+            return;
+        }
+
+        int current = entryPoint;
+        float currentDistance = distance.between(current, vector);
+        for (int l = maxLevel; l > level; l--) {
+            current = greedy(vector, current, currentDistance, l);
+            currentDistance = distance.between(current, vector);
+        }
+        for (int l = Math.min(level, maxLevel); l >= 0; l--) {
+            Result candidates = searchLayer(vector, current, currentDistance, efConstruction, l, null).drainAscending();
+            int[] neighbours = selectNeighbours(candidates.nodes(), candidates.distances(), m);
+            int[] own = nodeLinks[l];
+            own[0] = neighbours.length;
+            System.arraycopy(neighbours, 0, own, 1, neighbours.length);
+            for (int neighbour : neighbours) {
+                connect(neighbour, node, l);
+            }
+            current = candidates.nodes()[0];
+            currentDistance = candidates.distances()[0];
+        }
+        if (level > maxLevel) {
+            entryPoint = node;
+            maxLevel = level;
+        }
+    }
+
+    /**
+     * 检索最相似的 k 个被 accept 接受的节点
+     * @param ef 候选集大小，不小于 k
+     * @param accept 结果过滤条件，不满足的节点仍然参与导航，为空时不过滤
+     */
+    Result search(float[] query, int k, int ef, IntPredicate accept) {
+        if (entryPoint < 0 || k <= 0) {
+            return new Result(new int[0], new float[0]);
+        }
+        int current = entryPoint;
+        float currentDistance = distance.between(current, query);
+        for (int l = maxLevel; l > 0; l--) {
+            current = greedy(query, current, currentDistance, l);
+            currentDistance = distance.between(current, query);
+        }
+        NodeHeap results = searchLayer(query, current, currentDistance, Math.max(ef, k), 0, accept);
+        while (results.size() > k) {
+            results.pop();
+        }
+        return results.drainAscending();
+    }
+
+    /**
+     * 在上层图中贪心移动到最近的节点
+     */
+    private int greedy(float[] query, int start, float startDistance, int level) {
+        int current = start;
+        float best = startDistance;
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            int[] neighbours = links[current][level];
+            for (int i = 1; i <= neighbours[0]; i++) {
+                float d = distance.between(neighbours[i], query);
+                if (d < best) {
+                    best = d;
+                    current = neighbours[i];
+                    changed = true;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * 在一层图中做 best-first 搜索，返回最多 ef 个节点的最大堆
+     */
+    private NodeHeap searchLayer(float[] query, int entry, float entryDistance, int ef, int level, IntPredicate accept) {
+        Visited visited = VISITED.get();
+        visited.reset(size);
+        NodeHeap candidates = NodeHeap.min(ef * 2);
+        NodeHeap results = NodeHeap.max(ef + 1);
+
+        visited.mark(entry);
+        candidates.push(entry, entryDistance);
+        if (accept == null || accept.test(entry)) {
+            results.push(entry, entryDistance);
+        }
+        while (!candidates.isEmpty()) {
+            float candidateDistance = candidates.peekDistance();
+            if (results.size() >= ef && candidateDistance > results.peekDistance()) {
+                break;
+            }
+            int candidate = candidates.pop();
+            int[] neighbours = links[candidate][level];
+            for (int i = 1; i <= neighbours[0]; i++) {
+                int neighbour = neighbours[i];
+                if (!visited.mark(neighbour)) {
+                    continue;
+                }
+                float d = distance.between(neighbour, query);
+                if (results.size() < ef || d < results.peekDistance()) {
+                    candidates.push(neighbour, d);
+                    if (accept == null || accept.test(neighbour)) {
+                        results.push(neighbour, d);
+                        if (results.size() > ef) {
+                            results.pop();
+                        }
+                    }
+                }
+            }
+        }
+        return results;
+    }
+
+    /**
+     * 启发式邻居选择：候选按距离从近到远考察，只有比已选中的邻居都更接近基准点时才选中
+     */
+    private int[] selectNeighbours(int[] candidates, float[] distances, int limit) {
+        if (candidates.length <= limit) {
+            return candidates;
+        }
+        int[] selected = new int[limit];
+        int count = 0;
+        for (int i = 0; i < candidates.length && count < limit; i++) {
+            float[] vector = storage.get(candidates[i]);
+            boolean good = true;
+            for (int j = 0; j < count; j++) {
+                if (distance.between(selected[j], vector) < distances[i]) {
+                    good = false;
+                    break;
+                }
+            }
+            if (good) {
+                selected[count++] = candidates[i];
+            }
+        }
+        return Arrays.copyOf(selected, count);
+    }
+
+    private void connect(int node, int neighbour, int level) {
+        int[] nodeLinks = links[node][level];
+        int count = nodeLinks[0];
+        if (count < nodeLinks.length - 1) {
+            nodeLinks[count + 1] = neighbour;
+            nodeLinks[0] = count + 1;
+            return;
+        }
+        // 邻居已满，在原有邻居与新节点中重新选择
+        float[] vector = storage.get(node);
+        NodeHeap heap = NodeHeap.max(count + 1);
+        for (int i = 1; i <= count; i++) {
+            heap.push(nodeLinks[i], distance.between(nodeLinks[i], vector));
+        }
+        heap.push(neighbour, distance.between(neighbour, vector));
+        Result candidates = heap.drainAscending();
+        int[] selected = selectNeighbours(candidates.nodes(), candidates.distances(), nodeLinks.length - 1);
+        nodeLinks[0] = selected.length;
+        System.arraycopy(selected, 0, nodeLinks, 1, selected.length);
+    }
+
+    private int maxConnections(int level) {
+        return level == 0 ? maxM0 : m;
+    }
+
+    void write(DataOutput out) throws IOException {
+        out.writeInt(size);
+        out.writeInt(entryPoint);
+        out.writeInt(maxLevel);
+        for (int node = 0; node < size; node++) {
+            int[][] nodeLinks = links[node];
+            out.writeByte(nodeLinks.length - 1);
+            for (int[] levelLinks : nodeLinks) {
+                out.writeShort(levelLinks[0]);
+                for (int i = 1; i <= levelLinks[0]; i++) {
+                    out.writeInt(levelLinks[i]);
+                }
+            }
+        }
+    }
+
+    void read(DataInput in) throws IOException {
+        int count = in.readInt();
+        int entry = in.readInt();
+        int level = in.readInt();
+        int[][][] restored = new int[Math.max(16, count)][][];
+        for (int node = 0; node < count; node++) {
+            int[][] nodeLinks = new int[in.readByte() + 1][];
+            for (int l = 0; l < nodeLinks.length; l++) {
+                int[] levelLinks = new int[maxConnections(l) + 1];
+                int neighbours = in.readShort();
+                if (neighbours > levelLinks.length - 1) {
+                    throw new IOException("快照中的邻居数超过了索引参数 M 的限制");
+                }
+                levelLinks[0] = neighbours;
+                for (int i = 1; i <= neighbours; i++) {
+                    levelLinks[i] = in.readInt();
+                }
+                nodeLinks[l] = levelLinks;
+            }
+            restored[node] = nodeLinks;
+        }
+        this.links = restored;
+        this.size = count;
+        this.entryPoint = entry;
+        this.maxLevel = level;
+    }
+
+    /**
+     * 每个线程复用的访问标记，通过递增 epoch 清空
+     */
+    private static final class Visited {
+
+        private int[] marks = new int[0];
+        private int epoch;
+
+        void reset(int capacity) {
+            if (marks.length < capacity) {
+                marks = new int[Math.max(capacity, marks.length * 2)];
+                epoch = 0;
+            }
+            if (++epoch == Integer.MAX_VALUE) {
+                Arrays.fill(marks, 0);
+                epoch = 1;
+            }
+        }
+
+        /**
+         * @return 节点之前未被访问过时返回 true
+         */
+        boolean mark(int node) {
+            if (marks[node] == epoch) {
+                return false;
+            }
+            marks[node] = epoch;
+            return true;
+        }
+    }
+
+}
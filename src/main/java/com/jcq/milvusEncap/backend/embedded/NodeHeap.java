@@ -0,0 +1,117 @@
+package com.jcq.milvusEncap.backend.embedded;
+
+import java.util.Arrays;
+
+/**
+ * 以距离排序的节点二叉堆，节点与距离分别保存在基本类型数组中，检索过程中不产生装箱对象
+ *
+ * @author : jucunqi
+ * @since : 2025/10/16
+ */
+final class NodeHeap {
+
+    private final boolean maxHeap;
+    private int[] nodes;
+    private float[] distances;
+    private int size;
+
+    private NodeHeap(boolean maxHeap, int capacity) {
+        this.maxHeap = maxHeap;
+        this.nodes = new int[Math.max(capacity, 4)];
+        this.distances = new float[nodes.length];
+    }
+
+    /**
+     * 堆顶为距离最小的节点，用作待扩展的候选集
+     */
+    static NodeHeap min(int capacity) {
+        return new NodeHeap(false, capacity);
+    }
+
+    /**
+     * 堆顶为距离最大的节点，用作保留 ef 个最近节点的结果集
+     */
+    static NodeHeap max(int capacity) {
+        return new NodeHeap(true, capacity);
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    int peekNode() {
+        return nodes[0];
+    }
+
+    float peekDistance() {
+        return distances[0];
+    }
+
+    void push(int node, float distance) {
+        if (size == nodes.length) {
+            nodes = Arrays.copyOf(nodes, size * 2);
+            distances = Arrays.copyOf(distances, size * 2);
+        }
+        int i = size++;
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (!before(distance, distances[parent])) {
+                break;
+            }
+            nodes[i] = nodes[parent];
+            distances[i] = distances[parent];
+            i = parent;
+        }
+        nodes[i] = node;
+        distances[i] = distance;
+    }
+
+    /**
+     * 弹出堆顶节点，调用前先通过 {@link #peekDistance()} 读取距离
+     */
+    int pop() {
+        int top = nodes[0];
+        int node = nodes[--size];
+        float distance = distances[size];
+        int i = 0;
+        int half = size >>> 1;
+        while (i < half) {
+            int child = 2 * i + 1;
+            if (child + 1 < size && before(distances[child + 1], distances[child])) {
+                child++;
+            }
+            if (!before(distances[child], distance)) {
+                break;
+            }
+            nodes[i] = nodes[child];
+            distances[i] = distances[child];
+            i = child;
+        }
+        nodes[i] = node;
+        distances[i] = distance;
+        return top;
+    }
+
+    /**
+     * 清空最大堆并按距离从小到大输出
+     */
+    HnswIndex.Result drainAscending() {
+        int count = size;
+        int[] sortedNodes = new int[count];
+        float[] sortedDistances = new float[count];
+        for (int i = count - 1; i >= 0; i--) {
+            sortedDistances[i] = peekDistance();
+            sortedNodes[i] = pop();
+        }
+        return new HnswIndex.Result(sortedNodes, sortedDistances);
+    }
+
+    private boolean before(float a, float b) {
+        return maxHeap ? a > b : a < b;
+    }
+
+}
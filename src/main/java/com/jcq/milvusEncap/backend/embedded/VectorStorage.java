@@ -0,0 +1,141 @@
+package com.jcq.milvusEncap.backend.embedded;
+
+import com.jcq.milvusEncap.vector.VectorKernel;
+import com.jcq.milvusEncap.vector.VectorKernels;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * 堆外的定长向量存储，按节点序号分块（每块 {@value #CHUNK_VECTORS} 个向量）分配，扩容时不移动已有数据
+ *
+ * <p>向量不占用 Java 堆，GC 不需要扫描；mmap 模式下由操作系统按需换入换出，数据量可以超过物理内存。
+ * 本类不做同步，由 EmbeddedCollection 的读写锁保证可见性</p>
+ *
+ * @author : jucunqi
+ * @since : 2025/10/16
+ */
+abstract class VectorStorage implements AutoCloseable {
+
+    static final int CHUNK_VECTORS = 4096;
+
+    private static final VectorKernel KERNEL = VectorKernels.get();
+    private static final ThreadLocal<float[]> SCRATCH = ThreadLocal.withInitial(() -> new float[0]);
+
+    private final int dim;
+    private FloatBuffer[] chunks = new FloatBuffer[0];
+
+    VectorStorage(int dim) {
+        this.dim = dim;
+    }
+
+    /**
+     * 使用 DirectByteBuffer 保存向量
+     */
+    static VectorStorage offHeap(int dim) {
+        return new VectorStorage(dim) {
+            @Override
+            ByteBuffer allocate(int chunk, int bytes) {
+                return ByteBuffer.allocateDirect(bytes);
+            }
+        };
+    }
+
+    /**
+     * 使用 dir 下的文件映射保存向量，文件只是向量的后备存储，持久化由快照负责，打开时会清空已有内容
+     */
+    static VectorStorage mmap(int dim, Path dir) throws IOException {
+        Files.createDirectories(dir);
+        return new VectorStorage(dim) {
+            @Override
+            ByteBuffer allocate(int chunk, int bytes) throws IOException {
+                try (FileChannel channel = FileChannel.open(dir.resolve("chunk-" + chunk + ".vec"),
+                        StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE,
+                        StandardOpenOption.TRUNCATE_EXISTING)) {
+                    // 映射建立后关闭文件通道不影响映射
+                    return channel.map(FileChannel.MapMode.READ_WRITE, 0, bytes);
+                }
+            }
+        };
+    }
+
+    abstract ByteBuffer allocate(int chunk, int bytes) throws IOException;
+
+    int dim() {
+        return dim;
+    }
+
+    void set(int node, float[] vector) throws IOException {
+        int chunk = node / CHUNK_VECTORS;
+        if (chunk >= chunks.length) {
+            FloatBuffer[] grown = Arrays.copyOf(chunks, chunk + 1);
+            for (int i = chunks.length; i < grown.length; i++) {
+                grown[i] = allocate(i, CHUNK_VECTORS * dim * Float.BYTES).order(ByteOrder.LITTLE_ENDIAN).asFloatBuffer();
+            }
+            chunks = grown;
+        }
+        chunks[chunk].put((node % CHUNK_VECTORS) * dim, vector, 0, dim);
+    }
+
+    /**
+     * 将 from 的向量复制到已分配的 to 位置，压缩时使用
+     */
+    void copy(int from, int to) {
+        float[] vector = get(from);
+        chunks[to / CHUNK_VECTORS].put((to % CHUNK_VECTORS) * dim, vector, 0, dim);
+    }
+
+    /**
+     * 释放 size 个节点之后不再使用的分块
+     */
+    void truncate(int size) {
+        int used = (size + CHUNK_VECTORS - 1) / CHUNK_VECTORS;
+        if (used < chunks.length) {
+            chunks = Arrays.copyOf(chunks, used);
+        }
+    }
+
+    float[] get(int node) {
+        float[] vector = new float[dim];
+        chunks[node / CHUNK_VECTORS].get((node % CHUNK_VECTORS) * dim, vector, 0, dim);
+        return vector;
+    }
+
+    float dot(int node, float[] query) {
+        return KERNEL.dot(load(node), query, dim);
+    }
+
+    /**
+     * 欧氏距离的平方，与 Milvus L2 返回的分数一致
+     */
+    float squaredL2(int node, float[] query) {
+        return KERNEL.squaredL2(load(node), query, dim);
+    }
+
+    /**
+     * 将向量批量复制到线程内复用的数组中再计算，逐个元素读取 Buffer 时每次都有边界检查且无法展开循环或使用 SIMD
+     */
+    private float[] load(int node) {
+        float[] vector = SCRATCH.get();
+        if (vector.length < dim) {
+            vector = new float[dim];
+            SCRATCH.set(vector);
+        }
+        chunks[node / CHUNK_VECTORS].get((node % CHUNK_VECTORS) * dim, vector, 0, dim);
+        return vector;
+    }
+
+    @Override
+    public void close() {
+        // 堆外内存与文件映射随 Buffer 被回收时释放
+        chunks = new FloatBuffer[0];
+    }
+
+}
@@ -0,0 +1,127 @@
+package com.jcq.milvusEncap.codec;
+
+import com.google.gson.JsonObject;
+import io.milvus.grpc.FieldData;
+import io.milvus.grpc.InsertRequest;
+import io.milvus.grpc.UpsertRequest;
+import io.milvus.v2.service.vector.request.InsertReq;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * 一批待插入的实体，由 {@link ColumnarInsertEncoder} 编码
+ *
+ * <p>列式批次已经编码为 gRPC 的 {@link FieldData}，可以直接组装 {@link InsertRequest} 发送；
+ * 不能按列编码时（存在 null 值、JSON 字段等）只有行数据，通过 SDK 的 {@link InsertReq} 写入。
+ * 列式批次也可以随时转换为行数据，供 embedded 后端或无法直接发送 gRPC 请求时使用</p>
+ *
+ * @author : jucunqi
+ * @since : 2025/10/16
+ */
+public final class ColumnarInsertBatch {
+
+    private final String collectionName;
+    private final int rowCount;
+    private final List<FieldData> columns;
+    private final Supplier<List<JsonObject>> rowSupplier;
+    private final long payloadBytes;
+    private List<JsonObject> rows;
+
+    private ColumnarInsertBatch(String collectionName, int rowCount, List<FieldData> columns,
+                                Supplier<List<JsonObject>> rowSupplier, List<JsonObject> rows, long payloadBytes) {
+        this.collectionName = collectionName;
+        this.rowCount = rowCount;
+        this.columns = columns;
+        this.rowSupplier = rowSupplier;
+        this.rows = rows;
+        this.payloadBytes = payloadBytes;
+    }
+
+    static ColumnarInsertBatch ofColumns(String collectionName, int rowCount, List<FieldData> columns,
+                                         Supplier<List<JsonObject>> rowSupplier) {
+        long payloadBytes = 0;
+        for (FieldData column : columns) {
+            payloadBytes += column.getSerializedSize();
+        }
+        return new ColumnarInsertBatch(collectionName, rowCount, columns, rowSupplier, null, payloadBytes);
+    }
+
+    static ColumnarInsertBatch ofRows(String collectionName, List<JsonObject> rows) {
+        long payloadBytes = 0;
+        for (JsonObject row : rows) {
+            payloadBytes += row.toString().length();
+        }
+        return new ColumnarInsertBatch(collectionName, rows.size(), null, null, rows, payloadBytes);
+    }
+
+    public String getCollectionName() {
+        return collectionName;
+    }
+
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * 是否已按列编码，为 false 时只能通过 {@link #toInsertReq()} 写入
+     */
+    public boolean isColumnar() {
+        return columns != null;
+    }
+
+    /**
+     * 估算的请求大小（字节）：列式批次为 gRPC 编码后的大小，行数据为 JSON 文本长度
+     */
+    public long getPayloadBytes() {
+        return payloadBytes;
+    }
+
+    /**
+     * 组装 gRPC 插入请求，列数据直接引用，不再复制
+     * @throws IllegalStateException 批次未按列编码时抛出
+     */
+    public InsertRequest toInsertRequest() {
+        if (columns == null) {
+            throw new IllegalStateException("批次未按列编码，只能按行写入");
+        }
+        return InsertRequest.newBuilder()
+                .setCollectionName(collectionName)
+                .addAllFieldsData(columns)
+                .setNumRows(rowCount)
+                .build();
+    }
+
+    /**
+     * 组装 gRPC 覆盖写入请求，字段与 {@link #toInsertRequest()} 相同
+     * @throws IllegalStateException 批次未按列编码时抛出
+     */
+    public UpsertRequest toUpsertRequest() {
+        if (columns == null) {
+            throw new IllegalStateException("批次未按列编码，只能按行写入");
+        }
+        return UpsertRequest.newBuilder()
+                .setCollectionName(collectionName)
+                .addAllFieldsData(columns)
+                .setNumRows(rowCount)
+                .build();
+    }
+
+    /**
+     * 转换为 SDK 的按行插入请求，列式批次在首次调用时才编码行数据
+     */
+    public InsertReq toInsertReq() {
+        return InsertReq.builder()
+                .collectionName(collectionName)
+                .data(getRows())
+                .build();
+    }
+
+    private synchronized List<JsonObject> getRows() {
+        if (rows == null) {
+            rows = rowSupplier.get();
+        }
+        return rows;
+    }
+
+}
@@ -0,0 +1,315 @@
+package com.jcq.milvusEncap.codec;
+
+import com.google.gson.JsonObject;
+import com.google.protobuf.UnsafeByteOperations;
+import com.jcq.milvusEncap.schema.EntitySchemaResolver;
+import io.milvus.grpc.BoolArray;
+import io.milvus.grpc.DoubleArray;
+import io.milvus.grpc.FieldData;
+import io.milvus.grpc.FloatArray;
+import io.milvus.grpc.IntArray;
+import io.milvus.grpc.LongArray;
+import io.milvus.grpc.ScalarField;
+import io.milvus.grpc.StringArray;
+import io.milvus.grpc.VectorField;
+import io.milvus.v2.common.DataType;
+import io.milvus.v2.service.collection.request.CreateCollectionReq;
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.lang.reflect.Field;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 批量插入的列式编码器：按列遍历一批实体，标量写入 gRPC 的基本类型数组，向量按行拼接为一整段
+ * （float 向量为 repeated float，半精度向量为小端字节），直接生成 {@link FieldData}
+ *
+ * <p>SDK 的 InsertReq 只接受 JsonObject 行数据，每个向量元素都会经历 JsonPrimitive、Float 装箱与
+ * List&lt;Float&gt; 等中间对象；按列编码后每行只剩基本类型的复制，不再产生与维度成正比的小对象</p>
+ *
+ * <p>以下情况回退为按行编码（与单条插入的行格式一致），保证语义不变：实体包含 JSON（Map）等不支持按列编码的字段，
+ * 或者本批次中某个字段的值为 null（列式编码无法表达“不输出该字段”）</p>
+ *
+ * @param <T> 实体类型
+ *
+ * @author : jucunqi
+ * @since : 2025/10/16
+ */
+@Slf4j
+public final class ColumnarInsertEncoder<T> {
+
+    private static final VarHandle SHORT_LE = MethodHandles.byteArrayViewVarHandle(short[].class, ByteOrder.LITTLE_ENDIAN);
+
+    private final MilvusRowCodec<T> codec;
+    // 不支持按列编码时为 null
+    private final List<Column> columns;
+
+    private ColumnarInsertEncoder(MilvusRowCodec<T> codec, List<Column> columns) {
+        this.codec = codec;
+        this.columns = columns;
+    }
+
+    /**
+     * 按实体元数据与注解解析的集合定义创建编码器，实体不支持按列编码时创建只按行编码的编码器
+     */
+    public static <T> ColumnarInsertEncoder<T> of(MilvusEntityMetadata<T> metadata) {
+        List<Column> columns;
+        try {
+            columns = resolveColumns(metadata);
+        } catch (IllegalArgumentException e) {
+            log.info("实体[{}]不支持按列批量插入，改为按行编码，原因: {}", metadata.getEntityClass().getName(), e.getMessage());
+            columns = null;
+        }
+        return new ColumnarInsertEncoder<>(metadata.getCodec(), columns);
+    }
+
+    /**
+     * 实体是否支持按列编码
+     */
+    public boolean isColumnar() {
+        return columns != null;
+    }
+
+    /**
+     * 编码一批实体
+     * @throws IllegalArgumentException 向量维度与集合定义不一致时抛出
+     */
+    public ColumnarInsertBatch encode(String collectionName, List<T> entities) {
+        if (columns != null) {
+            List<FieldData> fieldData = new ArrayList<>(columns.size());
+            try {
+                for (Column column : columns) {
+                    FieldData data = column.encode(entities);
+                    if (data == null) {
+                        // 存在 null 值，整批按行编码
+                        return ColumnarInsertBatch.ofRows(collectionName, toRows(entities));
+                    }
+                    fieldData.add(data);
+                }
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException(e);
+            }
+            return ColumnarInsertBatch.ofColumns(collectionName, entities.size(), fieldData, () -> toRows(entities));
+        }
+        return ColumnarInsertBatch.ofRows(collectionName, toRows(entities));
+    }
+
+    private List<JsonObject> toRows(List<T> entities) {
+        List<JsonObject> rows = new ArrayList<>(entities.size());
+        for (T entity : entities) {
+            rows.add(codec.toRow(entity));
+        }
+        return rows;
+    }
+
+    private static List<Column> resolveColumns(MilvusEntityMetadata<?> metadata) {
+        Class<?> entityClass = metadata.getEntityClass();
+        CreateCollectionReq.CollectionSchema schema = EntitySchemaResolver.resolve(entityClass).getCollectionSchema();
+        List<String> fieldNames = metadata.getFieldNames();
+        List<String> columnNames = metadata.getColumnNames();
+        List<Column> columns = new ArrayList<>(fieldNames.size());
+        for (int i = 0; i < fieldNames.size(); i++) {
+            CreateCollectionReq.FieldSchema fieldSchema = schema.getField(columnNames.get(i));
+            if (fieldSchema == null) {
+                throw new IllegalArgumentException("集合定义中缺少列 " + columnNames.get(i));
+            }
+            if (Boolean.TRUE.equals(fieldSchema.getAutoID())) {
+                // 自增主键由 Milvus 生成，不输出
+                continue;
+            }
+            DataType dataType = fieldSchema.getDataType();
+            switch (dataType) {
+                case Bool, Int8, Int16, Int32, Int64, Float, Double, VarChar,
+                        FloatVector, Float16Vector, BFloat16Vector -> {
+                    // 支持按列编码
+                }
+                default -> throw new IllegalArgumentException(String.format("字段[%s]的类型%s不支持按列编码",
+                        fieldNames.get(i), dataType));
+            }
+            Field field = findField(entityClass, fieldNames.get(i));
+            int dim = fieldSchema.getDimension() != null ? fieldSchema.getDimension() : 0;
+            columns.add(new Column(field, columnNames.get(i), dataType, dim));
+        }
+        return columns;
+    }
+
+    private static Field findField(Class<?> entityClass, String name) {
+        for (Class<?> current = entityClass; current != null && current != Object.class; current = current.getSuperclass()) {
+            try {
+                Field field = current.getDeclaredField(name);
+                field.setAccessible(true);
+                return field;
+            } catch (NoSuchFieldException ignored) {
+                // 在父类中继续查找
+            }
+        }
+        throw new IllegalArgumentException(String.format("实体类[%s]中不存在字段[%s]", entityClass.getName(), name));
+    }
+
+    /**
+     * 一列的编码方式，基本类型字段使用 Field 的基本类型读取方法，不装箱
+     */
+    private static final class Column {
+
+        private final Field field;
+        private final String name;
+        private final DataType dataType;
+        private final int dim;
+        private final boolean primitive;
+
+        Column(Field field, String name, DataType dataType, int dim) {
+            this.field = field;
+            this.name = name;
+            this.dataType = dataType;
+            this.dim = dim;
+            this.primitive = field.getType().isPrimitive();
+        }
+
+        /**
+         * 编码整列，存在 null 值时返回 null
+         */
+        FieldData encode(List<?> entities) throws IllegalAccessException {
+            FieldData.Builder builder = FieldData.newBuilder()
+                    .setFieldName(name)
+                    .setType(io.milvus.grpc.DataType.forNumber(dataType.getCode()));
+            return switch (dataType) {
+                case FloatVector -> encodeFloatVectors(builder, entities);
+                case Float16Vector, BFloat16Vector -> encodeHalfVectors(builder, entities);
+                default -> encodeScalars(builder, entities);
+            };
+        }
+
+        private FieldData encodeFloatVectors(FieldData.Builder builder, List<?> entities) throws IllegalAccessException {
+            FloatArray.Builder values = FloatArray.newBuilder();
+            for (int row = 0; row < entities.size(); row++) {
+                float[] vector = (float[]) field.get(entities.get(row));
+                if (vector == null) {
+                    return null;
+                }
+                checkDimension(row, vector.length);
+                for (float value : vector) {
+                    values.addData(value);
+                }
+            }
+            return builder.setVectors(VectorField.newBuilder().setDim(dim).setFloatVector(values)).build();
+        }
+
+        private FieldData encodeHalfVectors(FieldData.Builder builder, List<?> entities) throws IllegalAccessException {
+            byte[] bytes = new byte[entities.size() * dim * Short.BYTES];
+            int offset = 0;
+            for (int row = 0; row < entities.size(); row++) {
+                short[] vector = (short[]) field.get(entities.get(row));
+                if (vector == null) {
+                    return null;
+                }
+                checkDimension(row, vector.length);
+                for (short value : vector) {
+                    SHORT_LE.set(bytes, offset, value);
+                    offset += Short.BYTES;
+                }
+            }
+            VectorField.Builder vectors = VectorField.newBuilder().setDim(dim);
+            // 字节数组只在这里写入，之后不再修改，直接包装不复制
+            if (dataType == DataType.BFloat16Vector) {
+                vectors.setBfloat16Vector(UnsafeByteOperations.unsafeWrap(bytes));
+            } else {
+                vectors.setFloat16Vector(UnsafeByteOperations.unsafeWrap(bytes));
+            }
+            return builder.setVectors(vectors).build();
+        }
+
+        private FieldData encodeScalars(FieldData.Builder builder, List<?> entities) throws IllegalAccessException {
+            ScalarField.Builder scalars = ScalarField.newBuilder();
+            switch (dataType) {
+                case Int64 -> {
+                    LongArray.Builder values = LongArray.newBuilder();
+                    for (Object entity : entities) {
+                        if (primitive) {
+                            values.addData(field.getLong(entity));
+                        } else if (field.get(entity) instanceof Number value) {
+                            values.addData(value.longValue());
+                        } else {
+                            return null;
+                        }
+                    }
+                    scalars.setLongData(values);
+                }
+                case Int32, Int16, Int8 -> {
+                    IntArray.Builder values = IntArray.newBuilder();
+                    for (Object entity : entities) {
+                        if (primitive) {
+                            values.addData(field.getInt(entity));
+                        } else if (field.get(entity) instanceof Number value) {
+                            values.addData(value.intValue());
+                        } else {
+                            return null;
+                        }
+                    }
+                    scalars.setIntData(values);
+                }
+                case Float -> {
+                    FloatArray.Builder values = FloatArray.newBuilder();
+                    for (Object entity : entities) {
+                        if (primitive) {
+                            values.addData(field.getFloat(entity));
+                        } else if (field.get(entity) instanceof Number value) {
+                            values.addData(value.floatValue());
+                        } else {
+                            return null;
+                        }
+                    }
+                    scalars.setFloatData(values);
+                }
+                case Double -> {
+                    DoubleArray.Builder values = DoubleArray.newBuilder();
+                    for (Object entity : entities) {
+                        if (primitive) {
+                            values.addData(field.getDouble(entity));
+                        } else if (field.get(entity) instanceof Number value) {
+                            values.addData(value.doubleValue());
+                        } else {
+                            return null;
+                        }
+                    }
+                    scalars.setDoubleData(values);
+                }
+                case Bool -> {
+                    BoolArray.Builder values = BoolArray.newBuilder();
+                    for (Object entity : entities) {
+                        if (primitive) {
+                            values.addData(field.getBoolean(entity));
+                        } else if (field.get(entity) instanceof Boolean value) {
+                            values.addData(value);
+                        } else {
+                            return null;
+                        }
+                    }
+                    scalars.setBoolData(values);
+                }
+                default -> {
+                    StringArray.Builder values = StringArray.newBuilder();
+                    for (Object entity : entities) {
+                        if (!(field.get(entity) instanceof String value)) {
+                            return null;
+                        }
+                        values.addData(value);
+                    }
+                    scalars.setStringData(values);
+                }
+            }
+            return builder.setScalars(scalars).build();
+        }
+
+        private void checkDimension(int row, int length) {
+            if (length != dim) {
+                throw new IllegalArgumentException(String.format("第%d条数据的向量字段%s维度为%d，与集合定义的%d不一致",
+                        row + 1, name, length, dim));
+            }
+        }
+
+    }
+
+}
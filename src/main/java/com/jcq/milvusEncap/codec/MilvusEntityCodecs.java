@@ -0,0 +1,77 @@
+package com.jcq.milvusEncap.codec;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 实体元数据的注册表：优先使用注解处理器生成的 {@code <实体类名>_MilvusMetadata}，未生成时回退到反射实现
+ *
+ * <p>生成的元数据通过 META-INF/services 注册，使用 {@link ServiceLoader} 加载，不依赖按类名反射查找，
+ * 对 Spring AOT / GraalVM 原生镜像友好</p>
+ *
+ * @author : jucunqi
+ * @since : 2025/10/16
+ */
+@Slf4j
+public final class MilvusEntityCodecs {
+
+    private static final Map<Class<?>, MilvusEntityMetadata<?>> GENERATED = loadGenerated(MilvusEntityCodecs.class.getClassLoader());
+    // 实体类 -> 反射实现，只有未生成元数据的实体才会进入
+    private static final Map<Class<?>, MilvusEntityMetadata<?>> REFLECTIVE = new ConcurrentHashMap<>();
+
+    private MilvusEntityCodecs() {
+    }
+
+    /**
+     * 获取实体的元数据
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> MilvusEntityMetadata<T> metadata(Class<T> entityClass) {
+        MilvusEntityMetadata<?> metadata = GENERATED.get(entityClass);
+        if (metadata == null) {
+            metadata = REFLECTIVE.computeIfAbsent(entityClass, ReflectiveEntityMetadata::new);
+        }
+        return (MilvusEntityMetadata<T>) metadata;
+    }
+
+    /**
+     * 实体是否使用编译期生成的元数据
+     */
+    public static boolean isGenerated(Class<?> entityClass) {
+        return GENERATED.containsKey(entityClass);
+    }
+
+    /**
+     * 反射实现的编解码器，生成的元数据在实体含有不支持的属性类型时使用
+     */
+    public static <T> MilvusRowCodec<T> reflectiveCodec(Class<T> entityClass) {
+        return new ReflectiveRowCodec<>(entityClass);
+    }
+
+    /**
+     * 从类加载器中加载生成的元数据，任意一个加载失败时整体回退到反射实现（返回空表）
+     */
+    @SuppressWarnings("rawtypes")
+    static Map<Class<?>, MilvusEntityMetadata<?>> loadGenerated(ClassLoader classLoader) {
+        Map<Class<?>, MilvusEntityMetadata<?>> generated = new HashMap<>();
+        try {
+            for (MilvusEntityMetadata metadata : ServiceLoader.load(MilvusEntityMetadata.class, classLoader)) {
+                generated.put(metadata.getEntityClass(), metadata);
+            }
+        } catch (ServiceConfigurationError e) {
+            // 生成的类与实体不匹配（如增量编译后残留），整体回退到反射实现
+            log.warn("加载Milvus实体元数据失败，使用反射实现，原因: {}", e.getMessage());
+            return Map.of();
+        }
+        if (!generated.isEmpty()) {
+            log.info("使用编译期生成的Milvus实体元数据: {}", generated.keySet());
+        }
+        return Map.copyOf(generated);
+    }
+
+}
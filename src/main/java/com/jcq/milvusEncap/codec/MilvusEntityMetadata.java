@@ -0,0 +1,72 @@
+package com.jcq.milvusEncap.codec;
+
+import java.util.List;
+
+/**
+ * Milvus 实体的元数据：集合名、字段与列名、主键、向量字段、Partition Key 以及行编解码器
+ *
+ * <p>引入 milvus-encapsulation-processor 后，编译期会为每个 {@link com.jcq.milvusEncap.annotation.CollectionName}
+ * 实体生成 {@code <实体类名>_MilvusMetadata}，运行时不再需要反射解析注解；未生成时由 {@link MilvusEntityCodecs}
+ * 回退到基于反射的实现</p>
+ *
+ * @param <T> 实体类型
+ *
+ * @author : jucunqi
+ * @since : 2025/10/16
+ */
+public interface MilvusEntityMetadata<T> {
+
+    /**
+     * 实体类
+     */
+    Class<T> getEntityClass();
+
+    /**
+     * 集合名称
+     * @throws IllegalArgumentException 实体未标注 @CollectionName 或 value 为空时抛出
+     */
+    String getCollectionName();
+
+    /**
+     * 参与读写的 Java 属性名（不含 static、transient 字段，父类字段在前）
+     */
+    List<String> getFieldNames();
+
+    /**
+     * 与 {@link #getFieldNames()} 一一对应的列名（驼峰转下划线）
+     */
+    List<String> getColumnNames();
+
+    /**
+     * 主键的列名，与 MilvusUtil.getPrimaryKeyFieldName 的结果保持一致
+     * @throws IllegalArgumentException 不存在主键或存在多个主键时抛出
+     */
+    String getPrimaryKeyColumn();
+
+    /**
+     * 主键是否由 Milvus 自动生成
+     */
+    boolean isAutoId();
+
+    /**
+     * 向量字段的列名（第一个 float[] 或 short[] 类型的属性），不存在时返回 null
+     */
+    String getVectorColumn();
+
+    /**
+     * Partition Key 字段的列名，不存在时返回 null
+     */
+    String getPartitionKeyColumn();
+
+    /**
+     * 读取实体的主键值
+     * @throws IllegalArgumentException 主键为 null 或类型不支持时抛出
+     */
+    Long getPrimaryKey(T entity);
+
+    /**
+     * 实体与 Milvus 行数据之间的编解码器
+     */
+    MilvusRowCodec<T> getCodec();
+
+}
@@ -0,0 +1,27 @@
+package com.jcq.milvusEncap.codec;
+
+import com.google.gson.JsonObject;
+
+import java.util.Map;
+
+/**
+ * 实体与 Milvus 行数据之间的编解码器，行数据的 key 为列名（驼峰转下划线）
+ *
+ * @param <T> 实体类型
+ *
+ * @author : jucunqi
+ * @since : 2025/10/16
+ */
+public interface MilvusRowCodec<T> {
+
+    /**
+     * 实体编码为插入用的行数据，自增主键与值为 null 的字段不输出
+     */
+    JsonObject toRow(T entity);
+
+    /**
+     * 查询、检索结果中的一行数据解码为实体，不存在的列保持默认值
+     */
+    T fromRow(Map<String, Object> row);
+
+}
@@ -0,0 +1,146 @@
+package com.jcq.milvusEncap.codec;
+
+import com.google.gson.JsonArray;
+import com.jcq.milvusEncap.vector.HalfFloats;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 编译期生成的编解码器使用的取值转换方法，Milvus 返回的数值类型与实体属性类型不一定相同（如 Int32 列对应 Long 属性）
+ *
+ * @author : jucunqi
+ * @since : 2025/10/16
+ */
+public final class MilvusRowValues {
+
+    private MilvusRowValues() {
+    }
+
+    public static Long toLong(Object value) {
+        return value instanceof Number number ? number.longValue() : Long.valueOf(value.toString());
+    }
+
+    public static Integer toInteger(Object value) {
+        return value instanceof Number number ? number.intValue() : Integer.valueOf(value.toString());
+    }
+
+    public static Short toShort(Object value) {
+        return value instanceof Number number ? number.shortValue() : Short.valueOf(value.toString());
+    }
+
+    public static Byte toByte(Object value) {
+        return value instanceof Number number ? number.byteValue() : Byte.valueOf(value.toString());
+    }
+
+    public static Float toFloat(Object value) {
+        return value instanceof Number number ? number.floatValue() : Float.valueOf(value.toString());
+    }
+
+    public static Double toDouble(Object value) {
+        return value instanceof Number number ? number.doubleValue() : Double.valueOf(value.toString());
+    }
+
+    public static Boolean toBoolean(Object value) {
+        return value instanceof Boolean bool ? bool : Boolean.valueOf(value.toString());
+    }
+
+    public static String toStr(Object value) {
+        return value.toString();
+    }
+
+    /**
+     * 向量列：SDK 返回 List&lt;Float&gt;，也兼容已经是 float[] 的值
+     */
+    public static float[] toFloatArray(Object value) {
+        if (value instanceof float[] array) {
+            return array;
+        }
+        List<?> list = (List<?>) value;
+        float[] array = new float[list.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = ((Number) list.get(i)).floatValue();
+        }
+        return array;
+    }
+
+    public static JsonArray toJsonArray(float[] vector) {
+        JsonArray array = new JsonArray(vector.length);
+        for (float value : vector) {
+            array.add(value);
+        }
+        return array;
+    }
+
+    /**
+     * 半精度向量列：SDK 返回小端字节的 ByteBuffer，也兼容已经是 short[] 或数值列表的值
+     */
+    public static short[] toShortArray(Object value) {
+        if (value instanceof short[] array) {
+            return array;
+        }
+        if (value instanceof ByteBuffer buffer) {
+            return HalfFloats.fromBuffer(buffer);
+        }
+        List<?> list = (List<?>) value;
+        short[] array = new short[list.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = ((Number) list.get(i)).shortValue();
+        }
+        return array;
+    }
+
+    /**
+     * 半精度向量写入时按 SDK 的行格式展开为小端字节数组
+     */
+    public static JsonArray toJsonArray(short[] vector) {
+        JsonArray array = new JsonArray(vector.length * Short.BYTES);
+        for (short value : vector) {
+            array.add((byte) value);
+            array.add((byte) (value >> 8));
+        }
+        return array;
+    }
+
+    /**
+     * 估算一行数据序列化后的长度（字节），用于监控打点，避免为了统计数据量再做一次 JSON 序列化
+     */
+    public static long estimateSize(Map<String, Object> row) {
+        long size = 2;
+        for (Map.Entry<String, Object> entry : row.entrySet()) {
+            size += entry.getKey().length() + 4 + estimateValueSize(entry.getValue());
+        }
+        return size;
+    }
+
+    private static long estimateValueSize(Object value) {
+        if (value == null) {
+            return 4;
+        }
+        if (value instanceof CharSequence text) {
+            return text.length() + 2L;
+        }
+        if (value instanceof float[] array) {
+            return array.length * 12L + 2;
+        }
+        if (value instanceof short[] array) {
+            return array.length * 8L + 2;
+        }
+        if (value instanceof ByteBuffer buffer) {
+            return buffer.remaining() * 4L + 2;
+        }
+        if (value instanceof List<?> list) {
+            long size = 2;
+            for (Object element : list) {
+                size += estimateValueSize(element) + 1;
+            }
+            return size;
+        }
+        if (value instanceof Float || value instanceof Double) {
+            return 11;
+        }
+        return value.toString().length();
+    }
+
+}
@@ -0,0 +1,134 @@
+package com.jcq.milvusEncap.codec;
+
+import cn.hutool.core.text.CharSequenceUtil;
+import com.jcq.milvusEncap.annotation.CollectionName;
+import com.jcq.milvusEncap.annotation.PrimaryKey;
+import com.jcq.milvusEncap.util.MilvusUtil;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 未经过注解处理器生成元数据时使用的反射实现，行为与引入编译期生成之前保持一致
+ *
+ * @author : jucunqi
+ * @since : 2025/10/16
+ */
+class ReflectiveEntityMetadata<T> implements MilvusEntityMetadata<T> {
+
+    private final Class<T> entityClass;
+    private final List<String> fieldNames;
+    private final List<String> columnNames;
+    private final boolean autoId;
+    private final String vectorColumn;
+    private final MilvusRowCodec<T> codec;
+
+    ReflectiveEntityMetadata(Class<T> entityClass) {
+        this.entityClass = entityClass;
+        List<String> fields = new ArrayList<>();
+        boolean auto = false;
+        String vector = null;
+        // 父类字段在前
+        List<Class<?>> hierarchy = new ArrayList<>();
+        for (Class<?> current = entityClass; current != null && current != Object.class; current = current.getSuperclass()) {
+            hierarchy.add(0, current);
+        }
+        for (Class<?> current : hierarchy) {
+            for (Field field : current.getDeclaredFields()) {
+                if (Modifier.isStatic(field.getModifiers()) || Modifier.isTransient(field.getModifiers())) {
+                    continue;
+                }
+                fields.add(field.getName());
+                PrimaryKey primaryKey = field.getAnnotation(PrimaryKey.class);
+                if (primaryKey != null && "auto".equals(primaryKey.type())) {
+                    auto = true;
+                }
+            }
+        }
+        // 向量字段与 MilvusUtil.getVectorFieldName 一致：子类优先的第一个 float[] 或 short[] 属性
+        for (Class<?> current = entityClass; vector == null && current != null && current != Object.class;
+             current = current.getSuperclass()) {
+            for (Field field : current.getDeclaredFields()) {
+                if (MilvusUtil.isVectorType(field.getType())) {
+                    vector = CharSequenceUtil.toSymbolCase(field.getName(), '_');
+                    break;
+                }
+            }
+        }
+        this.fieldNames = Collections.unmodifiableList(fields);
+        this.columnNames = fields.stream().map(name -> CharSequenceUtil.toSymbolCase(name, '_')).toList();
+        this.autoId = auto;
+        this.vectorColumn = vector;
+        this.codec = new ReflectiveRowCodec<>(entityClass);
+    }
+
+    @Override
+    public Class<T> getEntityClass() {
+        return entityClass;
+    }
+
+    @Override
+    public String getCollectionName() {
+        CollectionName annotation = entityClass.getAnnotation(CollectionName.class);
+        if (annotation == null) {
+            throw new IllegalArgumentException(
+                    String.format("泛型类型[%s]未标注@CollectionName注解", entityClass.getName())
+            );
+        }
+        String collectionName = annotation.value().trim();
+        if (collectionName.isEmpty()) {
+            throw new IllegalArgumentException(
+                    String.format("泛型类型[%s]的@CollectionName注解value为空", entityClass.getName())
+            );
+        }
+        return collectionName;
+    }
+
+    @Override
+    public List<String> getFieldNames() {
+        return fieldNames;
+    }
+
+    @Override
+    public List<String> getColumnNames() {
+        return columnNames;
+    }
+
+    @Override
+    public String getPrimaryKeyColumn() {
+        return MilvusUtil.getPrimaryKeyFieldName(entityClass);
+    }
+
+    @Override
+    public boolean isAutoId() {
+        return autoId;
+    }
+
+    @Override
+    public String getVectorColumn() {
+        return vectorColumn;
+    }
+
+    @Override
+    public String getPartitionKeyColumn() {
+        return MilvusUtil.getPartitionKeyFieldName(entityClass);
+    }
+
+    @Override
+    public Long getPrimaryKey(T entity) {
+        try {
+            return MilvusUtil.getPrimaryKeyValue(entity);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public MilvusRowCodec<T> getCodec() {
+        return codec;
+    }
+
+}
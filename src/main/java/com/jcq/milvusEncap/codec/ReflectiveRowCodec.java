@@ -0,0 +1,88 @@
+package com.jcq.milvusEncap.codec;
+
+import cn.hutool.core.text.CharSequenceUtil;
+import com.alibaba.fastjson.JSON;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonSerializer;
+import com.jcq.milvusEncap.annotation.PrimaryKey;
+import com.jcq.milvusEncap.strategy.CamelToUnderlineNamingStrategy;
+
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 基于反射的行编解码器：编码使用 Gson（驼峰转下划线），解码使用 fastjson
+ *
+ * @author : jucunqi
+ * @since : 2025/10/16
+ */
+class ReflectiveRowCodec<T> implements MilvusRowCodec<T> {
+
+    // Gson 实例线程安全，所有实体共用
+    private static final Gson GSON = new GsonBuilder()
+            .setFieldNamingStrategy(new CamelToUnderlineNamingStrategy())
+            // 半精度向量按 SDK 的行格式写为字节数组
+            .registerTypeAdapter(short[].class, (JsonSerializer<short[]>) (vector, type, context) ->
+                    MilvusRowValues.toJsonArray(vector))
+            .create();
+
+    private final Class<T> entityClass;
+    // 自增主键的列名，没有自增主键时为 null
+    private final String autoPrimaryKeyColumn;
+
+    ReflectiveRowCodec(Class<T> entityClass) {
+        this.entityClass = entityClass;
+        this.autoPrimaryKeyColumn = findAutoPrimaryKeyColumn(entityClass);
+    }
+
+    @Override
+    public JsonObject toRow(T entity) {
+        JsonObject row = GSON.toJsonTree(entity).getAsJsonObject();
+        // 自增主键由服务端生成，不输出；不修改调用方的实体
+        if (autoPrimaryKeyColumn != null) {
+            row.remove(autoPrimaryKeyColumn);
+        }
+        return row;
+    }
+
+    @Override
+    public T fromRow(Map<String, Object> row) {
+        return JSON.parseObject(JSON.toJSONString(decodeHalfVectors(row)), entityClass);
+    }
+
+    /**
+     * 实体及其父类中 type 为 auto 的主键列名
+     */
+    private static String findAutoPrimaryKeyColumn(Class<?> entityClass) {
+        for (Class<?> current = entityClass; current != null && current != Object.class; current = current.getSuperclass()) {
+            for (Field field : current.getDeclaredFields()) {
+                PrimaryKey primaryKey = field.getAnnotation(PrimaryKey.class);
+                if (primaryKey != null && "auto".equals(primaryKey.type())) {
+                    return CharSequenceUtil.toSymbolCase(field.getName(), '_');
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 半精度向量列以 ByteBuffer 返回，fastjson 无法序列化，先转换为 short[]
+     */
+    private static Map<String, Object> decodeHalfVectors(Map<String, Object> row) {
+        Map<String, Object> decoded = row;
+        for (Map.Entry<String, Object> entry : row.entrySet()) {
+            if (entry.getValue() instanceof ByteBuffer buffer) {
+                if (decoded == row) {
+                    decoded = new HashMap<>(row);
+                }
+                decoded.put(entry.getKey(), MilvusRowValues.toShortArray(buffer));
+            }
+        }
+        return decoded;
+    }
+
+}
@@ -1,6 +1,8 @@
 package com.jcq.milvusEncap.config;
 
-import io.milvus.pool.MilvusClientV2Pool;
+import com.jcq.milvusEncap.pool.MilvusClientPool;
+import com.jcq.milvusEncap.routing.MilvusEndpoint;
+import com.jcq.milvusEncap.routing.MilvusRouter;
 import io.milvus.pool.PoolConfig;
 import io.milvus.v2.client.ConnectConfig;
 import org.springframework.beans.factory.annotation.Value;
@@ -8,6 +10,8 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * 定义Milvus连接池
@@ -28,6 +32,9 @@ public class MilvusConfig {
     @Value("${milvus.token}")
     private String token;
 
+    @Value("${milvus.client-key}")
+    private String clientKey;
+
     @Value("${milvus.pool.max-idle-per-key:10}")
     private int maxIdlePerKey;
 
@@ -43,17 +50,49 @@ public class MilvusConfig {
     @Value("${milvus.pool.evictable-duration:30}")
     private long evictableDuration;
 
+    @Value("${milvus.rpc-deadline-ms:0}")
+    private long rpcDeadlineMs;
+
     /**
-     * 初始化Milvus连接池
+     * 初始化Milvus连接池（主集群）
      */
     @Bean(destroyMethod = "close")
-    public MilvusClientV2Pool milvusClientPool() {
+    public MilvusClientPool milvusClientPool() {
+        return createPool(host, port, token, null);
+    }
+
+    /**
+     * 初始化多节点路由，每个从集群使用独立的连接池
+     */
+    @Bean(destroyMethod = "close")
+    public MilvusRouter milvusRouter(MilvusClientPool milvusClientPool, MilvusRoutingProperties properties) {
+        MilvusEndpoint primary = new MilvusEndpoint(properties.getPrimary(), MilvusEndpoint.Role.PRIMARY, milvusClientPool,
+                database -> createPool(host, port, token, database));
+        List<MilvusEndpoint> replicas = new ArrayList<>();
+        properties.getReplicas().forEach((name, endpoint) -> {
+            String replicaToken = endpoint.getToken() != null ? endpoint.getToken() : token;
+            replicas.add(new MilvusEndpoint(name, MilvusEndpoint.Role.REPLICA,
+                    createPool(endpoint.getHost(), endpoint.getPort(), replicaToken, null),
+                    database -> createPool(endpoint.getHost(), endpoint.getPort(), replicaToken, database)));
+        });
+        return new MilvusRouter(primary, replicas, clientKey, properties.getDefaultConsistency(),
+                properties.getFailureThreshold());
+    }
+
+    /**
+     * 创建连接池，database 为空时连接默认 database；连接池中的客户端在连接时绑定 database，每个 database 需要单独的连接池
+     */
+    private MilvusClientPool createPool(String host, int port, String token, String database) {
         try {
             // 创建连接参数
             ConnectConfig connectConfig = ConnectConfig.builder()
                     .uri(host + ":" + port)
                     .token(token)
+                    .rpcDeadlineMs(rpcDeadlineMs)
                     .build();
+            if (database != null) {
+                connectConfig.setDbName(database);
+            }
 
             // 配置连接池参数
             PoolConfig poolConfig = PoolConfig.builder()
@@ -64,7 +103,7 @@ public class MilvusConfig {
                     .minEvictableIdleDuration(Duration.ofSeconds(evictableDuration))
                     .build();
 
-            return new MilvusClientV2Pool(poolConfig, connectConfig);
+            return new MilvusClientPool(poolConfig, connectConfig);
         } catch (ClassNotFoundException | NoSuchMethodException e) {
             throw new RuntimeException(e);
         }
@@ -0,0 +1,61 @@
+package com.jcq.milvusEncap.config;
+
+import io.milvus.v2.common.ConsistencyLevel;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Milvus 多节点路由配置，主集群使用 milvus.host / milvus.port，从集群在 replicas 中按名称配置
+ *
+ * @author : jucunqi
+ * @since : 2025/10/16
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "milvus.routing")
+public class MilvusRoutingProperties {
+
+    /**
+     * 主集群名称
+     */
+    private String primary = "primary";
+
+    /**
+     * 未指定一致性级别时的默认级别，为空时使用集合的默认级别并按 Bounded 路由
+     */
+    private ConsistencyLevel defaultConsistency;
+
+    /**
+     * 连续失败多少次后摘除节点
+     */
+    private int failureThreshold = 3;
+
+    /**
+     * 健康检查间隔（毫秒），由 MilvusRouter 的定时任务读取
+     */
+    private long healthCheckIntervalMs = 5000;
+
+    /**
+     * 从集群，key为节点名称
+     */
+    private Map<String, Endpoint> replicas = new LinkedHashMap<>();
+
+    @Data
+    public static class Endpoint {
+
+        private String host;
+
+        private int port = 19530;
+
+        /**
+         * 为空时使用主集群的 token
+         */
+        private String token;
+
+    }
+
+}
@@ -0,0 +1,70 @@
+package com.jcq.milvusEncap.config;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 多租户隔离配置：租户通过请求头或 MilvusTenant.use 指定，每个租户映射到一个 Milvus database，并限制同时执行的操作数
+ *
+ * @author : jucunqi
+ * @since : 2025/10/16
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "milvus.tenant")
+public class MilvusTenantProperties {
+
+    /**
+     * 是否开启，未开启时所有操作都在连接配置的默认 database 中执行；embedded 后端没有 database，只限制租户并发
+     */
+    private boolean enabled = false;
+
+    /**
+     * 携带租户标识的请求头
+     */
+    private String header = "X-Tenant-Id";
+
+    /**
+     * 未指定租户或租户未配置时使用的 database
+     */
+    private String defaultDatabase = "default";
+
+    /**
+     * 未单独配置的租户（含未携带租户请求头的 Web 请求）合计同时执行的最大操作数，0 表示不限制
+     */
+    private int defaultMaxConcurrency = 0;
+
+    /**
+     * 租户达到并发上限时等待的最长时间（毫秒），超时后以 MILVUS_OVERLOADED 拒绝
+     */
+    private long waitTimeoutMs = 1000;
+
+    /**
+     * 各租户的 database 与并发上限，key 为租户标识
+     */
+    private Map<String, Tenant> tenants = new LinkedHashMap<>();
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Tenant {
+
+        /**
+         * 租户数据所在的 database，为空时使用 defaultDatabase
+         */
+        private String database;
+
+        /**
+         * 该租户同时执行的最大操作数，0 表示不限制
+         */
+        private int maxConcurrency;
+
+    }
+
+}
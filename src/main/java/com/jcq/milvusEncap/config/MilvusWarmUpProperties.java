@@ -0,0 +1,87 @@
+package com.jcq.milvusEncap.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Milvus 启动预热配置
+ *
+ * @author : jucunqi
+ * @since : 2025/10/16
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "milvus.warm-up")
+public class MilvusWarmUpProperties {
+
+    /**
+     * 是否在启动时预热，预热完成前 readiness 探针返回 OUT_OF_SERVICE
+     */
+    private boolean enabled = false;
+
+    /**
+     * 预热失败时是否保持未就绪，为 false 时记录日志后照常接收流量
+     */
+    private boolean required = false;
+
+    /**
+     * 等待集合加载完成的超时时间（毫秒）
+     */
+    private long loadTimeoutMs = 600_000;
+
+    /**
+     * 检查加载状态的间隔（毫秒）
+     */
+    private long loadCheckIntervalMs = 1000;
+
+    /**
+     * 每个节点预先创建的客户端数
+     */
+    private int prewarmClients = 4;
+
+    /**
+     * 未单独配置的集合使用的预热方式
+     */
+    private CollectionWarmUp defaults = new CollectionWarmUp();
+
+    /**
+     * 按集合名称单独配置的预热方式
+     */
+    private Map<String, CollectionWarmUp> collections = new LinkedHashMap<>();
+
+    public CollectionWarmUp getCollection(String collectionName) {
+        return collections.getOrDefault(collectionName, defaults);
+    }
+
+    @Data
+    public static class CollectionWarmUp {
+
+        /**
+         * 预热查询的过滤条件，空字符串表示不带条件
+         */
+        private List<String> queries = new ArrayList<>(List.of(""));
+
+        /**
+         * 预热检索的次数，使用随机向量
+         */
+        private int searches = 10;
+
+        /**
+         * 预热检索的过滤条件
+         */
+        private String searchFilter = "";
+
+        /**
+         * 预热查询、检索返回的条数
+         */
+        private int topK = 10;
+
+    }
+
+}
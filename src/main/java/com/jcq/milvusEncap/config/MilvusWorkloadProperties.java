@@ -0,0 +1,73 @@
+package com.jcq.milvusEncap.config;
+
+import com.jcq.milvusEncap.workload.WorkloadClass;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * 负载类别隔离配置：每个类别使用连接池中单独的 key，并发不超过各自的配额，容量紧张时按权重公平调度
+ *
+ * @author : jucunqi
+ * @since : 2025/10/16
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "milvus.workload")
+public class MilvusWorkloadProperties {
+
+    /**
+     * 是否开启，未开启时所有请求共用 milvus.client-key，不做调度
+     */
+    private boolean enabled = false;
+
+    /**
+     * 所有类别共享的并发容量，一般与连接池的 max-total 一致
+     */
+    private int capacity = 100;
+
+    /**
+     * 等待执行机会的最长时间（毫秒），超时后以 MILVUS_OVERLOADED 拒绝
+     */
+    private long waitTimeoutMs = 5000;
+
+    /**
+     * 各类别的配额与权重
+     */
+    private Map<WorkloadClass, ClassQuota> classes = defaultClasses();
+
+    public ClassQuota getQuota(WorkloadClass workloadClass) {
+        return classes.getOrDefault(workloadClass, defaultClasses().get(workloadClass));
+    }
+
+    private static Map<WorkloadClass, ClassQuota> defaultClasses() {
+        Map<WorkloadClass, ClassQuota> classes = new EnumMap<>(WorkloadClass.class);
+        classes.put(WorkloadClass.INTERACTIVE, new ClassQuota(100, 8));
+        classes.put(WorkloadClass.BATCH, new ClassQuota(30, 3));
+        classes.put(WorkloadClass.BACKGROUND, new ClassQuota(10, 1));
+        return classes;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ClassQuota {
+
+        /**
+         * 该类别同时执行的最大请求数
+         */
+        private int maxConcurrency;
+
+        /**
+         * 容量紧张时获得执行机会的权重
+         */
+        private int weight = 1;
+
+    }
+
+}
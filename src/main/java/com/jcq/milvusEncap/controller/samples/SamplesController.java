@@ -1,5 +1,7 @@
 package com.jcq.milvusEncap.controller.samples;
 
+import com.alibaba.fastjson.JSON;
+import com.jcq.milvusEncap.controller.samples.vo.SamplesExportReqVO;
 import com.jcq.milvusEncap.controller.samples.vo.SamplesPageReqVO;
 import com.jcq.milvusEncap.controller.samples.vo.SamplesRespVO;
 import com.jcq.milvusEncap.controller.samples.vo.SamplesSaveReqVO;
@@ -7,10 +9,30 @@ import com.jcq.milvusEncap.dal.dataobject.agent.SamplesDO;
 import com.jcq.milvusEncap.dal.pojo.CommonResult;
 import com.jcq.milvusEncap.dal.pojo.PageResult;
 import com.jcq.milvusEncap.service.milvus.samples.SamplesService;
+import com.jcq.milvusEncap.session.MilvusSession;
+import com.jcq.milvusEncap.tenant.MilvusTenant;
+import com.jcq.milvusEncap.util.BeanCopier;
 import com.jcq.milvusEncap.util.BeanUtils;
 import jakarta.annotation.Resource;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
 
 import static com.jcq.milvusEncap.dal.pojo.CommonResult.success;
 
@@ -21,11 +43,14 @@ public class SamplesController {
 
     @Resource
     private SamplesService samplesService;
+    @Value("${milvus.export.request-timeout-ms:-1}")
+    private long exportRequestTimeoutMs;
 
     @GetMapping("/get")
     public CommonResult<SamplesRespVO> getInfo(@RequestParam("sampleId") Long sampleId) {
         SamplesDO info = samplesService.getSampleInfo(sampleId);
-        return success(BeanUtils.toBean(info, SamplesRespVO.class));
+        // 结果立即序列化，向量不需要复制
+        return success(BeanUtils.toBean(info, SamplesRespVO.class, BeanCopier.ArrayMode.SHARE));
     }
 
     @PostMapping("/create")
@@ -48,7 +73,76 @@ public class SamplesController {
     @GetMapping("/page")
     public CommonResult<PageResult<SamplesRespVO>> getSamplesPage(SamplesPageReqVO pageReqVO) {
         PageResult<SamplesDO> pageResult = samplesService.getSamplesPage(pageReqVO);
-        PageResult<SamplesRespVO> result = BeanUtils.toBean(pageResult, SamplesRespVO.class);
+        PageResult<SamplesRespVO> result = BeanUtils.toBean(pageResult, SamplesRespVO.class, BeanCopier.ArrayMode.SHARE);
         return success(result);
     }
+
+    /**
+     * 流式导出样例记录，每行一个JSON对象（NDJSON），数据边查询边写出
+     *
+     * <p>导出耗时与数据量相关，只为本请求设置异步超时（milvus.export.request-timeout-ms），其他接口沿用全局配置；
+     * 未指定 gzip 参数时按 Accept-Encoding 协商是否压缩</p>
+     *
+     * <p>响应体在异步线程上写出，请求线程上的租户与会话需要带到该线程，否则会导出默认 database 的数据</p>
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportSamples(SamplesExportReqVO exportReqVO, HttpServletRequest request) {
+        WebAsyncUtils.getAsyncManager(request).getAsyncWebRequest().setTimeout(exportRequestTimeoutMs);
+        boolean gzip = exportReqVO.getGzip() != null
+                ? exportReqVO.getGzip()
+                : acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        String tenant = MilvusTenant.current();
+        MilvusSession session = MilvusSession.current();
+        StreamingResponseBody body = outputStream -> {
+            OutputStream out = gzip ? new GZIPOutputStream(outputStream, 8192, true) : outputStream;
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            try (MilvusTenant.Scope ignored = MilvusTenant.use(tenant);
+                 MilvusSession.Scope sessionScope = session != null ? session.use() : () -> { }) {
+                samplesService.exportSamples(exportReqVO, rows -> {
+                    try {
+                        for (Map<String, Object> row : rows) {
+                            writer.write(JSON.toJSONString(row));
+                            writer.write('\n');
+                        }
+                        // 每批数据写完立即刷出，避免在服务端堆积
+                        writer.flush();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } finally {
+                writer.close();
+            }
+        };
+
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=samples.ndjson");
+        if (gzip) {
+            builder.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return builder.header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING).body(body);
+    }
+
+    /**
+     * Accept-Encoding 中包含 gzip 且没有以 q=0 排除时压缩
+     */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (!"gzip".equalsIgnoreCase(parts[0].trim()) && !"*".equals(parts[0].trim())) {
+                continue;
+            }
+            for (int i = 1; i < parts.length; i++) {
+                if (parts[i].trim().replace(" ", "").matches("[qQ]=0(\\.0{0,3})?")) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
 }
@@ -0,0 +1,24 @@
+package com.jcq.milvusEncap.controller.samples.vo;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class SamplesExportReqVO {
+
+    private Long agentId;
+    private String agentName;
+    private String sampleQuestion;
+    private String sampleAnswer;
+
+    /**
+     * 导出字段（Java属性名），为空时导出全部字段
+     */
+    private List<String> fields;
+
+    /**
+     * 是否使用gzip压缩响应，为空时按请求头 Accept-Encoding 协商
+     */
+    private Boolean gzip;
+}
@@ -10,6 +10,7 @@ import lombok.ToString;
 @EqualsAndHashCode(callSuper = true)
 public class SamplesPageReqVO extends PageParam {
 
+    private Long agentId;
     private String agentName;
     private String sampleQuestion;
     private String sampleAnswer;
@@ -1,7 +1,12 @@
 package com.jcq.milvusEncap.dal.dataobject.agent;
 
 import com.jcq.milvusEncap.annotation.CollectionName;
+import com.jcq.milvusEncap.annotation.MaxLength;
+import com.jcq.milvusEncap.annotation.PartitionKey;
 import com.jcq.milvusEncap.annotation.PrimaryKey;
+import com.jcq.milvusEncap.annotation.ScalarIndex;
+import com.jcq.milvusEncap.annotation.VectorField;
+import io.milvus.v2.common.IndexParam;
 import lombok.*;
 
 @CollectionName("biz_samples")
@@ -20,10 +25,13 @@ public class SamplesDO {
     /**
      * 智能体id
      */
+    @PartitionKey
+    @ScalarIndex
     private Long agentId;
     /**
      * 智能体名称
      */
+    @MaxLength(256)
     private String agentName;
     /**
      * 问题
@@ -36,10 +44,14 @@ public class SamplesDO {
     /**
      * 向量
      */
+    @VectorField(dim = 1024, metricType = IndexParam.MetricType.COSINE, indexType = IndexParam.IndexType.HNSW,
+            params = {"M=16", "efConstruction=200"})
     private float[] sampleVector;
     /**
      * 状态
      */
+    @MaxLength(32)
+    @ScalarIndex(IndexParam.IndexType.BITMAP)
     private String sampleStatus;
     /**
      * 创建时间
@@ -0,0 +1,23 @@
+package com.jcq.milvusEncap.dal.pojo;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * 向量检索结果：实体 + 相似度得分
+ *
+ * @param <T> 实体泛型
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchHit<T> implements Serializable {
+
+    private T entity;
+
+    private Float score;
+
+}
@@ -0,0 +1,24 @@
+package com.jcq.milvusEncap.exception.enums;
+
+import com.jcq.milvusEncap.exception.ErrorCode;
+
+/**
+ * Milvus 封装模块错误码枚举
+ *
+ * Milvus 模块，使用 1-002-000-000 段
+ *
+ * @author : jucunqi
+ * @since : 2025/10/16
+ */
+public interface ErrorCodeConstants {
+
+    // ========== Milvus 数据操作 1-002-000-000 ==========
+    ErrorCode MILVUS_INSERT_ERROR = new ErrorCode(1_002_000_000, "Milvus新增数据失败");
+    ErrorCode MILVUS_DELETE_ERROR = new ErrorCode(1_002_000_001, "Milvus删除数据失败");
+    ErrorCode MILVUS_UPDATE_ERROR = new ErrorCode(1_002_000_002, "Milvus修改数据失败");
+    ErrorCode MILVUS_QUERY_ERROR = new ErrorCode(1_002_000_003, "Milvus查询数据失败");
+    ErrorCode MILVUS_SEARCH_ERROR = new ErrorCode(1_002_000_004, "Milvus向量检索失败");
+    ErrorCode MILVUS_EXPORT_ERROR = new ErrorCode(1_002_000_005, "Milvus导出数据失败");
+    ErrorCode MILVUS_OVERLOADED = new ErrorCode(1_002_000_006, "Milvus繁忙，请求已被限流，请稍后重试");
+
+}
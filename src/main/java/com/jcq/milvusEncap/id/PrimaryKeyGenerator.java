@@ -0,0 +1,23 @@
+package com.jcq.milvusEncap.id;
+
+/**
+ * 客户端主键生成器，按 {@link #getType()} 与 {@code @PrimaryKey(type = ...)} 对应
+ *
+ * <p>注册为 Spring Bean 即可使用，内置 snowflake 与 uuid 两种；生成的主键必须为正数，且在集合内不重复</p>
+ *
+ * @author : jucunqi
+ * @since : 2025/10/16
+ */
+public interface PrimaryKeyGenerator {
+
+    /**
+     * 生成器的类型，即 @PrimaryKey 注解的 type（auto 保留给 Milvus 自增主键）
+     */
+    String getType();
+
+    /**
+     * 生成一个主键，可能被多个线程同时调用
+     */
+    long nextId();
+
+}
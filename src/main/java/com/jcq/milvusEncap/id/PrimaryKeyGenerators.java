@@ -0,0 +1,117 @@
+package com.jcq.milvusEncap.id;
+
+import com.jcq.milvusEncap.annotation.PrimaryKey;
+import com.jcq.milvusEncap.util.MilvusUtil;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Field;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 按 @PrimaryKey 的 type 选择客户端主键生成器，并在写入前为实体赋值
+ *
+ * <p>主键在客户端生成后写回实体，插入不再依赖 Milvus 返回的主键；同一个实体重试时沿用已赋的主键，
+ * 配合 upsert 写入，重复发送不会产生重复数据</p>
+ *
+ * @author : jucunqi
+ * @since : 2025/10/16
+ */
+@Slf4j
+@Component
+public class PrimaryKeyGenerators {
+
+    private static final String AUTO = "auto";
+    private static final KeyBinding NONE = new KeyBinding(null, null);
+
+    // 类型 -> 生成器
+    private final Map<String, PrimaryKeyGenerator> generators = new HashMap<>();
+    // 实体类 -> 主键字段与生成器，不由客户端生成主键时为 NONE
+    private final Map<Class<?>, KeyBinding> bindings = new ConcurrentHashMap<>();
+
+    public PrimaryKeyGenerators(List<PrimaryKeyGenerator> generators) {
+        for (PrimaryKeyGenerator generator : generators) {
+            String type = generator.getType();
+            if (AUTO.equals(type)) {
+                throw new IllegalStateException(
+                        String.format("主键生成器[%s]的类型不能为 auto，auto 表示由 Milvus 生成主键", generator.getClass().getName()));
+            }
+            PrimaryKeyGenerator existing = this.generators.putIfAbsent(type, generator);
+            if (existing != null) {
+                throw new IllegalStateException(String.format("主键生成器类型[%s]重复：%s 和 %s",
+                        type, existing.getClass().getName(), generator.getClass().getName()));
+            }
+        }
+    }
+
+    /**
+     * 集合注册时解析实体的主键生成方式，提前校验主键字段；使用随机主键（uuid）时输出警告
+     */
+    public void register(Class<?> entityClass) {
+        binding(entityClass);
+    }
+
+    /**
+     * 实体的主键是否由客户端生成
+     */
+    public boolean isClientGenerated(Class<?> entityClass) {
+        return binding(entityClass) != NONE;
+    }
+
+    /**
+     * 为主键为空的实体生成主键并写回实体，已有主键的实体保持不变
+     * @return 与实体顺序一致的主键；实体的主键不由客户端生成时返回 null
+     */
+    public List<Long> assign(Class<?> entityClass, List<?> entities) {
+        KeyBinding binding = binding(entityClass);
+        if (binding == NONE) {
+            return null;
+        }
+        Long[] primaryKeys = new Long[entities.size()];
+        try {
+            for (int i = 0; i < primaryKeys.length; i++) {
+                Object entity = entities.get(i);
+                Object value = binding.field.get(entity);
+                if (value == null) {
+                    long id = binding.generator.nextId();
+                    binding.field.set(entity, id);
+                    primaryKeys[i] = id;
+                } else {
+                    primaryKeys[i] = ((Number) value).longValue();
+                }
+            }
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
+        return List.of(primaryKeys);
+    }
+
+    private KeyBinding binding(Class<?> entityClass) {
+        return bindings.computeIfAbsent(entityClass, this::resolve);
+    }
+
+    private KeyBinding resolve(Class<?> entityClass) {
+        Field field = MilvusUtil.getPrimaryKeyField(entityClass);
+        PrimaryKeyGenerator generator = generators.get(field.getAnnotation(PrimaryKey.class).type());
+        if (generator == null) {
+            return NONE;
+        }
+        if (field.getType() != Long.class) {
+            throw new IllegalArgumentException(String.format("实体类[%s]的主键字段[%s]由客户端生成，类型必须为 Long",
+                    entityClass.getName(), field.getName()));
+        }
+        field.setAccessible(true);
+        if (UuidIdGenerator.TYPE.equals(generator.getType())) {
+            log.warn("实体类[{}]使用随机主键 uuid：63 位随机主键在数据量大时可能重复，upsert 写入时会静默覆盖另一行，"
+                    + "只适用于数据量小的集合，数据量大时请使用 snowflake", entityClass.getName());
+        }
+        return new KeyBinding(field, generator);
+    }
+
+    private record KeyBinding(Field field, PrimaryKeyGenerator generator) {
+    }
+
+}
@@ -0,0 +1,96 @@
+package com.jcq.milvusEncap.id;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.net.InetAddress;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * 雪花算法主键：41 位毫秒时间戳（自 {@link #EPOCH_MILLIS} 起）+ 10 位 worker id + 12 位序号
+ *
+ * <ul>
+ *     <li>时间戳与序号合在一个 AtomicLong 中，每次生成只有一次 CAS（accumulateAndGet），不加锁</li>
+ *     <li>新值取 max(上一个值 + 1, 当前毫秒)，同一进程内严格递增：同一毫秒内序号用完时借用下一毫秒，
+ *     时钟回拨时沿着上一个值继续递增，不会重复</li>
+ *     <li>不同实例必须配置不同的 milvus.id.worker-id（0-1023）；未配置时按主机名与进程号推导，只适合开发环境</li>
+ * </ul>
+ *
+ * @author : jucunqi
+ * @since : 2025/10/16
+ */
+@Slf4j
+@Component
+public class SnowflakeIdGenerator implements PrimaryKeyGenerator {
+
+    public static final String TYPE = "snowflake";
+    /**
+     * 时间戳的起点：2025-01-01T00:00:00Z
+     */
+    static final long EPOCH_MILLIS = 1735689600000L;
+    static final int WORKER_BITS = 10;
+    static final int SEQUENCE_BITS = 12;
+    static final int MAX_WORKER_ID = (1 << WORKER_BITS) - 1;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+    private final long workerBits;
+    private final LongSupplier clock;
+    // 上一个主键的时间戳 << SEQUENCE_BITS | 序号
+    private final AtomicLong last = new AtomicLong();
+
+    public SnowflakeIdGenerator(@Value("${milvus.id.worker-id:-1}") int workerId) {
+        this(workerId < 0 ? deriveWorkerId() : workerId, System::currentTimeMillis);
+    }
+
+    SnowflakeIdGenerator(int workerId, LongSupplier clock) {
+        if (workerId < 0 || workerId > MAX_WORKER_ID) {
+            throw new IllegalArgumentException(
+                    String.format("milvus.id.worker-id 必须在 0-%d 之间，当前值：%d", MAX_WORKER_ID, workerId));
+        }
+        this.workerBits = (long) workerId << SEQUENCE_BITS;
+        this.clock = clock;
+    }
+
+    @Override
+    public String getType() {
+        return TYPE;
+    }
+
+    @Override
+    public long nextId() {
+        long now = (clock.getAsLong() - EPOCH_MILLIS) << SEQUENCE_BITS;
+        long state = last.accumulateAndGet(now, (previous, current) -> Math.max(previous + 1, current));
+        return (state >>> SEQUENCE_BITS) << (WORKER_BITS + SEQUENCE_BITS) | workerBits | (state & SEQUENCE_MASK);
+    }
+
+    /**
+     * 主键中的 worker id
+     */
+    static int workerId(long id) {
+        return (int) (id >>> SEQUENCE_BITS) & MAX_WORKER_ID;
+    }
+
+    /**
+     * 主键中的毫秒时间戳
+     */
+    static long timestampMillis(long id) {
+        return (id >>> (WORKER_BITS + SEQUENCE_BITS)) + EPOCH_MILLIS;
+    }
+
+    private static int deriveWorkerId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            host = "localhost";
+        }
+        String identity = host + "/" + ManagementFactory.getRuntimeMXBean().getName();
+        int workerId = (identity.hashCode() & Integer.MAX_VALUE) % (MAX_WORKER_ID + 1);
+        log.warn("未配置 milvus.id.worker-id，按 [{}] 推导为 {}，多实例部署时请为每个实例显式配置", identity, workerId);
+        return workerId;
+    }
+
+}
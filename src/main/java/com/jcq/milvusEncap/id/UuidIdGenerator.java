@@ -0,0 +1,38 @@
+package com.jcq.milvusEncap.id;
+
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+/**
+ * 随机主键：取随机 UUID（122 位随机数）折叠后的 63 位正数，不需要协调 worker id
+ *
+ * <p>实体主键为 Long，无法保存完整的 128 位 UUID；63 位随机数重复的概率在 100 万行时约为 5e-8，1 亿行时约为 5e-4。
+ * 客户端生成的主键通过 upsert 写入，主键重复时会静默覆盖另一行无关的数据，因此只适用于数据量小的集合，
+ * 使用 uuid 的实体注册时会输出警告。主键也不随时间递增，数据量大或需要按主键排序时应使用 snowflake</p>
+ *
+ * @author : jucunqi
+ * @since : 2025/10/16
+ */
+@Component
+public class UuidIdGenerator implements PrimaryKeyGenerator {
+
+    public static final String TYPE = "uuid";
+
+    @Override
+    public String getType() {
+        return TYPE;
+    }
+
+    @Override
+    public long nextId() {
+        while (true) {
+            UUID uuid = UUID.randomUUID();
+            long id = (uuid.getMostSignificantBits() ^ uuid.getLeastSignificantBits()) & Long.MAX_VALUE;
+            if (id != 0) {
+                return id;
+            }
+        }
+    }
+
+}
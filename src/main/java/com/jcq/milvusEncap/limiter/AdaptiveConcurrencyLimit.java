@@ -0,0 +1,143 @@
+package com.jcq.milvusEncap.limiter;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 基于延迟梯度的自适应并发上限（gradient 算法）
+ *
+ * <ul>
+ *     <li>长期延迟：约 {@value #LONG_WINDOW} 个样本的指数移动平均，作为无排队时的基准；短期延迟：约 {@value #SHORT_WINDOW} 个样本的平均</li>
+ *     <li>梯度 = clamp(tolerance * 长期延迟 / 短期延迟, 0.5, 1)：延迟未超过基准的 tolerance 倍时为 1，上限按 sqrt(limit) 增长；
+ *     延迟升高时梯度小于 1，上限按比例收缩</li>
+ *     <li>并发不到上限的一半时，延迟不能说明上限是否合适，不调整</li>
+ *     <li>节点不可达、超时类的失败按 {@value #BACKOFF_RATIO} 倍直接收缩（AIMD 的乘性减）</li>
+ *     <li>延迟持续升高时长期延迟会逐渐跟上，上限随之回升，即把持续的高延迟当作新的基准，只对突然的恶化限流</li>
+ *     <li>短期延迟远低于长期延迟（Milvus 恢复）时长期延迟加速衰减，避免上限长时间停留在低位</li>
+ * </ul>
+ *
+ * <p>获取许可只有一次 CAS，超过上限立即失败；上限的调整在释放许可时进行</p>
+ *
+ * @author : jucunqi
+ * @since : 2025/10/16
+ */
+final class AdaptiveConcurrencyLimit implements MilvusConcurrencyLimiter.Permit {
+
+    private static final int LONG_WINDOW = 600;
+    private static final int SHORT_WINDOW = 10;
+    private static final double BACKOFF_RATIO = 0.9;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final double smoothing;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile int limit;
+
+    // 以下字段只在 synchronized 方法中读写
+    private double estimatedLimit;
+    private double longRttNanos;
+    private double shortRttNanos;
+
+    /**
+     * @param initialLimit 初始上限
+     * @param minLimit 上限的最小值
+     * @param maxLimit 上限的最大值
+     * @param tolerance 延迟升高到基准的多少倍以内不收缩
+     * @param smoothing 每个样本对上限的调整幅度（0-1）
+     */
+    AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit, double tolerance, double smoothing) {
+        this.minLimit = Math.max(minLimit, 1);
+        this.maxLimit = Math.max(maxLimit, this.minLimit);
+        this.tolerance = Math.max(tolerance, 1);
+        this.smoothing = Math.min(Math.max(smoothing, 0.01), 1);
+        this.estimatedLimit = Math.min(Math.max(initialLimit, this.minLimit), this.maxLimit);
+        this.limit = (int) estimatedLimit;
+    }
+
+    /**
+     * 当前并发未达到上限时占用一个许可
+     */
+    boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    @Override
+    public void release(long elapsedNanos, Throwable error) {
+        if (error == null) {
+            onSuccess(elapsedNanos);
+        } else if (MilvusConcurrencyLimiter.isOverload(error)) {
+            onDropped();
+        } else {
+            onIgnored();
+        }
+    }
+
+    /**
+     * 请求成功，归还许可并用延迟调整上限
+     */
+    void onSuccess(long rttNanos) {
+        int current = inFlight.getAndDecrement();
+        sample(rttNanos, current);
+    }
+
+    /**
+     * 节点不可达或超时，归还许可并收缩上限
+     */
+    void onDropped() {
+        inFlight.decrementAndGet();
+        backoff();
+    }
+
+    /**
+     * 其他失败（参数错误等），只归还许可
+     */
+    void onIgnored() {
+        inFlight.decrementAndGet();
+    }
+
+    int getLimit() {
+        return limit;
+    }
+
+    int getInFlight() {
+        return inFlight.get();
+    }
+
+    private synchronized void sample(long rttNanos, int inFlightAtCompletion) {
+        double rtt = Math.max(rttNanos, 1);
+        if (longRttNanos == 0) {
+            longRttNanos = rtt;
+            shortRttNanos = rtt;
+        } else {
+            longRttNanos += (rtt - longRttNanos) / LONG_WINDOW;
+            shortRttNanos += (rtt - shortRttNanos) / SHORT_WINDOW;
+        }
+        if (longRttNanos / shortRttNanos > 2) {
+            longRttNanos *= 0.95;
+        }
+        if (inFlightAtCompletion < estimatedLimit / 2) {
+            return;
+        }
+        double gradient = Math.max(0.5, Math.min(1.0, tolerance * longRttNanos / shortRttNanos));
+        double newLimit = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+        update(estimatedLimit * (1 - smoothing) + newLimit * smoothing);
+    }
+
+    private synchronized void backoff() {
+        update(estimatedLimit * BACKOFF_RATIO);
+    }
+
+    private void update(double newLimit) {
+        estimatedLimit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+        limit = (int) estimatedLimit;
+    }
+
+}
@@ -0,0 +1,111 @@
+package com.jcq.milvusEncap.limiter;
+
+import com.jcq.milvusEncap.exception.ServiceException;
+import com.jcq.milvusEncap.exception.enums.ErrorCodeConstants;
+import com.jcq.milvusEncap.monitor.MilvusMetrics;
+import com.jcq.milvusEncap.routing.MilvusRouter;
+import com.jcq.milvusEncap.service.milvus.MilvusOperation;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 按集合的自适应并发限流：Milvus 变慢时收缩允许的并发数，超出的请求立即以 {@link ErrorCodeConstants#MILVUS_OVERLOADED} 拒绝，
+ * 不再排队等待连接池（最长 wait-duration）
+ *
+ * <p>上限的调整见 {@link AdaptiveConcurrencyLimit}。导出是长时间占用连接的流式操作，延迟不代表 Milvus 的负载，不参与限流</p>
+ *
+ * @author : jucunqi
+ * @since : 2025/10/16
+ */
+@Component
+public class MilvusConcurrencyLimiter {
+
+    /**
+     * 未开启限流时使用的许可，不做任何事
+     */
+    private static final Permit UNLIMITED = (elapsedNanos, error) -> {
+    };
+
+    private final MilvusMetrics milvusMetrics;
+    private final boolean enabled;
+    private final int initialLimit;
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final double smoothing;
+    // 集合名 -> 并发上限
+    private final Map<String, AdaptiveConcurrencyLimit> limits = new ConcurrentHashMap<>();
+
+    public MilvusConcurrencyLimiter(MilvusMetrics milvusMetrics,
+                                    @Value("${milvus.limiter.enabled:false}") boolean enabled,
+                                    @Value("${milvus.limiter.initial-limit:20}") int initialLimit,
+                                    @Value("${milvus.limiter.min-limit:4}") int minLimit,
+                                    @Value("${milvus.limiter.max-limit:100}") int maxLimit,
+                                    @Value("${milvus.limiter.tolerance:2.0}") double tolerance,
+                                    @Value("${milvus.limiter.smoothing:0.2}") double smoothing) {
+        this.milvusMetrics = milvusMetrics;
+        this.enabled = enabled;
+        this.initialLimit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.smoothing = smoothing;
+    }
+
+    /**
+     * 获取一个许可，操作结束后必须调用 {@link Permit#release}
+     * @throws ServiceException 并发已达到上限（MILVUS_OVERLOADED）
+     */
+    public Permit acquire(String collectionName, MilvusOperation operation) {
+        if (!enabled || operation == MilvusOperation.EXPORT) {
+            return UNLIMITED;
+        }
+        AdaptiveConcurrencyLimit limit = limits.computeIfAbsent(collectionName, this::createLimit);
+        if (!limit.tryAcquire()) {
+            milvusMetrics.recordLimiterRejected(collectionName, operation);
+            throw new ServiceException(ErrorCodeConstants.MILVUS_OVERLOADED);
+        }
+        return limit;
+    }
+
+    private AdaptiveConcurrencyLimit createLimit(String collectionName) {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(initialLimit, minLimit, maxLimit, tolerance, smoothing);
+        milvusMetrics.bindConcurrencyLimit(collectionName, limit::getLimit, limit::getInFlight);
+        return limit;
+    }
+
+    /**
+     * 节点不可达、超时与连接池获取超时说明 Milvus 已经过载，其他失败（参数错误等）与负载无关
+     */
+    static boolean isOverload(Throwable error) {
+        if (MilvusRouter.isUnavailable(error)) {
+            return true;
+        }
+        for (Throwable t = error; t != null; t = t.getCause()) {
+            if (t instanceof NoSuchElementException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 一次操作占用的许可
+     */
+    @FunctionalInterface
+    public interface Permit {
+
+        /**
+         * 归还许可
+         * @param elapsedNanos 操作耗时
+         * @param error 操作失败的原因，成功时为 null
+         */
+        void release(long elapsedNanos, Throwable error);
+
+    }
+
+}
@@ -0,0 +1,345 @@
+package com.jcq.milvusEncap.monitor;
+
+import com.jcq.milvusEncap.pool.MilvusClientPool;
+import com.jcq.milvusEncap.routing.MilvusEndpoint;
+import com.jcq.milvusEncap.routing.MilvusRouter;
+import com.jcq.milvusEncap.service.milvus.MilvusOperation;
+import io.grpc.StatusRuntimeException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.milvus.v2.exception.MilvusClientException;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntSupplier;
+
+/**
+ * Milvus 连接池与 MilvusBaseService 各操作的 Micrometer 指标，通过 Actuator 的 /prometheus 端点暴露
+ *
+ * <ul>
+ *     <li>milvus.pool.clients.active / idle / waiting：每个连接池（节点 endpoint、database）中每个key的活跃、空闲、等待客户端数</li>
+ *     <li>milvus.pool.borrow.wait：从连接池获取客户端的等待时间</li>
+ *     <li>milvus.client.operation：按集合、操作、结果统计的耗时直方图</li>
+ *     <li>milvus.client.rows / milvus.client.payload：每次操作的行数、数据量分布</li>
+ *     <li>milvus.client.errors：按 gRPC 状态码统计的失败次数</li>
+ *     <li>milvus.search.coalesced：合并到并发的相同检索请求上的次数，按结果（shared / timeout / retried）区分</li>
+ *     <li>milvus.get-by-id.batch.size：合并后每次按主键批量查询的主键数</li>
+ *     <li>milvus.read.hedge：读请求对冲的次数，按结果（sent / won / rejected）区分</li>
+ *     <li>milvus.limiter.limit / in-flight / rejected：每个集合的自适应并发上限、当前并发与被限流拒绝的次数</li>
+ *     <li>milvus.workload.in-use / queued / wait / rejected：每个负载类别的执行数、排队数、等待时间与排队超时次数</li>
+ *     <li>milvus.tenant.in-flight / rejected：每个已配置租户正在执行的操作数与超过并发上限被拒绝的次数（未配置的租户合计为 other）</li>
+ * </ul>
+ *
+ * @author : jucunqi
+ * @since : 2025/10/16
+ */
+@Component
+public class MilvusMetrics {
+
+    private final MeterRegistry registry;
+    // 定时刷新时遍历各节点的连接池，单元测试中可以为 null
+    private final ObjectProvider<MilvusRouter> router;
+
+    // 已注册过连接池指标的 节点/database/key
+    private final Set<String> boundPoolKeys = ConcurrentHashMap.newKeySet();
+    private final Map<String, Timer> borrowTimers = new ConcurrentHashMap<>();
+    // 集合名 -> 各操作的指标，避免每次打点都重新构建 Meter
+    private final Map<String, Map<MilvusOperation, OperationMeters>> operationMeters = new ConcurrentHashMap<>();
+
+    public MilvusMetrics(MeterRegistry registry, ObjectProvider<MilvusRouter> router) {
+        this.registry = registry;
+        this.router = router;
+    }
+
+    /**
+     * 连接池与其中的key可能是运行时新增的（从集群、按 database 创建的连接池，负载类别对应的key），
+     * 定时检查各节点的全部连接池并注册对应的指标；经存储后端获取客户端时也会在首次获取时注册
+     */
+    @Scheduled(fixedDelayString = "${milvus.metrics.pool-refresh-interval:10000}")
+    public void refreshPoolKeys() {
+        MilvusRouter current = router == null ? null : router.getIfAvailable();
+        if (current == null) {
+            return;
+        }
+        for (MilvusEndpoint endpoint : current.getEndpoints()) {
+            bindPool(endpoint.getName(), null, endpoint.getPool());
+            endpoint.getDatabasePools().forEach((database, pool) -> bindPool(endpoint.getName(), database, pool));
+        }
+    }
+
+    private void bindPool(String endpoint, String database, MilvusClientPool pool) {
+        for (String key : pool.getKeys()) {
+            bindPoolKey(endpoint, database, pool, key);
+        }
+    }
+
+    /**
+     * 注册某个连接池中某个key的指标，已注册时直接返回
+     * @param endpoint 节点名称
+     * @param database 连接池对应的 database，为空时表示默认 database
+     */
+    public void bindPoolKey(String endpoint, String database, MilvusClientPool pool, String key) {
+        String databaseTag = database == null ? MilvusEndpoint.DEFAULT_DATABASE : database;
+        if (!boundPoolKeys.add(endpoint + '/' + databaseTag + '/' + key)) {
+            return;
+        }
+        Gauge.builder("milvus.pool.clients.active", pool, p -> p.getActiveClientNumber(key))
+                .description("正在使用中的Milvus客户端数")
+                .tag("endpoint", endpoint)
+                .tag("database", databaseTag)
+                .tag("key", key)
+                .register(registry);
+        Gauge.builder("milvus.pool.clients.idle", pool, p -> p.getIdleClientNumber(key))
+                .description("连接池中空闲的Milvus客户端数")
+                .tag("endpoint", endpoint)
+                .tag("database", databaseTag)
+                .tag("key", key)
+                .register(registry);
+        Gauge.builder("milvus.pool.clients.waiting", pool, p -> p.getWaitingClientNumber(key))
+                .description("正在等待获取Milvus客户端的线程数")
+                .tag("endpoint", endpoint)
+                .tag("database", databaseTag)
+                .tag("key", key)
+                .register(registry);
+    }
+
+    /**
+     * 记录一次从连接池获取客户端的等待时间
+     */
+    public void recordBorrow(String key, long nanos) {
+        borrowTimers.computeIfAbsent(key, k -> Timer.builder("milvus.pool.borrow.wait")
+                        .description("从连接池获取Milvus客户端的等待时间")
+                        .tag("key", k)
+                        .publishPercentileHistogram()
+                        .register(registry))
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * 记录一次成功的操作
+     */
+    public void recordSuccess(String collectionName, MilvusOperation operation, long nanos, long rows, long payloadBytes) {
+        OperationMeters meters = meters(collectionName, operation);
+        meters.success.record(nanos, TimeUnit.NANOSECONDS);
+        meters.rows.record(rows);
+        meters.payload.record(payloadBytes);
+    }
+
+    /**
+     * 记录一次失败的操作，并按错误状态计数
+     */
+    public void recordError(String collectionName, MilvusOperation operation, long nanos, Throwable error) {
+        meters(collectionName, operation).error.record(nanos, TimeUnit.NANOSECONDS);
+        Counter.builder("milvus.client.errors")
+                .description("Milvus操作失败次数")
+                .tag("collection", collectionName)
+                .tag("operation", operation.getMetricName())
+                .tag("status", resolveStatus(error))
+                .register(registry)
+                .increment();
+    }
+
+    /**
+     * 记录一次检索请求合并，outcome 为 shared（复用了结果）、timeout（等待超时）或 retried（leader 被取消后自己执行）
+     */
+    public void recordCoalesced(String collectionName, String outcome) {
+        Counter.builder("milvus.search.coalesced")
+                .description("合并到并发的相同检索请求上的次数")
+                .tag("collection", collectionName)
+                .tag("outcome", outcome)
+                .register(registry)
+                .increment();
+    }
+
+    /**
+     * 记录一次读请求对冲，outcome 为 sent（发送了对冲请求）、won（对冲请求先返回）或 rejected（超出对冲预算）
+     */
+    public void recordHedge(String collectionName, MilvusOperation operation, String outcome) {
+        Counter.builder("milvus.read.hedge")
+                .description("读请求对冲的次数")
+                .tag("collection", collectionName)
+                .tag("operation", operation.getMetricName())
+                .tag("outcome", outcome)
+                .register(registry)
+                .increment();
+    }
+
+    /**
+     * 记录一次合并后的按主键批量查询包含的主键数
+     */
+    public void recordGetByIdBatch(String collectionName, int size) {
+        DistributionSummary.builder("milvus.get-by-id.batch.size")
+                .description("合并后每次按主键批量查询的主键数")
+                .tag("collection", collectionName)
+                .register(registry)
+                .record(size);
+    }
+
+    /**
+     * 注册某个集合的并发上限与当前并发
+     */
+    public void bindConcurrencyLimit(String collectionName, IntSupplier limit, IntSupplier inFlight) {
+        Gauge.builder("milvus.limiter.limit", limit, IntSupplier::getAsInt)
+                .description("自适应并发上限")
+                .tag("collection", collectionName)
+                .strongReference(true)
+                .register(registry);
+        Gauge.builder("milvus.limiter.in-flight", inFlight, IntSupplier::getAsInt)
+                .description("占用并发许可的请求数")
+                .tag("collection", collectionName)
+                .strongReference(true)
+                .register(registry);
+    }
+
+    /**
+     * 记录一次因超过并发上限被拒绝的请求
+     */
+    public void recordLimiterRejected(String collectionName, MilvusOperation operation) {
+        Counter.builder("milvus.limiter.rejected")
+                .description("超过并发上限被拒绝的请求数")
+                .tag("collection", collectionName)
+                .tag("operation", operation.getMetricName())
+                .register(registry)
+                .increment();
+    }
+
+    /**
+     * 注册某个负载类别的执行数与排队数
+     */
+    public void bindWorkload(String workloadClass, IntSupplier inUse, IntSupplier queued) {
+        Gauge.builder("milvus.workload.in-use", inUse, IntSupplier::getAsInt)
+                .description("正在执行的请求数")
+                .tag("workload", workloadClass)
+                .strongReference(true)
+                .register(registry);
+        Gauge.builder("milvus.workload.queued", queued, IntSupplier::getAsInt)
+                .description("排队等待执行机会的请求数")
+                .tag("workload", workloadClass)
+                .strongReference(true)
+                .register(registry);
+    }
+
+    /**
+     * 记录一次获取执行机会的等待时间
+     */
+    public void recordWorkloadWait(String workloadClass, long nanos) {
+        Timer.builder("milvus.workload.wait")
+                .description("按负载类别获取执行机会的等待时间")
+                .tag("workload", workloadClass)
+                .register(registry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * 记录一次排队超时被拒绝的请求
+     */
+    public void recordWorkloadRejected(String workloadClass) {
+        Counter.builder("milvus.workload.rejected")
+                .description("排队超时被拒绝的请求数")
+                .tag("workload", workloadClass)
+                .register(registry)
+                .increment();
+    }
+
+    /**
+     * 注册某个租户正在执行的操作数
+     */
+    public void bindTenant(String tenant, IntSupplier inFlight) {
+        Gauge.builder("milvus.tenant.in-flight", inFlight, IntSupplier::getAsInt)
+                .description("租户正在执行的操作数")
+                .tag("tenant", tenant)
+                .strongReference(true)
+                .register(registry);
+    }
+
+    /**
+     * 记录一次租户超过并发上限被拒绝的操作
+     */
+    public void recordTenantRejected(String tenant) {
+        Counter.builder("milvus.tenant.rejected")
+                .description("租户超过并发上限被拒绝的操作数")
+                .tag("tenant", tenant)
+                .register(registry)
+                .increment();
+    }
+
+    private OperationMeters meters(String collectionName, MilvusOperation operation) {
+        return operationMeters.computeIfAbsent(collectionName, this::createMeters).get(operation);
+    }
+
+    private Map<MilvusOperation, OperationMeters> createMeters(String collectionName) {
+        // 一次性创建全部操作的指标，之后只读，可以安全地并发访问
+        Map<MilvusOperation, OperationMeters> meters = new EnumMap<>(MilvusOperation.class);
+        for (MilvusOperation operation : MilvusOperation.values()) {
+            meters.put(operation, new OperationMeters(collectionName, operation));
+        }
+        return meters;
+    }
+
+    /**
+     * 解析异常对应的状态：优先取 gRPC 状态码，其次取 Milvus SDK 的错误码
+     */
+    static String resolveStatus(Throwable error) {
+        MilvusClientException clientException = null;
+        for (Throwable t = error; t != null; t = t.getCause()) {
+            if (t instanceof StatusRuntimeException statusException) {
+                return statusException.getStatus().getCode().name();
+            }
+            if (t instanceof NoSuchElementException) {
+                // commons-pool 在等待超时后抛出该异常
+                return "POOL_EXHAUSTED";
+            }
+            if (clientException == null && t instanceof MilvusClientException) {
+                clientException = (MilvusClientException) t;
+            }
+        }
+        return clientException != null ? clientException.getErrorCode().name() : "UNKNOWN";
+    }
+
+    private class OperationMeters {
+
+        private final Timer success;
+        private final Timer error;
+        private final DistributionSummary rows;
+        private final DistributionSummary payload;
+
+        private OperationMeters(String collectionName, MilvusOperation operation) {
+            this.success = operationTimer(collectionName, operation, "success");
+            this.error = operationTimer(collectionName, operation, "error");
+            this.rows = DistributionSummary.builder("milvus.client.rows")
+                    .description("每次操作涉及的行数")
+                    .tag("collection", collectionName)
+                    .tag("operation", operation.getMetricName())
+                    .publishPercentileHistogram()
+                    .register(registry);
+            this.payload = DistributionSummary.builder("milvus.client.payload")
+                    .description("每次操作的数据量")
+                    .baseUnit("bytes")
+                    .tag("collection", collectionName)
+                    .tag("operation", operation.getMetricName())
+                    .publishPercentileHistogram()
+                    .register(registry);
+        }
+
+        private Timer operationTimer(String collectionName, MilvusOperation operation, String outcome) {
+            return Timer.builder("milvus.client.operation")
+                    .description("Milvus操作耗时")
+                    .tag("collection", collectionName)
+                    .tag("operation", operation.getMetricName())
+                    .tag("outcome", outcome)
+                    .publishPercentileHistogram()
+                    .register(registry);
+        }
+    }
+
+}
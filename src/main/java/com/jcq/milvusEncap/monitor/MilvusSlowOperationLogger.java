@@ -0,0 +1,97 @@
+package com.jcq.milvusEncap.monitor;
+
+import com.jcq.milvusEncap.service.milvus.MilvusOperationContext;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Milvus 慢操作日志：输出超过阈值的操作及其实际总耗时，以及各阶段耗时（wait/borrow/encode/server/decode）作为明细，
+ * 并按比例采样正常操作作为基线。日志统一输出到 milvus-slow-operation，便于单独配置 appender
+ *
+ * <p>关闭时调用方只需判断 {@link #isEnabled()}，不会产生任何额外开销</p>
+ *
+ * @author : jucunqi
+ * @since : 2025/10/16
+ */
+@Slf4j(topic = "milvus-slow-operation")
+@Component
+public class MilvusSlowOperationLogger {
+
+    // 过滤条件中的字符串、数字字面量，输出日志前替换为 ?，避免泄露业务数据
+    private static final Pattern STRING_LITERAL = Pattern.compile("\"(?:[^\"\\\\]|\\\\.)*\"|'(?:[^'\\\\]|\\\\.)*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("(?<![\\w.])-?\\d+(?:\\.\\d+)?(?:[eE][-+]?\\d+)?(?![\\w.])");
+
+    @Getter
+    private final boolean enabled;
+    private final long thresholdNanos;
+    private final double sampleRate;
+
+    public MilvusSlowOperationLogger(@Value("${milvus.slow-log.enabled:true}") boolean enabled,
+                                     @Value("${milvus.slow-log.threshold-ms:500}") long thresholdMs,
+                                     @Value("${milvus.slow-log.sample-rate:0}") double sampleRate) {
+        this.enabled = enabled;
+        this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMs);
+        this.sampleRate = sampleRate;
+    }
+
+    /**
+     * 记录一次已完成的操作，按 execute 测得的实际总耗时判断阈值：超过阈值输出 WARN，命中采样输出 INFO
+     */
+    public void record(MilvusOperationContext context, Throwable error) {
+        long totalNanos = context.getTotalNanos();
+        if (totalNanos >= thresholdNanos) {
+            if (log.isWarnEnabled()) {
+                log.warn("[slow] {}", describe(context, error));
+            }
+        } else if (sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate) {
+            if (log.isInfoEnabled()) {
+                log.info("[sample] {}", describe(context, error));
+            }
+        }
+    }
+
+    private String describe(MilvusOperationContext context, Throwable error) {
+        return String.format("collection=%s database=%s tenant=%s operation=%s workload=%s endpoint=%s coalesced=%s hedged=%s total=%.3fms wait=%.3fms borrow=%.3fms encode=%.3fms server=%.3fms "
+                        + "decode=%.3fms rows=%d bytes=%d outcome=%s filter=%s",
+                context.getCollectionName(),
+                context.getDatabase(),
+                context.getTenant(),
+                context.getOperation().getMetricName(),
+                context.getWorkloadClass() == null ? null : context.getWorkloadClass().getMetricName(),
+                context.getEndpoint(),
+                context.isCoalesced(),
+                context.isHedged(),
+                toMillis(context.getTotalNanos()),
+                toMillis(context.getWaitNanos()),
+                toMillis(context.getBorrowNanos()),
+                toMillis(context.getEncodeNanos()),
+                toMillis(context.getServerNanos()),
+                toMillis(context.getDecodeNanos()),
+                context.getRows(),
+                context.getPayloadBytes(),
+                error == null ? "success" : error.getClass().getSimpleName(),
+                redact(context.getFilter()));
+    }
+
+    /**
+     * 去掉过滤条件中的字面量，只保留字段名与运算符，如 agent_id == 1 and name like "%a%" -> agent_id == ? and name like ?
+     */
+    static String redact(String filter) {
+        if (filter == null || filter.isEmpty()) {
+            return "-";
+        }
+        String redacted = STRING_LITERAL.matcher(filter).replaceAll("?");
+        return NUMBER_LITERAL.matcher(redacted).replaceAll("?");
+    }
+
+    private static double toMillis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+}
@@ -0,0 +1,34 @@
+package com.jcq.milvusEncap.monitor.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * 从 Milvus 连接池获取客户端的 JFR 事件，事件持续时间即等待时间
+ *
+ * @author : jucunqi
+ * @since : 2025/10/16
+ */
+@Name("com.jcq.milvusEncap.PoolBorrow")
+@Label("Milvus Pool Borrow")
+@Description("从 MilvusClientV2Pool 获取客户端")
+@Category({"Milvus", "Pool"})
+@Enabled(false)
+@StackTrace(false)
+public class MilvusBorrowEvent extends Event {
+
+    @Label("Key")
+    String key;
+
+    @Label("Collection")
+    String collection;
+
+    @Label("Outcome")
+    String outcome;
+
+}
@@ -0,0 +1,11 @@
+package com.jcq.milvusEncap.monitor.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.jcq.milvusEncap.Count")
+@Label("Milvus Count")
+@Description("MilvusBaseService count 操作")
+public class MilvusCountEvent extends MilvusOperationEvent {
+}
@@ -0,0 +1,11 @@
+package com.jcq.milvusEncap.monitor.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.jcq.milvusEncap.Delete")
+@Label("Milvus Delete")
+@Description("MilvusBaseService delete 操作")
+public class MilvusDeleteEvent extends MilvusOperationEvent {
+}
@@ -0,0 +1,11 @@
+package com.jcq.milvusEncap.monitor.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.jcq.milvusEncap.Export")
+@Label("Milvus Export")
+@Description("MilvusBaseService export 操作")
+public class MilvusExportEvent extends MilvusOperationEvent {
+}
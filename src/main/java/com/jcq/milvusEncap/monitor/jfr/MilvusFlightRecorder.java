@@ -0,0 +1,106 @@
+package com.jcq.milvusEncap.monitor.jfr;
+
+import com.jcq.milvusEncap.service.milvus.MilvusOperation;
+import com.jcq.milvusEncap.service.milvus.MilvusOperationContext;
+import jdk.jfr.EventType;
+
+/**
+ * Milvus JFR 事件的创建与提交
+ *
+ * <p>事件类型未开启时不创建事件对象；提交时只做基本类型赋值和字符串引用赋值，不产生额外分配</p>
+ *
+ * @author : jucunqi
+ * @since : 2025/10/16
+ */
+public final class MilvusFlightRecorder {
+
+    private static final String SUCCESS = "success";
+    private static final String ERROR = "error";
+
+    private static final EventType BORROW_TYPE = EventType.getEventType(MilvusBorrowEvent.class);
+    private static final EventType[] OPERATION_TYPES = new EventType[MilvusOperation.values().length];
+
+    static {
+        for (MilvusOperation operation : MilvusOperation.values()) {
+            OPERATION_TYPES[operation.ordinal()] = EventType.getEventType(newEvent(operation).getClass());
+        }
+    }
+
+    private MilvusFlightRecorder() {
+    }
+
+    /**
+     * 开始一次操作事件，事件未开启时返回 null
+     */
+    public static MilvusOperationEvent beginOperation(MilvusOperation operation) {
+        if (!OPERATION_TYPES[operation.ordinal()].isEnabled()) {
+            return null;
+        }
+        MilvusOperationEvent event = newEvent(operation);
+        event.begin();
+        return event;
+    }
+
+    /**
+     * 结束并提交操作事件
+     */
+    public static void commitOperation(MilvusOperationEvent event, MilvusOperationContext context, boolean success) {
+        if (event == null) {
+            return;
+        }
+        event.end();
+        if (!event.shouldCommit()) {
+            return;
+        }
+        event.collection = context.getCollectionName();
+        event.rows = context.getRows();
+        event.payloadBytes = context.getPayloadBytes();
+        event.outcome = success ? SUCCESS : ERROR;
+        event.borrowNanos = context.getBorrowNanos();
+        event.encodeNanos = context.getEncodeNanos();
+        event.serverNanos = context.getServerNanos();
+        event.decodeNanos = context.getDecodeNanos();
+        event.commit();
+    }
+
+    /**
+     * 开始一次获取客户端事件，事件未开启时返回 null
+     */
+    public static MilvusBorrowEvent beginBorrow() {
+        if (!BORROW_TYPE.isEnabled()) {
+            return null;
+        }
+        MilvusBorrowEvent event = new MilvusBorrowEvent();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * 结束并提交获取客户端事件
+     */
+    public static void commitBorrow(MilvusBorrowEvent event, String key, String collection, boolean success) {
+        if (event == null) {
+            return;
+        }
+        event.end();
+        if (!event.shouldCommit()) {
+            return;
+        }
+        event.key = key;
+        event.collection = collection;
+        event.outcome = success ? SUCCESS : ERROR;
+        event.commit();
+    }
+
+    private static MilvusOperationEvent newEvent(MilvusOperation operation) {
+        return switch (operation) {
+            case INSERT -> new MilvusInsertEvent();
+            case DELETE -> new MilvusDeleteEvent();
+            case QUERY -> new MilvusQueryEvent();
+            case COUNT -> new MilvusCountEvent();
+            case SEARCH -> new MilvusSearchEvent();
+            case EXPORT -> new MilvusExportEvent();
+        };
+    }
+
+}
@@ -0,0 +1,11 @@
+package com.jcq.milvusEncap.monitor.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.jcq.milvusEncap.Insert")
+@Label("Milvus Insert")
+@Description("MilvusBaseService insert 操作")
+public class MilvusInsertEvent extends MilvusOperationEvent {
+}
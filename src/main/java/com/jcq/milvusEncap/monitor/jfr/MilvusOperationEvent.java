@@ -0,0 +1,53 @@
+package com.jcq.milvusEncap.monitor.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Milvus 操作 JFR 事件的公共字段，每种操作对应一个子类，便于在 JMC 中按类型筛选
+ *
+ * <p>默认关闭，通过 jfr/milvus.jfc 配置文件开启</p>
+ *
+ * @author : jucunqi
+ * @since : 2025/10/16
+ */
+@Category({"Milvus", "Operation"})
+@Enabled(false)
+@StackTrace(false)
+public abstract class MilvusOperationEvent extends Event {
+
+    @Label("Collection")
+    String collection;
+
+    @Label("Rows")
+    long rows;
+
+    @Label("Payload")
+    @DataAmount
+    long payloadBytes;
+
+    @Label("Outcome")
+    String outcome;
+
+    @Label("Borrow Time")
+    @Timespan
+    long borrowNanos;
+
+    @Label("Encode Time")
+    @Timespan
+    long encodeNanos;
+
+    @Label("Server Time")
+    @Timespan
+    long serverNanos;
+
+    @Label("Decode Time")
+    @Timespan
+    long decodeNanos;
+
+}
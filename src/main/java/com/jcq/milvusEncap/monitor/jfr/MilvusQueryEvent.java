@@ -0,0 +1,11 @@
+package com.jcq.milvusEncap.monitor.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.jcq.milvusEncap.Query")
+@Label("Milvus Query")
+@Description("MilvusBaseService query 操作")
+public class MilvusQueryEvent extends MilvusOperationEvent {
+}
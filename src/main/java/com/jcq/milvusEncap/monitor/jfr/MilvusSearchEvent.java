@@ -0,0 +1,11 @@
+package com.jcq.milvusEncap.monitor.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.jcq.milvusEncap.Search")
+@Label("Milvus Search")
+@Description("MilvusBaseService search 操作")
+public class MilvusSearchEvent extends MilvusOperationEvent {
+}
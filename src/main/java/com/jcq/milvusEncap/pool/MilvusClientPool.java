@@ -0,0 +1,175 @@
+package com.jcq.milvusEncap.pool;
+
+import io.milvus.pool.MilvusClientV2Pool;
+import io.milvus.pool.PoolConfig;
+import io.milvus.v2.client.ConnectConfig;
+import io.milvus.v2.client.MilvusClientV2;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 在官方 MilvusClientV2Pool 的基础上暴露底层 commons-pool 的运行状态，
+ * 官方连接池只提供了活跃数、空闲数，缺少等待获取客户端的线程数
+ *
+ * <p>同时统计每个key获取客户端的等待时间与峰值并发，并允许运行时调整容量、预热客户端，供 {@link MilvusPoolSizer} 使用</p>
+ *
+ * @author : jucunqi
+ * @since : 2025/10/16
+ */
+public class MilvusClientPool extends MilvusClientV2Pool {
+
+    // key -> 当前统计窗口内的获取情况
+    private final Map<String, BorrowWindow> borrowWindows = new ConcurrentHashMap<>();
+
+    public MilvusClientPool(PoolConfig poolConfig, ConnectConfig connectConfig)
+            throws ClassNotFoundException, NoSuchMethodException {
+        super(poolConfig, connectConfig);
+    }
+
+    @Override
+    public MilvusClientV2 getClient(String key) {
+        BorrowWindow window = borrowWindows.computeIfAbsent(key, k -> new BorrowWindow());
+        long start = System.nanoTime();
+        MilvusClientV2 client = null;
+        try {
+            client = super.getClient(key);
+            return client;
+        } finally {
+            window.record(System.nanoTime() - start, client != null, getActiveClientNumber(key));
+        }
+    }
+
+    /**
+     * 获取当前正在等待该key客户端的线程数
+     */
+    public int getWaitingClientNumber(String key) {
+        return clientPool.getNumWaitersByKey().getOrDefault(key, 0);
+    }
+
+    /**
+     * 获取当前等待客户端的线程总数
+     */
+    public int getTotalWaitingClientNumber() {
+        return clientPool.getNumWaiters();
+    }
+
+    /**
+     * 获取连接池中已存在的全部key
+     */
+    public List<String> getKeys() {
+        return clientPool.getKeys();
+    }
+
+    public int getMaxTotalPerKey() {
+        return clientPool.getMaxTotalPerKey();
+    }
+
+    public int getMaxIdlePerKey() {
+        return clientPool.getMaxIdlePerKey();
+    }
+
+    public int getMaxTotal() {
+        return clientPool.getMaxTotal();
+    }
+
+    /**
+     * 调整每个key的最大客户端数，commons-pool 中该限制对所有key生效
+     */
+    public void setMaxTotalPerKey(int maxTotalPerKey) {
+        clientPool.setMaxTotalPerKey(maxTotalPerKey);
+    }
+
+    /**
+     * 调整每个key的最大空闲客户端数，commons-pool 中该限制对所有key生效
+     */
+    public void setMaxIdlePerKey(int maxIdlePerKey) {
+        clientPool.setMaxIdlePerKey(maxIdlePerKey);
+    }
+
+    /**
+     * 预先创建客户端放入连接池，使空闲客户端数达到 idleTarget（不超过每个key的容量）
+     *
+     * @return 实际新建的客户端数
+     */
+    public int prewarm(String key, int idleTarget) throws Exception {
+        int created = 0;
+        while (getIdleClientNumber(key) < idleTarget
+                && getIdleClientNumber(key) + getActiveClientNumber(key) < getMaxTotalPerKey()) {
+            clientPool.addObject(key);
+            created++;
+        }
+        return created;
+    }
+
+    /**
+     * 取出某个key当前统计窗口的数据并开始新的窗口
+     */
+    public BorrowSnapshot drainBorrowWindow(String key) {
+        BorrowWindow window = borrowWindows.computeIfAbsent(key, k -> new BorrowWindow());
+        return window.drain(getActiveClientNumber(key));
+    }
+
+    /**
+     * 一个统计窗口内的获取情况
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class BorrowSnapshot {
+        /**
+         * 获取次数（含失败）
+         */
+        private final long borrows;
+        /**
+         * 获取失败（等待超时）次数
+         */
+        private final long failures;
+        /**
+         * 等待时间总和（纳秒）
+         */
+        private final long totalWaitNanos;
+        /**
+         * 最长等待时间（纳秒）
+         */
+        private final long maxWaitNanos;
+        /**
+         * 窗口内的峰值并发（活跃客户端数）
+         */
+        private final int peakInFlight;
+
+        public long getAvgWaitNanos() {
+            return borrows == 0 ? 0 : totalWaitNanos / borrows;
+        }
+    }
+
+    private static class BorrowWindow {
+
+        private final LongAdder borrows = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+        private final LongAdder totalWaitNanos = new LongAdder();
+        private final AtomicLong maxWaitNanos = new AtomicLong();
+        private final AtomicLong peakInFlight = new AtomicLong();
+
+        private void record(long waitNanos, boolean success, int inFlight) {
+            borrows.increment();
+            if (!success) {
+                failures.increment();
+            }
+            totalWaitNanos.add(waitNanos);
+            maxWaitNanos.accumulateAndGet(waitNanos, Math::max);
+            peakInFlight.accumulateAndGet(inFlight, Math::max);
+        }
+
+        private BorrowSnapshot drain(int currentInFlight) {
+            // 各计数分别重置，窗口边界上的少量误差对容量调整没有影响
+            return new BorrowSnapshot(borrows.sumThenReset(), failures.sumThenReset(), totalWaitNanos.sumThenReset(),
+                    maxWaitNanos.getAndSet(0), (int) Math.max(peakInFlight.getAndSet(currentInFlight), currentInFlight));
+        }
+    }
+
+}
@@ -0,0 +1,57 @@
+package com.jcq.milvusEncap.pool;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 通过 /actuator/milvuspool 查看各连接池当前容量与自适应调整记录
+ *
+ * @author : jucunqi
+ * @since : 2025/10/16
+ */
+@Component
+@ConditionalOnProperty(prefix = "milvus.pool.adaptive", name = "enabled", havingValue = "true")
+@Endpoint(id = "milvuspool")
+public class MilvusPoolEndpoint {
+
+    private final MilvusPoolSizer sizer;
+
+    public MilvusPoolEndpoint(MilvusPoolSizer sizer) {
+        this.sizer = sizer;
+    }
+
+    @ReadOperation
+    public Map<String, Object> pool() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("floorPerKey", sizer.getFloor());
+        result.put("ceilingPerKey", sizer.getCeiling());
+        Map<String, Map<String, Integer>> targets = sizer.getTargets();
+        Map<String, Object> pools = new LinkedHashMap<>();
+        sizer.getPools().forEach((name, pool) -> {
+            Map<String, Object> poolState = new LinkedHashMap<>();
+            poolState.put("maxTotalPerKey", pool.getMaxTotalPerKey());
+            poolState.put("maxIdlePerKey", pool.getMaxIdlePerKey());
+            poolState.put("maxTotal", pool.getMaxTotal());
+            poolState.put("targets", targets.getOrDefault(name, Map.of()));
+            Map<String, Map<String, Integer>> keys = new LinkedHashMap<>();
+            for (String key : pool.getKeys()) {
+                Map<String, Integer> state = new LinkedHashMap<>();
+                state.put("active", pool.getActiveClientNumber(key));
+                state.put("idle", pool.getIdleClientNumber(key));
+                state.put("waiting", pool.getWaitingClientNumber(key));
+                keys.put(key, state);
+            }
+            poolState.put("keys", keys);
+            pools.put(name, poolState);
+        });
+        result.put("pools", pools);
+        result.put("history", sizer.getHistory());
+        return result;
+    }
+
+}
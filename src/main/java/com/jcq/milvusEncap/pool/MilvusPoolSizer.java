@@ -0,0 +1,300 @@
+package com.jcq.milvusEncap.pool;
+
+import com.jcq.milvusEncap.routing.MilvusEndpoint;
+import com.jcq.milvusEncap.routing.MilvusRouter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 根据获取客户端的等待时间与并发数自动调整连接池容量
+ *
+ * <ul>
+ *     <li>扩容：窗口内出现等待线程、获取超时，或平均等待超过阈值时，按峰值并发扩容，并预热空闲客户端</li>
+ *     <li>预热：峰值并发较上个窗口明显上升且接近容量时，提前创建客户端，避免流量爬坡时新建连接的延迟</li>
+ *     <li>缩容：连续多个窗口利用率都低于阈值时逐步缩容，空闲客户端由连接池的驱逐策略回收</li>
+ * </ul>
+ *
+ * <p>容量始终保持在 [floor-per-key, ceiling-per-key] 之间。commons-pool 的 maxTotalPerKey 对所有key生效，
+ * 多个key时取各key目标容量的最大值。开启后 maxIdlePerKey 随容量一起调整，超出需要的空闲客户端由驱逐策略回收</p>
+ *
+ * <p>主集群、各从集群以及按 database 创建的连接池分别统计与调整，连接池名称为节点名称，非默认 database 为「节点/database」。
+ * 按 database 的连接池在首次访问时创建，从下一个统计窗口开始参与调整</p>
+ *
+ * @author : jucunqi
+ * @since : 2025/10/16
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "milvus.pool.adaptive", name = "enabled", havingValue = "true")
+public class MilvusPoolSizer {
+
+    private final MilvusRouter router;
+    private final String clientKey;
+    private final int floor;
+    private final int ceiling;
+    private final long growWaitNanos;
+    private final double growFactor;
+    private final double rampFactor;
+    private final double prewarmHeadroom;
+    private final double shrinkUtilization;
+    private final int shrinkWindows;
+    private final int historySize;
+
+    // 连接池名称 -> 该连接池的调整状态
+    private final Map<String, PoolSizing> sizings = new ConcurrentHashMap<>();
+    private final Deque<PoolSizingDecision> history = new ArrayDeque<>();
+
+    public MilvusPoolSizer(MilvusRouter router,
+                           @Value("${milvus.client-key}") String clientKey,
+                           @Value("${milvus.pool.adaptive.floor-per-key:5}") int floor,
+                           @Value("${milvus.pool.adaptive.ceiling-per-key:${milvus.pool.max-total:100}}") int ceiling,
+                           @Value("${milvus.pool.adaptive.grow-wait-ms:5}") long growWaitMs,
+                           @Value("${milvus.pool.adaptive.grow-factor:1.5}") double growFactor,
+                           @Value("${milvus.pool.adaptive.ramp-factor:1.3}") double rampFactor,
+                           @Value("${milvus.pool.adaptive.prewarm-headroom:0.2}") double prewarmHeadroom,
+                           @Value("${milvus.pool.adaptive.shrink-utilization:0.3}") double shrinkUtilization,
+                           @Value("${milvus.pool.adaptive.shrink-windows:6}") int shrinkWindows,
+                           @Value("${milvus.pool.adaptive.history-size:200}") int historySize) {
+        if (floor <= 0 || ceiling < floor) {
+            throw new IllegalArgumentException(
+                    String.format("连接池自适应容量配置错误：floor-per-key=%d，ceiling-per-key=%d", floor, ceiling));
+        }
+        this.router = router;
+        this.clientKey = clientKey;
+        this.floor = floor;
+        this.ceiling = ceiling;
+        this.growWaitNanos = TimeUnit.MILLISECONDS.toNanos(growWaitMs);
+        this.growFactor = growFactor;
+        this.rampFactor = rampFactor;
+        this.prewarmHeadroom = prewarmHeadroom;
+        this.shrinkUtilization = shrinkUtilization;
+        this.shrinkWindows = shrinkWindows;
+        this.historySize = historySize;
+
+        // 初始容量收敛到 [floor, ceiling] 之间
+        getPools().forEach(this::sizing);
+    }
+
+    /**
+     * 每个统计窗口结束时评估一次各连接池各key的容量
+     */
+    @Scheduled(fixedDelayString = "${milvus.pool.adaptive.interval-ms:5000}")
+    public void adjust() {
+        Map<String, MilvusClientPool> pools = getPools();
+        // 已关闭的 database 连接池不再调整
+        sizings.keySet().retainAll(pools.keySet());
+        pools.forEach((name, pool) -> sizing(name, pool).adjust());
+    }
+
+    /**
+     * 连接池对应的调整状态，连接池关闭后重新创建时重新开始统计
+     */
+    private PoolSizing sizing(String name, MilvusClientPool pool) {
+        return sizings.compute(name, (key, existing) ->
+                existing != null && existing.pool == pool ? existing : new PoolSizing(name, pool));
+    }
+
+    /**
+     * 需要调整的全部连接池，连接池名称 -> 连接池，主集群在前
+     */
+    public Map<String, MilvusClientPool> getPools() {
+        Map<String, MilvusClientPool> pools = new LinkedHashMap<>();
+        for (MilvusEndpoint endpoint : router.getEndpoints()) {
+            pools.put(endpoint.getName(), endpoint.getPool());
+            endpoint.getDatabasePools().forEach((database, pool) -> pools.put(endpoint.getName() + "/" + database, pool));
+        }
+        return pools;
+    }
+
+    /**
+     * 单个连接池的统计状态与调整逻辑
+     */
+    private final class PoolSizing {
+
+        private final String name;
+        private final MilvusClientPool pool;
+        // 每个key的容量不能超过连接池总容量
+        private final int poolCeiling;
+        // key -> 上个窗口的峰值并发
+        private final Map<String, Integer> lastPeaks = new ConcurrentHashMap<>();
+        // key -> 连续低利用率的窗口数
+        private final Map<String, Integer> idleWindows = new ConcurrentHashMap<>();
+        // key -> 当前目标容量
+        private final Map<String, Integer> targets = new ConcurrentHashMap<>();
+
+        private PoolSizing(String name, MilvusClientPool pool) {
+            this.name = name;
+            this.pool = pool;
+            this.poolCeiling = Math.min(ceiling, pool.getMaxTotal() > 0 ? pool.getMaxTotal() : ceiling);
+            int initial = clamp(pool.getMaxTotalPerKey());
+            targets.put(clientKey, initial);
+            apply(initial);
+        }
+
+        private void adjust() {
+            List<String> keys = new ArrayList<>(pool.getKeys());
+            if (!keys.contains(clientKey)) {
+                keys.add(clientKey);
+            }
+            for (String key : keys) {
+                adjust(key);
+            }
+            apply(targets.values().stream().mapToInt(Integer::intValue).max().orElse(floor));
+        }
+
+        private void adjust(String key) {
+            MilvusClientPool.BorrowSnapshot window = pool.drainBorrowWindow(key);
+            int current = targets.getOrDefault(key, pool.getMaxTotalPerKey());
+            int peak = window.getPeakInFlight();
+            int lastPeak = lastPeaks.getOrDefault(key, 0);
+            int waiting = pool.getWaitingClientNumber(key);
+            lastPeaks.put(key, peak);
+
+            String growReason = null;
+            if (window.getFailures() > 0) {
+                growReason = "获取客户端超时" + window.getFailures() + "次";
+            } else if (waiting > 0) {
+                growReason = "存在" + waiting + "个等待线程";
+            } else if (window.getAvgWaitNanos() > growWaitNanos) {
+                growReason = "平均等待时间超过阈值";
+            }
+
+            if (growReason != null) {
+                idleWindows.remove(key);
+                int target = clamp(Math.max(current + 1, (int) Math.ceil(Math.max(peak, current) * growFactor)));
+                if (target > current) {
+                    targets.put(key, target);
+                    apply(Math.max(target, pool.getMaxTotalPerKey()));
+                    record(key, PoolSizingDecision.Action.GROW, current, target, prewarm(key, peak), window, waiting,
+                            growReason);
+                }
+                return;
+            }
+
+            // 峰值并发上升且接近容量，视为流量爬坡，提前预热
+            if (peak > 0 && peak >= lastPeak * rampFactor && peak >= current * (1 - prewarmHeadroom)) {
+                idleWindows.remove(key);
+                int target = clamp((int) Math.ceil(peak * growFactor));
+                if (target > current) {
+                    targets.put(key, target);
+                    apply(Math.max(target, pool.getMaxTotalPerKey()));
+                }
+                int prewarmed = prewarm(key, peak);
+                if (target > current || prewarmed > 0) {
+                    record(key, target > current ? PoolSizingDecision.Action.GROW : PoolSizingDecision.Action.PREWARM,
+                            current, Math.max(target, current), prewarmed, window, waiting,
+                            "峰值并发从" + lastPeak + "上升到" + peak);
+                }
+                return;
+            }
+
+            // 连续多个窗口利用率较低时缩容
+            if (current > floor && peak < current * shrinkUtilization) {
+                int windows = idleWindows.merge(key, 1, Integer::sum);
+                if (windows >= shrinkWindows) {
+                    idleWindows.remove(key);
+                    int target = clamp(Math.min(current - 1, (int) Math.ceil(Math.max(peak, 1) * growFactor)));
+                    targets.put(key, target);
+                    record(key, PoolSizingDecision.Action.SHRINK, current, target, 0, window, waiting,
+                            "连续" + windows + "个窗口利用率低于" + shrinkUtilization);
+                }
+            } else {
+                idleWindows.remove(key);
+            }
+        }
+
+        /**
+         * 预热空闲客户端，使空闲数覆盖峰值并发的一定比例
+         */
+        private int prewarm(String key, int peak) {
+            int idleTarget = Math.min((int) Math.ceil(Math.max(peak, 1) * prewarmHeadroom) + 1, pool.getMaxIdlePerKey());
+            try {
+                return pool.prewarm(key, idleTarget);
+            } catch (Exception e) {
+                log.warn("预热Milvus客户端失败，连接池: {}，key: {}，原因: {}", name, key, e.getMessage());
+                return 0;
+            }
+        }
+
+        /**
+         * 空闲上限与容量同步调整：缩容后多出的空闲客户端在归还时直接销毁；扩容时一并调高，
+         * 否则扩容后归还的客户端超过原空闲上限会被销毁，预热也受原空闲上限限制，在需要扩容的负载下反复新建连接
+         */
+        private void apply(int maxTotalPerKey) {
+            if (pool.getMaxTotalPerKey() != maxTotalPerKey) {
+                pool.setMaxTotalPerKey(maxTotalPerKey);
+            }
+            if (pool.getMaxIdlePerKey() != maxTotalPerKey) {
+                pool.setMaxIdlePerKey(maxTotalPerKey);
+            }
+        }
+
+        private void record(String key, PoolSizingDecision.Action action, int from, int to, int prewarmed,
+                            MilvusClientPool.BorrowSnapshot window, int waiting, String reason) {
+            PoolSizingDecision decision = new PoolSizingDecision(Instant.now(), name, key, action, from, to, prewarmed,
+                    window.getAvgWaitNanos() / 1_000_000.0, window.getMaxWaitNanos() / 1_000_000.0,
+                    window.getPeakInFlight(), waiting, reason);
+            synchronized (history) {
+                if (history.size() >= historySize) {
+                    history.removeFirst();
+                }
+                history.addLast(decision);
+            }
+            log.info("Milvus连接池容量调整，连接池: {}，key: {}，{}: {} -> {}，预热: {}，原因: {}",
+                    name, key, action, from, to, prewarmed, reason);
+        }
+
+        private int clamp(int size) {
+            return Math.max(floor, Math.min(poolCeiling, size));
+        }
+
+    }
+
+    /**
+     * 获取最近的容量调整记录，按时间倒序
+     */
+    public List<PoolSizingDecision> getHistory() {
+        synchronized (history) {
+            List<PoolSizingDecision> result = new ArrayList<>(history);
+            Collections.reverse(result);
+            return result;
+        }
+    }
+
+    /**
+     * 获取各连接池各key当前的目标容量，连接池名称 -> key -> 目标容量
+     */
+    public Map<String, Map<String, Integer>> getTargets() {
+        Map<String, Map<String, Integer>> result = new LinkedHashMap<>();
+        for (String name : getPools().keySet()) {
+            PoolSizing sizing = sizings.get(name);
+            if (sizing != null) {
+                result.put(name, Map.copyOf(sizing.targets));
+            }
+        }
+        return result;
+    }
+
+    public int getFloor() {
+        return floor;
+    }
+
+    public int getCeiling() {
+        return ceiling;
+    }
+
+}
@@ -0,0 +1,67 @@
+package com.jcq.milvusEncap.pool;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.Instant;
+
+/**
+ * 一次连接池容量调整的记录
+ *
+ * @author : jucunqi
+ * @since : 2025/10/16
+ */
+@Getter
+@AllArgsConstructor
+public class PoolSizingDecision {
+
+    /**
+     * 调整类型
+     */
+    public enum Action {
+        /**
+         * 扩容
+         */
+        GROW,
+        /**
+         * 缩容
+         */
+        SHRINK,
+        /**
+         * 仅预热客户端，容量不变
+         */
+        PREWARM
+    }
+
+    private final Instant time;
+    /**
+     * 连接池名称，非默认 database 的连接池为「节点/database」
+     */
+    private final String pool;
+    private final String key;
+    private final Action action;
+    /**
+     * 调整前后每个key的最大客户端数
+     */
+    private final int fromMaxTotalPerKey;
+    private final int toMaxTotalPerKey;
+    /**
+     * 本次预热新建的客户端数
+     */
+    private final int prewarmed;
+    /**
+     * 统计窗口内的平均、最长等待时间（毫秒）
+     */
+    private final double avgWaitMs;
+    private final double maxWaitMs;
+    /**
+     * 统计窗口内的峰值并发与调整时的等待线程数
+     */
+    private final int peakInFlight;
+    private final int waiting;
+    /**
+     * 调整原因
+     */
+    private final String reason;
+
+}
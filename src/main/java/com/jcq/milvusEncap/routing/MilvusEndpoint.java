@@ -0,0 +1,164 @@
+package com.jcq.milvusEncap.routing;
+
+import com.jcq.milvusEncap.pool.MilvusClientPool;
+import lombok.Getter;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * 一个命名的 Milvus 节点（集群入口），持有各自独立的连接池，并记录路由所需的延迟、并发与健康状态
+ *
+ * <p>开启多租户时，默认 database 之外的每个 database 在首次使用时创建单独的连接池（客户端在连接时绑定 database），
+ * 即连接池按 (节点, database) 划分，不同 database 的客户端互不共享</p>
+ *
+ * @author : jucunqi
+ * @since : 2025/10/16
+ */
+public class MilvusEndpoint {
+
+    /**
+     * 节点角色
+     */
+    public enum Role {
+        /**
+         * 主集群，承担全部写操作和强一致读
+         */
+        PRIMARY,
+        /**
+         * 从集群，承担 Bounded/Eventually 级别的读
+         */
+        REPLICA
+    }
+
+    /**
+     * Milvus 的默认 database，使用节点的主连接池
+     */
+    public static final String DEFAULT_DATABASE = "default";
+
+    // 延迟的指数移动平均，新样本权重 1/EWMA_WEIGHT
+    private static final int EWMA_WEIGHT = 5;
+
+    @Getter
+    private final String name;
+    @Getter
+    private final Role role;
+    @Getter
+    private final MilvusClientPool pool;
+    // 按 database 创建连接池，为 null 时只能访问默认 database
+    private final Function<String, MilvusClientPool> databasePoolFactory;
+    // database -> 连接池，不含默认 database
+    private final Map<String, MilvusClientPool> databasePools = new ConcurrentHashMap<>();
+
+    private final AtomicLong latencyNanos = new AtomicLong();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    @Getter
+    private volatile boolean healthy = true;
+
+    public MilvusEndpoint(String name, Role role, MilvusClientPool pool) {
+        this(name, role, pool, null);
+    }
+
+    public MilvusEndpoint(String name, Role role, MilvusClientPool pool,
+                          Function<String, MilvusClientPool> databasePoolFactory) {
+        this.name = name;
+        this.role = role;
+        this.pool = pool;
+        this.databasePoolFactory = databasePoolFactory;
+    }
+
+    /**
+     * database 对应的连接池，为空或为默认 database 时返回 {@link #getPool()}
+     * @throws IllegalStateException 节点未配置按 database 创建连接池时抛出
+     */
+    public MilvusClientPool getPool(String database) {
+        if (database == null || DEFAULT_DATABASE.equals(database)) {
+            return pool;
+        }
+        MilvusClientPool existing = databasePools.get(database);
+        if (existing != null) {
+            return existing;
+        }
+        if (databasePoolFactory == null) {
+            throw new IllegalStateException(String.format("Milvus节点[%s]不支持访问 database[%s]", name, database));
+        }
+        return databasePools.computeIfAbsent(database, databasePoolFactory);
+    }
+
+    /**
+     * 已创建的非默认 database 连接池
+     */
+    public Map<String, MilvusClientPool> getDatabasePools() {
+        return Collections.unmodifiableMap(databasePools);
+    }
+
+    /**
+     * 关闭非默认 database 的连接池
+     */
+    void closeDatabasePools() {
+        databasePools.values().forEach(MilvusClientPool::close);
+        databasePools.clear();
+    }
+
+    /**
+     * 路由评分：平均延迟 * (当前并发 + 1)，越小越优先；尚无延迟样本的节点评分为0，会被优先探测
+     */
+    long score() {
+        return latencyNanos.get() * (inFlight.get() + 1);
+    }
+
+    void acquire() {
+        inFlight.incrementAndGet();
+    }
+
+    void release() {
+        inFlight.decrementAndGet();
+    }
+
+    void recordLatency(long nanos) {
+        latencyNanos.accumulateAndGet(nanos, (old, sample) -> old == 0 ? sample : old + (sample - old) / EWMA_WEIGHT);
+    }
+
+    /**
+     * 记录一次成功，节点恢复健康
+     *
+     * @return 节点是否由不健康恢复为健康
+     */
+    boolean markSuccess() {
+        consecutiveFailures.set(0);
+        boolean recovered = !healthy;
+        healthy = true;
+        return recovered;
+    }
+
+    /**
+     * 记录一次失败，连续失败达到阈值后标记为不健康
+     *
+     * @return 节点是否由健康变为不健康
+     */
+    boolean markFailure(int threshold) {
+        if (consecutiveFailures.incrementAndGet() >= threshold && healthy) {
+            healthy = false;
+            return true;
+        }
+        return false;
+    }
+
+    public long getLatencyNanos() {
+        return latencyNanos.get();
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public int getConsecutiveFailures() {
+        return consecutiveFailures.get();
+    }
+
+}
@@ -0,0 +1,237 @@
+package com.jcq.milvusEncap.routing;
+
+import com.jcq.milvusEncap.service.milvus.MilvusOperation;
+import io.grpc.Context;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.milvus.v2.client.MilvusClientV2;
+import io.milvus.v2.common.ConsistencyLevel;
+import io.milvus.v2.exception.ErrorCode;
+import io.milvus.v2.exception.MilvusClientException;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 多节点读写分离路由
+ *
+ * <ul>
+ *     <li>写操作、Strong/Session 级别的读只发往主集群</li>
+ *     <li>Bounded/Eventually 级别的读发往健康从集群中评分最低的节点（平均延迟 * 并发），没有可用从集群时回退到主集群</li>
+ *     <li>定时健康检查与调用失败都会累计节点的连续失败次数，达到阈值后摘除，检查通过后恢复</li>
+ * </ul>
+ *
+ * <p>未配置从集群时所有操作都发往主集群，与单连接池时的行为一致</p>
+ *
+ * @author : jucunqi
+ * @since : 2025/10/16
+ */
+@Slf4j
+public class MilvusRouter {
+
+    @Getter
+    private final MilvusEndpoint primary;
+    @Getter
+    private final List<MilvusEndpoint> replicas;
+    @Getter
+    private final String clientKey;
+    @Getter
+    private final ConsistencyLevel defaultConsistency;
+    private final int failureThreshold;
+
+    public MilvusRouter(MilvusEndpoint primary, List<MilvusEndpoint> replicas, String clientKey,
+                        ConsistencyLevel defaultConsistency, int failureThreshold) {
+        this.primary = primary;
+        this.replicas = List.copyOf(replicas);
+        this.clientKey = clientKey;
+        this.defaultConsistency = defaultConsistency;
+        this.failureThreshold = Math.max(1, failureThreshold);
+    }
+
+    /**
+     * 为一次操作选择节点
+     * @param operation 操作类型
+     * @param consistencyLevel 读一致性级别，为空时使用默认级别
+     * @param excluded 需要排除的节点（失败重试时传入上一次的节点），可为空
+     * @return 目标节点，没有其他可选节点时返回 null
+     */
+    public MilvusEndpoint route(MilvusOperation operation, ConsistencyLevel consistencyLevel, MilvusEndpoint excluded) {
+        if (operation.isWrite() || !readFromReplica(resolveConsistency(consistencyLevel))) {
+            return excluded == primary ? null : primary;
+        }
+
+        // 从健康的从集群中选择评分最低的节点，从随机位置开始遍历，评分相同时分散到不同节点
+        MilvusEndpoint best = null;
+        int size = replicas.size();
+        int offset = size > 1 ? ThreadLocalRandom.current().nextInt(size) : 0;
+        for (int i = 0; i < size; i++) {
+            MilvusEndpoint replica = replicas.get((offset + i) % size);
+            if (replica == excluded || !replica.isHealthy()) {
+                continue;
+            }
+            if (best == null || replica.score() < best.score()) {
+                best = replica;
+            }
+        }
+        if (best != null) {
+            return best;
+        }
+        // 没有可用的从集群，回退到主集群
+        return excluded == primary ? null : primary;
+    }
+
+    /**
+     * 请求未指定一致性级别时使用默认级别
+     */
+    public ConsistencyLevel resolveConsistency(ConsistencyLevel consistencyLevel) {
+        return consistencyLevel != null ? consistencyLevel : defaultConsistency;
+    }
+
+    /**
+     * 使用节点的连接池执行一次调用，并记录延迟、并发与失败情况
+     */
+    public <S> S call(MilvusEndpoint endpoint, EndpointCall<S> call) throws Exception {
+        endpoint.acquire();
+        try {
+            return call.apply(endpoint);
+        } catch (Exception e) {
+            // 调用方主动取消（如对冲的另一个请求已先返回）不代表节点异常
+            if (!Context.current().isCancelled()) {
+                onFailure(endpoint, e);
+            }
+            throw e;
+        } finally {
+            endpoint.release();
+        }
+    }
+
+    /**
+     * 记录一次成功调用的服务端耗时
+     */
+    public void onSuccess(MilvusEndpoint endpoint, long serverNanos) {
+        endpoint.recordLatency(serverNanos);
+    }
+
+    /**
+     * 调用失败时，只有节点不可达类的错误才计入连续失败次数
+     */
+    public void onFailure(MilvusEndpoint endpoint, Throwable error) {
+        if (isUnavailable(error) && endpoint.markFailure(failureThreshold)) {
+            log.warn("Milvus节点[{}]连续失败{}次，暂停路由，原因: {}", endpoint.getName(),
+                    endpoint.getConsecutiveFailures(), error.getMessage());
+        }
+    }
+
+    /**
+     * 定时检查各节点健康状态，同时用检查耗时刷新节点延迟，避免长时间未被选中的节点延迟数据过期
+     */
+    @Scheduled(fixedDelayString = "${milvus.routing.health-check-interval-ms:5000}")
+    public void checkHealth() {
+        for (MilvusEndpoint endpoint : getEndpoints()) {
+            checkHealth(endpoint);
+        }
+    }
+
+    private void checkHealth(MilvusEndpoint endpoint) {
+        MilvusClientV2 client = null;
+        try {
+            client = endpoint.getPool().getClient(clientKey);
+            long start = System.nanoTime();
+            Boolean healthy = client.checkHealth().getIsHealthy();
+            if (Boolean.TRUE.equals(healthy)) {
+                endpoint.recordLatency(System.nanoTime() - start);
+                if (endpoint.markSuccess()) {
+                    log.info("Milvus节点[{}]健康检查通过，恢复路由", endpoint.getName());
+                }
+            } else if (endpoint.markFailure(failureThreshold)) {
+                log.warn("Milvus节点[{}]健康检查未通过，暂停路由", endpoint.getName());
+            }
+        } catch (Exception e) {
+            if (isPoolExhausted(e)) {
+                // 连接池被占满说明节点仍在正常处理请求，不计为失败
+                return;
+            }
+            if (endpoint.markFailure(failureThreshold)) {
+                log.warn("Milvus节点[{}]健康检查失败，暂停路由，原因: {}", endpoint.getName(), e.getMessage());
+            }
+        } finally {
+            if (client != null) {
+                endpoint.getPool().returnClient(clientKey, client);
+            }
+        }
+    }
+
+    /**
+     * 全部节点，主集群在前
+     */
+    public List<MilvusEndpoint> getEndpoints() {
+        List<MilvusEndpoint> endpoints = new ArrayList<>(replicas.size() + 1);
+        endpoints.add(primary);
+        endpoints.addAll(replicas);
+        return endpoints;
+    }
+
+    /**
+     * 关闭从集群的连接池与各节点按 database 创建的连接池，主集群连接池由 Spring 单独管理
+     */
+    public void close() {
+        for (MilvusEndpoint endpoint : getEndpoints()) {
+            endpoint.closeDatabasePools();
+        }
+        for (MilvusEndpoint replica : replicas) {
+            replica.getPool().close();
+        }
+    }
+
+    /**
+     * 是否为节点不可达类的错误（连接失败、超时），这类错误可以换节点重试
+     */
+    public static boolean isUnavailable(Throwable error) {
+        for (Throwable t = error; t != null; t = t.getCause()) {
+            if (t instanceof StatusRuntimeException statusException) {
+                Status.Code code = statusException.getStatus().getCode();
+                return code == Status.Code.UNAVAILABLE || code == Status.Code.DEADLINE_EXCEEDED;
+            }
+            if (t instanceof MilvusClientException clientException) {
+                ErrorCode errorCode = clientException.getErrorCode();
+                if (errorCode == ErrorCode.RPC_ERROR || errorCode == ErrorCode.TIMEOUT) {
+                    return true;
+                }
+                // 连接池创建客户端失败（无法连接），等待超时不算
+                if (errorCode == ErrorCode.CLIENT_ERROR && t.getCause() != null && !isPoolExhausted(t)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static boolean readFromReplica(ConsistencyLevel consistencyLevel) {
+        return consistencyLevel == null
+                || consistencyLevel == ConsistencyLevel.BOUNDED
+                || consistencyLevel == ConsistencyLevel.EVENTUALLY;
+    }
+
+    private static boolean isPoolExhausted(Throwable error) {
+        for (Throwable t = error; t != null; t = t.getCause()) {
+            if (t instanceof NoSuchElementException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 使用某个节点执行的调用
+     */
+    @FunctionalInterface
+    public interface EndpointCall<S> {
+        S apply(MilvusEndpoint endpoint) throws Exception;
+    }
+
+}
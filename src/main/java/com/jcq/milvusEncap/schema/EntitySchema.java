@@ -0,0 +1,29 @@
+package com.jcq.milvusEncap.schema;
+
+import io.milvus.v2.common.IndexParam;
+import io.milvus.v2.service.collection.request.CreateCollectionReq;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * 由实体类注解解析出的集合定义：字段、索引与分区配置
+ *
+ * @author : jucunqi
+ * @since : 2025/10/16
+ */
+@Getter
+@AllArgsConstructor
+public class EntitySchema {
+
+    private final Class<?> entityClass;
+    private final String collectionName;
+    private final CreateCollectionReq.CollectionSchema collectionSchema;
+    private final List<IndexParam> indexParams;
+    /**
+     * 分区数量，没有 Partition Key 时为 null
+     */
+    private final Integer numPartitions;
+
+}
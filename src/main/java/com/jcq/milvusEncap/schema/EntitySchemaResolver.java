@@ -0,0 +1,197 @@
+package com.jcq.milvusEncap.schema;
+
+import cn.hutool.core.text.CharSequenceUtil;
+import com.jcq.milvusEncap.annotation.CollectionName;
+import com.jcq.milvusEncap.annotation.MaxLength;
+import com.jcq.milvusEncap.annotation.PartitionKey;
+import com.jcq.milvusEncap.annotation.PrimaryKey;
+import com.jcq.milvusEncap.annotation.ScalarIndex;
+import com.jcq.milvusEncap.annotation.VectorField;
+import com.jcq.milvusEncap.util.MilvusUtil;
+import io.milvus.v2.common.DataType;
+import io.milvus.v2.common.IndexParam;
+import io.milvus.v2.service.collection.request.AddFieldReq;
+import io.milvus.v2.service.collection.request.CreateCollectionReq;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 根据实体类上的 @CollectionName、@PrimaryKey、@PartitionKey、@VectorField、@ScalarIndex、@MaxLength 注解解析集合定义，
+ * 字段名与写入数据时一致，统一驼峰转下划线
+ *
+ * @author : jucunqi
+ * @since : 2025/10/16
+ */
+public final class EntitySchemaResolver {
+
+    /**
+     * 未标注 @MaxLength 时 VarChar 字段的最大长度
+     */
+    public static final int DEFAULT_MAX_LENGTH = 65535;
+
+    private EntitySchemaResolver() {
+    }
+
+    public static EntitySchema resolve(Class<?> entityClass) {
+        CollectionName collectionName = entityClass.getAnnotation(CollectionName.class);
+        if (collectionName == null || collectionName.value().trim().isEmpty()) {
+            throw new IllegalArgumentException(
+                    String.format("实体类[%s]未标注@CollectionName注解", entityClass.getName()));
+        }
+
+        CreateCollectionReq.CollectionSchema schema = CreateCollectionReq.CollectionSchema.builder().build();
+        List<IndexParam> indexParams = new ArrayList<>();
+        Integer numPartitions = null;
+        boolean hasPrimaryKey = false;
+
+        for (Field field : getFields(entityClass)) {
+            String name = CharSequenceUtil.toSymbolCase(field.getName(), '_');
+            AddFieldReq.AddFieldReqBuilder<?, ?> builder = AddFieldReq.builder()
+                    .fieldName(name)
+                    .dataType(resolveDataType(entityClass, field));
+
+            PrimaryKey primaryKey = field.getAnnotation(PrimaryKey.class);
+            if (primaryKey != null) {
+                builder.isPrimaryKey(true).autoID("auto".equals(primaryKey.type()));
+                hasPrimaryKey = true;
+            }
+            PartitionKey partitionKey = field.getAnnotation(PartitionKey.class);
+            if (partitionKey != null) {
+                builder.isPartitionKey(true);
+                numPartitions = partitionKey.numPartitions();
+            }
+            if (field.getType() == String.class) {
+                MaxLength maxLength = field.getAnnotation(MaxLength.class);
+                builder.maxLength(maxLength != null ? maxLength.value() : DEFAULT_MAX_LENGTH);
+            }
+
+            VectorField vectorField = field.getAnnotation(VectorField.class);
+            if (MilvusUtil.isVectorType(field.getType())) {
+                if (vectorField == null) {
+                    throw new IllegalArgumentException(String.format("实体类[%s]的向量字段[%s]未标注@VectorField注解",
+                            entityClass.getName(), field.getName()));
+                }
+                builder.dimension(vectorField.dim());
+                indexParams.add(IndexParam.builder()
+                        .fieldName(name)
+                        .indexType(vectorField.indexType())
+                        .metricType(vectorField.metricType())
+                        .extraParams(parseParams(vectorField.params()))
+                        .build());
+            }
+            ScalarIndex scalarIndex = field.getAnnotation(ScalarIndex.class);
+            if (scalarIndex != null) {
+                indexParams.add(IndexParam.builder()
+                        .fieldName(name)
+                        .indexType(scalarIndex.value())
+                        .build());
+            }
+            schema.addField(builder.build());
+        }
+
+        if (!hasPrimaryKey) {
+            throw new IllegalArgumentException(
+                    String.format("实体类[%s]未找到@PrimaryKey注解字段", entityClass.getName()));
+        }
+        return new EntitySchema(entityClass, collectionName.value().trim(), schema, indexParams, numPartitions);
+    }
+
+    /**
+     * 解析 key=value 格式的索引参数，数值参数转换为数字
+     */
+    static Map<String, Object> parseParams(String[] params) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        for (String param : params) {
+            int index = param.indexOf('=');
+            if (index <= 0) {
+                throw new IllegalArgumentException("索引参数格式错误，应为 key=value: " + param);
+            }
+            String value = param.substring(index + 1).trim();
+            result.put(param.substring(0, index).trim(), parseValue(value));
+        }
+        return result;
+    }
+
+    private static Object parseValue(String value) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException ignored) {
+            // 不是整数
+        }
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException ignored) {
+            return value;
+        }
+    }
+
+    private static DataType resolveDataType(Class<?> entityClass, Field field) {
+        Class<?> type = field.getType();
+        if (type == Long.class || type == long.class) {
+            return DataType.Int64;
+        } else if (type == Integer.class || type == int.class) {
+            return DataType.Int32;
+        } else if (type == Short.class || type == short.class) {
+            return DataType.Int16;
+        } else if (type == Byte.class || type == byte.class) {
+            return DataType.Int8;
+        } else if (type == Boolean.class || type == boolean.class) {
+            return DataType.Bool;
+        } else if (type == Float.class || type == float.class) {
+            return DataType.Float;
+        } else if (type == Double.class || type == double.class) {
+            return DataType.Double;
+        } else if (type == String.class) {
+            return DataType.VarChar;
+        } else if (MilvusUtil.isVectorType(type)) {
+            return resolveVectorType(entityClass, field);
+        } else if (Map.class.isAssignableFrom(type)) {
+            return DataType.JSON;
+        }
+        throw new IllegalArgumentException(String.format("实体类[%s]的字段[%s]类型[%s]暂不支持自动建表",
+                entityClass.getName(), field.getName(), type.getName()));
+    }
+
+    /**
+     * float[] 只能声明为 FloatVector，short[] 只能声明为 Float16Vector / BFloat16Vector
+     */
+    private static DataType resolveVectorType(Class<?> entityClass, Field field) {
+        VectorField vectorField = field.getAnnotation(VectorField.class);
+        DataType dataType = vectorField != null ? vectorField.dataType() : DataType.FloatVector;
+        boolean half = dataType == DataType.Float16Vector || dataType == DataType.BFloat16Vector;
+        if (field.getType() == float[].class ? dataType != DataType.FloatVector : !half) {
+            throw new IllegalArgumentException(String.format("实体类[%s]的向量字段[%s]类型为%s，与@VectorField声明的%s不匹配，"
+                            + "float[]对应FloatVector，short[]对应Float16Vector/BFloat16Vector",
+                    entityClass.getName(), field.getName(), field.getType().getSimpleName(), dataType));
+        }
+        return dataType;
+    }
+
+    /**
+     * 获取类及其父类的实例字段，父类字段在前
+     */
+    private static List<Field> getFields(Class<?> entityClass) {
+        Deque<Class<?>> hierarchy = new ArrayDeque<>();
+        for (Class<?> current = entityClass; current != null && current != Object.class; current = current.getSuperclass()) {
+            hierarchy.push(current);
+        }
+        List<Field> fields = new ArrayList<>();
+        for (Class<?> current : hierarchy) {
+            for (Field field : current.getDeclaredFields()) {
+                int modifiers = field.getModifiers();
+                if (!Modifier.isStatic(modifiers) && !Modifier.isTransient(modifiers) && !field.isSynthetic()) {
+                    fields.add(field);
+                }
+            }
+        }
+        return fields;
+    }
+
+}
@@ -0,0 +1,56 @@
+package com.jcq.milvusEncap.schema;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 通过 /actuator/milvusschema 查看实体类定义的集合、索引以及与已有集合的差异
+ *
+ * @author : jucunqi
+ * @since : 2025/10/16
+ */
+@Component
+@ConditionalOnProperty(prefix = "milvus.schema", name = "enabled", havingValue = "true")
+@Endpoint(id = "milvusschema")
+public class MilvusSchemaEndpoint {
+
+    private final MilvusSchemaInitializer initializer;
+
+    public MilvusSchemaEndpoint(MilvusSchemaInitializer initializer) {
+        this.initializer = initializer;
+    }
+
+    @ReadOperation
+    public Map<String, Object> schema() {
+        List<Map<String, Object>> collections = new ArrayList<>();
+        for (EntitySchema schema : initializer.getSchemas()) {
+            Map<String, Object> collection = new LinkedHashMap<>();
+            collection.put("collectionName", schema.getCollectionName());
+            collection.put("entityClass", schema.getEntityClass().getName());
+            collection.put("numPartitions", schema.getNumPartitions());
+            List<Map<String, Object>> indexes = new ArrayList<>();
+            schema.getIndexParams().forEach(indexParam -> {
+                Map<String, Object> index = new LinkedHashMap<>();
+                index.put("fieldName", indexParam.getFieldName());
+                index.put("indexType", indexParam.getIndexType());
+                index.put("metricType", indexParam.getMetricType());
+                index.put("params", indexParam.getExtraParams());
+                indexes.add(index);
+            });
+            collection.put("indexes", indexes);
+            collections.add(collection);
+        }
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("collections", collections);
+        result.put("drifts", initializer.getDrifts());
+        return result;
+    }
+
+}
@@ -0,0 +1,306 @@
+package com.jcq.milvusEncap.schema;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONObject;
+import com.jcq.milvusEncap.pool.MilvusClientPool;
+import com.jcq.milvusEncap.routing.MilvusEndpoint;
+import com.jcq.milvusEncap.routing.MilvusRouter;
+import com.jcq.milvusEncap.service.milvus.MilvusBaseService;
+import com.jcq.milvusEncap.tenant.TenantRegistry;
+import io.milvus.v2.client.MilvusClientV2;
+import io.milvus.v2.common.DataType;
+import io.milvus.v2.common.IndexParam;
+import io.milvus.v2.service.collection.request.CreateCollectionReq;
+import io.milvus.v2.service.collection.request.DescribeCollectionReq;
+import io.milvus.v2.service.collection.request.HasCollectionReq;
+import io.milvus.v2.service.database.request.CreateDatabaseReq;
+import io.milvus.v2.service.index.request.CreateIndexReq;
+import io.milvus.v2.service.index.request.DescribeIndexReq;
+import io.milvus.v2.service.index.request.ListIndexesReq;
+import io.milvus.v2.service.index.response.DescribeIndexResp;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * 启动时根据实体类注解创建缺失的集合与索引，并检查已有集合与实体类定义的差异
+ *
+ * <ul>
+ *     <li>集合不存在：按注解创建集合、索引与分区配置</li>
+ *     <li>集合已存在：比较字段类型、维度、长度、主键与 Partition Key，以及索引类型、度量与构建参数；
+ *     缺失的索引自动补建（异步构建），其余差异只输出报告，不修改已有集合</li>
+ * </ul>
+ *
+ * <p>集合与索引只在主集群上创建，差异报告可通过 /actuator/milvusschema 查看。开启多租户时，
+ * 同样在每个已配置租户的 database 中创建缺失的 database、集合与索引，差异报告中的集合名带 database 前缀</p>
+ *
+ * @author : jucunqi
+ * @since : 2025/10/16
+ */
+@Slf4j
+@Order(0)
+@Component
+@ConditionalOnProperty(prefix = "milvus.schema", name = "enabled", havingValue = "true")
+public class MilvusSchemaInitializer implements ApplicationRunner {
+
+    private final List<MilvusBaseService<?>> services;
+    private final MilvusRouter router;
+    private final TenantRegistry tenantRegistry;
+    private final boolean autoCreate;
+    private final boolean failOnDrift;
+
+    @Getter
+    private volatile List<EntitySchema> schemas = Collections.emptyList();
+    @Getter
+    private volatile List<SchemaDrift> drifts = Collections.emptyList();
+
+    public MilvusSchemaInitializer(List<MilvusBaseService<?>> services, MilvusRouter router, TenantRegistry tenantRegistry,
+                                   @Value("${milvus.schema.auto-create:true}") boolean autoCreate,
+                                   @Value("${milvus.schema.fail-on-drift:false}") boolean failOnDrift) {
+        this.services = services;
+        this.router = router;
+        this.tenantRegistry = tenantRegistry;
+        this.autoCreate = autoCreate;
+        this.failOnDrift = failOnDrift;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        // 同一个实体类可能被多个 Service 使用
+        Set<Class<?>> entityClasses = new LinkedHashSet<>();
+        services.forEach(service -> entityClasses.add(service.getEntityClass()));
+
+        List<EntitySchema> resolved = new ArrayList<>();
+        List<SchemaDrift> report = new ArrayList<>();
+        MilvusEndpoint primary = router.getPrimary();
+        MilvusClientV2 client = primary.getPool().getClient(router.getClientKey());
+        try {
+            for (Class<?> entityClass : entityClasses) {
+                EntitySchema schema = EntitySchemaResolver.resolve(entityClass);
+                resolved.add(schema);
+                sync(client, schema, report);
+            }
+        } finally {
+            primary.getPool().returnClient(router.getClientKey(), client);
+        }
+        if (tenantRegistry.isEnabled()) {
+            syncTenantDatabases(primary, resolved, report);
+        }
+        this.schemas = List.copyOf(resolved);
+        this.drifts = List.copyOf(report);
+
+        report.forEach(drift -> log.warn("Milvus集合[{}]与实体定义不一致，字段: {}，{}: 期望 {}，实际 {}{}",
+                drift.getCollectionName(), drift.getFieldName(), drift.getItem(), drift.getExpected(),
+                drift.getActual(), drift.isFixed() ? "（已自动修复）" : ""));
+        if (failOnDrift && report.stream().anyMatch(drift -> !drift.isFixed())) {
+            throw new IllegalStateException("Milvus集合与实体定义不一致，详见启动日志");
+        }
+    }
+
+    /**
+     * 在租户的 database 中创建缺失的 database 与集合，每个 database 使用节点上该 database 的连接池
+     */
+    private void syncTenantDatabases(MilvusEndpoint primary, List<EntitySchema> schemas, List<SchemaDrift> report) {
+        Set<String> databases = new LinkedHashSet<>(tenantRegistry.databases());
+        databases.remove(MilvusEndpoint.DEFAULT_DATABASE);
+        if (databases.isEmpty()) {
+            return;
+        }
+        List<String> existing;
+        MilvusClientV2 client = primary.getPool().getClient(router.getClientKey());
+        try {
+            existing = client.listDatabases().getDatabaseNames();
+            for (String database : databases) {
+                if (existing.contains(database)) {
+                    continue;
+                }
+                if (!autoCreate) {
+                    report.add(new SchemaDrift(database, "-", "database", "exists", "missing", false));
+                    continue;
+                }
+                client.createDatabase(CreateDatabaseReq.builder().databaseName(database).build());
+                log.info("已创建Milvus database[{}]", database);
+            }
+            existing = client.listDatabases().getDatabaseNames();
+        } finally {
+            primary.getPool().returnClient(router.getClientKey(), client);
+        }
+
+        for (String database : databases) {
+            if (!existing.contains(database)) {
+                continue;
+            }
+            MilvusClientPool pool = primary.getPool(database);
+            MilvusClientV2 databaseClient = pool.getClient(router.getClientKey());
+            try {
+                List<SchemaDrift> databaseReport = new ArrayList<>();
+                for (EntitySchema schema : schemas) {
+                    sync(databaseClient, schema, databaseReport);
+                }
+                databaseReport.forEach(drift -> report.add(new SchemaDrift(database + "." + drift.getCollectionName(),
+                        drift.getFieldName(), drift.getItem(), drift.getExpected(), drift.getActual(), drift.isFixed())));
+            } finally {
+                pool.returnClient(router.getClientKey(), databaseClient);
+            }
+        }
+    }
+
+    private void sync(MilvusClientV2 client, EntitySchema schema, List<SchemaDrift> report) {
+        String collectionName = schema.getCollectionName();
+        boolean exists = client.hasCollection(HasCollectionReq.builder().collectionName(collectionName).build());
+        if (!exists) {
+            if (!autoCreate) {
+                report.add(new SchemaDrift(collectionName, "-", "collection", "exists", "missing", false));
+                return;
+            }
+            CreateCollectionReq.CreateCollectionReqBuilder<?, ?> builder = CreateCollectionReq.builder()
+                    .collectionName(collectionName)
+                    .collectionSchema(schema.getCollectionSchema())
+                    .indexParams(schema.getIndexParams());
+            if (schema.getNumPartitions() != null) {
+                builder.numPartitions(schema.getNumPartitions());
+            }
+            client.createCollection(builder.build());
+            log.info("已创建Milvus集合[{}]，索引: {}", collectionName, describe(schema.getIndexParams()));
+            return;
+        }
+
+        CreateCollectionReq.CollectionSchema actual = client.describeCollection(
+                DescribeCollectionReq.builder().collectionName(collectionName).build()).getCollectionSchema();
+        compareFields(collectionName, schema.getCollectionSchema(), actual, report);
+        compareIndexes(client, schema, report);
+    }
+
+    private void compareFields(String collectionName, CreateCollectionReq.CollectionSchema expected,
+                               CreateCollectionReq.CollectionSchema actual, List<SchemaDrift> report) {
+        Map<String, CreateCollectionReq.FieldSchema> actualFields = new HashMap<>();
+        for (CreateCollectionReq.FieldSchema field : actual.getFieldSchemaList()) {
+            actualFields.put(field.getName(), field);
+        }
+        for (CreateCollectionReq.FieldSchema field : expected.getFieldSchemaList()) {
+            CreateCollectionReq.FieldSchema existing = actualFields.remove(field.getName());
+            if (existing == null) {
+                report.add(new SchemaDrift(collectionName, field.getName(), "field", "exists", "missing", false));
+                continue;
+            }
+            compare(report, collectionName, field.getName(), "dataType", field.getDataType(), existing.getDataType());
+            compare(report, collectionName, field.getName(), "primaryKey",
+                    Boolean.TRUE.equals(field.getIsPrimaryKey()), Boolean.TRUE.equals(existing.getIsPrimaryKey()));
+            compare(report, collectionName, field.getName(), "partitionKey",
+                    Boolean.TRUE.equals(field.getIsPartitionKey()), Boolean.TRUE.equals(existing.getIsPartitionKey()));
+            if (Boolean.TRUE.equals(field.getIsPrimaryKey())) {
+                compare(report, collectionName, field.getName(), "autoID",
+                        Boolean.TRUE.equals(field.getAutoID()), Boolean.TRUE.equals(existing.getAutoID()));
+            }
+            if (field.getDimension() != null) {
+                compare(report, collectionName, field.getName(), "dimension", field.getDimension(), existing.getDimension());
+            }
+            if (field.getDataType() == DataType.VarChar) {
+                compare(report, collectionName, field.getName(), "maxLength", field.getMaxLength(), existing.getMaxLength());
+            }
+        }
+        // 集合中存在、实体类中没有的字段（动态字段除外）
+        actualFields.keySet().stream()
+                .filter(name -> !name.startsWith("$"))
+                .forEach(name -> report.add(new SchemaDrift(collectionName, name, "field", "missing", "exists", false)));
+    }
+
+    private void compareIndexes(MilvusClientV2 client, EntitySchema schema, List<SchemaDrift> report) {
+        String collectionName = schema.getCollectionName();
+        Map<String, DescribeIndexResp.IndexDesc> actualIndexes = new HashMap<>();
+        List<String> indexNames = client.listIndexes(ListIndexesReq.builder().collectionName(collectionName).build());
+        for (String indexName : indexNames) {
+            DescribeIndexResp resp = client.describeIndex(DescribeIndexReq.builder()
+                    .collectionName(collectionName)
+                    .indexName(indexName)
+                    .build());
+            resp.getIndexDescriptions().forEach(desc -> actualIndexes.put(desc.getFieldName(), desc));
+        }
+
+        List<IndexParam> missing = new ArrayList<>();
+        for (IndexParam expected : schema.getIndexParams()) {
+            String fieldName = expected.getFieldName();
+            DescribeIndexResp.IndexDesc actual = actualIndexes.get(fieldName);
+            if (actual == null) {
+                missing.add(expected);
+                report.add(new SchemaDrift(collectionName, fieldName, "index", describe(expected), "missing", autoCreate));
+                continue;
+            }
+            compare(report, collectionName, fieldName, "indexType", expected.getIndexType(), actual.getIndexType());
+            if (expected.getMetricType() != null) {
+                compare(report, collectionName, fieldName, "metricType", expected.getMetricType(), actual.getMetricType());
+            }
+            Map<String, String> actualParams = flattenParams(actual.getExtraParams());
+            if (expected.getExtraParams() != null) {
+                expected.getExtraParams().forEach((key, value) ->
+                        compare(report, collectionName, fieldName, "index." + key, String.valueOf(value), actualParams.get(key)));
+            }
+        }
+
+        if (autoCreate && !missing.isEmpty()) {
+            // 已有数据的集合构建索引耗时较长，异步构建，不阻塞启动
+            client.createIndex(CreateIndexReq.builder()
+                    .collectionName(collectionName)
+                    .indexParams(missing)
+                    .sync(false)
+                    .build());
+            log.info("已为Milvus集合[{}]补建索引: {}", collectionName, describe(missing));
+        }
+    }
+
+    private static void compare(List<SchemaDrift> report, String collectionName, String fieldName, String item,
+                                Object expected, Object actual) {
+        if (!Objects.equals(expected, actual)) {
+            report.add(new SchemaDrift(collectionName, fieldName, item,
+                    String.valueOf(expected), String.valueOf(actual), false));
+        }
+    }
+
+    /**
+     * 索引参数可能以单独的 key 返回，也可能整体放在 params 中（JSON 字符串），统一展开
+     */
+    private static Map<String, String> flattenParams(Map<String, String> extraParams) {
+        Map<String, String> result = new LinkedHashMap<>();
+        if (extraParams == null) {
+            return result;
+        }
+        extraParams.forEach((key, value) -> {
+            if ("params".equals(key) && value != null && value.startsWith("{")) {
+                JSONObject params = JSON.parseObject(value);
+                params.forEach((k, v) -> result.put(k, String.valueOf(v)));
+            } else {
+                result.put(key, value);
+            }
+        });
+        return result;
+    }
+
+    private static String describe(IndexParam indexParam) {
+        return indexParam.getFieldName() + ":" + indexParam.getIndexType()
+                + (indexParam.getMetricType() != null ? "/" + indexParam.getMetricType() : "")
+                + (indexParam.getExtraParams() != null && !indexParam.getExtraParams().isEmpty()
+                ? indexParam.getExtraParams() : "");
+    }
+
+    private static String describe(List<IndexParam> indexParams) {
+        List<String> result = new ArrayList<>(indexParams.size());
+        indexParams.forEach(indexParam -> result.add(describe(indexParam)));
+        return result.toString();
+    }
+
+}
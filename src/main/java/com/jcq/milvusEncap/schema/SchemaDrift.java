@@ -0,0 +1,40 @@
+package com.jcq.milvusEncap.schema;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * 实体类定义与已有集合之间的一处差异
+ *
+ * @author : jucunqi
+ * @since : 2025/10/16
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class SchemaDrift {
+
+    private final String collectionName;
+    /**
+     * 字段名
+     */
+    private final String fieldName;
+    /**
+     * 差异项，如 dataType、dimension、indexType、index.M
+     */
+    private final String item;
+    /**
+     * 实体类中定义的值
+     */
+    private final String expected;
+    /**
+     * 集合中实际的值
+     */
+    private final String actual;
+    /**
+     * 是否已在启动时自动修复（如补建缺失的索引）
+     */
+    private final boolean fixed;
+
+}
@@ -0,0 +1,127 @@
+package com.jcq.milvusEncap.service.milvus;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.IntConsumer;
+
+/**
+ * 并发的按主键查询合并为一次批量查询（DataLoader 风格）：一个时间窗口内到达的 getById 收集起来，
+ * 用一次 {@code pk in [...]} 查询取回，再按主键把各自的行交给对应的调用方
+ *
+ * <ul>
+ *     <li>打开批次的第一个调用方（leader）等待窗口结束或批次达到上限，然后在自己的线程中执行批量查询，不需要额外的线程</li>
+ *     <li>批量查询在所有调用方到达之后才发出，与各自单独查询的可见性相同，不区分一致性级别</li>
+ *     <li>只返回原始行，实体由各调用方分别解码，同一主键的多个调用方也不会共享实体对象</li>
+ *     <li>批量查询失败时，批次内的所有调用方都收到同一个异常</li>
+ * </ul>
+ *
+ * @param <R> 批量查询返回的行类型
+ *
+ * @author : jucunqi
+ * @since : 2025/10/16
+ */
+final class GetByIdBatcher<R> {
+
+    private final long windowNanos;
+    private final int maxBatchSize;
+    private final Function<List<Long>, Map<Long, R>> loader;
+    private final IntConsumer listener;
+    private final Object lock = new Object();
+    // 正在收集的批次，达到上限或窗口结束后置为 null
+    private Batch<R> open;
+
+    /**
+     * @param windowNanos 收集窗口
+     * @param maxBatchSize 一个批次的最多主键数，达到后立即查询
+     * @param loader 批量查询，返回主键到行的映射，不存在的主键不包含在内
+     * @param listener 每次批量查询的主键数，用于统计
+     */
+    GetByIdBatcher(long windowNanos, int maxBatchSize, Function<List<Long>, Map<Long, R>> loader, IntConsumer listener) {
+        this.windowNanos = Math.max(windowNanos, 0);
+        this.maxBatchSize = Math.max(maxBatchSize, 1);
+        this.loader = loader;
+        this.listener = listener;
+    }
+
+    /**
+     * 加入当前批次并等待结果
+     * @return 主键对应的行，不存在时为 null
+     */
+    R load(Long id) throws InterruptedException {
+        Batch<R> batch;
+        boolean leader;
+        CompletableFuture<R> result;
+        synchronized (lock) {
+            leader = open == null;
+            if (leader) {
+                open = new Batch<>();
+            }
+            batch = open;
+            result = batch.pending.computeIfAbsent(id, key -> new CompletableFuture<>());
+            if (batch.pending.size() >= maxBatchSize) {
+                open = null;
+                batch.full.countDown();
+            }
+        }
+        if (leader) {
+            dispatch(batch);
+        }
+        try {
+            return result.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private void dispatch(Batch<R> batch) {
+        // 其他调用方依赖这次查询，leader 在窗口内被中断时仍然执行查询，结束后恢复中断标记
+        boolean interrupted = false;
+        try {
+            batch.full.await(windowNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            interrupted = true;
+        }
+        synchronized (lock) {
+            if (open == batch) {
+                open = null;
+            }
+        }
+        // 批次已从 open 移除，之后不会再有调用方加入
+        List<Long> ids = new ArrayList<>(batch.pending.keySet());
+        listener.accept(ids.size());
+        try {
+            Map<Long, R> rows = loader.apply(ids);
+            batch.pending.forEach((id, future) -> future.complete(rows.get(id)));
+        } catch (RuntimeException | Error e) {
+            batch.pending.values().forEach(future -> future.completeExceptionally(e));
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * 一个批次：主键到结果的映射（同一主键只查询一次），只在 lock 内修改
+     */
+    private static final class Batch<R> {
+
+        private final Map<Long, CompletableFuture<R>> pending = new LinkedHashMap<>();
+        private final CountDownLatch full = new CountDownLatch(1);
+
+    }
+
+}
@@ -1,36 +1,69 @@
 package com.jcq.milvusEncap.service.milvus;
 
-import com.alibaba.fastjson.JSON;
-import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
+import cn.hutool.core.text.CharSequenceUtil;
 import com.google.gson.JsonObject;
-import com.jcq.milvusEncap.annotation.CollectionName;
+import com.jcq.milvusEncap.annotation.VectorField;
+import com.jcq.milvusEncap.backend.MilvusStorageBackend;
+import com.jcq.milvusEncap.codec.ColumnarInsertBatch;
+import com.jcq.milvusEncap.codec.ColumnarInsertEncoder;
+import com.jcq.milvusEncap.codec.MilvusEntityCodecs;
+import com.jcq.milvusEncap.codec.MilvusEntityMetadata;
+import com.jcq.milvusEncap.codec.MilvusRowCodec;
+import com.jcq.milvusEncap.codec.MilvusRowValues;
 import com.jcq.milvusEncap.dal.pojo.PageParam;
 import com.jcq.milvusEncap.dal.pojo.PageResult;
+import com.jcq.milvusEncap.dal.pojo.SearchHit;
 import com.jcq.milvusEncap.exception.ServiceException;
-import com.jcq.milvusEncap.strategy.CamelToUnderlineNamingStrategy;
+import com.jcq.milvusEncap.exception.enums.ErrorCodeConstants;
+import com.jcq.milvusEncap.id.PrimaryKeyGenerators;
+import com.jcq.milvusEncap.limiter.MilvusConcurrencyLimiter;
+import com.jcq.milvusEncap.monitor.MilvusMetrics;
+import com.jcq.milvusEncap.monitor.MilvusSlowOperationLogger;
+import com.jcq.milvusEncap.monitor.jfr.MilvusFlightRecorder;
+import com.jcq.milvusEncap.monitor.jfr.MilvusOperationEvent;
+import com.jcq.milvusEncap.routing.MilvusRouter;
+import com.jcq.milvusEncap.session.MilvusSession;
+import com.jcq.milvusEncap.tenant.MilvusTenant;
+import com.jcq.milvusEncap.tenant.TenantRegistry;
 import com.jcq.milvusEncap.util.CollectionUtils;
 import com.jcq.milvusEncap.util.MilvusUtil;
-import io.milvus.pool.MilvusClientV2Pool;
-import io.milvus.v2.client.MilvusClientV2;
+import com.jcq.milvusEncap.vector.HalfFloats;
+import com.jcq.milvusEncap.workload.MilvusWorkload;
+import com.jcq.milvusEncap.workload.WorkloadClass;
+import io.milvus.v2.common.ConsistencyLevel;
+import io.milvus.v2.common.DataType;
+import io.milvus.v2.common.IndexParam;
 import io.milvus.v2.service.vector.request.DeleteReq;
 import io.milvus.v2.service.vector.request.InsertReq;
+import io.milvus.v2.service.vector.request.QueryIteratorReq;
 import io.milvus.v2.service.vector.request.QueryReq;
-import io.milvus.v2.service.vector.response.DeleteResp;
+import io.milvus.v2.service.vector.request.SearchReq;
+import io.milvus.v2.service.vector.request.data.BFloat16Vec;
+import io.milvus.v2.service.vector.request.data.BaseVector;
+import io.milvus.v2.service.vector.request.data.Float16Vec;
+import io.milvus.v2.service.vector.request.data.FloatVec;
 import io.milvus.v2.service.vector.response.InsertResp;
 import io.milvus.v2.service.vector.response.QueryResp;
+import io.milvus.v2.service.vector.response.SearchResp;
+import jakarta.annotation.PostConstruct;
 import jakarta.annotation.Resource;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.springframework.util.ClassUtils;
 
+import java.lang.reflect.Field;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 /**
  * 封装Milvus CRUD base方法
@@ -42,13 +75,62 @@ import java.util.Map;
 @Component
 public abstract class MilvusBaseService<T> {
 
-    @Value("${milvus.client-key}")
-    private String clientKey;
     @Resource
-    private MilvusClientV2Pool pool;
+    private MilvusStorageBackend backend;
+    @Resource
+    private MilvusRouter router;
+    @Resource
+    private MilvusMetrics milvusMetrics;
+    @Resource
+    private MilvusSlowOperationLogger slowOperationLogger;
+    @Resource
+    private MilvusConcurrencyLimiter concurrencyLimiter;
+    @Resource
+    private PrimaryKeyGenerators primaryKeyGenerators;
+    @Resource
+    private TenantRegistry tenantRegistry;
+    @Value("${milvus.export.batch-size:1000}")
+    private long exportBatchSize;
+    @Value("${milvus.search.rescore-oversample:1}")
+    private int rescoreOversample;
+    @Value("${milvus.search.coalesce.enabled:false}")
+    private boolean coalesceEnabled;
+    @Value("${milvus.search.coalesce.wait-timeout-ms:10000}")
+    private long coalesceWaitTimeoutMs;
+    @Value("${milvus.get-by-id.batch.enabled:false}")
+    private boolean getByIdBatchEnabled;
+    @Value("${milvus.get-by-id.batch.window-ms:2}")
+    private long getByIdBatchWindowMs;
+    @Value("${milvus.get-by-id.batch.max-size:100}")
+    private int getByIdBatchMaxSize;
 
     // 存储当前子类的泛型T的实际Class（每个子类各自独立）
     private final Class<T> entityClass;
+    // 实体元数据与编解码器，优先使用编译期生成的实现
+    private final MilvusEntityMetadata<T> metadata;
+    private final MilvusRowCodec<T> codec;
+    private final String collectionName;
+    // 向量字段的类型与度量，首次检索时解析
+    private volatile VectorSpec vectorSpec;
+    // 精确重排器，首次重排时按向量字段的度量类型创建
+    private volatile SearchRescorer rescorer;
+    // 批量插入的列式编码器，首次批量插入时创建
+    private volatile ColumnarInsertEncoder<T> columnarEncoder;
+    // 相同检索请求的合并，首次检索时创建
+    private volatile SearchCoalescer searchCoalescer;
+    // database -> 并发的按主键查询合并，首次查询时创建；默认 database 的 key 为空字符串
+    private final Map<String, GetByIdBatcher<Map<String, Object>>> getByIdBatchers = new ConcurrentHashMap<>();
+
+    /**
+     * 直接指定实体类，不需要反射解析泛型（推荐，对 Spring AOT 更友好）
+     * @param entityClass 实体类
+     */
+    protected MilvusBaseService(Class<T> entityClass) {
+        this.entityClass = entityClass;
+        this.metadata = MilvusEntityCodecs.metadata(entityClass);
+        this.codec = metadata.getCodec();
+        this.collectionName = validateCollectionNameAnnotation();
+    }
 
     @SuppressWarnings("unchecked")
     protected MilvusBaseService() { // 访问权限为protected，仅允许子类调用
@@ -82,75 +164,112 @@ public abstract class MilvusBaseService<T> {
             );
         }
         this.entityClass = (Class<T>) actualTypeArguments[0];
+        this.metadata = MilvusEntityCodecs.metadata(entityClass);
+        this.codec = metadata.getCodec();
 
         // 5. 校验子类泛型的注解（每个子类各自校验）
-        validateCollectionNameAnnotation();
+        this.collectionName = validateCollectionNameAnnotation();
+    }
+
+    /**
+     * 向存储后端注册当前实体对应的集合
+     */
+    @PostConstruct
+    public void registerCollection() {
+        primaryKeyGenerators.register(entityClass);
+        backend.register(metadata);
+    }
+
+    /**
+     * 获取当前Service对应的实体类
+     */
+    public Class<T> getEntityClass() {
+        return entityClass;
     }
 
     /**
      * 核心方法：获取T的CollectionName注解值
      */
     public String validateCollectionNameAnnotation() {
-        CollectionName annotation = entityClass.getAnnotation(CollectionName.class);
-        if (annotation == null) {
-            throw new IllegalArgumentException(
-                    String.format("泛型类型[%s]未标注@CollectionName注解", entityClass.getName())
-            );
-        }
-        String collectionName = annotation.value().trim();
-        if (collectionName.isEmpty()) {
-            throw new IllegalArgumentException(
-                    String.format("泛型类型[%s]的@CollectionName注解value为空", entityClass.getName())
-            );
-        }
-        return collectionName;
+        return metadata.getCollectionName();
+    }
+
+    /**
+     * 获取当前Service对应实体的元数据
+     */
+    public MilvusEntityMetadata<T> getMetadata() {
+        return metadata;
     }
 
     /**
-     * 通用的 新增 方法
+     * 通用的 新增 方法；主键由客户端生成（@PrimaryKey 的 type 为 snowflake、uuid 等）时先为实体赋值，
+     * 再按主键覆盖写入，重试同一个实体不会产生重复数据
      * @param entity 实体
      * @return 唯一Key
      */
     public Long insert(T entity) {
 
-        MilvusClientV2 client = null;
-        try {
-            // 如果主键类型为自增，必须为Null
-            MilvusUtil.setAutoPrimaryKeyToNull(entity);
-
-            // 根据实体中的CollectionName注解获取集合名称
-            String collectionName = validateCollectionNameAnnotation();
-
-            // 获取客户端
-            client = pool.getClient(clientKey);
-
-            // 构建新增数据 ， 并指定驼峰转下划线策略
-            Gson gson = new GsonBuilder().setFieldNamingStrategy(new CamelToUnderlineNamingStrategy())
-                    .setPrettyPrinting()
-                    .create();
-            String entityJson = gson.toJson(entity);
-            List<JsonObject> data = Collections.singletonList(gson.fromJson(entityJson, JsonObject.class));
+        List<Long> assigned = primaryKeyGenerators.assign(entityClass, Collections.singletonList(entity));
+        BackendCall<InsertReq, InsertResp> call = assigned == null ? MilvusStorageBackend::insert : MilvusStorageBackend::upsert;
+        return execute(MilvusOperation.INSERT, context -> {
+            // 构建新增数据，列名驼峰转下划线，自增主键不输出
+            JsonObject row = codec.toRow(entity);
+            List<JsonObject> data = Collections.singletonList(row);
+            context.setPayloadBytes(row.toString().length());
 
             // 构建请求信息
-            InsertReq insertReq = InsertReq.builder()
-                    .collectionName(collectionName)
+            return InsertReq.builder()
+                    .collectionName(context.getCollectionName())
                     .data(data)
                     .build();
-
-            // 插入数据
-            InsertResp insert = client.insert(insertReq);
+        }, call, (insert, context) -> {
+            context.setRows(insert.getInsertCnt());
+            if (assigned != null) {
+                return assigned.get(0);
+            }
             List<Object> primaryKeys = insert.getPrimaryKeys();
             return (Long) primaryKeys.get(0);
-        } catch (Exception e) {
-            log.error("操作Milvus数据库插入数据失败，原因: {}", e.getMessage(), e);
-            // todo：异常代码结合项目生成
-            throw new ServiceException(null);
-        } finally {
-            if (client != null) {
-                pool.returnClient(clientKey,client);
-            }
+        });
+    }
+
+    /**
+     * 批量新增，一次请求写入整批数据；实体按列编码，标量与向量直接写入基本类型数组，不经过 JsonObject 行数据
+     *
+     * <p>主键由客户端生成时，发送前为整批实体赋值并按主键覆盖写入，返回的主键不依赖 Milvus 的响应；
+     * 写入失败后用同一批实体重试，已赋的主键保持不变，不会产生重复数据</p>
+     * @param entities 实体列表
+     * @return 与实体顺序一致的主键
+     */
+    public List<Long> insertBatch(List<T> entities) {
+
+        if (entities == null || entities.isEmpty()) {
+            return Collections.emptyList();
         }
+        // 批量插入默认按批量负载调度，调用方已指定类别时沿用
+        try (MilvusWorkload.Scope ignored = MilvusWorkload.useIfAbsent(WorkloadClass.BATCH)) {
+            return insertColumns(entities);
+        }
+    }
 
+    private List<Long> insertColumns(List<T> entities) {
+        List<Long> assigned = primaryKeyGenerators.assign(entityClass, entities);
+        BackendCall<ColumnarInsertBatch, InsertResp> call = assigned == null
+                ? MilvusStorageBackend::insertColumns : MilvusStorageBackend::upsertColumns;
+        return execute(MilvusOperation.INSERT, context -> {
+            ColumnarInsertBatch batch = columnarEncoder().encode(context.getCollectionName(), entities);
+            context.setPayloadBytes(batch.getPayloadBytes());
+            return batch;
+        }, call, (insert, context) -> {
+            context.setRows(insert.getInsertCnt());
+            if (assigned != null) {
+                return assigned;
+            }
+            List<Long> primaryKeys = new ArrayList<>(insert.getPrimaryKeys().size());
+            for (Object primaryKey : insert.getPrimaryKeys()) {
+                primaryKeys.add((Long) primaryKey);
+            }
+            return primaryKeys;
+        });
     }
 
     /**
@@ -160,30 +279,16 @@ public abstract class MilvusBaseService<T> {
      */
     public boolean deleteById(Long id) {
 
-        MilvusClientV2 client = null;
-        try {
-            // 根据实体中的CollectionName注解获取集合名称
-            String collectionName = validateCollectionNameAnnotation();
-
-            // 获取Client对象
-            client = pool.getClient(clientKey);
-
-            // 删除操作
-            DeleteResp bizSyns = client.delete(DeleteReq.builder()
-                    .collectionName(collectionName)
+        return execute(MilvusOperation.DELETE, context -> {
+            context.setPayloadBytes(Long.BYTES);
+            return DeleteReq.builder()
+                    .collectionName(context.getCollectionName())
                     .ids(Collections.singletonList(id))
-                    .build());
-
+                    .build();
+        }, MilvusStorageBackend::delete, (bizSyns, context) -> {
+            context.setRows(bizSyns.getDeleteCnt());
             return bizSyns.getDeleteCnt() == 1;
-        } catch (Exception e) {
-            log.error("操作Milvus数据库删除数据失败，原因: {}", e.getMessage(), e);
-            // todo：替换符合项目业务的异常代码
-            throw new ServiceException(null);
-        } finally {
-            if (client != null) {
-                pool.returnClient(clientKey,client);
-            }
-        }
+        });
     }
 
     /**
@@ -196,129 +301,536 @@ public abstract class MilvusBaseService<T> {
         try {
 
             // 获取主键的值
-            Long id = MilvusUtil.getPrimaryKeyValue(entity);
+            Long id = metadata.getPrimaryKey(entity);
 
-            // 删除数据
-            deleteById(id);
+            // 客户端生成的主键按主键覆盖写入，不需要先删除
+            if (!primaryKeyGenerators.isClientGenerated(entityClass)) {
+                deleteById(id);
+            }
 
             // 新增数据
             return insert(entity);
         } catch (Exception e) {
             log.error("milvus 更新失败，原因：{}", e.getMessage(), e);
-            // todo：替换符合业务的异常代码
-            throw new ServiceException(null);
+            throw new ServiceException(ErrorCodeConstants.MILVUS_UPDATE_ERROR);
         }
     }
 
+    /**
+     * 生成过滤条件；集合使用 Partition Key 而查询既没有限定 Partition Key 也没有指定分区时，需要扫描全部分区，输出调试日志便于排查
+     */
+    private String buildFilter(MilvusLambdaQueryWrapper<T> wrapper) {
+        if (log.isDebugEnabled() && metadata.getPartitionKeyColumn() != null
+                && !wrapper.hasPartitionKeyFilter() && wrapper.getPartitionNames().isEmpty()) {
+            log.debug("集合[{}]的查询没有限定 Partition Key 字段[{}]，将扫描全部分区", collectionName,
+                    metadata.getPartitionKeyColumn());
+        }
+        return wrapper.buildFilter();
+    }
+
     public PageResult<T> selectPage(PageParam param, MilvusLambdaQueryWrapper<T> wrapper) {
 
-        String filter = wrapper.buildFilter();
-        return selectPage(param, filter);
+        String filter = buildFilter(wrapper);
+        return selectPage(param, filter, wrapper.getConsistencyLevel(), wrapper.getPartitionNames());
     }
     public PageResult<T> selectPage(PageParam param, String filter) {
+        return selectPage(param, filter, null);
+    }
 
-        MilvusClientV2 client = null;
-        try {
-            PageResult<T> result = new PageResult<>();
-            // 根据实体中的CollectionName注解获取集合名称
-            String collectionName = validateCollectionNameAnnotation();
-
-            // 获取客户端
-            client = pool.getClient(clientKey);
-
-            // 先查询总数据条数
-            long count = queryCount(filter, collectionName, client);
-            if (count == 0) {
-                result.setList(new ArrayList<>());
-                result.setTotal(count);
-                return result;
-            }
+    /**
+     * 分页查询
+     * @param param 分页参数
+     * @param filter 过滤条件
+     * @param consistencyLevel 读一致性级别，为空时使用默认级别
+     * @return 分页结果
+     */
+    public PageResult<T> selectPage(PageParam param, String filter, ConsistencyLevel consistencyLevel) {
+        return selectPage(param, filter, consistencyLevel, Collections.emptyList());
+    }
 
+    private PageResult<T> selectPage(PageParam param, String filter, ConsistencyLevel consistencyLevel,
+                                     List<String> partitionNames) {
+
+        PageResult<T> result = new PageResult<>();
+
+        // 先查询总数据条数
+        long count = queryCount(filter, consistencyLevel, partitionNames);
+        if (count == 0) {
+            result.setList(new ArrayList<>());
             result.setTotal(count);
+            return result;
+        }
+
+        result.setTotal(count);
 
-            // 偏移量 = (当前页码 - 1) * 每页记录数（页码从 1 开始）
-            long offset = (long) (param.getPageNo() - 1) * param.getPageSize();
+        // 偏移量 = (当前页码 - 1) * 每页记录数（页码从 1 开始）
+        long offset = (long) (param.getPageNo() - 1) * param.getPageSize();
 
+        return execute(MilvusOperation.QUERY, context -> {
             // 分页查询数据
-            QueryReq countReq = QueryReq.builder()
-                    .collectionName(collectionName)
+            context.setFilter(filter);
+            resolveReadConsistency(context, consistencyLevel);
+            return QueryReq.builder()
+                    .collectionName(context.getCollectionName())
                     .filter(filter) // 与分页查询的筛选条件保持一致
+                    .consistencyLevel(context.getConsistencyLevel())
+                    .partitionNames(partitionNames)
                     .offset(offset)
                     .limit(param.getPageSize())
                     .build();
-            QueryResp countResp = client.query(countReq);
-
+        }, MilvusStorageBackend::query, (countResp, context) -> {
             // 数据封装
-            completeResult(countResp, result);
+            result.setList(completeResult(countResp, context));
             return result;
-        } catch (Exception e) {
-            log.error("操作Milvus数据库查询数据失败，原因: {}", e.getMessage(), e);
-            // todo：替换符合项目的异常代码
-            throw new ServiceException(null);
-        } finally {
-            if (client != null) {
-                pool.returnClient(clientKey,client);
-            }
-        }
+        });
+    }
+
+    public T getById(Long id) {
+        return getById(id, null);
     }
 
     /**
      * 根据主键获取数据
      * @param id 主键值
+     * @param consistencyLevel 读一致性级别，为空时使用默认级别（当前会话写过该集合时读到会话内的写入）
      * @return 数据
      */
-    public T getById(Long id) {
-
-        MilvusClientV2 client = null;
-        try {
-            // 根据实体中的CollectionName注解获取集合名称
-            String collectionName = validateCollectionNameAnnotation();
-
-            // 获取客户端
-            client = pool.getClient(clientKey);
+    public T getById(Long id, ConsistencyLevel consistencyLevel) {
 
+        // 合并查询按默认级别发送，指定了级别或需要读到会话内写入的查询单独发送
+        if (getByIdBatchEnabled && id != null && consistencyLevel == null && sessionTimestamp() == 0) {
+            return getByIdBatched(id);
+        }
+        return execute(MilvusOperation.QUERY, context -> {
             // 获取当前类主键的属性名
-            String keyFieldName = MilvusUtil.getPrimaryKeyFieldName(entityClass);
+            String keyFieldName = metadata.getPrimaryKeyColumn();
 
             // 查询数据
-            QueryReq queryReq = QueryReq.builder()
-                    .collectionName(collectionName)
-                    .filter(keyFieldName + "==" + id)
+            String filter = keyFieldName + "==" + id;
+            context.setFilter(filter);
+            resolveReadConsistency(context, consistencyLevel);
+            return QueryReq.builder()
+                    .collectionName(context.getCollectionName())
+                    .filter(filter)
+                    .consistencyLevel(context.getConsistencyLevel())
                     .limit(1)
                     .build();
-            QueryResp countResp = client.query(queryReq);
-
+        }, MilvusStorageBackend::query, (countResp, context) -> {
             // 数据封装
-            List<T> resultList = completeResult(countResp);
+            List<T> resultList = completeResult(countResp, context);
             return CollectionUtils.isAnyEmpty(resultList) ? null : resultList.get(0);
-        } catch (Exception e) {
-            log.error("操作Milvus数据库查询数据失败，原因: {}", e.getMessage(), e);
-            // todo：替换符合项目的异常代码
-            throw new ServiceException(null);
-        } finally {
-            if (client != null) {
-                pool.returnClient(clientKey,client);
+        });
+    }
+
+    /**
+     * 与并发的其他 getById 合并为一次 {@code pk in [...]} 查询，取回自己主键对应的行后在当前线程解码
+     */
+    private T getByIdBatched(Long id) {
+        Map<String, Object> row;
+        try {
+            row = getByIdBatcher().load(id);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceException(MilvusOperation.QUERY.getErrorCode());
+        }
+        return row == null ? null : codec.fromRow(row);
+    }
+
+    /**
+     * 按主键批量查询原始行，不解码实体
+     */
+    private Map<Long, Map<String, Object>> queryRowsByIds(List<Long> ids) {
+        String keyFieldName = metadata.getPrimaryKeyColumn();
+        return execute(MilvusOperation.QUERY, context -> {
+            String filter = keyFieldName + " in " + ids;
+            context.setFilter(filter);
+            context.setConsistencyLevel(router.resolveConsistency(null));
+            return QueryReq.builder()
+                    .collectionName(context.getCollectionName())
+                    .filter(filter)
+                    .consistencyLevel(context.getConsistencyLevel())
+                    .limit(ids.size())
+                    .outputFields(Collections.singletonList("*"))
+                    .build();
+        }, MilvusStorageBackend::query, (queryResp, context) -> {
+            Map<Long, Map<String, Object>> rows = new HashMap<>(queryResp.getQueryResults().size() * 2);
+            for (QueryResp.QueryResult queryResult : queryResp.getQueryResults()) {
+                Map<String, Object> entity = queryResult.getEntity();
+                rows.put(((Number) entity.get(keyFieldName)).longValue(), entity);
+                context.addPayloadBytes(MilvusRowValues.estimateSize(entity));
             }
+            context.setRows(rows.size());
+            return rows;
+        });
+    }
+
+    public List<SearchHit<T>> search(float[] vector, int topK, MilvusLambdaQueryWrapper<T> wrapper) {
+
+        String filter = buildFilter(wrapper);
+        int oversample = wrapper.getRescoreOversample() != null ? wrapper.getRescoreOversample() : rescoreOversample;
+        return search(vector, topK, filter, wrapper.getConsistencyLevel(), wrapper.getPartitionNames(), oversample);
+    }
+
+    public List<SearchHit<T>> search(float[] vector, int topK, String filter) {
+        return search(vector, topK, filter, null, Collections.emptyList());
+    }
+
+    public List<SearchHit<T>> search(float[] vector, int topK, String filter, ConsistencyLevel consistencyLevel,
+                                     List<String> partitionNames) {
+        return search(vector, topK, filter, consistencyLevel, partitionNames, rescoreOversample);
+    }
+
+    /**
+     * 向量相似度检索
+     * @param vector 查询向量
+     * @param topK 返回的最相似条数
+     * @param filter 标量过滤条件
+     * @param consistencyLevel 读一致性级别，为空时使用默认级别
+     * @param partitionNames 检索的分区，为空时检索全部分区
+     * @param oversample 精确重排的候选倍数，大于 1 时向 Milvus 多取 topK * oversample 条，按原始向量精确计算距离后取前 topK 条
+     * @return 按相似度排序的检索结果
+     */
+    public List<SearchHit<T>> search(float[] vector, int topK, String filter, ConsistencyLevel consistencyLevel,
+                                     List<String> partitionNames, int oversample) {
+
+        return execute(MilvusOperation.SEARCH, context -> {
+            // 获取当前类向量字段的属性名
+            String vectorFieldName = metadata.getVectorColumn();
+            if (vectorFieldName == null) {
+                throw new IllegalArgumentException(
+                        String.format("类[%s]及其父类中未找到float[]或short[]类型的向量字段", entityClass.getName())
+                );
+            }
+
+            DataType dataType = vectorSpec().dataType();
+            context.setFilter(filter);
+            context.setPayloadBytes((long) vector.length * (dataType == DataType.FloatVector ? Float.BYTES : Short.BYTES));
+            resolveReadConsistency(context, consistencyLevel);
+            return SearchReq.builder()
+                    .collectionName(context.getCollectionName())
+                    .annsField(vectorFieldName)
+                    .data(Collections.singletonList(toSearchVector(vector, dataType)))
+                    .topK(oversample > 1 ? SearchRescorer.candidateCount(topK, oversample) : topK)
+                    .filter(filter)
+                    .consistencyLevel(context.getConsistencyLevel())
+                    .partitionNames(partitionNames)
+                    .outputFields(Collections.singletonList("*"))
+                    .build();
+        }, (backend, context, request) -> {
+            if (!coalesceEnabled || !SearchCoalescer.isCoalescable(context.getConsistencyLevel())) {
+                return backend.search(context, request);
+            }
+            // 参数完全相同的并发检索只发送一次，各调用方共享同一个检索结果并分别解码，解码时不能修改检索结果
+            SearchCoalescer.Key key = new SearchCoalescer.Key(context.getDatabase(), vector, topK, filter,
+                    context.getConsistencyLevel(), partitionNames, oversample);
+            return searchCoalescer().call(key, context, () -> backend.search(context, request));
+        }, (searchResp, context) -> {
+            // 数据封装，只有一个查询向量，取第一组结果
+            List<SearchHit<T>> hits = new ArrayList<>();
+            List<List<SearchResp.SearchResult>> searchResults = searchResp.getSearchResults();
+            if (CollectionUtils.isAnyEmpty(searchResults)) {
+                return hits;
+            }
+            List<SearchResp.SearchResult> candidates = searchResults.get(0);
+            for (SearchResp.SearchResult candidate : candidates) {
+                context.addPayloadBytes(MilvusRowValues.estimateSize(candidate.getEntity()));
+            }
+            // 只解码重排后的前 topK 条，使用重排返回的精确分数
+            if (oversample > 1) {
+                SearchRescorer.Rescored rescored = rescorer().rescore(vector, candidates, topK);
+                for (int i = 0; i < rescored.results().size(); i++) {
+                    hits.add(new SearchHit<>(codec.fromRow(rescored.results().get(i).getEntity()), rescored.scores()[i]));
+                }
+            } else {
+                for (SearchResp.SearchResult searchResult : candidates) {
+                    hits.add(new SearchHit<>(codec.fromRow(searchResult.getEntity()), searchResult.getScore()));
+                }
+            }
+            context.setRows(hits.size());
+            return hits;
+        });
+    }
+
+    /**
+     * 半精度向量字段的查询向量在一次遍历中直接编码为 Milvus 需要的字节
+     */
+    private static BaseVector toSearchVector(float[] vector, DataType dataType) {
+        return switch (dataType) {
+            case Float16Vector -> new Float16Vec(HalfFloats.toFloat16Buffer(vector));
+            case BFloat16Vector -> new BFloat16Vec(HalfFloats.toBFloat16Buffer(vector));
+            default -> new FloatVec(vector);
+        };
+    }
+
+    private VectorSpec vectorSpec() {
+        VectorSpec current = vectorSpec;
+        if (current == null) {
+            Field field = MilvusUtil.getVectorField(entityClass);
+            VectorField annotation = field.getAnnotation(VectorField.class);
+            if (field.getType() == float[].class) {
+                current = new VectorSpec(DataType.FloatVector, annotation != null ? annotation.metricType() : null);
+            } else if (annotation != null) {
+                current = new VectorSpec(annotation.dataType(), annotation.metricType());
+            } else {
+                throw new IllegalArgumentException(String.format("类[%s]的半精度向量字段[%s]未标注@VectorField注解",
+                        entityClass.getName(), field.getName()));
+            }
+            vectorSpec = current;
         }
+        return current;
     }
 
-    private List<T> completeResult(QueryResp countResp) {
+    private SearchRescorer rescorer() {
+        SearchRescorer current = rescorer;
+        if (current == null) {
+            VectorSpec spec = vectorSpec();
+            if (spec.metricType() == null) {
+                throw new IllegalArgumentException(String.format("类[%s]的向量字段未标注@VectorField注解，无法确定精确重排的度量类型",
+                        entityClass.getName()));
+            }
+            current = new SearchRescorer(spec.metricType(), metadata.getVectorColumn(), spec.dataType());
+            rescorer = current;
+        }
+        return current;
+    }
 
-        List<T> dataList = new ArrayList<>();
-        List<QueryResp.QueryResult> queryResults = countResp.getQueryResults();
+    private SearchCoalescer searchCoalescer() {
+        SearchCoalescer current = searchCoalescer;
+        if (current == null) {
+            synchronized (this) {
+                current = searchCoalescer;
+                if (current == null) {
+                    // 等待中的请求都登记在同一个实例上，只能创建一次
+                    current = new SearchCoalescer(coalesceWaitTimeoutMs,
+                            outcome -> milvusMetrics.recordCoalesced(collectionName, outcome));
+                    searchCoalescer = current;
+                }
+            }
+        }
+        return current;
+    }
 
-        // 数据封装
-        for (QueryResp.QueryResult queryResult : queryResults) {
-            Map<String, Object> entity = queryResult.getEntity();
-            String jsonStr = JSON.toJSONString(entity);
-            T parseObject = JSON.parseObject(jsonStr, entityClass);
-            dataList.add(parseObject);
+    private GetByIdBatcher<Map<String, Object>> getByIdBatcher() {
+        // 不同 database 的主键不能合并到同一次查询中；正在收集的批次登记在同一个实例上，每个 database 只能创建一次
+        String database = tenantRegistry.database(MilvusTenant.current());
+        return getByIdBatchers.computeIfAbsent(database == null ? "" : database,
+                key -> new GetByIdBatcher<>(TimeUnit.MILLISECONDS.toNanos(getByIdBatchWindowMs),
+                        getByIdBatchMaxSize, this::queryRowsByIds,
+                        size -> milvusMetrics.recordGetByIdBatch(collectionName, size)));
+    }
 
+    private ColumnarInsertEncoder<T> columnarEncoder() {
+        ColumnarInsertEncoder<T> current = columnarEncoder;
+        if (current == null) {
+            current = ColumnarInsertEncoder.of(metadata);
+            columnarEncoder = current;
+        }
+        return current;
+    }
+
+    public long export(MilvusLambdaQueryWrapper<T> wrapper, List<String> outputFields,
+                       Consumer<List<Map<String, Object>>> batchConsumer) {
+
+        String filter = buildFilter(wrapper);
+        return export(filter, outputFields, wrapper.getConsistencyLevel(), wrapper.getPartitionNames(), batchConsumer);
+    }
+
+    public long export(String filter, List<String> outputFields, Consumer<List<Map<String, Object>>> batchConsumer) {
+        return export(filter, outputFields, null, Collections.emptyList(), batchConsumer);
+    }
+
+    /**
+     * 流式导出数据，基于QueryIterator按批次拉取，不使用offset分页，内存占用与集合大小无关
+     * @param filter 过滤条件
+     * @param outputFields 需要导出的字段（Java属性名），为空时导出全部字段
+     * @param consistencyLevel 读一致性级别，为空时使用默认级别
+     * @param partitionNames 导出的分区，为空时导出全部分区
+     * @param batchConsumer 每拉取到一批数据回调一次，行数据的key为Java属性名
+     * @return 导出的总行数
+     */
+    public long export(String filter, List<String> outputFields, ConsistencyLevel consistencyLevel,
+                       List<String> partitionNames, Consumer<List<Map<String, Object>>> batchConsumer) {
+
+        return execute(MilvusOperation.EXPORT, context -> {
+            context.setFilter(filter);
+            resolveReadConsistency(context, consistencyLevel);
+            if (context.getGuaranteeTimestamp() > 0) {
+                // 查询迭代器无法指定保证时间戳，会话内写过该集合时按 STRONG 导出
+                context.setGuaranteeTimestamp(0);
+                context.setConsistencyLevel(ConsistencyLevel.STRONG);
+            }
+
+            // 投影字段驼峰转下划线，未指定时导出全部字段
+            List<String> columns = CollectionUtils.isAnyEmpty(outputFields)
+                    ? Collections.singletonList("*")
+                    : CollectionUtils.convertList(outputFields, field -> CharSequenceUtil.toSymbolCase(field, '_'));
+            return QueryIteratorReq.builder()
+                    .collectionName(context.getCollectionName())
+                    .expr(filter == null ? "" : filter)
+                    .consistencyLevel(context.getConsistencyLevel())
+                    .partitionNames(partitionNames)
+                    .outputFields(columns)
+                    .batchSize(exportBatchSize)
+                    .build();
+        }, (backend, context, request) -> backend.export(context, request, records -> {
+            // 每批数据转换后立即交给调用方写出，不在内存中累积
+            List<Map<String, Object>> rows = new ArrayList<>(records.size());
+            for (Map<String, Object> record : records) {
+                Map<String, Object> row = new LinkedHashMap<>();
+                record.forEach((key, value) -> row.put(CharSequenceUtil.toCamelCase(key), value));
+                rows.add(row);
+            }
+            batchConsumer.accept(rows);
+            context.addRows(rows.size());
+        }), (total, context) -> total);
+    }
+
+    /**
+     * 按 编码 -> 存储后端调用 -> 解码 的顺序执行一次操作，编码与解码不占用连接池中的客户端，并分别记录各阶段耗时。
+     * 流式导出的解码在批次回调中完成，全部耗时计入server阶段
+     * @param operation 操作类型
+     * @param encoder 构建请求
+     * @param call 通过存储后端发送请求
+     * @param decoder 解析响应
+     * @return 操作结果
+     */
+    private <Q, S, R> R execute(MilvusOperation operation, MilvusRequestEncoder<Q> encoder,
+                                BackendCall<Q, S> call, MilvusResultDecoder<S, R> decoder) {
+
+        MilvusOperationContext context = newContext(operation);
+        // 慢日志的总耗时从这里开始，包含等待租户许可的时间
+        long begin = System.nanoTime();
+        // 租户达到并发上限时等待，超时拒绝
+        try (TenantRegistry.Permit ignored = tenantRegistry.acquire(context.getTenant())) {
+            // 超过并发上限时立即拒绝，不排队等待连接池；不同 database 中的同名集合分别限流
+            MilvusConcurrencyLimiter.Permit permit = concurrencyLimiter.acquire(qualifiedName(context), operation);
+            MilvusOperationEvent event = MilvusFlightRecorder.beginOperation(operation);
+            long start = System.nanoTime();
+            context.setWaitNanos(start - begin);
+            Exception error = null;
+            try {
+                // 编码
+                Q request = encoder.encode(context);
+                long encoded = System.nanoTime();
+                context.setEncodeNanos(encoded - start);
+
+                // 调用存储后端，remote 后端负责选择节点、获取与归还客户端
+                S response = call.apply(backend, context, request);
+
+                // 解码
+                long decodeStart = System.nanoTime();
+                R result = decoder.decode(response, context);
+                context.setDecodeNanos(System.nanoTime() - decodeStart);
+                recordSessionWrite(context);
+
+                long end = System.nanoTime();
+                context.setTotalNanos(end - begin);
+                onSuccess(context, event, end - start);
+                return result;
+            } catch (Exception e) {
+                error = e;
+                long end = System.nanoTime();
+                context.setTotalNanos(end - begin);
+                throw onError(context, event, end - start, e);
+            } finally {
+                permit.release(System.nanoTime() - start, error);
+            }
         }
-        return dataList;
     }
 
-    private void completeResult(QueryResp countResp, PageResult<T> result) {
+    private MilvusOperationContext newContext(MilvusOperation operation) {
+        // 集合名称在构造时已经解析，开启多租户时在当前租户的 database 中访问该集合
+        MilvusOperationContext context = new MilvusOperationContext(operation, collectionName);
+        context.setWorkloadClass(MilvusWorkload.resolve(operation));
+        String tenant = MilvusTenant.current();
+        context.setTenant(tenant);
+        context.setDatabase(tenantRegistry.database(tenant));
+        return context;
+    }
+
+    /**
+     * 解析读一致性：调用方未指定级别且当前会话写过该集合时，按 SESSION 级别读取，并以会话的写入时间戳作为保证时间戳；
+     * SESSION 级别只从主节点读取
+     */
+    private void resolveReadConsistency(MilvusOperationContext context, ConsistencyLevel consistencyLevel) {
+        if (consistencyLevel == null) {
+            MilvusSession session = MilvusSession.current();
+            long guaranteeTimestamp = session == null ? 0 : session.guaranteeTimestamp(qualifiedName(context));
+            if (guaranteeTimestamp > 0) {
+                context.setConsistencyLevel(ConsistencyLevel.SESSION);
+                context.setGuaranteeTimestamp(guaranteeTimestamp);
+                return;
+            }
+        }
+        context.setConsistencyLevel(router.resolveConsistency(consistencyLevel));
+    }
+
+    /**
+     * 当前会话在该集合上最近一次写入的时间戳，没有会话或没有写入时为 0
+     */
+    private long sessionTimestamp() {
+        MilvusSession session = MilvusSession.current();
+        if (session == null) {
+            return 0;
+        }
+        String database = tenantRegistry.database(MilvusTenant.current());
+        return session.guaranteeTimestamp(database == null ? collectionName : database + "." + collectionName);
+    }
+
+    /**
+     * 写操作成功后把提交时间戳记录到当前会话
+     */
+    private static void recordSessionWrite(MilvusOperationContext context) {
+        MilvusSession session = MilvusSession.current();
+        if (session != null && context.getOperation().isWrite()) {
+            session.recordWrite(qualifiedName(context), context.getWriteTimestamp());
+        }
+    }
+
+    /**
+     * 带 database 前缀的集合名称，未开启多租户时为集合名称本身
+     */
+    private static String qualifiedName(MilvusOperationContext context) {
+        return context.getDatabase() == null
+                ? context.getCollectionName()
+                : context.getDatabase() + "." + context.getCollectionName();
+    }
+
+    private void onSuccess(MilvusOperationContext context, MilvusOperationEvent event, long elapsedNanos) {
+        MilvusFlightRecorder.commitOperation(event, context, true);
+        milvusMetrics.recordSuccess(context.getCollectionName(), context.getOperation(), elapsedNanos,
+                context.getRows(), context.getPayloadBytes());
+        if (slowOperationLogger.isEnabled()) {
+            slowOperationLogger.record(context, null);
+        }
+    }
+
+    private ServiceException onError(MilvusOperationContext context, MilvusOperationEvent event, long elapsedNanos, Exception e) {
+        MilvusFlightRecorder.commitOperation(event, context, false);
+        milvusMetrics.recordError(context.getCollectionName(), context.getOperation(), elapsedNanos, e);
+        if (slowOperationLogger.isEnabled()) {
+            slowOperationLogger.record(context, e);
+        }
+        log.error("操作Milvus数据库{}失败，原因: {}", context.getOperation().getDescription(), e.getMessage(), e);
+        // 已经带有错误码的异常（如排队超时被拒绝）原样抛出
+        if (e instanceof ServiceException serviceException) {
+            return serviceException;
+        }
+        return new ServiceException(context.getOperation().getErrorCode());
+    }
+
+    /**
+     * 向量字段的类型与度量，度量未声明时为 null
+     */
+    private record VectorSpec(DataType dataType, IndexParam.MetricType metricType) {
+    }
+
+    @FunctionalInterface
+    private interface BackendCall<Q, S> {
+        S apply(MilvusStorageBackend backend, MilvusOperationContext context, Q request) throws Exception;
+    }
+
+    private List<T> completeResult(QueryResp countResp, MilvusOperationContext context) {
 
         List<T> dataList = new ArrayList<>();
         List<QueryResp.QueryResult> queryResults = countResp.getQueryResults();
@@ -326,29 +838,34 @@ public abstract class MilvusBaseService<T> {
         // 数据封装
         for (QueryResp.QueryResult queryResult : queryResults) {
             Map<String, Object> entity = queryResult.getEntity();
-            String jsonStr = JSON.toJSONString(entity);
-            T parseObject = JSON.parseObject(jsonStr, entityClass);
-            dataList.add(parseObject);
-
-        }
-        result.setList(dataList);
-    }
-
-    private long queryCount(String filter, String collectionName, MilvusClientV2 client) {
-        QueryReq countReq = QueryReq.builder()
-                .collectionName(collectionName)
-                .filter(filter) // 与分页查询的筛选条件保持一致
-                .outputFields(Collections.singletonList("count(*)")) // 关键：通过 count(*) 统计总数
-                .build();
-        QueryResp countResp = client.query(countReq);
-
-        // 解析总记录数（count(*) 的结果是 Long 类型，需从返回的实体中提取）
-        long totalCount = 0;
-        if (!countResp.getQueryResults().isEmpty()) {
-            // 取出第一条结果的 "count(*)" 字段值（统计结果只有一条）
-            totalCount = (Long) countResp.getQueryResults().get(0).getEntity().get("count(*)");
+            dataList.add(codec.fromRow(entity));
+            context.addPayloadBytes(MilvusRowValues.estimateSize(entity));
         }
-        return totalCount;
+        context.setRows(dataList.size());
+        return dataList;
+    }
+
+    private long queryCount(String filter, ConsistencyLevel consistencyLevel, List<String> partitionNames) {
+        return execute(MilvusOperation.COUNT, context -> {
+            context.setFilter(filter);
+            resolveReadConsistency(context, consistencyLevel);
+            return QueryReq.builder()
+                    .collectionName(context.getCollectionName())
+                    .filter(filter) // 与分页查询的筛选条件保持一致
+                    .consistencyLevel(context.getConsistencyLevel())
+                    .partitionNames(partitionNames)
+                    .outputFields(Collections.singletonList("count(*)")) // 关键：通过 count(*) 统计总数
+                    .build();
+        }, MilvusStorageBackend::query, (countResp, context) -> {
+            // 解析总记录数（count(*) 的结果是 Long 类型，需从返回的实体中提取）
+            long totalCount = 0;
+            if (!countResp.getQueryResults().isEmpty()) {
+                // 取出第一条结果的 "count(*)" 字段值（统计结果只有一条）
+                totalCount = (Long) countResp.getQueryResults().get(0).getEntity().get("count(*)");
+            }
+            context.setRows(totalCount);
+            return totalCount;
+        });
     }
 
 }
@@ -0,0 +1,18 @@
+package com.jcq.milvusEncap.service.milvus;
+
+import io.milvus.v2.client.MilvusClientV2;
+
+/**
+ * 使用连接池中的客户端执行 Milvus 操作的回调，客户端的获取与归还由 RemoteMilvusBackend 统一处理
+ *
+ * @param <R> 返回值类型
+ *
+ * @author : jucunqi
+ * @since : 2025/10/16
+ */
+@FunctionalInterface
+public interface MilvusCallback<R> {
+
+    R doInClient(MilvusClientV2 client, MilvusOperationContext context) throws Exception;
+
+}
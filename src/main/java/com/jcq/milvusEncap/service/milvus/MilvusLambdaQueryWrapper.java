@@ -3,8 +3,11 @@ package com.jcq.milvusEncap.service.milvus;
 import cn.hutool.core.text.CharSequenceUtil;
 import cn.hutool.core.util.StrUtil;
 import com.baomidou.mybatisplus.core.toolkit.LambdaUtils;
+import com.baomidou.mybatisplus.core.toolkit.support.LambdaMeta;
 import com.baomidou.mybatisplus.core.toolkit.support.SFunction;
+import com.jcq.milvusEncap.codec.MilvusEntityCodecs;
 import com.jcq.milvusEncap.dal.dataobject.agent.SamplesDO;
+import io.milvus.v2.common.ConsistencyLevel;
 
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -25,6 +28,14 @@ public class MilvusLambdaQueryWrapper<T> {
 
     // 存储查询条件，格式如 "id > 100"、"name like '%test%'"
     private final List<String> conditions = new ArrayList<>();
+    // Partition Key 字段上的等于/in 条件，单独保存以判断查询是否限定了 Partition Key，拼接时放在最前面
+    private final List<String> partitionKeyConditions = new ArrayList<>();
+    // 读一致性级别，为空时使用路由配置的默认级别
+    private ConsistencyLevel consistencyLevel;
+    // 手动分区的集合需要指定的分区名称
+    private final List<String> partitionNames = new ArrayList<>();
+    // 向量检索精确重排的候选倍数，为空时使用全局配置
+    private Integer rescoreOversample;
 
     /**
      * 等于条件 (field = value)
@@ -36,8 +47,9 @@ public class MilvusLambdaQueryWrapper<T> {
         if (value == null) {
             return this;
         }
-        String columnName = getColumnName(column);
-        conditions.add(buildCondition(columnName, "==", value));
+        LambdaMeta meta = LambdaUtils.extract(column);
+        String columnName = getColumnName(meta);
+        addCondition(meta, columnName, buildCondition(columnName, "==", value));
         return this;
     }
 
@@ -119,7 +131,8 @@ public class MilvusLambdaQueryWrapper<T> {
      * @return 自身实例
      */
     public <R> MilvusLambdaQueryWrapper<T> in(SFunction<T, R> column, List<R> values) {
-        String columnName = getColumnName(column);
+        LambdaMeta meta = LambdaUtils.extract(column);
+        String columnName = getColumnName(meta);
         if (values == null || values.isEmpty()) {
             throw new IllegalArgumentException("in条件的值列表不能为空");
         }
@@ -135,7 +148,7 @@ public class MilvusLambdaQueryWrapper<T> {
         }
         inClause.append("]");
 
-        conditions.add(inClause.toString());
+        addCondition(meta, columnName, inClause.toString());
         return this;
     }
 
@@ -156,16 +169,82 @@ public class MilvusLambdaQueryWrapper<T> {
         return this;
     }
 
+    /**
+     * 指定本次查询的一致性级别，Strong/Session 读主集群，Bounded/Eventually 读延迟最低的从集群
+     * @param consistencyLevel 一致性级别
+     * @return 自身实例
+     */
+    public MilvusLambdaQueryWrapper<T> consistencyLevel(ConsistencyLevel consistencyLevel) {
+        this.consistencyLevel = consistencyLevel;
+        return this;
+    }
+
+    public ConsistencyLevel getConsistencyLevel() {
+        return consistencyLevel;
+    }
+
+    /**
+     * 指定查询的分区，适用于手动创建分区的集合；使用 Partition Key 的集合应通过等于/in 条件过滤
+     * @param partitionNames 分区名称
+     * @return 自身实例
+     */
+    public MilvusLambdaQueryWrapper<T> partitionNames(String... partitionNames) {
+        this.partitionNames.addAll(Arrays.asList(partitionNames));
+        return this;
+    }
+
+    public List<String> getPartitionNames() {
+        return partitionNames;
+    }
+
+    /**
+     * 向量检索时向 Milvus 多取 topK * oversample 条候选，按原始向量精确计算距离后返回前 topK 条，1 表示不重排
+     * @param oversample 候选倍数
+     * @return 自身实例
+     */
+    public MilvusLambdaQueryWrapper<T> rescore(int oversample) {
+        if (oversample < 1) {
+            throw new IllegalArgumentException("重排候选倍数必须大于等于1");
+        }
+        this.rescoreOversample = oversample;
+        return this;
+    }
+
+    public Integer getRescoreOversample() {
+        return rescoreOversample;
+    }
+
+    /**
+     * 是否包含 Partition Key 字段上的等于/in 条件
+     */
+    public boolean hasPartitionKeyFilter() {
+        return !partitionKeyConditions.isEmpty();
+    }
+
     /**
      * 拼接查询条件，生成Milvus兼容的过滤字符串
      * @return 过滤条件字符串，如 "id > 100 and name like '%test%'"
      */
     public String buildFilter() {
-        if (conditions.isEmpty()) {
+        if (conditions.isEmpty() && partitionKeyConditions.isEmpty()) {
             return "";
         }
-        // Milvus的多个条件用 and 连接
-        return String.join(" and ", conditions);
+        // Milvus的多个条件用 and 连接，Partition Key 条件放在最前面
+        List<String> all = new ArrayList<>(partitionKeyConditions.size() + conditions.size());
+        all.addAll(partitionKeyConditions);
+        all.addAll(conditions);
+        return String.join(" and ", all);
+    }
+
+    /**
+     * 添加条件，Partition Key 字段上的等于/in 条件单独保存
+     */
+    private void addCondition(LambdaMeta meta, String columnName, String condition) {
+        if (columnName.equals(MilvusEntityCodecs.metadata(meta.getInstantiatedClass()).getPartitionKeyColumn())) {
+            partitionKeyConditions.add(condition);
+        } else {
+            conditions.add(condition);
+        }
     }
 
     /**
@@ -176,7 +255,12 @@ public class MilvusLambdaQueryWrapper<T> {
     private <R> String getColumnName(SFunction<T, R> column) {
 
         // 利用Mybatis-plus的工具类解析属性
-        String methodName = LambdaUtils.extract(column).getImplMethodName();
+        return getColumnName(LambdaUtils.extract(column));
+    }
+
+    private String getColumnName(LambdaMeta meta) {
+
+        String methodName = meta.getImplMethodName();
 
         // 解析getter方法名为字段名
         if (methodName.startsWith("get") && methodName.length() > 3) {
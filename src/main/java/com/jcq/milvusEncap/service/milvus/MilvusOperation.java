@@ -0,0 +1,42 @@
+package com.jcq.milvusEncap.service.milvus;
+
+import com.jcq.milvusEncap.exception.ErrorCode;
+import com.jcq.milvusEncap.exception.enums.ErrorCodeConstants;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * MilvusBaseService 对外提供的操作类型，用于监控打点和统一异常处理
+ *
+ * @author : jucunqi
+ * @since : 2025/10/16
+ */
+@Getter
+@AllArgsConstructor
+public enum MilvusOperation {
+
+    INSERT("insert", "插入数据", true, ErrorCodeConstants.MILVUS_INSERT_ERROR),
+    DELETE("delete", "删除数据", true, ErrorCodeConstants.MILVUS_DELETE_ERROR),
+    QUERY("query", "查询数据", false, ErrorCodeConstants.MILVUS_QUERY_ERROR),
+    COUNT("count", "统计数据", false, ErrorCodeConstants.MILVUS_QUERY_ERROR),
+    SEARCH("search", "向量检索", false, ErrorCodeConstants.MILVUS_SEARCH_ERROR),
+    EXPORT("export", "导出数据", false, ErrorCodeConstants.MILVUS_EXPORT_ERROR);
+
+    /**
+     * 指标中使用的操作名
+     */
+    private final String metricName;
+    /**
+     * 日志中使用的操作描述
+     */
+    private final String description;
+    /**
+     * 是否为写操作，写操作只发往主集群
+     */
+    private final boolean write;
+    /**
+     * 操作失败时抛出的错误码
+     */
+    private final ErrorCode errorCode;
+
+}
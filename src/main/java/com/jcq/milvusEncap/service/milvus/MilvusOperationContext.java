@@ -0,0 +1,122 @@
+package com.jcq.milvusEncap.service.milvus;
+
+import com.jcq.milvusEncap.workload.WorkloadClass;
+import io.milvus.v2.common.ConsistencyLevel;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * 单次 Milvus 操作的上下文，由操作本身填充行数、数据量等信息，供监控打点使用
+ *
+ * <p>各阶段耗时（纳秒）：borrow 从连接池获取客户端、encode 构建请求、server 调用 gRPC、decode 解析结果</p>
+ *
+ * @author : jucunqi
+ * @since : 2025/10/16
+ */
+@Getter
+public class MilvusOperationContext {
+
+    /**
+     * 操作类型
+     */
+    private final MilvusOperation operation;
+    /**
+     * 集合名称
+     */
+    private final String collectionName;
+    /**
+     * 过滤条件，仅用于日志输出
+     */
+    @Setter
+    private String filter;
+    /**
+     * 本次操作涉及的行数
+     */
+    @Setter
+    private long rows;
+    /**
+     * 本次操作的数据量（字节，按序列化后的长度估算）
+     */
+    @Setter
+    private long payloadBytes;
+
+    /**
+     * 读一致性级别，为空时使用集合的默认级别
+     */
+    @Setter
+    private ConsistencyLevel consistencyLevel;
+    /**
+     * 读操作的保证时间戳，大于 0 时 Milvus 等数据同步到该时间戳后再执行（会话内读到自己的写入）
+     */
+    @Setter
+    private long guaranteeTimestamp;
+    /**
+     * 写操作在 Milvus 中的提交时间戳，后端拿不到时为 0
+     */
+    @Setter
+    private long writeTimestamp;
+    /**
+     * 负载类别，决定使用的连接池 key 与调度配额
+     */
+    @Setter
+    private WorkloadClass workloadClass;
+    /**
+     * 发起本次操作的租户，未指定时为 null
+     */
+    @Setter
+    private String tenant;
+    /**
+     * 本次操作访问的 database，为 null 时使用连接配置的默认 database
+     */
+    @Setter
+    private String database;
+    /**
+     * 实际执行本次操作的节点名称
+     */
+    @Setter
+    private String endpoint;
+    /**
+     * 是否复用了并发的相同检索请求的结果（没有单独调用 Milvus）
+     */
+    @Setter
+    private boolean coalesced;
+    /**
+     * 是否发送了对冲请求（第一个请求超过对冲延迟仍未返回）
+     */
+    @Setter
+    private boolean hedged;
+
+    @Setter
+    private long borrowNanos;
+    @Setter
+    private long encodeNanos;
+    @Setter
+    private long serverNanos;
+    @Setter
+    private long decodeNanos;
+    /**
+     * 开始执行前等待租户并发许可与并发限流的时间
+     */
+    @Setter
+    private long waitNanos;
+    /**
+     * 从等待租户许可到得到结果（或失败）的实际耗时，包含合并检索等待首个请求、读操作换节点前失败的那次尝试等
+     * 不属于任何阶段的时间，各阶段耗时只是它的一部分
+     */
+    @Setter
+    private long totalNanos;
+
+    public MilvusOperationContext(MilvusOperation operation, String collectionName) {
+        this.operation = operation;
+        this.collectionName = collectionName;
+    }
+
+    public void addRows(long rows) {
+        this.rows += rows;
+    }
+
+    public void addPayloadBytes(long payloadBytes) {
+        this.payloadBytes += payloadBytes;
+    }
+
+}
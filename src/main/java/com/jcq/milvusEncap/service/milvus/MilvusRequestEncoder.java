@@ -0,0 +1,16 @@
+package com.jcq.milvusEncap.service.milvus;
+
+/**
+ * 构建 Milvus 请求（编码阶段），在获取客户端之前执行，避免编码耗时占用连接池中的客户端
+ *
+ * @param <Q> 请求类型
+ *
+ * @author : jucunqi
+ * @since : 2025/10/16
+ */
+@FunctionalInterface
+public interface MilvusRequestEncoder<Q> {
+
+    Q encode(MilvusOperationContext context) throws Exception;
+
+}
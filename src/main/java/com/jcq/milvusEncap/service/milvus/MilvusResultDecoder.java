@@ -0,0 +1,17 @@
+package com.jcq.milvusEncap.service.milvus;
+
+/**
+ * 解析 Milvus 响应（解码阶段），在客户端归还连接池之后执行
+ *
+ * @param <S> 响应类型
+ * @param <R> 结果类型
+ *
+ * @author : jucunqi
+ * @since : 2025/10/16
+ */
+@FunctionalInterface
+public interface MilvusResultDecoder<S, R> {
+
+    R decode(S response, MilvusOperationContext context) throws Exception;
+
+}
@@ -0,0 +1,186 @@
+package com.jcq.milvusEncap.service.milvus;
+
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.milvus.v2.common.ConsistencyLevel;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+
+/**
+ * 相同检索请求的合并（single-flight）：同一时刻参数完全相同的检索只向 Milvus 发送一次，其余调用方等待这一次的结果
+ *
+ * <p>只合并存储后端调用，编码与解码仍由各调用方分别执行，实体对象不会在调用方之间共享</p>
+ *
+ * <ul>
+ *     <li>第一个调用方（leader）在自己的线程中执行调用，完成后移除记录，之后到达的请求重新发送，不缓存结果</li>
+ *     <li>其余调用方最多等待 waitTimeoutMs，超时或线程被中断时放弃等待，不影响 leader 与其他等待者</li>
+ *     <li>leader 被取消（线程中断、gRPC CANCELLED）时，等待者不继承取消，改为各自执行一次</li>
+ * </ul>
+ *
+ * @author : jucunqi
+ * @since : 2025/10/16
+ */
+final class SearchCoalescer {
+
+    static final String SHARED = "shared";
+    static final String TIMEOUT = "timeout";
+    static final String RETRIED = "retried";
+
+    private final ConcurrentMap<Key, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final long waitTimeoutMs;
+    private final Consumer<String> listener;
+
+    /**
+     * @param waitTimeoutMs 等待者的最长等待时间，小于等于 0 时一直等待
+     * @param listener 等待者的结果（shared / timeout / retried），用于计数
+     */
+    SearchCoalescer(long waitTimeoutMs, Consumer<String> listener) {
+        this.waitTimeoutMs = waitTimeoutMs;
+        this.listener = listener;
+    }
+
+    /**
+     * Strong 与 Session 一致性要求看到调用方自己之前的写入，合并可能读到发出更早的请求的结果，不参与合并
+     */
+    static boolean isCoalescable(ConsistencyLevel consistencyLevel) {
+        return consistencyLevel != ConsistencyLevel.STRONG && consistencyLevel != ConsistencyLevel.SESSION;
+    }
+
+    /**
+     * 执行或等待相同请求的结果
+     * @param context 等待者会被标记为 coalesced，等待时间计入 server 阶段
+     */
+    @SuppressWarnings("unchecked")
+    <S> S call(Key key, MilvusOperationContext context, Callable<S> call) throws Exception {
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(key, flight);
+        if (existing == null) {
+            try {
+                S result = call.call();
+                flight.complete(result);
+                return result;
+            } catch (Exception | Error e) {
+                flight.completeExceptionally(e);
+                throw e;
+            } finally {
+                inFlight.remove(key, flight);
+            }
+        }
+
+        context.setCoalesced(true);
+        long start = System.nanoTime();
+        try {
+            S result = (S) (waitTimeoutMs > 0 ? existing.get(waitTimeoutMs, TimeUnit.MILLISECONDS) : existing.get());
+            listener.accept(SHARED);
+            return result;
+        } catch (TimeoutException e) {
+            listener.accept(TIMEOUT);
+            throw new TimeoutException(String.format("等待相同检索请求的结果超过%dms", waitTimeoutMs));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw e;
+        } catch (ExecutionException e) {
+            if (!isCancelled(e.getCause())) {
+                listener.accept(SHARED);
+                throw e.getCause() instanceof Exception cause ? cause : e;
+            }
+            // leader 被取消，等待者自己执行一次
+            listener.accept(RETRIED);
+            context.setCoalesced(false);
+            return call.call();
+        } finally {
+            context.setServerNanos(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * 正在执行中的请求数
+     */
+    int inFlight() {
+        return inFlight.size();
+    }
+
+    private static boolean isCancelled(Throwable error) {
+        for (Throwable t = error; t != null; t = t.getCause()) {
+            if (t instanceof InterruptedException || t instanceof CancellationException) {
+                return true;
+            }
+            if (t instanceof StatusRuntimeException statusException
+                    && statusException.getStatus().getCode() == Status.Code.CANCELLED) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 归一化的检索请求：向量按内容比较（预先计算哈希），其余参数为最终发送给 Milvus 的值
+     */
+    static final class Key {
+
+        private final String database;
+        private final float[] vector;
+        private final int topK;
+        private final String filter;
+        private final ConsistencyLevel consistencyLevel;
+        private final List<String> partitionNames;
+        private final int oversample;
+        private final int hash;
+
+        Key(float[] vector, int topK, String filter, ConsistencyLevel consistencyLevel,
+            List<String> partitionNames, int oversample) {
+            this(null, vector, topK, filter, consistencyLevel, partitionNames, oversample);
+        }
+
+        Key(String database, float[] vector, int topK, String filter, ConsistencyLevel consistencyLevel,
+            List<String> partitionNames, int oversample) {
+            // 不同租户 database 中的同名集合不能合并
+            this.database = database == null ? "" : database;
+            // 复制一份，调用方之后修改数组不影响比较
+            this.vector = vector.clone();
+            this.topK = topK;
+            this.filter = filter == null ? "" : filter;
+            this.consistencyLevel = consistencyLevel;
+            this.partitionNames = partitionNames == null ? List.of() : List.copyOf(partitionNames);
+            this.oversample = Math.max(oversample, 1);
+            this.hash = Objects.hash(this.database, Arrays.hashCode(this.vector), topK, this.filter, consistencyLevel,
+                    this.partitionNames, this.oversample);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key other)) {
+                return false;
+            }
+            return hash == other.hash
+                    && topK == other.topK
+                    && oversample == other.oversample
+                    && consistencyLevel == other.consistencyLevel
+                    && database.equals(other.database)
+                    && filter.equals(other.filter)
+                    && partitionNames.equals(other.partitionNames)
+                    && Arrays.equals(vector, other.vector);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+    }
+
+}
@@ -0,0 +1,142 @@
+package com.jcq.milvusEncap.service.milvus;
+
+import com.jcq.milvusEncap.codec.MilvusRowValues;
+import com.jcq.milvusEncap.vector.HalfFloats;
+import com.jcq.milvusEncap.vector.VectorKernel;
+import com.jcq.milvusEncap.vector.VectorKernels;
+import io.milvus.v2.common.DataType;
+import io.milvus.v2.common.IndexParam;
+import io.milvus.v2.service.vector.response.SearchResp;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 检索结果精确重排：HNSW/IVF 等近似索引返回的分数与顺序有误差，先向 Milvus 多取 topK * oversample 条候选，
+ * 再用候选的原始向量计算精确距离，取真正的前 topK 条
+ *
+ * <p>候选向量随检索结果一起返回（outputFields 为 *），不需要再查询一次；半精度向量解码到复用的 float 数组后计算，
+ * 查询向量保持单精度。合并检索的多个调用方共享同一个检索结果，重排只读取候选，精确分数单独返回</p>
+ *
+ * @author : jucunqi
+ * @since : 2025/10/16
+ */
+final class SearchRescorer {
+
+    /**
+     * Milvus 单次检索 topK 的上限
+     */
+    static final int MAX_TOP_K = 16384;
+
+    /**
+     * 重排后的前 topK 条候选，scores[i] 为 results.get(i) 的精确分数
+     */
+    record Rescored(List<SearchResp.SearchResult> results, float[] scores) {
+    }
+
+    private final IndexParam.MetricType metricType;
+    private final String vectorColumn;
+    private final DataType vectorType;
+    private final VectorKernel kernel;
+
+    SearchRescorer(IndexParam.MetricType metricType, String vectorColumn) {
+        this(metricType, vectorColumn, DataType.FloatVector);
+    }
+
+    SearchRescorer(IndexParam.MetricType metricType, String vectorColumn, DataType vectorType) {
+        this(metricType, vectorColumn, vectorType, VectorKernels.get());
+    }
+
+    SearchRescorer(IndexParam.MetricType metricType, String vectorColumn, DataType vectorType, VectorKernel kernel) {
+        if (metricType != IndexParam.MetricType.COSINE && metricType != IndexParam.MetricType.IP
+                && metricType != IndexParam.MetricType.L2) {
+            throw new IllegalArgumentException("精确重排仅支持 COSINE/IP/L2 度量，当前为: " + metricType);
+        }
+        this.metricType = metricType;
+        this.vectorColumn = vectorColumn;
+        this.vectorType = vectorType;
+        this.kernel = kernel;
+    }
+
+    /**
+     * 向 Milvus 请求的候选条数
+     */
+    static int candidateCount(int topK, int oversample) {
+        return (int) Math.min((long) topK * Math.max(oversample, 1), Math.max(topK, MAX_TOP_K));
+    }
+
+    /**
+     * 计算候选的精确分数，返回按分数排序（L2 升序，COSINE/IP 降序）的前 topK 条及其分数，不修改候选
+     */
+    Rescored rescore(float[] query, List<SearchResp.SearchResult> candidates, int topK) {
+        int size = candidates.size();
+        float[] scores = new float[size];
+        long[] order = new long[size];
+        float[] scratch = vectorType == DataType.FloatVector ? null : new float[query.length];
+        for (int i = 0; i < size; i++) {
+            SearchResp.SearchResult candidate = candidates.get(i);
+            Object value = candidate.getEntity() != null ? candidate.getEntity().get(vectorColumn) : null;
+            if (value == null) {
+                throw new IllegalStateException("检索结果中缺少向量字段 " + vectorColumn + "，无法精确重排");
+            }
+            float[] vector = toFloatArray(value, query.length, scratch);
+            if (vector.length != query.length) {
+                throw new IllegalArgumentException(String.format("查询向量维度 %d 与字段 %s 的维度 %d 不一致",
+                        query.length, vectorColumn, vector.length));
+            }
+            float score = score(query, vector);
+            scores[i] = score;
+            // 高 32 位为可比较的分数，低 32 位为下标，一次基本类型排序得到顺序，分数相同时保持 Milvus 原顺序
+            order[i] = ((long) sortKey(metricType == IndexParam.MetricType.L2 ? score : -score) << 32) | i;
+        }
+        Arrays.sort(order);
+
+        int limit = Math.min(topK, size);
+        List<SearchResp.SearchResult> result = new ArrayList<>(limit);
+        float[] topScores = new float[limit];
+        for (int i = 0; i < limit; i++) {
+            int index = (int) order[i];
+            result.add(candidates.get(index));
+            topScores[i] = scores[index];
+        }
+        return new Rescored(Collections.unmodifiableList(result), topScores);
+    }
+
+    /**
+     * 单精度向量直接使用，半精度向量解码到 scratch，维度不一致时返回原长度的数组由调用方报错
+     */
+    private float[] toFloatArray(Object value, int dim, float[] scratch) {
+        if (scratch == null) {
+            return MilvusRowValues.toFloatArray(value);
+        }
+        short[] half = MilvusRowValues.toShortArray(value);
+        if (half.length != dim) {
+            return new float[half.length];
+        }
+        if (vectorType == DataType.BFloat16Vector) {
+            HalfFloats.bfloat16ToFloat(half, scratch);
+        } else {
+            HalfFloats.float16ToFloat(half, scratch);
+        }
+        return scratch;
+    }
+
+    private float score(float[] query, float[] vector) {
+        return switch (metricType) {
+            case COSINE -> kernel.cosine(query, vector, query.length);
+            case IP -> kernel.dot(query, vector, query.length);
+            default -> kernel.squaredL2(query, vector, query.length);
+        };
+    }
+
+    /**
+     * 将 float 映射为按有符号 int 比较时顺序一致的值
+     */
+    private static int sortKey(float value) {
+        int bits = Float.floatToIntBits(value);
+        return bits >= 0 ? bits : bits ^ Integer.MAX_VALUE;
+    }
+
+}
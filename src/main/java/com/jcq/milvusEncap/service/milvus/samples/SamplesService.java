@@ -1,11 +1,16 @@
 package com.jcq.milvusEncap.service.milvus.samples;
 
 
+import com.jcq.milvusEncap.controller.samples.vo.SamplesExportReqVO;
 import com.jcq.milvusEncap.controller.samples.vo.SamplesPageReqVO;
 import com.jcq.milvusEncap.controller.samples.vo.SamplesSaveReqVO;
 import com.jcq.milvusEncap.dal.dataobject.agent.SamplesDO;
 import com.jcq.milvusEncap.dal.pojo.PageResult;
 
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
 /**
  * 向量数据库样例库 Service 接口
  *
@@ -51,4 +56,12 @@ public interface SamplesService {
      * @return 数据
      */
     SamplesDO getSampleInfo(Long sampleId);
+
+    /**
+     * 流式导出样例库数据
+     * @param exportReqVO 导出条件
+     * @param batchConsumer 每批数据的回调
+     * @return 导出的总行数
+     */
+    long exportSamples(SamplesExportReqVO exportReqVO, Consumer<List<Map<String, Object>>> batchConsumer);
 }
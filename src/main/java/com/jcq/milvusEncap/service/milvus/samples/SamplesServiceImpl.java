@@ -1,17 +1,23 @@
 package com.jcq.milvusEncap.service.milvus.samples;
 
+import com.jcq.milvusEncap.controller.samples.vo.SamplesExportReqVO;
 import com.jcq.milvusEncap.controller.samples.vo.SamplesPageReqVO;
 import com.jcq.milvusEncap.controller.samples.vo.SamplesSaveReqVO;
 import com.jcq.milvusEncap.dal.dataobject.agent.SamplesDO;
 import com.jcq.milvusEncap.dal.pojo.PageResult;
 import com.jcq.milvusEncap.service.milvus.MilvusBaseService;
 import com.jcq.milvusEncap.service.milvus.MilvusLambdaQueryWrapper;
+import com.jcq.milvusEncap.util.BeanCopier;
 import com.jcq.milvusEncap.util.BeanUtils;
 import jakarta.annotation.Resource;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
 /**
  * 向量数据库 样例库 Service 实现类
  *
@@ -22,6 +28,10 @@ import org.springframework.stereotype.Service;
 @Service
 public class SamplesServiceImpl extends MilvusBaseService<SamplesDO> implements SamplesService {
 
+    public SamplesServiceImpl() {
+        super(SamplesDO.class);
+    }
+
     @Override
     public Long createSamples(SamplesSaveReqVO createReqVO) {
 
@@ -47,6 +57,7 @@ public class SamplesServiceImpl extends MilvusBaseService<SamplesDO> implements
 
         // 构建请求条件
         MilvusLambdaQueryWrapper<SamplesDO> wrapper = new MilvusLambdaQueryWrapper<SamplesDO>()
+                .eqIfPresent(SamplesDO::getAgentId, pageReqVO.getAgentId())
                 .likeIfPresent(SamplesDO::getAgentName, pageReqVO.getAgentName())
                 .likeIfPresent(SamplesDO::getSampleQuestion, pageReqVO.getSampleQuestion())
                 .likeIfPresent(SamplesDO::getSampleAnswer, pageReqVO.getSampleAnswer());
@@ -61,9 +72,24 @@ public class SamplesServiceImpl extends MilvusBaseService<SamplesDO> implements
         return getById(sampleId);
     }
 
+    @Override
+    public long exportSamples(SamplesExportReqVO exportReqVO, Consumer<List<Map<String, Object>>> batchConsumer) {
+
+        // 构建请求条件，与分页查询保持一致
+        MilvusLambdaQueryWrapper<SamplesDO> wrapper = new MilvusLambdaQueryWrapper<SamplesDO>()
+                .eqIfPresent(SamplesDO::getAgentId, exportReqVO.getAgentId())
+                .likeIfPresent(SamplesDO::getAgentName, exportReqVO.getAgentName())
+                .likeIfPresent(SamplesDO::getSampleQuestion, exportReqVO.getSampleQuestion())
+                .likeIfPresent(SamplesDO::getSampleAnswer, exportReqVO.getSampleAnswer());
+
+        // 流式导出
+        return export(wrapper, exportReqVO.getFields(), batchConsumer);
+    }
+
     private SamplesDO getSamplesDO(SamplesSaveReqVO createReqVO) {
 
-        SamplesDO samplesDO = BeanUtils.toBean(createReqVO, SamplesDO.class);
+        // 向量随后由问题文本重新生成，不需要复制请求中的数组
+        SamplesDO samplesDO = BeanUtils.toBean(createReqVO, SamplesDO.class, BeanCopier.ArrayMode.SHARE);
 
         // todo：生成问题字段的向量 ，就不给出示例代码了
         String questionText = samplesDO.getSampleQuestion();
@@ -0,0 +1,95 @@
+package com.jcq.milvusEncap.session;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 读写会话：记录会话内每个集合最近一次写入（insert/upsert/delete）的提交时间戳，
+ * 之后在同一会话中读取该集合时把它作为保证时间戳发送，读到自己的写入，又不需要像 STRONG 那样等待最新时间戳
+ *
+ * <p>会话可以跨线程、跨请求保存（如放在 HttpSession 中），在需要的线程上调用 {@link #use()} 生效：</p>
+ * <pre>
+ * MilvusSession session = MilvusSession.open();
+ * try (MilvusSession.Scope ignored = session.use()) {
+ *     Long id = samplesService.insert(entity);
+ *     samplesService.getById(id);
+ * }
+ * </pre>
+ *
+ * <p>读方法显式指定了一致性级别时按指定级别读取，会话只作用于未指定级别的读操作；
+ * 会话内没有写过的集合按默认级别读取</p>
+ *
+ * @author : jucunqi
+ * @since : 2025/10/16
+ */
+public final class MilvusSession {
+
+    private static final ThreadLocal<MilvusSession> CURRENT = new ThreadLocal<>();
+
+    // 集合（开启多租户时带 database 前缀） -> 最近一次写入的时间戳
+    private final Map<String, Long> writeTimestamps = new ConcurrentHashMap<>();
+
+    private MilvusSession() {
+    }
+
+    /**
+     * 创建一个新的会话
+     */
+    public static MilvusSession open() {
+        return new MilvusSession();
+    }
+
+    /**
+     * 当前线程使用的会话，未使用时为 null
+     */
+    public static MilvusSession current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * 在当前线程上使用该会话，关闭作用域时恢复之前的会话
+     */
+    public Scope use() {
+        MilvusSession previous = CURRENT.get();
+        CURRENT.set(this);
+        return () -> restore(previous);
+    }
+
+    /**
+     * 记录一次写入，同一集合只保留最大的时间戳
+     * @param collection 集合名称
+     * @param timestamp 写入的提交时间戳，不大于 0 时忽略
+     */
+    public void recordWrite(String collection, long timestamp) {
+        if (timestamp > 0) {
+            writeTimestamps.merge(collection, timestamp, Math::max);
+        }
+    }
+
+    /**
+     * 读取该集合时需要保证的时间戳，会话内没有写过该集合时为 0
+     */
+    public long guaranteeTimestamp(String collection) {
+        return writeTimestamps.getOrDefault(collection, 0L);
+    }
+
+    private static void restore(MilvusSession previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+
+    /**
+     * 会话的作用域
+     */
+    @FunctionalInterface
+    public interface Scope extends AutoCloseable {
+
+        @Override
+        void close();
+
+    }
+
+}
@@ -0,0 +1,62 @@
+package com.jcq.milvusEncap.tenant;
+
+/**
+ * 当前线程的租户，在作用域内调用 MilvusBaseService 的方法时生效；Web 请求由 {@link MilvusTenantFilter} 按请求头设置
+ *
+ * <pre>
+ * try (MilvusTenant.Scope ignored = MilvusTenant.use("tenant-a")) {
+ *     samplesService.insertBatch(rows);
+ * }
+ * </pre>
+ *
+ * @author : jucunqi
+ * @since : 2025/10/16
+ */
+public final class MilvusTenant {
+
+    /**
+     * 未携带租户请求头的 Web 请求使用的租户，与未配置的租户共用并发上限；也可以在 milvus.tenant.tenants 中单独配置
+     */
+    public static final String ANONYMOUS = "anonymous";
+
+    private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+    private MilvusTenant() {
+    }
+
+    /**
+     * 在当前线程上指定租户，关闭作用域时恢复之前的租户
+     */
+    public static Scope use(String tenantId) {
+        String previous = CURRENT.get();
+        CURRENT.set(tenantId);
+        return () -> restore(previous);
+    }
+
+    /**
+     * 当前线程指定的租户，未指定时为 null
+     */
+    public static String current() {
+        return CURRENT.get();
+    }
+
+    private static void restore(String previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+
+    /**
+     * 租户的作用域
+     */
+    @FunctionalInterface
+    public interface Scope extends AutoCloseable {
+
+        @Override
+        void close();
+
+    }
+
+}
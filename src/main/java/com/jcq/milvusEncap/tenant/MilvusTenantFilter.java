@@ -0,0 +1,42 @@
+package com.jcq.milvusEncap.tenant;
+
+import com.jcq.milvusEncap.config.MilvusTenantProperties;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * 按请求头（milvus.tenant.header）设置当前线程的租户，请求结束后清除；
+ * 未携带请求头的请求使用 {@link MilvusTenant#ANONYMOUS}，不能借此绕过租户并发上限
+ *
+ * @author : jucunqi
+ * @since : 2025/10/16
+ */
+@Component
+@ConditionalOnProperty(prefix = "milvus.tenant", name = "enabled", havingValue = "true")
+public class MilvusTenantFilter extends OncePerRequestFilter {
+
+    private final String header;
+
+    public MilvusTenantFilter(MilvusTenantProperties properties) {
+        this.header = properties.getHeader();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String tenantId = request.getHeader(header);
+        String tenant = StringUtils.hasText(tenantId) ? tenantId.trim() : MilvusTenant.ANONYMOUS;
+        try (MilvusTenant.Scope ignored = MilvusTenant.use(tenant)) {
+            filterChain.doFilter(request, response);
+        }
+    }
+
+}
@@ -0,0 +1,154 @@
+package com.jcq.milvusEncap.tenant;
+
+import com.jcq.milvusEncap.config.MilvusTenantProperties;
+import com.jcq.milvusEncap.exception.ServiceException;
+import com.jcq.milvusEncap.exception.enums.ErrorCodeConstants;
+import com.jcq.milvusEncap.monitor.MilvusMetrics;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 租户到 Milvus database 的映射与每个租户的并发上限
+ *
+ * <ul>
+ *     <li>已配置的租户使用各自的 database 与 maxConcurrency；未配置的租户使用 defaultDatabase，
+ *     共用一个并发上限 defaultMaxConcurrency（合计计数，随意构造的租户标识不能绕过上限，也不会使计数无限增长）</li>
+ *     <li>未携带租户请求头的 Web 请求按 {@link MilvusTenant#ANONYMOUS} 租户处理，同样计入未配置租户的并发上限</li>
+ *     <li>并发达到上限时最多等待 waitTimeoutMs，超时以 MILVUS_OVERLOADED 拒绝，一个租户的突发流量不会占满共享的连接池</li>
+ *     <li>线程上未指定租户的操作（启动预热、定时任务等）使用 defaultDatabase，不受租户并发上限约束</li>
+ * </ul>
+ *
+ * <p>把大租户迁移到单独的 database 或调整上限只需要修改配置，database 的连接池见 {@link com.jcq.milvusEncap.routing.MilvusEndpoint#getPool(String)}</p>
+ *
+ * @author : jucunqi
+ * @since : 2025/10/16
+ */
+@Component
+public class TenantRegistry {
+
+    /**
+     * 未配置的租户在指标中合计使用的标签
+     */
+    private static final String OTHER_TENANTS = "other";
+
+    /**
+     * 不限制并发时使用的许可，不做任何事
+     */
+    private static final Permit UNLIMITED = () -> {
+    };
+
+    private final boolean enabled;
+    private final String defaultDatabase;
+    private final long waitTimeoutNanos;
+    private final Map<String, MilvusTenantProperties.Tenant> tenants;
+    private final MilvusMetrics milvusMetrics;
+    // 已配置且限制并发的租户 -> 并发许可
+    private final Map<String, Semaphore> limits = new HashMap<>();
+    // 未配置的租户共用的并发许可，不限制时为 null
+    private final Semaphore otherTenants;
+
+    public TenantRegistry(MilvusTenantProperties properties, MilvusMetrics milvusMetrics) {
+        this.enabled = properties.isEnabled();
+        this.defaultDatabase = properties.getDefaultDatabase();
+        this.waitTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(properties.getWaitTimeoutMs());
+        this.tenants = Map.copyOf(properties.getTenants());
+        this.milvusMetrics = milvusMetrics;
+        this.otherTenants = enabled ? createLimit(OTHER_TENANTS, properties.getDefaultMaxConcurrency()) : null;
+        if (enabled) {
+            tenants.forEach((tenantId, tenant) -> {
+                Semaphore semaphore = createLimit(tenantId, tenant.getMaxConcurrency());
+                if (semaphore != null) {
+                    limits.put(tenantId, semaphore);
+                }
+            });
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 租户数据所在的 database，未开启多租户时返回 null（使用连接配置的默认 database）
+     */
+    public String database(String tenantId) {
+        if (!enabled) {
+            return null;
+        }
+        MilvusTenantProperties.Tenant tenant = tenantId == null ? null : tenants.get(tenantId);
+        return tenant != null && tenant.getDatabase() != null && !tenant.getDatabase().isBlank()
+                ? tenant.getDatabase()
+                : defaultDatabase;
+    }
+
+    /**
+     * 所有已配置的 database（含 defaultDatabase），供启动时创建集合使用
+     */
+    public Set<String> databases() {
+        Set<String> databases = new LinkedHashSet<>();
+        databases.add(defaultDatabase);
+        tenants.keySet().forEach(tenantId -> databases.add(database(tenantId)));
+        return databases;
+    }
+
+    /**
+     * 占用租户的一个并发许可，操作结束后必须调用 {@link Permit#close()}
+     * @throws ServiceException 等待超时或等待期间线程被中断（MILVUS_OVERLOADED）
+     */
+    public Permit acquire(String tenantId) {
+        if (!enabled || tenantId == null) {
+            return UNLIMITED;
+        }
+        Semaphore semaphore = tenants.containsKey(tenantId) ? limits.get(tenantId) : otherTenants;
+        if (semaphore == null) {
+            return UNLIMITED;
+        }
+        boolean acquired;
+        try {
+            acquired = semaphore.tryAcquire(waitTimeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            milvusMetrics.recordTenantRejected(metricTag(tenantId));
+            throw new ServiceException(ErrorCodeConstants.MILVUS_OVERLOADED);
+        }
+        return semaphore::release;
+    }
+
+    /**
+     * 创建并发许可并注册正在执行的操作数指标，不限制并发时返回 null
+     * @param tag 指标中的租户标签
+     */
+    private Semaphore createLimit(String tag, int maxConcurrency) {
+        if (maxConcurrency <= 0) {
+            return null;
+        }
+        Semaphore semaphore = new Semaphore(maxConcurrency);
+        milvusMetrics.bindTenant(tag, () -> maxConcurrency - semaphore.availablePermits());
+        return semaphore;
+    }
+
+    private String metricTag(String tenantId) {
+        return tenants.containsKey(tenantId) ? tenantId : OTHER_TENANTS;
+    }
+
+    /**
+     * 租户的一个并发许可
+     */
+    @FunctionalInterface
+    public interface Permit extends AutoCloseable {
+
+        @Override
+        void close();
+
+    }
+
+}
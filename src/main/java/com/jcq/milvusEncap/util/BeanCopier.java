@@ -0,0 +1,245 @@
+package com.jcq.milvusEncap.util;
+
+import cn.hutool.core.bean.BeanUtil;
+import cn.hutool.core.convert.Convert;
+import lombok.extern.slf4j.Slf4j;
+
+import java.beans.IntrospectionException;
+import java.beans.Introspector;
+import java.beans.PropertyDescriptor;
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * 按 (源类型, 目标类型) 缓存的属性复制器：首次使用时解析两边的 getter/setter，通过 LambdaMetafactory 生成
+ * 直接调用访问方法的 Function/BiConsumer，之后的复制不再有反射解析与方法查找
+ *
+ * <p>同名属性类型兼容时直接赋值；类型不兼容时（如 Long -&gt; String、泛型参数不同的集合）使用 hutool 的 Convert 转换，
+ * 与 BeanUtil 的行为一致。数组属性默认复制一份（{@link ArrayMode#COPY}），{@link ArrayMode#SHARE} 时目标与源共享同一个数组，
+ * 适用于只读的向量字段（如 DO -&gt; RespVO 后立即序列化）</p>
+ *
+ * @param <T> 目标类型
+ *
+ * @author : jucunqi
+ * @since : 2025/10/16
+ */
+@Slf4j
+public final class BeanCopier<T> {
+
+    /**
+     * 数组属性（向量）的复制方式
+     */
+    public enum ArrayMode {
+        /**
+         * 复制数组，目标与源互不影响
+         */
+        COPY,
+        /**
+         * 共享数组，不复制
+         */
+        SHARE
+    }
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+    private static final Map<Key, BeanCopier<?>> CACHE = new ConcurrentHashMap<>();
+
+    private final Class<?> sourceClass;
+    private final Class<T> targetClass;
+    // 目标类没有可访问的无参构造方法时为 null，由 BeanUtil 创建
+    private final Supplier<Object> constructor;
+    private final PropertyCopier[] properties;
+
+    private BeanCopier(Class<?> sourceClass, Class<T> targetClass, Supplier<Object> constructor, PropertyCopier[] properties) {
+        this.sourceClass = sourceClass;
+        this.targetClass = targetClass;
+        this.constructor = constructor;
+        this.properties = properties;
+    }
+
+    /**
+     * 获取（首次调用时创建）复制器，同一组参数返回同一个实例
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> BeanCopier<T> get(Class<?> sourceClass, Class<T> targetClass, ArrayMode arrayMode) {
+        return (BeanCopier<T>) CACHE.computeIfAbsent(new Key(sourceClass, targetClass, arrayMode),
+                key -> create(key.sourceClass(), key.targetClass(), key.arrayMode()));
+    }
+
+    public Class<?> getSourceClass() {
+        return sourceClass;
+    }
+
+    /**
+     * 创建目标对象并复制属性
+     * @param source 源对象，类型必须为 {@link #getSourceClass()}
+     */
+    @SuppressWarnings("unchecked")
+    public T copy(Object source) {
+        if (source == null) {
+            return null;
+        }
+        if (constructor == null) {
+            return BeanUtil.toBean(source, targetClass);
+        }
+        T target = (T) constructor.get();
+        copy(source, target);
+        return target;
+    }
+
+    /**
+     * 复制属性到已有的目标对象，源属性为 null 时目标属性也置为 null（基本类型属性保持不变）
+     */
+    public void copy(Object source, T target) {
+        for (PropertyCopier property : properties) {
+            property.copy(source, target);
+        }
+    }
+
+    private static <T> BeanCopier<T> create(Class<?> sourceClass, Class<T> targetClass, ArrayMode arrayMode) {
+        Map<String, PropertyDescriptor> readable = new HashMap<>();
+        for (PropertyDescriptor descriptor : propertyDescriptors(sourceClass)) {
+            if (descriptor.getReadMethod() != null) {
+                readable.put(descriptor.getName(), descriptor);
+            }
+        }
+        List<PropertyCopier> properties = new ArrayList<>();
+        for (PropertyDescriptor descriptor : propertyDescriptors(targetClass)) {
+            PropertyDescriptor source = readable.get(descriptor.getName());
+            Method writeMethod = descriptor.getWriteMethod();
+            if (source == null || writeMethod == null) {
+                continue;
+            }
+            Method readMethod = source.getReadMethod();
+            properties.add(new PropertyCopier(getter(readMethod), setter(writeMethod),
+                    converter(readMethod, writeMethod, arrayMode), writeMethod.getParameterTypes()[0].isPrimitive()));
+        }
+        return new BeanCopier<>(sourceClass, targetClass, constructor(targetClass), properties.toArray(new PropertyCopier[0]));
+    }
+
+    private static PropertyDescriptor[] propertyDescriptors(Class<?> type) {
+        try {
+            return Introspector.getBeanInfo(type, Object.class).getPropertyDescriptors();
+        } catch (IntrospectionException e) {
+            throw new IllegalArgumentException("解析类[" + type.getName() + "]的属性失败", e);
+        }
+    }
+
+    /**
+     * 类型兼容且不是数组时直接赋值，返回 null
+     */
+    private static Function<Object, Object> converter(Method readMethod, Method writeMethod, ArrayMode arrayMode) {
+        Class<?> sourceType = readMethod.getReturnType();
+        Class<?> targetType = writeMethod.getParameterTypes()[0];
+        Type targetGenericType = writeMethod.getGenericParameterTypes()[0];
+        boolean assignable = wrap(targetType).isAssignableFrom(wrap(sourceType))
+                && (targetGenericType instanceof Class || targetGenericType.equals(readMethod.getGenericReturnType()));
+        if (!assignable) {
+            return value -> Convert.convert(targetGenericType, value);
+        }
+        if (sourceType.isArray() && arrayMode == ArrayMode.COPY) {
+            return BeanCopier::copyArray;
+        }
+        return null;
+    }
+
+    private static Object copyArray(Object array) {
+        int length = Array.getLength(array);
+        Object copy = Array.newInstance(array.getClass().getComponentType(), length);
+        System.arraycopy(array, 0, copy, 0, length);
+        return copy;
+    }
+
+    private static Class<?> wrap(Class<?> type) {
+        return type.isPrimitive() ? MethodType.methodType(type).wrap().returnType() : type;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Function<Object, Object> getter(Method method) {
+        try {
+            MethodHandle handle = LOOKUP.unreflect(method);
+            CallSite site = LambdaMetafactory.metafactory(LOOKUP, "apply", MethodType.methodType(Function.class),
+                    MethodType.methodType(Object.class, Object.class), handle, handle.type().wrap());
+            return (Function<Object, Object>) site.getTarget().invokeExact();
+        } catch (Throwable e) {
+            // 非 public 类等无法生成时回退为反射调用
+            method.setAccessible(true);
+            return source -> invoke(method, source);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static BiConsumer<Object, Object> setter(Method method) {
+        try {
+            MethodHandle handle = LOOKUP.unreflect(method);
+            CallSite site = LambdaMetafactory.metafactory(LOOKUP, "accept", MethodType.methodType(BiConsumer.class),
+                    MethodType.methodType(void.class, Object.class, Object.class), handle,
+                    handle.type().wrap().changeReturnType(void.class));
+            return (BiConsumer<Object, Object>) site.getTarget().invokeExact();
+        } catch (Throwable e) {
+            method.setAccessible(true);
+            return (target, value) -> invoke(method, target, value);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Supplier<Object> constructor(Class<?> type) {
+        if (type.isInterface() || Modifier.isAbstract(type.getModifiers())) {
+            return null;
+        }
+        try {
+            MethodHandle handle = LOOKUP.findConstructor(type, MethodType.methodType(void.class));
+            CallSite site = LambdaMetafactory.metafactory(LOOKUP, "get", MethodType.methodType(Supplier.class),
+                    MethodType.methodType(Object.class), handle, handle.type());
+            return (Supplier<Object>) site.getTarget().invokeExact();
+        } catch (Throwable e) {
+            log.debug("类[{}]没有可访问的无参构造方法，由BeanUtil创建实例", type.getName());
+            return null;
+        }
+    }
+
+    private static Object invoke(Method method, Object target, Object... args) {
+        try {
+            return method.invoke(target, args);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("调用" + method + "失败", e);
+        }
+    }
+
+    private record Key(Class<?> sourceClass, Class<?> targetClass, ArrayMode arrayMode) {
+    }
+
+    /**
+     * 一个同名属性的复制：读取、转换（可选）、写入
+     */
+    private record PropertyCopier(Function<Object, Object> getter, BiConsumer<Object, Object> setter,
+                                  Function<Object, Object> converter, boolean primitive) {
+
+        void copy(Object source, Object target) {
+            Object value = getter.apply(source);
+            if (value != null && converter != null) {
+                value = converter.apply(value);
+            }
+            // 基本类型属性无法设置为 null，保持默认值
+            if (value != null || !primitive) {
+                setter.accept(target, value);
+            }
+        }
+
+    }
+
+}
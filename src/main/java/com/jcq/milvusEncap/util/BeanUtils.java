@@ -3,20 +3,34 @@ package com.jcq.milvusEncap.util;
 import cn.hutool.core.bean.BeanUtil;
 import com.jcq.milvusEncap.dal.pojo.PageResult;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.function.Consumer;
 
 /**
  * Bean 工具类
  *
- * 1. 默认使用 {@link cn.hutool.core.bean.BeanUtil} 作为实现类，虽然不同 bean 工具的性能有差别，但是对绝大多数同学的项目，不用在意这点性能
- * 2. 针对复杂的对象转换，可以搜参考 AuthConvert 实现，通过 mapstruct + default 配合实现
+ * 1. 对象之间的转换使用 {@link BeanCopier}，按 (源类型, 目标类型) 缓存生成好的复制器；源为 Map 或目标不是普通 Bean 时
+ *    使用 {@link cn.hutool.core.bean.BeanUtil}
+ * 2. 数组属性（向量）默认复制一份；转换结果只读时可以传入 {@link BeanCopier.ArrayMode#SHARE} 共享数组，省去向量的复制
+ * 3. 针对复杂的对象转换，可以搜参考 AuthConvert 实现，通过 mapstruct + default 配合实现
  *
  */
 public class BeanUtils {
 
     public static <T> T toBean(Object source, Class<T> targetClass) {
-        return BeanUtil.toBean(source, targetClass);
+        return toBean(source, targetClass, BeanCopier.ArrayMode.COPY);
+    }
+
+    public static <T> T toBean(Object source, Class<T> targetClass, BeanCopier.ArrayMode arrayMode) {
+        if (source == null) {
+            return null;
+        }
+        if (!isBean(source, targetClass)) {
+            return BeanUtil.toBean(source, targetClass);
+        }
+        return BeanCopier.get(source.getClass(), targetClass, arrayMode).copy(source);
     }
 
     public static <T> T toBean(Object source, Class<T> targetClass, Consumer<T> peek) {
@@ -28,10 +42,32 @@ public class BeanUtils {
     }
 
     public static <S, T> List<T> toBean(List<S> source, Class<T> targetType) {
+        return toBean(source, targetType, BeanCopier.ArrayMode.COPY);
+    }
+
+    /**
+     * 列表转换，整个列表复用同一个复制器（元素类型变化时才重新获取），null 元素不输出
+     */
+    public static <S, T> List<T> toBean(List<S> source, Class<T> targetType, BeanCopier.ArrayMode arrayMode) {
         if (source == null) {
             return null;
         }
-        return CollectionUtils.convertList(source, s -> toBean(s, targetType));
+        List<T> result = new ArrayList<>(source.size());
+        BeanCopier<T> copier = null;
+        for (S item : source) {
+            if (item == null) {
+                continue;
+            }
+            if (!isBean(item, targetType)) {
+                result.add(BeanUtil.toBean(item, targetType));
+                continue;
+            }
+            if (copier == null || copier.getSourceClass() != item.getClass()) {
+                copier = BeanCopier.get(item.getClass(), targetType, arrayMode);
+            }
+            result.add(copier.copy(item));
+        }
+        return result;
     }
 
     public static <S, T> List<T> toBean(List<S> source, Class<T> targetType, Consumer<T> peek) {
@@ -43,7 +79,14 @@ public class BeanUtils {
     }
 
     public static <S, T> PageResult<T> toBean(PageResult<S> source, Class<T> targetType) {
-        return toBean(source, targetType, null);
+        return toBean(source, targetType, (Consumer<T>) null);
+    }
+
+    public static <S, T> PageResult<T> toBean(PageResult<S> source, Class<T> targetType, BeanCopier.ArrayMode arrayMode) {
+        if (source == null) {
+            return null;
+        }
+        return new PageResult<>(toBean(source.getList(), targetType, arrayMode), source.getTotal());
     }
 
     public static <S, T> PageResult<T> toBean(PageResult<S> source, Class<T> targetType, Consumer<T> peek) {
@@ -57,11 +100,24 @@ public class BeanUtils {
         return new PageResult<>(list, source.getTotal());
     }
 
+    @SuppressWarnings("unchecked")
     public static void copyProperties(Object source, Object target) {
         if (source == null || target == null) {
             return;
         }
-        BeanUtil.copyProperties(source, target, false);
+        if (!isBean(source, target.getClass())) {
+            BeanUtil.copyProperties(source, target, false);
+            return;
+        }
+        ((BeanCopier<Object>) BeanCopier.get(source.getClass(), target.getClass(), BeanCopier.ArrayMode.COPY))
+                .copy(source, target);
+    }
+
+    /**
+     * 源与目标都是普通 Bean 时才使用 BeanCopier，Map 等由 BeanUtil 处理
+     */
+    private static boolean isBean(Object source, Class<?> targetClass) {
+        return !(source instanceof Map) && !Map.class.isAssignableFrom(targetClass);
     }
 
 }
@@ -1,15 +1,22 @@
 package com.jcq.milvusEncap.util;
 
 import cn.hutool.core.text.CharSequenceUtil;
+import com.jcq.milvusEncap.annotation.PartitionKey;
 import com.jcq.milvusEncap.annotation.PrimaryKey;
 import lombok.Getter;
 
 import java.lang.reflect.Field;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class MilvusUtil {
 
+    // 类 -> Partition Key 字段名
+    private static final Map<Class<?>, Optional<String>> PARTITION_KEY_FIELDS = new ConcurrentHashMap<>();
+
     /**
      * 静态方法：解析对象中带有 @PrimaryKey 注解的字段，并返回该字段的值（支持 Long 类型主键）
      *
@@ -139,7 +146,7 @@ public class MilvusUtil {
      * 获取指定类及其父类中带有@PrimaryKey注解的属性名（唯一）
      *
      * @param clazz 要检查的类
-     * @return 带有@PrimaryKey注解的属性名（处理后格式）
+     * @return 带有@PrimaryKey注解的属性名（驼峰转下划线，与集合 schema 中的列名一致）
      * @throws IllegalArgumentException 当存在多个主键字段时抛出
      */
     public static String getPrimaryKeyFieldName(Class<?> clazz) {
@@ -165,11 +172,110 @@ public class MilvusUtil {
             throw new IllegalArgumentException("未找到@PrimaryKey注解的字段");
         }
 
-        // 处理返回格式（驼峰转下划线，若type为auto）
-        PrimaryKeyField field = primaryKeyFields.get(0);
-        return "auto".equals(field.getAnnotation().type())
-                ? CharSequenceUtil.toSymbolCase(field.getFieldName(), '_')
-                : field.getFieldName();
+        // 不论主键由谁生成，列名都是驼峰转下划线
+        return CharSequenceUtil.toSymbolCase(primaryKeyFields.get(0).getFieldName(), '_');
+    }
+
+    /**
+     * 向量属性的类型：float[] 为单精度向量，short[] 为半精度向量（float16 / bfloat16 原始位）
+     */
+    public static boolean isVectorType(Class<?> type) {
+        return type == float[].class || type == short[].class;
+    }
+
+    /**
+     * 获取指定类及其父类中的向量字段名（第一个float[]或short[]类型的属性）
+     *
+     * @param clazz 要检查的类
+     * @return 向量字段名（驼峰转下划线）
+     * @throws IllegalArgumentException 当不存在向量字段时抛出
+     */
+    public static String getVectorFieldName(Class<?> clazz) {
+        return CharSequenceUtil.toSymbolCase(getVectorField(clazz).getName(), '_');
+    }
+
+    /**
+     * 获取指定类及其父类中的向量字段（第一个float[]或short[]类型的属性）
+     *
+     * @param clazz 要检查的类
+     * @return 向量字段
+     * @throws IllegalArgumentException 当不存在向量字段时抛出
+     */
+    public static Field getVectorField(Class<?> clazz) {
+        for (Class<?> currentClass = clazz; currentClass != null && currentClass != Object.class;
+             currentClass = currentClass.getSuperclass()) {
+            for (Field field : currentClass.getDeclaredFields()) {
+                if (isVectorType(field.getType())) {
+                    return field;
+                }
+            }
+        }
+        throw new IllegalArgumentException(
+                String.format("类[%s]及其父类中未找到float[]或short[]类型的向量字段", clazz.getName())
+        );
+    }
+
+    /**
+     * 获取指定类及其父类中带有@PrimaryKey注解的字段（唯一）
+     *
+     * @param clazz 要检查的类
+     * @return 主键字段
+     * @throws IllegalArgumentException 当不存在主键字段或存在多个主键字段时抛出
+     */
+    public static Field getPrimaryKeyField(Class<?> clazz) {
+        Field primaryKeyField = null;
+        for (Class<?> currentClass = clazz; currentClass != null && currentClass != Object.class;
+             currentClass = currentClass.getSuperclass()) {
+            for (Field field : currentClass.getDeclaredFields()) {
+                if (!field.isAnnotationPresent(PrimaryKey.class)) {
+                    continue;
+                }
+                if (primaryKeyField != null) {
+                    throw new IllegalArgumentException(
+                            String.format("类[%s]及其父类中存在多个@PrimaryKey注解的字段：[%s] 和 [%s]",
+                                    clazz.getName(), primaryKeyField.getName(), field.getName())
+                    );
+                }
+                primaryKeyField = field;
+            }
+        }
+        if (primaryKeyField == null) {
+            throw new IllegalArgumentException(
+                    String.format("类[%s]及其父类中未找到@PrimaryKey注解的字段", clazz.getName())
+            );
+        }
+        return primaryKeyField;
+    }
+
+    /**
+     * 获取指定类及其父类中带有@PartitionKey注解的属性名（结果按类缓存，查询构造器每次请求都会调用）
+     *
+     * @param clazz 要检查的类
+     * @return Partition Key 字段名（驼峰转下划线），不存在时返回 null
+     * @throws IllegalArgumentException 当存在多个 Partition Key 字段时抛出
+     */
+    public static String getPartitionKeyFieldName(Class<?> clazz) {
+        return PARTITION_KEY_FIELDS.computeIfAbsent(clazz, MilvusUtil::findPartitionKeyFieldName).orElse(null);
+    }
+
+    private static Optional<String> findPartitionKeyFieldName(Class<?> clazz) {
+        String fieldName = null;
+        for (Class<?> currentClass = clazz; currentClass != null && currentClass != Object.class;
+             currentClass = currentClass.getSuperclass()) {
+            for (Field field : currentClass.getDeclaredFields()) {
+                if (!field.isAnnotationPresent(PartitionKey.class)) {
+                    continue;
+                }
+                if (fieldName != null) {
+                    throw new IllegalArgumentException(
+                            String.format("类[%s]及其父类中存在多个@PartitionKey注解的字段：[%s] 和 [%s]",
+                                    clazz.getName(), fieldName, field.getName())
+                    );
+                }
+                fieldName = field.getName();
+            }
+        }
+        return Optional.ofNullable(fieldName).map(name -> CharSequenceUtil.toSymbolCase(name, '_'));
     }
 
     /**
@@ -0,0 +1,174 @@
+package com.jcq.milvusEncap.vector;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * 半精度向量（float16 / bfloat16）与 float 之间的转换，半精度值以 short 保存原始位
+ *
+ * <p>全部为基本类型的单次遍历，不装箱；Milvus 以小端字节序传输半精度向量（每维 2 字节）</p>
+ *
+ * @author : jucunqi
+ * @since : 2025/10/16
+ */
+public final class HalfFloats {
+
+    private static final VarHandle SHORT_LE = MethodHandles.byteArrayViewVarHandle(short[].class, ByteOrder.LITTLE_ENDIAN);
+
+    private HalfFloats() {
+    }
+
+    /**
+     * float 转 IEEE 754 binary16，就近舍入（相等时取偶），超出范围时为无穷大
+     */
+    public static short toFloat16(float value) {
+        int bits = Float.floatToRawIntBits(value);
+        int sign = (bits >>> 16) & 0x8000;
+        int exponent = (bits >>> 23) & 0xFF;
+        int mantissa = bits & 0x7FFFFF;
+        if (exponent == 0xFF) {
+            // 无穷大保持无穷大，NaN 保留高位尾数并置静默位
+            return (short) (sign | 0x7C00 | (mantissa != 0 ? 0x200 | (mantissa >>> 13) : 0));
+        }
+        int halfExponent = exponent - 127 + 15;
+        if (halfExponent >= 0x1F) {
+            return (short) (sign | 0x7C00);
+        }
+        if (halfExponent <= 0) {
+            // 结果为非规格化数或 0
+            if (halfExponent < -10) {
+                return (short) sign;
+            }
+            mantissa |= 0x800000;
+            int shift = 14 - halfExponent;
+            int half = mantissa >>> shift;
+            int remainder = mantissa & ((1 << shift) - 1);
+            int halfway = 1 << (shift - 1);
+            if (remainder > halfway || (remainder == halfway && (half & 1) != 0)) {
+                half++;
+            }
+            return (short) (sign | half);
+        }
+        int half = (halfExponent << 10) | (mantissa >>> 13);
+        int remainder = mantissa & 0x1FFF;
+        // 进位可能进入指数位，结果仍然正确（最大值进位后为无穷大）
+        if (remainder > 0x1000 || (remainder == 0x1000 && (half & 1) != 0)) {
+            half++;
+        }
+        return (short) (sign | half);
+    }
+
+    public static float float16ToFloat(short value) {
+        int sign = (value & 0x8000) << 16;
+        int exponent = (value >>> 10) & 0x1F;
+        int mantissa = value & 0x3FF;
+        if (exponent == 0x1F) {
+            return Float.intBitsToFloat(sign | 0x7F800000 | (mantissa << 13));
+        }
+        if (exponent == 0) {
+            float subnormal = mantissa * 0x1p-24f;
+            return sign != 0 ? -subnormal : subnormal;
+        }
+        return Float.intBitsToFloat(sign | ((exponent + 112) << 23) | (mantissa << 13));
+    }
+
+    /**
+     * float 转 bfloat16（float 的高 16 位），就近舍入（相等时取偶）
+     */
+    public static short toBFloat16(float value) {
+        int bits = Float.floatToRawIntBits(value);
+        if ((bits & 0x7FFFFFFF) > 0x7F800000) {
+            return (short) ((bits >>> 16) | 0x40);
+        }
+        return (short) ((bits + 0x7FFF + ((bits >>> 16) & 1)) >>> 16);
+    }
+
+    public static float bfloat16ToFloat(short value) {
+        return Float.intBitsToFloat(value << 16);
+    }
+
+    public static short[] toFloat16(float[] vector) {
+        short[] half = new short[vector.length];
+        for (int i = 0; i < vector.length; i++) {
+            half[i] = toFloat16(vector[i]);
+        }
+        return half;
+    }
+
+    public static short[] toBFloat16(float[] vector) {
+        short[] half = new short[vector.length];
+        for (int i = 0; i < vector.length; i++) {
+            half[i] = toBFloat16(vector[i]);
+        }
+        return half;
+    }
+
+    public static float[] float16ToFloat(short[] half) {
+        float[] vector = new float[half.length];
+        float16ToFloat(half, vector);
+        return vector;
+    }
+
+    public static float[] bfloat16ToFloat(short[] half) {
+        float[] vector = new float[half.length];
+        bfloat16ToFloat(half, vector);
+        return vector;
+    }
+
+    /**
+     * 转换到调用方提供的数组，用于复用缓冲区
+     */
+    public static void float16ToFloat(short[] half, float[] target) {
+        for (int i = 0; i < half.length; i++) {
+            target[i] = float16ToFloat(half[i]);
+        }
+    }
+
+    public static void bfloat16ToFloat(short[] half, float[] target) {
+        for (int i = 0; i < half.length; i++) {
+            target[i] = bfloat16ToFloat(half[i]);
+        }
+    }
+
+    /**
+     * 直接将 float 向量编码为 Milvus 需要的 float16 字节，不生成中间数组
+     */
+    public static ByteBuffer toFloat16Buffer(float[] vector) {
+        byte[] bytes = new byte[vector.length * Short.BYTES];
+        for (int i = 0; i < vector.length; i++) {
+            SHORT_LE.set(bytes, i * Short.BYTES, toFloat16(vector[i]));
+        }
+        return ByteBuffer.wrap(bytes);
+    }
+
+    public static ByteBuffer toBFloat16Buffer(float[] vector) {
+        byte[] bytes = new byte[vector.length * Short.BYTES];
+        for (int i = 0; i < vector.length; i++) {
+            SHORT_LE.set(bytes, i * Short.BYTES, toBFloat16(vector[i]));
+        }
+        return ByteBuffer.wrap(bytes);
+    }
+
+    /**
+     * 半精度原始位编码为小端字节
+     */
+    public static ByteBuffer toBuffer(short[] half) {
+        byte[] bytes = new byte[half.length * Short.BYTES];
+        for (int i = 0; i < half.length; i++) {
+            SHORT_LE.set(bytes, i * Short.BYTES, half[i]);
+        }
+        return ByteBuffer.wrap(bytes);
+    }
+
+    /**
+     * 读取 Milvus 返回的半精度向量字节（不改变 buffer 的位置）
+     */
+    public static short[] fromBuffer(ByteBuffer buffer) {
+        short[] half = new short[buffer.remaining() / Short.BYTES];
+        buffer.duplicate().order(ByteOrder.LITTLE_ENDIAN).asShortBuffer().get(half);
+        return half;
+    }
+
+}
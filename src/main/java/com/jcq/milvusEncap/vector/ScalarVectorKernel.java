@@ -0,0 +1,79 @@
+package com.jcq.milvusEncap.vector;
+
+/**
+ * 标量实现：4 路累加展开，打破单个累加器的依赖链，JIT 可以并行执行乘加指令
+ *
+ * @author : jucunqi
+ * @since : 2025/10/16
+ */
+final class ScalarVectorKernel implements VectorKernel {
+
+    @Override
+    public float dot(float[] a, float[] b, int length) {
+        float s0 = 0;
+        float s1 = 0;
+        float s2 = 0;
+        float s3 = 0;
+        int i = 0;
+        for (int bound = length & ~3; i < bound; i += 4) {
+            s0 += a[i] * b[i];
+            s1 += a[i + 1] * b[i + 1];
+            s2 += a[i + 2] * b[i + 2];
+            s3 += a[i + 3] * b[i + 3];
+        }
+        for (; i < length; i++) {
+            s0 += a[i] * b[i];
+        }
+        return (s0 + s1) + (s2 + s3);
+    }
+
+    @Override
+    public float squaredL2(float[] a, float[] b, int length) {
+        float s0 = 0;
+        float s1 = 0;
+        float s2 = 0;
+        float s3 = 0;
+        int i = 0;
+        for (int bound = length & ~3; i < bound; i += 4) {
+            float d0 = a[i] - b[i];
+            float d1 = a[i + 1] - b[i + 1];
+            float d2 = a[i + 2] - b[i + 2];
+            float d3 = a[i + 3] - b[i + 3];
+            s0 += d0 * d0;
+            s1 += d1 * d1;
+            s2 += d2 * d2;
+            s3 += d3 * d3;
+        }
+        for (; i < length; i++) {
+            float d = a[i] - b[i];
+            s0 += d * d;
+        }
+        return (s0 + s1) + (s2 + s3);
+    }
+
+    @Override
+    public float cosine(float[] a, float[] b, int length) {
+        float dot0 = 0;
+        float dot1 = 0;
+        float normA0 = 0;
+        float normA1 = 0;
+        float normB0 = 0;
+        float normB1 = 0;
+        int i = 0;
+        for (int bound = length & ~1; i < bound; i += 2) {
+            dot0 += a[i] * b[i];
+            dot1 += a[i + 1] * b[i + 1];
+            normA0 += a[i] * a[i];
+            normA1 += a[i + 1] * a[i + 1];
+            normB0 += b[i] * b[i];
+            normB1 += b[i + 1] * b[i + 1];
+        }
+        for (; i < length; i++) {
+            dot0 += a[i] * b[i];
+            normA0 += a[i] * a[i];
+            normB0 += b[i] * b[i];
+        }
+        return VectorKernels.cosine(dot0 + dot1, normA0 + normA1, normB0 + normB1);
+    }
+
+}
@@ -0,0 +1,26 @@
+package com.jcq.milvusEncap.vector;
+
+/**
+ * 向量距离计算内核，只计算两个数组前 length 个元素
+ *
+ * @author : jucunqi
+ * @since : 2025/10/16
+ */
+public interface VectorKernel {
+
+    /**
+     * 内积
+     */
+    float dot(float[] a, float[] b, int length);
+
+    /**
+     * 欧氏距离的平方，与 Milvus L2 返回的分数一致
+     */
+    float squaredL2(float[] a, float[] b, int length);
+
+    /**
+     * 余弦相似度，任意一个向量的模长为 0 时返回 0
+     */
+    float cosine(float[] a, float[] b, int length);
+
+}
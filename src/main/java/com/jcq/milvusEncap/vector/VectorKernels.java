@@ -0,0 +1,65 @@
+package com.jcq.milvusEncap.vector;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 选择向量距离计算内核：运行时添加了 jdk.incubator.vector 模块时使用 SIMD 实现，否则使用标量实现
+ *
+ * <pre>
+ * java --add-modules jdk.incubator.vector -jar milvus-encapsulation.jar
+ * </pre>
+ *
+ * <p>可以通过 -Dmilvus.vector.simd=false 强制使用标量实现</p>
+ *
+ * @author : jucunqi
+ * @since : 2025/10/16
+ */
+@Slf4j
+public final class VectorKernels {
+
+    private static final String VECTOR_MODULE = "jdk.incubator.vector";
+    private static final VectorKernel SCALAR = new ScalarVectorKernel();
+    private static final VectorKernel SIMD = loadSimd();
+
+    private VectorKernels() {
+    }
+
+    /**
+     * 当前环境下最快的实现
+     */
+    public static VectorKernel get() {
+        return SIMD != null && Boolean.parseBoolean(System.getProperty("milvus.vector.simd", "true")) ? SIMD : SCALAR;
+    }
+
+    public static VectorKernel scalar() {
+        return SCALAR;
+    }
+
+    /**
+     * SIMD 实现，运行时没有 Vector API 时返回 null
+     */
+    public static VectorKernel simd() {
+        return SIMD;
+    }
+
+    static float cosine(float dot, float normA, float normB) {
+        return normA == 0 || normB == 0 ? 0 : (float) (dot / Math.sqrt((double) normA * normB));
+    }
+
+    private static VectorKernel loadSimd() {
+        if (ModuleLayer.boot().findModule(VECTOR_MODULE).isEmpty()) {
+            log.info("运行时未添加 {} 模块，向量计算使用标量实现（启动参数 --add-modules {} 可开启 SIMD）",
+                    VECTOR_MODULE, VECTOR_MODULE);
+            return null;
+        }
+        try {
+            return (VectorKernel) Class.forName(VectorKernels.class.getPackageName() + ".SimdVectorKernel")
+                    .getDeclaredConstructor()
+                    .newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            log.warn("加载 SIMD 向量计算实现失败，使用标量实现，原因: {}", e.toString());
+            return null;
+        }
+    }
+
+}
@@ -0,0 +1,225 @@
+package com.jcq.milvusEncap.warmup;
+
+import com.jcq.milvusEncap.config.MilvusWarmUpProperties;
+import com.jcq.milvusEncap.routing.MilvusEndpoint;
+import com.jcq.milvusEncap.routing.MilvusRouter;
+import com.jcq.milvusEncap.service.milvus.MilvusBaseService;
+import com.jcq.milvusEncap.vector.HalfFloats;
+import io.milvus.v2.client.MilvusClientV2;
+import io.milvus.v2.common.DataType;
+import io.milvus.v2.service.collection.request.CreateCollectionReq;
+import io.milvus.v2.service.collection.request.DescribeCollectionReq;
+import io.milvus.v2.service.collection.request.GetLoadStateReq;
+import io.milvus.v2.service.collection.request.LoadCollectionReq;
+import io.milvus.v2.service.vector.request.QueryReq;
+import io.milvus.v2.service.vector.request.SearchReq;
+import io.milvus.v2.service.vector.request.data.BFloat16Vec;
+import io.milvus.v2.service.vector.request.data.BaseVector;
+import io.milvus.v2.service.vector.request.data.Float16Vec;
+import io.milvus.v2.service.vector.request.data.FloatVec;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * 启动预热：对每个 MilvusBaseService 对应的集合，在每个节点上依次
+ * 检查加载状态并加载集合、等待加载完成、执行配置的预热查询与检索，最后预先创建连接池客户端
+ *
+ * <p>预热在后台线程中执行，不阻塞启动；完成前 {@link MilvusWarmUpHealthIndicator} 返回 OUT_OF_SERVICE，
+ * 加入 readiness 分组后 Kubernetes 不会把流量转发到该实例</p>
+ *
+ * @author : jucunqi
+ * @since : 2025/10/16
+ */
+@Slf4j
+@Order(1)
+@Component
+public class MilvusWarmUp implements ApplicationRunner {
+
+    /**
+     * 预热状态
+     */
+    public enum State {
+        PENDING, RUNNING, READY, FAILED
+    }
+
+    private final List<MilvusBaseService<?>> services;
+    private final MilvusRouter router;
+    private final MilvusWarmUpProperties properties;
+
+    @Getter
+    private volatile State state;
+    // 节点/集合 -> 预热结果
+    private final Map<String, String> details = Collections.synchronizedMap(new LinkedHashMap<>());
+
+    public MilvusWarmUp(List<MilvusBaseService<?>> services, MilvusRouter router, MilvusWarmUpProperties properties) {
+        this.services = services;
+        this.router = router;
+        this.properties = properties;
+        this.state = properties.isEnabled() ? State.PENDING : State.READY;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        Thread thread = new Thread(this::warmUp, "milvus-warm-up");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * 是否可以接收流量
+     */
+    public boolean isReady() {
+        return state == State.READY || (state == State.FAILED && !properties.isRequired());
+    }
+
+    public Map<String, String> getDetails() {
+        synchronized (details) {
+            return new LinkedHashMap<>(details);
+        }
+    }
+
+    void warmUp() {
+        state = State.RUNNING;
+        long start = System.nanoTime();
+        Set<String> collectionNames = new LinkedHashSet<>();
+        services.forEach(service -> collectionNames.add(service.validateCollectionNameAnnotation()));
+
+        boolean failed = false;
+        for (MilvusEndpoint endpoint : router.getEndpoints()) {
+            for (String collectionName : collectionNames) {
+                String key = endpoint.getName() + "/" + collectionName;
+                try {
+                    details.put(key, warmUp(endpoint, collectionName));
+                } catch (Exception e) {
+                    failed = true;
+                    details.put(key, "failed: " + e.getMessage());
+                    log.warn("Milvus集合[{}]在节点[{}]上预热失败，原因: {}", collectionName, endpoint.getName(),
+                            e.getMessage(), e);
+                }
+            }
+            prewarmClients(endpoint);
+        }
+
+        state = failed ? State.FAILED : State.READY;
+        log.info("Milvus预热结束，状态: {}，耗时: {}ms", state, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    private String warmUp(MilvusEndpoint endpoint, String collectionName) throws Exception {
+        MilvusClientV2 client = endpoint.getPool().getClient(router.getClientKey());
+        try {
+            long loadMs = load(client, collectionName);
+            MilvusWarmUpProperties.CollectionWarmUp warmUp = properties.getCollection(collectionName);
+
+            long queryStart = System.nanoTime();
+            for (String filter : warmUp.getQueries()) {
+                client.query(QueryReq.builder()
+                        .collectionName(collectionName)
+                        .filter(filter)
+                        .limit(warmUp.getTopK())
+                        .outputFields(Collections.singletonList("*"))
+                        .build());
+            }
+            search(client, collectionName, warmUp);
+            long warmMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - queryStart);
+
+            log.info("Milvus集合[{}]在节点[{}]上预热完成，加载耗时: {}ms，查询/检索耗时: {}ms",
+                    collectionName, endpoint.getName(), loadMs, warmMs);
+            return String.format("ready (load %dms, warm-up %dms)", loadMs, warmMs);
+        } finally {
+            endpoint.getPool().returnClient(router.getClientKey(), client);
+        }
+    }
+
+    /**
+     * 未加载时发起加载并等待完成
+     *
+     * @return 等待加载的耗时（毫秒）
+     */
+    private long load(MilvusClientV2 client, String collectionName) throws Exception {
+        GetLoadStateReq loadStateReq = GetLoadStateReq.builder().collectionName(collectionName).build();
+        if (Boolean.TRUE.equals(client.getLoadState(loadStateReq))) {
+            return 0;
+        }
+
+        long start = System.nanoTime();
+        log.info("Milvus集合[{}]未加载，开始加载", collectionName);
+        client.loadCollection(LoadCollectionReq.builder().collectionName(collectionName).sync(false).build());
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(properties.getLoadTimeoutMs());
+        while (!Boolean.TRUE.equals(client.getLoadState(loadStateReq))) {
+            if (System.nanoTime() > deadline) {
+                throw new TimeoutException("等待集合" + collectionName + "加载超时");
+            }
+            TimeUnit.MILLISECONDS.sleep(properties.getLoadCheckIntervalMs());
+        }
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    }
+
+    /**
+     * 使用随机向量检索，维度取自集合定义
+     */
+    private void search(MilvusClientV2 client, String collectionName, MilvusWarmUpProperties.CollectionWarmUp warmUp) {
+        if (warmUp.getSearches() <= 0) {
+            return;
+        }
+        CreateCollectionReq.FieldSchema vectorField = client.describeCollection(
+                        DescribeCollectionReq.builder().collectionName(collectionName).build())
+                .getCollectionSchema().getFieldSchemaList().stream()
+                .filter(field -> field.getDataType() == DataType.FloatVector
+                        || field.getDataType() == DataType.Float16Vector || field.getDataType() == DataType.BFloat16Vector)
+                .findFirst()
+                .orElse(null);
+        if (vectorField == null) {
+            return;
+        }
+        for (int i = 0; i < warmUp.getSearches(); i++) {
+            client.search(SearchReq.builder()
+                    .collectionName(collectionName)
+                    .annsField(vectorField.getName())
+                    .data(Collections.singletonList(randomVector(vectorField)))
+                    .topK(warmUp.getTopK())
+                    .filter(warmUp.getSearchFilter())
+                    .outputFields(Collections.singletonList("*"))
+                    .build());
+        }
+    }
+
+    private void prewarmClients(MilvusEndpoint endpoint) {
+        try {
+            int created = endpoint.getPool().prewarm(router.getClientKey(), properties.getPrewarmClients());
+            log.info("Milvus节点[{}]预先创建客户端{}个", endpoint.getName(), created);
+        } catch (Exception e) {
+            log.warn("Milvus节点[{}]预先创建客户端失败，原因: {}", endpoint.getName(), e.getMessage());
+        }
+    }
+
+    private static BaseVector randomVector(CreateCollectionReq.FieldSchema vectorField) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        float[] vector = new float[vectorField.getDimension()];
+        for (int i = 0; i < vector.length; i++) {
+            vector[i] = random.nextFloat() * 2 - 1;
+        }
+        return switch (vectorField.getDataType()) {
+            case Float16Vector -> new Float16Vec(HalfFloats.toFloat16Buffer(vector));
+            case BFloat16Vector -> new BFloat16Vec(HalfFloats.toBFloat16Buffer(vector));
+            default -> new FloatVec(vector);
+        };
+    }
+
+}
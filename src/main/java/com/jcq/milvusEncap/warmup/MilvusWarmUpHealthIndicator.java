@@ -0,0 +1,31 @@
+package com.jcq.milvusEncap.warmup;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Milvus 预热状态，预热完成前返回 OUT_OF_SERVICE，需加入 readiness 分组：
+ * management.endpoint.health.group.readiness.include=readinessState,milvusWarmUp
+ *
+ * @author : jucunqi
+ * @since : 2025/10/16
+ */
+@Component
+public class MilvusWarmUpHealthIndicator implements HealthIndicator {
+
+    private final MilvusWarmUp warmUp;
+
+    public MilvusWarmUpHealthIndicator(MilvusWarmUp warmUp) {
+        this.warmUp = warmUp;
+    }
+
+    @Override
+    public Health health() {
+        Health.Builder builder = warmUp.isReady() ? Health.up() : Health.outOfService();
+        return builder.withDetail("state", warmUp.getState())
+                .withDetails(warmUp.getDetails())
+                .build();
+    }
+
+}
@@ -0,0 +1,84 @@
+package com.jcq.milvusEncap.workload;
+
+import com.jcq.milvusEncap.service.milvus.MilvusOperation;
+
+/**
+ * 当前线程的负载类别，在作用域内调用 MilvusBaseService 的方法时生效
+ *
+ * <pre>
+ * try (MilvusWorkload.Scope ignored = MilvusWorkload.use(WorkloadClass.BATCH)) {
+ *     samplesService.insertBatch(rows);
+ * }
+ * </pre>
+ *
+ * <p>未指定时导出与批量插入为 {@link WorkloadClass#BATCH}，其余操作为 {@link WorkloadClass#INTERACTIVE}</p>
+ *
+ * @author : jucunqi
+ * @since : 2025/10/16
+ */
+public final class MilvusWorkload {
+
+    private static final ThreadLocal<WorkloadClass> CURRENT = new ThreadLocal<>();
+
+    private MilvusWorkload() {
+    }
+
+    /**
+     * 在当前线程上指定负载类别，关闭作用域时恢复之前的类别
+     */
+    public static Scope use(WorkloadClass workloadClass) {
+        WorkloadClass previous = CURRENT.get();
+        CURRENT.set(workloadClass);
+        return () -> restore(previous);
+    }
+
+    /**
+     * 当前线程未指定负载类别时才使用给定的类别
+     */
+    public static Scope useIfAbsent(WorkloadClass workloadClass) {
+        WorkloadClass previous = CURRENT.get();
+        if (previous != null) {
+            return () -> {
+            };
+        }
+        return use(workloadClass);
+    }
+
+    /**
+     * 当前线程指定的负载类别，未指定时为 null
+     */
+    public static WorkloadClass current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * 操作实际使用的负载类别
+     */
+    public static WorkloadClass resolve(MilvusOperation operation) {
+        WorkloadClass current = CURRENT.get();
+        if (current != null) {
+            return current;
+        }
+        return operation == MilvusOperation.EXPORT ? WorkloadClass.BATCH : WorkloadClass.INTERACTIVE;
+    }
+
+    private static void restore(WorkloadClass previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+
+    /**
+     * 负载类别的作用域
+     */
+    @FunctionalInterface
+    public interface Scope extends AutoCloseable {
+
+        @Override
+        void close();
+
+    }
+
+}
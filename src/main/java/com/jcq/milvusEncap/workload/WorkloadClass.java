@@ -0,0 +1,38 @@
+package com.jcq.milvusEncap.workload;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 调用方的负载类别，不同类别使用连接池中不同的 key（各自独立的客户端与连接），并按配额与权重获得执行机会
+ *
+ * @author : jucunqi
+ * @since : 2025/10/16
+ */
+@Getter
+@AllArgsConstructor
+public enum WorkloadClass {
+
+    /**
+     * 在线请求（检索、分页查询等），对延迟敏感
+     */
+    INTERACTIVE("interactive", ""),
+    /**
+     * 批量导入、导出等大流量任务
+     */
+    BATCH("batch", "-batch"),
+    /**
+     * 后台任务（预热、巡检等），只使用空闲的容量
+     */
+    BACKGROUND("background", "-background");
+
+    /**
+     * 指标与配置中使用的名称
+     */
+    private final String metricName;
+    /**
+     * 连接池 key 的后缀，在线请求沿用 milvus.client-key
+     */
+    private final String poolKeySuffix;
+
+}
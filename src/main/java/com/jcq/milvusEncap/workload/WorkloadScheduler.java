@@ -0,0 +1,240 @@
+package com.jcq.milvusEncap.workload;
+
+import com.jcq.milvusEncap.config.MilvusWorkloadProperties;
+import com.jcq.milvusEncap.exception.ServiceException;
+import com.jcq.milvusEncap.exception.enums.ErrorCodeConstants;
+import com.jcq.milvusEncap.monitor.MilvusMetrics;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 按负载类别的准入调度：共享容量 capacity，每个类别的并发不超过各自的配额；容量或配额用满时请求排队，
+ * 有请求结束后按加权公平（start-time fair queuing）选择下一个类别
+ *
+ * <ul>
+ *     <li>每次准入给该类别的虚拟时间增加 1/weight，排队时优先选择虚拟时间最小的类别，长期来看各类别获得的执行次数与权重成正比</li>
+ *     <li>类别从空闲变为活跃时虚拟时间至少追到当前系统虚拟时间，空闲期间不积攒额度，避免恢复后突发占满容量</li>
+ *     <li>批量类别的配额小于容量，即使批量任务占满自己的配额，在线请求仍有剩余容量可用</li>
+ *     <li>等待超过 waitTimeoutMs 时以 MILVUS_OVERLOADED 拒绝</li>
+ * </ul>
+ *
+ * <p>每个类别使用连接池中单独的 key（milvus.client-key + 后缀），客户端与 gRPC 连接互不共享，
+ * 批量写入的大请求不会与在线请求排在同一条连接上</p>
+ *
+ * @author : jucunqi
+ * @since : 2025/10/16
+ */
+@Component
+public class WorkloadScheduler {
+
+    /**
+     * 未开启调度时使用的许可，不做任何事
+     */
+    private static final Permit UNLIMITED = () -> {
+    };
+
+    private final boolean enabled;
+    private final int capacity;
+    private final long waitTimeoutNanos;
+    private final MilvusMetrics milvusMetrics;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<WorkloadClass, ClassState> states = new EnumMap<>(WorkloadClass.class);
+    // 以下字段由 lock 保护
+    private int inUse;
+    private double systemVirtualTime;
+
+    public WorkloadScheduler(MilvusWorkloadProperties properties, MilvusMetrics milvusMetrics) {
+        this.enabled = properties.isEnabled();
+        this.capacity = Math.max(properties.getCapacity(), 1);
+        this.waitTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(properties.getWaitTimeoutMs());
+        this.milvusMetrics = milvusMetrics;
+        for (WorkloadClass workloadClass : WorkloadClass.values()) {
+            MilvusWorkloadProperties.ClassQuota quota = properties.getQuota(workloadClass);
+            ClassState state = new ClassState(workloadClass, Math.max(quota.getMaxConcurrency(), 1),
+                    Math.max(quota.getWeight(), 1));
+            states.put(workloadClass, state);
+            if (enabled) {
+                milvusMetrics.bindWorkload(workloadClass.getMetricName(), () -> inUse(state), () -> queued(state));
+            }
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 负载类别使用的连接池 key，未开启时所有类别都使用 clientKey
+     */
+    public String poolKey(String clientKey, WorkloadClass workloadClass) {
+        if (!enabled || workloadClass == null) {
+            return clientKey;
+        }
+        return clientKey + workloadClass.getPoolKeySuffix();
+    }
+
+    /**
+     * 获取执行机会，容量或配额用满时排队等待
+     * @throws ServiceException 等待超时（MILVUS_OVERLOADED）
+     * @throws InterruptedException 等待期间线程被中断
+     */
+    public Permit acquire(WorkloadClass workloadClass) throws InterruptedException {
+        if (!enabled) {
+            return UNLIMITED;
+        }
+        ClassState state = states.get(workloadClass == null ? WorkloadClass.INTERACTIVE : workloadClass);
+        long start = System.nanoTime();
+        lock.lock();
+        try {
+            if (state.queue.isEmpty() && canAdmit(state)) {
+                admit(state);
+            } else {
+                await(state);
+            }
+        } finally {
+            lock.unlock();
+        }
+        milvusMetrics.recordWorkloadWait(state.workloadClass.getMetricName(), System.nanoTime() - start);
+        return () -> release(state);
+    }
+
+    private void await(ClassState state) throws InterruptedException {
+        Waiter waiter = new Waiter(lock.newCondition());
+        state.queue.addLast(waiter);
+        long remaining = waitTimeoutNanos;
+        try {
+            while (!waiter.admitted) {
+                if (remaining <= 0) {
+                    state.queue.remove(waiter);
+                    milvusMetrics.recordWorkloadRejected(state.workloadClass.getMetricName());
+                    throw new ServiceException(ErrorCodeConstants.MILVUS_OVERLOADED);
+                }
+                remaining = waiter.condition.awaitNanos(remaining);
+            }
+        } catch (InterruptedException e) {
+            if (waiter.admitted) {
+                // 已经分配了执行机会，交还给其他等待者
+                release(state);
+            } else {
+                state.queue.remove(waiter);
+            }
+            throw e;
+        }
+    }
+
+    private void release(ClassState state) {
+        lock.lock();
+        try {
+            inUse--;
+            state.inUse--;
+            dispatch();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 按虚拟时间从小到大把空出的容量分配给排队的类别
+     */
+    private void dispatch() {
+        while (inUse < capacity) {
+            ClassState next = null;
+            for (ClassState state : states.values()) {
+                if (!state.queue.isEmpty() && state.inUse < state.maxConcurrency
+                        && (next == null || state.virtualTime < next.virtualTime)) {
+                    next = state;
+                }
+            }
+            if (next == null) {
+                return;
+            }
+            Waiter waiter = next.queue.pollFirst();
+            admit(next);
+            waiter.admitted = true;
+            waiter.condition.signal();
+        }
+    }
+
+    private boolean canAdmit(ClassState state) {
+        return inUse < capacity && state.inUse < state.maxConcurrency;
+    }
+
+    private void admit(ClassState state) {
+        if (state.inUse == 0 && state.queue.isEmpty()) {
+            // 从空闲变为活跃，不使用空闲期间积攒的额度
+            state.virtualTime = Math.max(state.virtualTime, systemVirtualTime);
+        }
+        systemVirtualTime = Math.max(systemVirtualTime, state.virtualTime);
+        state.virtualTime += 1.0 / state.weight;
+        inUse++;
+        state.inUse++;
+    }
+
+    private int inUse(ClassState state) {
+        lock.lock();
+        try {
+            return state.inUse;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int queued(ClassState state) {
+        lock.lock();
+        try {
+            return state.queue.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 一次执行机会，执行结束后必须调用 {@link #close()}
+     */
+    @FunctionalInterface
+    public interface Permit extends AutoCloseable {
+
+        @Override
+        void close();
+
+    }
+
+    /**
+     * 一个类别的调度状态，由 lock 保护
+     */
+    private static final class ClassState {
+
+        private final WorkloadClass workloadClass;
+        private final int maxConcurrency;
+        private final int weight;
+        private final Deque<Waiter> queue = new ArrayDeque<>();
+        private int inUse;
+        private double virtualTime;
+
+        private ClassState(WorkloadClass workloadClass, int maxConcurrency, int weight) {
+            this.workloadClass = workloadClass;
+            this.maxConcurrency = maxConcurrency;
+            this.weight = weight;
+        }
+
+    }
+
+    private static final class Waiter {
+
+        private final Condition condition;
+        private boolean admitted;
+
+        private Waiter(Condition condition) {
+            this.condition = condition;
+        }
+
+    }
+
+}
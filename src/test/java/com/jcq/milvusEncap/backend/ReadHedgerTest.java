@@ -0,0 +1,178 @@
+package com.jcq.milvusEncap.backend;
+
+import com.jcq.milvusEncap.service.milvus.MilvusOperation;
+import io.grpc.Context;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 验证对冲延迟的统计、对冲请求胜出后取消第一个请求并按第一个请求的截断耗时记录样本、预算限制与第一个请求失败时的处理
+ */
+public class ReadHedgerTest {
+
+    private static final long MIN_DELAY_NANOS = TimeUnit.MILLISECONDS.toNanos(20);
+
+    private final List<String> outcomes = new CopyOnWriteArrayList<>();
+    private ReadHedger hedger;
+
+    @AfterEach
+    public void tearDown() {
+        if (hedger != null) {
+            hedger.close();
+        }
+    }
+
+    @Test
+    public void noHedgeUntilEnoughSamples() throws Exception {
+        hedger = new ReadHedger(0.95, MIN_DELAY_NANOS, 100);
+        assertEquals(-1, hedger.delayNanos(MilvusOperation.QUERY));
+        warmUp(MilvusOperation.QUERY);
+        // 样本延迟都很小，取下限
+        assertEquals(MIN_DELAY_NANOS, hedger.delayNanos(MilvusOperation.QUERY));
+        // 每类操作单独统计
+        assertEquals(-1, hedger.delayNanos(MilvusOperation.SEARCH));
+        assertTrue(outcomes.isEmpty());
+    }
+
+    @Test
+    public void hedgeWinsAndCancelsPrimary() throws Exception {
+        hedger = new ReadHedger(0.95, MIN_DELAY_NANOS, 100);
+        warmUp(MilvusOperation.SEARCH);
+        AtomicReference<Throwable> cancelCause = new AtomicReference<>();
+
+        ReadHedger.Result<String> result = hedger.call(MilvusOperation.SEARCH, () -> {
+            // 模拟卡住的请求，直到被取消
+            awaitCancelled();
+            cancelCause.set(Context.current().cancellationCause());
+            throw new IllegalStateException("cancelled");
+        }, () -> "hedge", outcomes::add);
+
+        assertEquals("hedge", result.value());
+        assertTrue(result.hedged());
+        assertTrue(result.hedgeWon());
+        assertInstanceOf(TimeoutException.class, cancelCause.get());
+        assertEquals(List.of(ReadHedger.SENT, ReadHedger.WON), outcomes);
+    }
+
+    @Test
+    public void hedgeWinRecordsCensoredPrimaryLatency() throws Exception {
+        hedger = new ReadHedger(0.95, MIN_DELAY_NANOS, 100);
+        warmUp(MilvusOperation.SEARCH);
+        long hedgeMillis = 10;
+
+        // 64 个请求都由对冲请求胜出，第一个请求截至胜出时已耗时 >= 对冲延迟 + 对冲请求耗时
+        for (int i = 0; i < 64; i++) {
+            ReadHedger.Result<String> result = hedger.call(MilvusOperation.SEARCH, () -> {
+                awaitCancelled();
+                throw new IllegalStateException("cancelled");
+            }, () -> {
+                Thread.sleep(hedgeMillis);
+                return "hedge";
+            }, outcomes::add);
+            assertTrue(result.hedgeWon());
+        }
+
+        // 只记录对冲请求自身的延迟时分位数仍为下限
+        long delay = hedger.delayNanos(MilvusOperation.SEARCH);
+        assertTrue(delay >= MIN_DELAY_NANOS + TimeUnit.MILLISECONDS.toNanos(hedgeMillis), () -> "delay " + delay);
+    }
+
+    @Test
+    public void fastPrimaryCancelsHedge() throws Exception {
+        hedger = new ReadHedger(0.95, MIN_DELAY_NANOS, 100);
+        warmUp(MilvusOperation.QUERY);
+        AtomicReference<Throwable> hedgeCancelCause = new AtomicReference<>();
+        CountDownLatch hedgeStarted = new CountDownLatch(1);
+
+        ReadHedger.Result<String> result = hedger.call(MilvusOperation.QUERY, () -> {
+            // 等对冲请求开始执行后再返回
+            hedgeStarted.await(5, TimeUnit.SECONDS);
+            return "primary";
+        }, () -> {
+            hedgeStarted.countDown();
+            awaitCancelled();
+            hedgeCancelCause.set(Context.current().cancellationCause());
+            throw new IllegalStateException("cancelled");
+        }, outcomes::add);
+
+        assertEquals("primary", result.value());
+        assertTrue(result.hedged());
+        assertFalse(result.hedgeWon());
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (hedgeCancelCause.get() == null && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertInstanceOf(TimeoutException.class, hedgeCancelCause.get());
+        assertEquals(List.of(ReadHedger.SENT), outcomes);
+    }
+
+    @Test
+    public void budgetLimitsHedges() throws Exception {
+        hedger = new ReadHedger(0.95, MIN_DELAY_NANOS, 0);
+        warmUp(MilvusOperation.QUERY);
+
+        ReadHedger.Result<String> result = hedger.call(MilvusOperation.QUERY, () -> {
+            Thread.sleep(100);
+            return "primary";
+        }, () -> "hedge", outcomes::add);
+
+        assertEquals("primary", result.value());
+        assertFalse(result.hedged());
+        assertEquals(List.of(ReadHedger.REJECTED), outcomes);
+    }
+
+    @Test
+    public void primaryFailureWaitsForHedge() throws Exception {
+        hedger = new ReadHedger(0.95, MIN_DELAY_NANOS, 100);
+        warmUp(MilvusOperation.QUERY);
+
+        ReadHedger.Result<String> result = hedger.call(MilvusOperation.QUERY, () -> {
+            Thread.sleep(100);
+            throw new IllegalStateException("primary failed");
+        }, () -> {
+            Thread.sleep(200);
+            return "hedge";
+        }, outcomes::add);
+        assertEquals("hedge", result.value());
+        assertTrue(result.hedgeWon());
+
+        // 两个请求都失败时抛出第一个请求的异常
+        IllegalStateException error = assertThrows(IllegalStateException.class, () -> hedger.call(MilvusOperation.QUERY, () -> {
+            Thread.sleep(100);
+            throw new IllegalStateException("primary failed");
+        }, () -> {
+            throw new IllegalArgumentException("hedge failed");
+        }, outcomes::add));
+        assertEquals("primary failed", error.getMessage());
+        assertInstanceOf(IllegalArgumentException.class, error.getSuppressed()[0]);
+    }
+
+    private void warmUp(MilvusOperation operation) throws Exception {
+        Callable<String> fast = () -> "fast";
+        for (int i = 0; i < 128; i++) {
+            hedger.call(operation, fast, fast, outcomes::add);
+        }
+    }
+
+    private static void awaitCancelled() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!Context.current().isCancelled() && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+    }
+
+}
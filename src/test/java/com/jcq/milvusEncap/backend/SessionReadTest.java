@@ -0,0 +1,153 @@
+package com.jcq.milvusEncap.backend;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.jcq.milvusEncap.session.MilvusSession;
+import com.jcq.milvusEncap.standin.MilvusStandInServer;
+import io.milvus.common.utils.GTsDict;
+import io.milvus.v2.client.ConnectConfig;
+import io.milvus.v2.client.MilvusClientV2;
+import io.milvus.v2.common.ConsistencyLevel;
+import io.milvus.v2.common.DataType;
+import io.milvus.v2.common.IndexParam;
+import io.milvus.v2.service.collection.request.AddFieldReq;
+import io.milvus.v2.service.collection.request.CreateCollectionReq;
+import io.milvus.v2.service.vector.request.InsertReq;
+import io.milvus.v2.service.vector.request.QueryReq;
+import io.milvus.v2.service.vector.request.SearchReq;
+import io.milvus.v2.service.vector.request.data.FloatVec;
+import io.milvus.v2.service.vector.response.QueryResp;
+import io.milvus.v2.service.vector.response.SearchResp;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 验证会话记录写入时间戳，以及带保证时间戳的查询与检索
+ */
+public class SessionReadTest {
+
+    private static final String COLLECTION = "session_read_test";
+    private static final int DIM = 4;
+
+    private MilvusStandInServer server;
+    private MilvusClientV2 client;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        server = new MilvusStandInServer("stand-in").start();
+        client = new MilvusClientV2(ConnectConfig.builder().uri(server.getUri()).build());
+
+        CreateCollectionReq.CollectionSchema schema = CreateCollectionReq.CollectionSchema.builder().build();
+        schema.addField(AddFieldReq.builder().fieldName("id").dataType(DataType.Int64).isPrimaryKey(true)
+                .autoID(true).build());
+        schema.addField(AddFieldReq.builder().fieldName("name").dataType(DataType.VarChar).maxLength(64).build());
+        schema.addField(AddFieldReq.builder().fieldName("vector").dataType(DataType.FloatVector).dimension(DIM).build());
+        client.createCollection(CreateCollectionReq.builder()
+                .collectionName(COLLECTION)
+                .collectionSchema(schema)
+                .indexParams(Collections.singletonList(IndexParam.builder().fieldName("vector")
+                        .indexType(IndexParam.IndexType.HNSW).metricType(IndexParam.MetricType.COSINE).build()))
+                .build());
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        client.close();
+        server.close();
+    }
+
+    @Test
+    public void sessionKeepsLatestWritePerCollection() {
+        MilvusSession session = MilvusSession.open();
+        session.recordWrite("samples", 200);
+        session.recordWrite("samples", 100);
+        session.recordWrite("samples", 0);
+        session.recordWrite("tenant_a.samples", 300);
+        assertEquals(200, session.guaranteeTimestamp("samples"));
+        assertEquals(300, session.guaranteeTimestamp("tenant_a.samples"));
+        assertEquals(0, session.guaranteeTimestamp("other"));
+
+        MilvusSession inner = MilvusSession.open();
+        try (MilvusSession.Scope ignored = session.use()) {
+            try (MilvusSession.Scope nested = inner.use()) {
+                assertSame(inner, MilvusSession.current());
+            }
+            assertSame(session, MilvusSession.current());
+        }
+        assertNull(MilvusSession.current());
+    }
+
+    @Test
+    public void sdkWritesRecordCollectionTimestamp() {
+        long before = System.currentTimeMillis() << 18;
+        insert("a", "b");
+        Long timestamp = GTsDict.getInstance().getCollectionTs(COLLECTION);
+        assertTrue(timestamp != null && timestamp >= before);
+    }
+
+    @Test
+    public void guaranteedQuerySendsTimestamp() {
+        insert("a", "b", "c");
+        QueryReq request = QueryReq.builder()
+                .collectionName(COLLECTION)
+                .filter("name != \"b\"")
+                .consistencyLevel(ConsistencyLevel.SESSION)
+                .outputFields(List.of("name"))
+                .build();
+        QueryResp resp = RemoteMilvusBackend.queryWithGuarantee(client, request, 12345L);
+        assertEquals(12345L, server.getLastGuaranteeTimestamp());
+        List<Object> names = new ArrayList<>();
+        resp.getQueryResults().forEach(result -> names.add(result.getEntity().get("name")));
+        assertEquals(List.of("a", "c"), names);
+
+        // 不带保证时间戳的 SDK 查询
+        client.query(request);
+        assertEquals(0L, server.getLastGuaranteeTimestamp());
+    }
+
+    @Test
+    public void guaranteedSearchDoesNotLeakTimestamp() {
+        insert("a", "b");
+        Long before = GTsDict.getInstance().getCollectionTs(COLLECTION);
+        long sessionTs = before + 1000;
+        SearchReq request = SearchReq.builder()
+                .collectionName(COLLECTION)
+                .annsField("vector")
+                .data(List.of(new FloatVec(new float[]{1f, 1f, 1f, 1f})))
+                .topK(5)
+                .consistencyLevel(ConsistencyLevel.SESSION)
+                .outputFields(List.of("name"))
+                .build();
+        SearchResp resp = RemoteMilvusBackend.searchWithGuarantee(client, request, sessionTs);
+        assertEquals(sessionTs, server.getLastGuaranteeTimestamp());
+        assertEquals(2, resp.getSearchResults().get(0).size());
+        // 会话的时间戳只随本次请求发送，不影响进程内其他 SESSION 检索
+        assertEquals(before, GTsDict.getInstance().getCollectionTs(COLLECTION));
+    }
+
+    private void insert(String... names) {
+        List<JsonObject> data = new ArrayList<>();
+        for (String name : names) {
+            JsonObject row = new JsonObject();
+            row.addProperty("name", name);
+            JsonArray vector = new JsonArray();
+            for (int i = 0; i < DIM; i++) {
+                vector.add(1f);
+            }
+            row.add("vector", vector);
+            data.add(row);
+        }
+        client.insert(InsertReq.builder().collectionName(COLLECTION).data(data).build());
+    }
+
+}
@@ -0,0 +1,204 @@
+package com.jcq.milvusEncap.backend.embedded;
+
+import com.google.gson.JsonObject;
+import com.jcq.milvusEncap.codec.MilvusRowValues;
+import com.jcq.milvusEncap.schema.EntitySchema;
+import io.milvus.v2.common.DataType;
+import io.milvus.v2.common.IndexParam;
+import io.milvus.v2.service.collection.request.AddFieldReq;
+import io.milvus.v2.service.collection.request.CreateCollectionReq;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 验证嵌入式集合的 HNSW 召回率、标量过滤、覆盖写入后的压缩与快照恢复
+ */
+public class EmbeddedCollectionTest {
+
+    private static final int DIM = 32;
+
+    @TempDir
+    Path dataDir;
+
+    @Test
+    public void hnswRecall() throws Exception {
+        for (IndexParam.MetricType metric : List.of(IndexParam.MetricType.COSINE, IndexParam.MetricType.L2)) {
+            EmbeddedCollection graph = collection(metric, 0);
+            EmbeddedCollection exact = collection(metric, Integer.MAX_VALUE);
+            Random random = new Random(7);
+            List<JsonObject> rows = rows(random, 3000);
+            graph.insert(rows);
+            exact.insert(rows);
+
+            int found = 0;
+            int total = 0;
+            for (int q = 0; q < 50; q++) {
+                float[] query = vector(random);
+                // 两个集合各自生成主键，按 name 比较
+                Set<Object> expected = new HashSet<>();
+                exact.search(query, null, "", 10, 0, 0, List.of("name")).forEach(hit -> expected.add(hit.entity().get("name")));
+                for (EmbeddedCollection.Hit hit : graph.search(query, null, "", 10, 0, 0, List.of("name"))) {
+                    if (expected.contains(hit.entity().get("name"))) {
+                        found++;
+                    }
+                }
+                total += expected.size();
+            }
+            assertTrue(found >= total * 0.9, metric + " recall@10 = " + found / (double) total);
+        }
+    }
+
+    @Test
+    public void filterAndPrimaryKeyLookup() throws Exception {
+        EmbeddedCollection collection = collection(IndexParam.MetricType.COSINE, 1024);
+        List<Long> ids = collection.insert(rows(new Random(1), 20));
+        assertEquals(20, ids.size());
+
+        List<Map<String, Object>> byId = collection.query(null, "id==" + ids.get(3), 0, 1, List.of("*"));
+        assertEquals(1, byId.size());
+        assertEquals("row-3", byId.get(0).get("name"));
+        assertEquals(DIM, ((float[]) byId.get(0).get("vector")).length);
+
+        assertEquals(10, collection.count("agent_id == 1"));
+        assertEquals(2, collection.count("id in [" + ids.get(0) + ", " + ids.get(1) + "]"));
+        assertEquals(6, collection.count("agent_id == 0 and name like \"row-1%\" or name == \"row-2\""));
+        assertEquals(2, collection.query(null, "agent_id == 1", 3, 2, List.of("name")).size());
+
+        float[] target = (float[]) collection.query(null, "id==" + ids.get(5), 0, 1, List.of("vector")).get(0).get("vector");
+        List<EmbeddedCollection.Hit> hits = collection.search(target, null, "agent_id == 1", 3, 0, 0, List.of("*"));
+        assertEquals(ids.get(5), hits.get(0).primaryKey());
+        assertEquals(1f, hits.get(0).score(), 1e-5);
+        hits.forEach(hit -> assertEquals(1L, hit.entity().get("agent_id")));
+
+        assertEquals(2, collection.delete(List.of(ids.get(0), ids.get(1)), null));
+        assertEquals(3, collection.delete(null, "agent_id == 1 and name in [\"row-3\", \"row-5\", \"row-7\"]"));
+        assertEquals(15, collection.count(""));
+        assertTrue(collection.query(null, "id==" + ids.get(0), 0, 1, List.of()).isEmpty());
+
+        assertThrows(IllegalArgumentException.class, () -> collection.count("missing == 1"));
+    }
+
+    @Test
+    public void snapshotRoundTrip() throws Exception {
+        EmbeddedCollection collection = collection(IndexParam.MetricType.COSINE, 0);
+        Random random = new Random(3);
+        List<Long> ids = collection.insert(rows(random, 500));
+        collection.delete(ids.subList(0, 50), null);
+        assertTrue(collection.isDirty());
+        assertEquals(500, collection.nodeCount());
+
+        Path file = CollectionSnapshot.file(dataDir, collection.getName());
+        CollectionSnapshot.save(collection, file);
+        assertFalse(collection.isDirty());
+
+        EmbeddedCollection restored = new EmbeddedCollection(schema(IndexParam.MetricType.COSINE),
+                (name, dim) -> VectorStorage.mmap(dim, dataDir.resolve(name + ".vectors")), 64, 0, 0.3);
+        assertTrue(CollectionSnapshot.restore(restored, file));
+        assertEquals(450, restored.size());
+        // 快照前压缩，快照中不含已删除的节点
+        assertEquals(450, collection.nodeCount());
+        assertEquals(450, restored.nodeCount());
+        assertEquals(collection.query(null, "", 0, 0, List.of("*")).size(), restored.query(null, "", 0, 0, List.of("*")).size());
+
+        float[] query = vector(random);
+        List<EmbeddedCollection.Hit> before = collection.search(query, null, "agent_id == 0", 10, 0, 0, List.of());
+        List<EmbeddedCollection.Hit> after = restored.search(query, null, "agent_id == 0", 10, 0, 0, List.of());
+        assertEquals(before.stream().map(EmbeddedCollection.Hit::primaryKey).toList(),
+                after.stream().map(EmbeddedCollection.Hit::primaryKey).toList());
+
+        Map<String, Object> original = collection.query(null, "id==" + ids.get(60), 0, 1, List.of("*")).get(0);
+        Map<String, Object> copy = restored.query(null, "id==" + ids.get(60), 0, 1, List.of("*")).get(0);
+        assertEquals(original.get("name"), copy.get("name"));
+        assertArrayEquals((float[]) original.get("vector"), (float[]) copy.get("vector"), 1e-6f);
+
+        // 恢复后继续写入，主键不与快照中的重复
+        long next = restored.insert(rows(random, 1)).get(0);
+        assertTrue(next > ids.get(ids.size() - 1));
+    }
+
+    @Test
+    public void upsertsCompactDeletedNodes() throws Exception {
+        EmbeddedCollection collection = new EmbeddedCollection(schema(IndexParam.MetricType.L2, false),
+                (name, dim) -> VectorStorage.offHeap(dim), 64, 0, 0.3);
+        Random random = new Random(11);
+        int keys = 200;
+        List<JsonObject> last = null;
+        for (int round = 0; round < 30; round++) {
+            last = rows(random, keys);
+            for (int i = 0; i < keys; i++) {
+                last.get(i).addProperty("id", (long) i);
+            }
+            collection.insert(last);
+            assertEquals(keys, collection.size());
+            // 已删除节点不超过 30%，节点数有上界
+            assertTrue(collection.nodeCount() <= keys / 0.7 + 1, "nodes = " + collection.nodeCount());
+        }
+
+        // 压缩重建后检索与查询仍然返回最新写入的数据
+        for (int i = 0; i < 20; i++) {
+            float[] query = new float[DIM];
+            for (int d = 0; d < DIM; d++) {
+                query[d] = last.get(i).getAsJsonArray("vector").get(d).getAsFloat();
+            }
+            List<EmbeddedCollection.Hit> hits = collection.search(query, null, "", 1, 0, 0, List.of("name"));
+            assertEquals(i, hits.get(0).primaryKey());
+            assertEquals(0f, hits.get(0).score(), 1e-4);
+        }
+        assertEquals("row-7", collection.query(null, "id == 7", 0, 1, List.of("name")).get(0).get("name"));
+    }
+
+    private static EmbeddedCollection collection(IndexParam.MetricType metric, int bruteForceThreshold) throws Exception {
+        return new EmbeddedCollection(schema(metric), (name, dim) -> VectorStorage.offHeap(dim), 64, bruteForceThreshold, 0.3);
+    }
+
+    private static EntitySchema schema(IndexParam.MetricType metric) {
+        return schema(metric, true);
+    }
+
+    private static EntitySchema schema(IndexParam.MetricType metric, boolean autoId) {
+        CreateCollectionReq.CollectionSchema schema = CreateCollectionReq.CollectionSchema.builder().build();
+        schema.addField(AddFieldReq.builder().fieldName("id").dataType(DataType.Int64).isPrimaryKey(true)
+                .autoID(autoId).build());
+        schema.addField(AddFieldReq.builder().fieldName("agent_id").dataType(DataType.Int64).build());
+        schema.addField(AddFieldReq.builder().fieldName("name").dataType(DataType.VarChar).maxLength(64).build());
+        schema.addField(AddFieldReq.builder().fieldName("vector").dataType(DataType.FloatVector).dimension(DIM).build());
+        IndexParam index = IndexParam.builder().fieldName("vector").indexType(IndexParam.IndexType.HNSW)
+                .metricType(metric).extraParams(Map.of("M", 16, "efConstruction", 100)).build();
+        return new EntitySchema(Object.class, "embedded_test", schema, List.of(index), null);
+    }
+
+    private static List<JsonObject> rows(Random random, int count) {
+        List<JsonObject> rows = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            JsonObject row = new JsonObject();
+            row.addProperty("agent_id", i % 2);
+            row.addProperty("name", "row-" + i);
+            row.add("vector", MilvusRowValues.toJsonArray(vector(random)));
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    private static float[] vector(Random random) {
+        float[] vector = new float[DIM];
+        for (int i = 0; i < DIM; i++) {
+            vector[i] = (float) random.nextGaussian();
+        }
+        return vector;
+    }
+
+}
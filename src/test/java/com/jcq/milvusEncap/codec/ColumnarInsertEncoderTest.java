@@ -0,0 +1,168 @@
+package com.jcq.milvusEncap.codec;
+
+import com.google.gson.JsonObject;
+import com.jcq.milvusEncap.annotation.CollectionName;
+import com.jcq.milvusEncap.annotation.PrimaryKey;
+import com.jcq.milvusEncap.annotation.VectorField;
+import com.jcq.milvusEncap.schema.EntitySchemaResolver;
+import com.jcq.milvusEncap.vector.HalfFloats;
+import io.milvus.grpc.FieldData;
+import io.milvus.grpc.InsertRequest;
+import io.milvus.v2.common.DataType;
+import io.milvus.v2.service.collection.response.DescribeCollectionResp;
+import io.milvus.v2.utils.DataUtils;
+import lombok.Data;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 验证列式编码的结果与 SDK 按行转换得到的 gRPC 请求一致，以及回退为按行编码的情况
+ */
+public class ColumnarInsertEncoderTest {
+
+    private static final String COLLECTION = "columnar_test";
+
+    @Data
+    @CollectionName(COLLECTION)
+    public static class ColumnarDO {
+        @PrimaryKey(type = "manual")
+        private Long id;
+        private Integer agentId;
+        private double score;
+        private Boolean enabled;
+        private String name;
+        @VectorField(dim = 4)
+        private float[] embedding;
+    }
+
+    @Data
+    @CollectionName("columnar_half_test")
+    public static class HalfDO {
+        @PrimaryKey
+        private Long id;
+        @VectorField(dim = 2, dataType = DataType.BFloat16Vector)
+        private short[] embedding;
+    }
+
+    @Data
+    @CollectionName("columnar_json_test")
+    public static class JsonDO {
+        @PrimaryKey
+        private Long id;
+        private Map<String, Object> extra;
+        @VectorField(dim = 2)
+        private float[] embedding;
+    }
+
+    @Test
+    public void columnsMatchSdkRowConversion() {
+        List<ColumnarDO> entities = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            entities.add(entity(i));
+        }
+        ColumnarInsertEncoder<ColumnarDO> encoder = ColumnarInsertEncoder.of(MilvusEntityCodecs.metadata(ColumnarDO.class));
+        ColumnarInsertBatch batch = encoder.encode(COLLECTION, entities);
+        assertTrue(batch.isColumnar());
+        assertEquals(5, batch.getRowCount());
+
+        InsertRequest columnar = batch.toInsertRequest();
+        InsertRequest sdk = sdkRequest(ColumnarDO.class, batch);
+        assertEquals(5, columnar.getNumRows());
+        assertEquals(sdk.getFieldsDataCount(), columnar.getFieldsDataCount());
+        for (FieldData expected : sdk.getFieldsDataList()) {
+            FieldData actual = column(columnar, expected.getFieldName());
+            assertEquals(expected.getType(), actual.getType(), expected.getFieldName());
+            assertEquals(expected.getScalars(), actual.getScalars(), expected.getFieldName());
+            assertEquals(expected.getVectors(), actual.getVectors(), expected.getFieldName());
+        }
+    }
+
+    @Test
+    public void autoIdAndHalfVectors() {
+        HalfDO entity = new HalfDO();
+        entity.setId(99L);
+        entity.setEmbedding(new short[]{HalfFloats.toBFloat16(1.5f), HalfFloats.toBFloat16(-2f)});
+
+        ColumnarInsertBatch batch = ColumnarInsertEncoder.of(MilvusEntityCodecs.metadata(HalfDO.class))
+                .encode("columnar_half_test", List.of(entity, entity));
+        InsertRequest columnar = batch.toInsertRequest();
+        // 自增主键不输出，实体本身也不被修改
+        assertEquals(1, columnar.getFieldsDataCount());
+        assertEquals(99L, entity.getId());
+
+        InsertRequest sdk = sdkRequest(HalfDO.class, batch);
+        assertEquals(column(sdk, "embedding").getVectors(), column(columnar, "embedding").getVectors());
+    }
+
+    @Test
+    public void fallsBackToRows() {
+        // 存在 null 值时整批按行编码，行数据与单条插入一致
+        ColumnarDO withNull = entity(1);
+        withNull.setName(null);
+        ColumnarInsertEncoder<ColumnarDO> encoder = ColumnarInsertEncoder.of(MilvusEntityCodecs.metadata(ColumnarDO.class));
+        ColumnarInsertBatch batch = encoder.encode(COLLECTION, List.of(entity(0), withNull));
+        assertFalse(batch.isColumnar());
+        assertThrows(IllegalStateException.class, batch::toInsertRequest);
+        JsonObject row = batch.toInsertReq().getData().get(1);
+        assertFalse(row.has("name"));
+        assertEquals(1, row.get("agent_id").getAsInt());
+
+        // JSON 字段不支持按列编码
+        ColumnarInsertEncoder<JsonDO> jsonEncoder = ColumnarInsertEncoder.of(MilvusEntityCodecs.metadata(JsonDO.class));
+        assertFalse(jsonEncoder.isColumnar());
+        JsonDO json = new JsonDO();
+        json.setExtra(Map.of("k", 1));
+        json.setEmbedding(new float[]{1, 2});
+        assertFalse(jsonEncoder.encode("columnar_json_test", List.of(json)).isColumnar());
+    }
+
+    @Test
+    public void rejectsDimensionMismatch() {
+        ColumnarDO entity = entity(0);
+        entity.setEmbedding(new float[]{1, 2, 3});
+        ColumnarInsertEncoder<ColumnarDO> encoder = ColumnarInsertEncoder.of(MilvusEntityCodecs.metadata(ColumnarDO.class));
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+                () -> encoder.encode(COLLECTION, List.of(entity(1), entity)));
+        assertTrue(error.getMessage().contains("第2条"));
+    }
+
+    private static ColumnarDO entity(int i) {
+        ColumnarDO entity = new ColumnarDO();
+        entity.setId(1000L + i);
+        entity.setAgentId(i % 3);
+        entity.setScore(i * 0.25);
+        entity.setEnabled(i % 2 == 0);
+        entity.setName("row-" + i);
+        entity.setEmbedding(new float[]{i, i + 0.5f, -i, 1f / (i + 1)});
+        return entity;
+    }
+
+    /**
+     * SDK 将 JsonObject 行数据转换为 gRPC 请求的结果
+     */
+    private static InsertRequest sdkRequest(Class<?> entityClass, ColumnarInsertBatch batch) {
+        DescribeCollectionResp describe = DescribeCollectionResp.builder()
+                .collectionName(batch.getCollectionName())
+                .collectionSchema(EntitySchemaResolver.resolve(entityClass).getCollectionSchema())
+                .build();
+        return new DataUtils.InsertBuilderWrapper().convertGrpcInsertRequest(batch.toInsertReq(), describe);
+    }
+
+    private static FieldData column(InsertRequest request, String name) {
+        for (FieldData column : request.getFieldsDataList()) {
+            if (column.getFieldName().equals(name)) {
+                return column;
+            }
+        }
+        throw new AssertionError("缺少列 " + name);
+    }
+
+}
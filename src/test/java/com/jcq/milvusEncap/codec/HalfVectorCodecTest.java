@@ -0,0 +1,81 @@
+package com.jcq.milvusEncap.codec;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.jcq.milvusEncap.annotation.CollectionName;
+import com.jcq.milvusEncap.annotation.PrimaryKey;
+import com.jcq.milvusEncap.annotation.VectorField;
+import com.jcq.milvusEncap.schema.EntitySchema;
+import com.jcq.milvusEncap.schema.EntitySchemaResolver;
+import com.jcq.milvusEncap.vector.HalfFloats;
+import io.milvus.v2.common.DataType;
+import lombok.Data;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * 验证 short[] 半精度向量字段的建表类型、写入格式与结果解码
+ */
+public class HalfVectorCodecTest {
+
+    @Data
+    @CollectionName("half_vector_test")
+    public static class HalfVectorDO {
+        @PrimaryKey(type = "manual")
+        private Long id;
+        @VectorField(dim = 4, dataType = DataType.Float16Vector)
+        private short[] embedding;
+    }
+
+    @Data
+    @CollectionName("half_vector_mismatch")
+    public static class MismatchDO {
+        @PrimaryKey
+        private Long id;
+        @VectorField(dim = 4, dataType = DataType.Float16Vector)
+        private float[] embedding;
+    }
+
+    @Test
+    public void schemaUsesDeclaredHalfType() {
+        EntitySchema schema = EntitySchemaResolver.resolve(HalfVectorDO.class);
+        assertEquals(DataType.Float16Vector, schema.getCollectionSchema().getField("embedding").getDataType());
+        assertEquals("embedding", MilvusEntityCodecs.metadata(HalfVectorDO.class).getVectorColumn());
+        assertThrows(IllegalArgumentException.class, () -> EntitySchemaResolver.resolve(MismatchDO.class));
+    }
+
+    @Test
+    public void codecRoundTrip() {
+        // 使用 codegen 编译时 metadata 为生成的编解码器
+        roundTrip(MilvusEntityCodecs.reflectiveCodec(HalfVectorDO.class));
+        roundTrip(MilvusEntityCodecs.metadata(HalfVectorDO.class).getCodec());
+    }
+
+    private static void roundTrip(MilvusRowCodec<HalfVectorDO> codec) {
+        HalfVectorDO entity = new HalfVectorDO();
+        entity.setId(1L);
+        entity.setEmbedding(HalfFloats.toFloat16(new float[]{1f, -2f, 0.5f, 0f}));
+
+        JsonObject row = codec.toRow(entity);
+        JsonArray bytes = row.getAsJsonArray("embedding");
+        assertEquals(8, bytes.size());
+        byte[] expected = HalfFloats.toBuffer(entity.getEmbedding()).array();
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(expected[i], bytes.get(i).getAsByte());
+        }
+
+        // SDK 以 ByteBuffer 返回半精度向量
+        Map<String, Object> result = new HashMap<>();
+        result.put("id", 1L);
+        result.put("embedding", HalfFloats.toBuffer(entity.getEmbedding()));
+        HalfVectorDO decoded = codec.fromRow(result);
+        assertArrayEquals(entity.getEmbedding(), decoded.getEmbedding());
+    }
+
+}
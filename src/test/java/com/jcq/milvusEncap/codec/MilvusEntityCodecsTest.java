@@ -0,0 +1,202 @@
+package com.jcq.milvusEncap.codec;
+
+import com.google.gson.JsonObject;
+import com.jcq.milvusEncap.annotation.CollectionName;
+import com.jcq.milvusEncap.annotation.PartitionKey;
+import com.jcq.milvusEncap.annotation.PrimaryKey;
+import com.jcq.milvusEncap.annotation.VectorField;
+import com.jcq.milvusEncap.dal.dataobject.agent.SamplesDO;
+import lombok.Data;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 验证注解处理器生成的元数据与编解码器和反射实现的结果一致（使用 codegen 编译时比较的是生成的实现），
+ * 反射编码不修改实体，以及 ServiceLoader 加载失败时回退到反射实现
+ */
+public class MilvusEntityCodecsTest {
+
+    private static final String SERVICE_FILE = "META-INF/services/" + MilvusEntityMetadata.class.getName();
+
+    @Data
+    @CollectionName("client_key_codec")
+    public static class ClientKeyDO {
+        @PrimaryKey(type = "snowflake")
+        private Long sampleId;
+        @PartitionKey
+        private Long tenantId;
+        private String sampleTitle;
+        private Integer sampleRank;
+        private Boolean enabled;
+        private Double score;
+        private int version;
+        @VectorField(dim = 3)
+        private float[] titleVector;
+    }
+
+    @Data
+    @CollectionName("unsupported_codec")
+    public static class UnsupportedDO {
+        @PrimaryKey
+        private Long id;
+        private List<String> tags;
+        private float[] vector;
+    }
+
+    @Test
+    public void generatedMetadataMatchesReflective() {
+        assertSameMetadata(SamplesDO.class, samples());
+        assertSameMetadata(ClientKeyDO.class, clientKey());
+    }
+
+    @Test
+    public void generatedCodecMatchesReflective() {
+        assertSameRows(SamplesDO.class, samples());
+        assertSameRows(ClientKeyDO.class, clientKey());
+
+        Map<String, Object> samplesRow = new HashMap<>();
+        samplesRow.put("sample_id", 11L);
+        samplesRow.put("agent_id", 2L);
+        samplesRow.put("agent_name", "agent");
+        samplesRow.put("sample_question", "问题");
+        samplesRow.put("sample_vector", List.of(0.5f, -1f));
+        samplesRow.put("created_time", 100L);
+        assertSameEntity(SamplesDO.class, samplesRow);
+
+        Map<String, Object> clientKeyRow = new HashMap<>();
+        clientKeyRow.put("sample_id", 7L);
+        clientKeyRow.put("tenant_id", 3L);
+        clientKeyRow.put("sample_title", "title");
+        clientKeyRow.put("sample_rank", 4);
+        clientKeyRow.put("enabled", true);
+        clientKeyRow.put("score", 0.25d);
+        clientKeyRow.put("version", 2);
+        clientKeyRow.put("title_vector", List.of(1f, 2f, 3f));
+        assertSameEntity(ClientKeyDO.class, clientKeyRow);
+        // 缺少的列保持默认值
+        assertSameEntity(ClientKeyDO.class, Map.of("sample_id", 8L));
+    }
+
+    @Test
+    public void reflectiveToRowLeavesEntityUnchanged() {
+        SamplesDO samples = samples();
+        JsonObject row = new ReflectiveRowCodec<>(SamplesDO.class).toRow(samples);
+        assertFalse(row.has("sample_id"));
+        assertEquals(11L, samples.getSampleId());
+
+        ClientKeyDO clientKey = clientKey();
+        row = new ReflectiveRowCodec<>(ClientKeyDO.class).toRow(clientKey);
+        assertEquals(7L, row.get("sample_id").getAsLong());
+        assertEquals(7L, clientKey.getSampleId());
+    }
+
+    @Test
+    public void unsupportedEntityUsesReflectiveCodec() {
+        MilvusEntityMetadata<UnsupportedDO> metadata = MilvusEntityCodecs.metadata(UnsupportedDO.class);
+        assertInstanceOf(ReflectiveRowCodec.class, metadata.getCodec());
+        assertEquals(List.of("id", "tags", "vector"), metadata.getColumnNames());
+    }
+
+    @Test
+    public void serviceLoaderFallsBackWhenProviderIsBroken(@TempDir Path dir) throws Exception {
+        Path serviceFile = dir.resolve(SERVICE_FILE);
+        Files.createDirectories(serviceFile.getParent());
+
+        Files.writeString(serviceFile, StubMetadata.class.getName() + "\n");
+        try (URLClassLoader loader = loader(dir)) {
+            Map<Class<?>, MilvusEntityMetadata<?>> generated = MilvusEntityCodecs.loadGenerated(loader);
+            assertInstanceOf(StubMetadata.class, generated.get(UnannotatedDO.class));
+        }
+
+        // 任意一个生成的类无法加载时整体回退到反射实现
+        Files.writeString(serviceFile, StubMetadata.class.getName() + "\ncom.jcq.milvusEncap.missing.MissingDO_MilvusMetadata\n");
+        try (URLClassLoader loader = loader(dir)) {
+            assertTrue(MilvusEntityCodecs.loadGenerated(loader).isEmpty());
+        }
+    }
+
+    private static <T> void assertSameMetadata(Class<T> entityClass, T entity) {
+        MilvusEntityMetadata<T> metadata = MilvusEntityCodecs.metadata(entityClass);
+        ReflectiveEntityMetadata<T> reflective = new ReflectiveEntityMetadata<>(entityClass);
+        assertEquals(reflective.getEntityClass(), metadata.getEntityClass());
+        assertEquals(reflective.getCollectionName(), metadata.getCollectionName());
+        assertEquals(reflective.getFieldNames(), metadata.getFieldNames());
+        assertEquals(reflective.getColumnNames(), metadata.getColumnNames());
+        assertEquals(reflective.getPrimaryKeyColumn(), metadata.getPrimaryKeyColumn());
+        assertEquals(reflective.isAutoId(), metadata.isAutoId());
+        assertEquals(reflective.getVectorColumn(), metadata.getVectorColumn());
+        assertEquals(reflective.getPartitionKeyColumn(), metadata.getPartitionKeyColumn());
+        assertEquals(reflective.getPrimaryKey(entity), metadata.getPrimaryKey(entity));
+    }
+
+    private static <T> void assertSameRows(Class<T> entityClass, T entity) {
+        JsonObject expected = new ReflectiveRowCodec<>(entityClass).toRow(entity);
+        assertEquals(expected, MilvusEntityCodecs.metadata(entityClass).getCodec().toRow(entity));
+    }
+
+    private static <T> void assertSameEntity(Class<T> entityClass, Map<String, Object> row) {
+        T expected = new ReflectiveRowCodec<>(entityClass).fromRow(row);
+        assertEquals(expected, MilvusEntityCodecs.metadata(entityClass).getCodec().fromRow(row));
+    }
+
+    private static SamplesDO samples() {
+        return SamplesDO.builder()
+                .sampleId(11L)
+                .agentId(2L)
+                .agentName("agent")
+                .sampleQuestion("问题")
+                .sampleAnswer(null)
+                .sampleVector(new float[]{0.5f, -1f})
+                .sampleStatus("1")
+                .createdTime(100L)
+                .build();
+    }
+
+    private static ClientKeyDO clientKey() {
+        ClientKeyDO entity = new ClientKeyDO();
+        entity.setSampleId(7L);
+        entity.setTenantId(3L);
+        entity.setSampleTitle("title");
+        entity.setSampleRank(4);
+        entity.setEnabled(true);
+        entity.setScore(0.25d);
+        entity.setVersion(2);
+        entity.setTitleVector(new float[]{1f, 2f, 3f});
+        return entity;
+    }
+
+    private static URLClassLoader loader(Path dir) throws Exception {
+        return new URLClassLoader(new URL[]{dir.toUri().toURL()}, MilvusEntityCodecsTest.class.getClassLoader());
+    }
+
+    /**
+     * 没有 @CollectionName 的实体，注解处理器不会为它生成元数据
+     */
+    public static class UnannotatedDO {
+    }
+
+    /**
+     * 通过临时的 META-INF/services 文件注册的元数据
+     */
+    public static class StubMetadata extends ReflectiveEntityMetadata<UnannotatedDO> {
+
+        public StubMetadata() {
+            super(UnannotatedDO.class);
+        }
+
+    }
+
+}
@@ -0,0 +1,165 @@
+package com.jcq.milvusEncap.controller.samples;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONObject;
+import com.jcq.milvusEncap.config.MilvusTenantProperties;
+import com.jcq.milvusEncap.service.milvus.samples.SamplesService;
+import com.jcq.milvusEncap.session.MilvusSession;
+import com.jcq.milvusEncap.tenant.MilvusTenant;
+import com.jcq.milvusEncap.tenant.MilvusTenantFilter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+/**
+ * 验证流式导出的 NDJSON 行格式、gzip 协商、导出请求单独的异步超时以及租户与会话传递到写出线程
+ */
+public class SamplesControllerExportTest {
+
+    private final AtomicReference<String> exportTenant = new AtomicReference<>();
+    private final AtomicReference<MilvusSession> exportSession = new AtomicReference<>();
+    private final AtomicReference<Thread> exportThread = new AtomicReference<>();
+    private SamplesController controller;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        SamplesService samplesService = Mockito.mock(SamplesService.class);
+        Mockito.when(samplesService.exportSamples(any(), any())).thenAnswer(invocation -> {
+            exportTenant.set(MilvusTenant.current());
+            exportSession.set(MilvusSession.current());
+            exportThread.set(Thread.currentThread());
+            Consumer<List<Map<String, Object>>> consumer = invocation.getArgument(1);
+            consumer.accept(List.of(row(1L, "第一行"), row(2L, "second")));
+            consumer.accept(List.of(row(3L, "third")));
+            return 3L;
+        });
+        controller = new SamplesController();
+        ReflectionTestUtils.setField(controller, "samplesService", samplesService);
+        ReflectionTestUtils.setField(controller, "exportRequestTimeoutMs", 60_000L);
+        mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+    }
+
+    @Test
+    public void writesOneJsonObjectPerLine() throws Exception {
+        MockHttpServletResponse response = export(get("/helper/samples/export"));
+        assertNull(response.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertEquals("application/x-ndjson", response.getContentType());
+        assertLines(response.getContentAsString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void negotiatesGzipFromAcceptEncoding() throws Exception {
+        MockHttpServletResponse response = export(get("/helper/samples/export")
+                .header(HttpHeaders.ACCEPT_ENCODING, "deflate, gzip;q=0.8"));
+        assertEquals("gzip", response.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(HttpHeaders.ACCEPT_ENCODING, response.getHeader(HttpHeaders.VARY));
+        assertLines(gunzip(response.getContentAsByteArray()));
+
+        // 显式参数优先于请求头
+        response = export(get("/helper/samples/export").param("gzip", "false")
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip"));
+        assertNull(response.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertLines(response.getContentAsString(StandardCharsets.UTF_8));
+
+        response = export(get("/helper/samples/export").param("gzip", "true"));
+        assertEquals("gzip", response.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertLines(gunzip(response.getContentAsByteArray()));
+    }
+
+    @Test
+    public void exportsUnderRequestTenantAndSession() throws Exception {
+        MockMvc tenantMockMvc = MockMvcBuilders.standaloneSetup(controller)
+                .addFilters(new MilvusTenantFilter(new MilvusTenantProperties()))
+                .build();
+        MilvusSession session = MilvusSession.open();
+        MvcResult result;
+        try (MilvusSession.Scope ignored = session.use()) {
+            result = tenantMockMvc.perform(get("/helper/samples/export").header("X-Tenant-Id", "tenant-a"))
+                    .andExpect(request().asyncStarted()).andReturn();
+        }
+        MockHttpServletResponse response = tenantMockMvc.perform(asyncDispatch(result)).andReturn().getResponse();
+        assertLines(response.getContentAsString(StandardCharsets.UTF_8));
+
+        // 写出发生在异步线程上，仍然使用请求线程上的租户和会话
+        assertNotEquals(Thread.currentThread(), exportThread.get());
+        assertEquals("tenant-a", exportTenant.get());
+        assertSame(session, exportSession.get());
+    }
+
+    @Test
+    public void parsesAcceptEncoding() {
+        assertTrue(SamplesController.acceptsGzip("gzip"));
+        assertTrue(SamplesController.acceptsGzip("br, GZIP"));
+        assertTrue(SamplesController.acceptsGzip("*"));
+        assertFalse(SamplesController.acceptsGzip(null));
+        assertFalse(SamplesController.acceptsGzip("deflate, br"));
+        assertFalse(SamplesController.acceptsGzip("gzip;q=0"));
+        assertFalse(SamplesController.acceptsGzip("gzip; q=0.000"));
+    }
+
+    @Test
+    public void timeoutAppliesToExportOnly() throws Exception {
+        MvcResult result = mockMvc.perform(get("/helper/samples/export")).andExpect(request().asyncStarted()).andReturn();
+        assertEquals(60_000L, result.getRequest().getAsyncContext().getTimeout());
+    }
+
+    private MockHttpServletResponse export(MockHttpServletRequestBuilder builder) throws Exception {
+        MvcResult result = mockMvc.perform(builder).andExpect(request().asyncStarted()).andReturn();
+        return mockMvc.perform(asyncDispatch(result)).andReturn().getResponse();
+    }
+
+    private static void assertLines(String content) {
+        assertTrue(content.endsWith("\n"));
+        String[] lines = content.split("\n");
+        assertEquals(3, lines.length);
+        for (int i = 0; i < lines.length; i++) {
+            JSONObject line = JSON.parseObject(lines[i]);
+            assertEquals(i + 1L, line.getLongValue("sampleId"));
+        }
+        assertEquals("第一行", JSON.parseObject(lines[0]).getString("sampleQuestion"));
+    }
+
+    private static String gunzip(byte[] content) throws IOException {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(content))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static Map<String, Object> row(long id, String question) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("sampleId", id);
+        row.put("sampleQuestion", question);
+        return row;
+    }
+
+}
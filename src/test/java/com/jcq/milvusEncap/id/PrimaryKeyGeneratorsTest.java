@@ -0,0 +1,186 @@
+package com.jcq.milvusEncap.id;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import com.jcq.milvusEncap.annotation.CollectionName;
+import com.jcq.milvusEncap.annotation.PrimaryKey;
+import lombok.Data;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 验证雪花主键的结构、单调递增与并发唯一，按 @PrimaryKey 的 type 为实体赋值，以及 uuid 实体注册时的警告
+ */
+public class PrimaryKeyGeneratorsTest {
+
+    @Test
+    public void snowflakeLayout() {
+        long now = SnowflakeIdGenerator.EPOCH_MILLIS + 123_456_789L;
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(37, () -> now);
+        long first = generator.nextId();
+        long second = generator.nextId();
+        assertEquals(37, SnowflakeIdGenerator.workerId(first));
+        assertEquals(now, SnowflakeIdGenerator.timestampMillis(first));
+        assertEquals(first + 1, second);
+        assertThrows(IllegalArgumentException.class, () -> new SnowflakeIdGenerator(1024, System::currentTimeMillis));
+    }
+
+    @Test
+    public void snowflakeIsMonotonicWhenClockGoesBack() {
+        AtomicLong clock = new AtomicLong(SnowflakeIdGenerator.EPOCH_MILLIS + 1_000_000L);
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(1, clock::get);
+        long previous = 0;
+        // 同一毫秒内超过 4096 个时借用下一毫秒
+        for (int i = 0; i < 10_000; i++) {
+            long id = generator.nextId();
+            assertTrue(id > previous);
+            previous = id;
+        }
+        assertTrue(SnowflakeIdGenerator.timestampMillis(previous) > clock.get());
+        // 时钟回拨
+        clock.addAndGet(-5_000);
+        long id = generator.nextId();
+        assertTrue(id > previous);
+        assertEquals(1, SnowflakeIdGenerator.workerId(id));
+    }
+
+    @Test
+    public void snowflakeIsUniqueAcrossThreads() throws Exception {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(3, System::currentTimeMillis);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<long[]>> futures = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                futures.add(executor.submit(() -> {
+                    long[] ids = new long[20_000];
+                    for (int i = 0; i < ids.length; i++) {
+                        ids[i] = generator.nextId();
+                        if (i > 0) {
+                            // 每个线程看到的主键也是递增的
+                            assertTrue(ids[i] > ids[i - 1]);
+                        }
+                    }
+                    return ids;
+                }));
+            }
+            Set<Long> unique = new HashSet<>();
+            for (Future<long[]> future : futures) {
+                for (long id : future.get(10, TimeUnit.SECONDS)) {
+                    assertTrue(id > 0);
+                    unique.add(id);
+                }
+            }
+            assertEquals(8 * 20_000, unique.size());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void assignsOnlyMissingKeys() {
+        PrimaryKeyGenerators generators = new PrimaryKeyGenerators(List.of(
+                new SnowflakeIdGenerator(5, System::currentTimeMillis), new UuidIdGenerator()));
+        SnowflakeDO generated = new SnowflakeDO();
+        SnowflakeDO preset = new SnowflakeDO();
+        preset.setId(42L);
+
+        List<Long> keys = generators.assign(SnowflakeDO.class, List.of(generated, preset));
+        assertNotNull(generated.getId());
+        assertEquals(List.of(generated.getId(), 42L), keys);
+        // 重试同一批实体时主键不变
+        assertEquals(keys, generators.assign(SnowflakeDO.class, List.of(generated, preset)));
+
+        UuidDO uuid = new UuidDO();
+        assertTrue(generators.assign(UuidDO.class, List.of(uuid)).get(0) > 0);
+
+        assertTrue(generators.isClientGenerated(SnowflakeDO.class));
+        assertFalse(generators.isClientGenerated(AutoDO.class));
+        assertNull(generators.assign(AutoDO.class, List.of(new AutoDO())));
+    }
+
+    @Test
+    public void warnsWhenUuidEntityIsRegistered() {
+        Logger logger = (Logger) LoggerFactory.getLogger(PrimaryKeyGenerators.class);
+        ListAppender<ILoggingEvent> appender = new ListAppender<>();
+        appender.start();
+        logger.addAppender(appender);
+        try {
+            PrimaryKeyGenerators generators = new PrimaryKeyGenerators(List.of(
+                    new SnowflakeIdGenerator(5, System::currentTimeMillis), new UuidIdGenerator()));
+            generators.register(SnowflakeDO.class);
+            generators.register(AutoDO.class);
+            assertTrue(appender.list.isEmpty());
+
+            generators.register(UuidDO.class);
+            generators.register(UuidDO.class);
+            generators.assign(UuidDO.class, List.of(new UuidDO()));
+            assertEquals(1, appender.list.size());
+            assertEquals(Level.WARN, appender.list.get(0).getLevel());
+            assertTrue(appender.list.get(0).getFormattedMessage().contains(UuidDO.class.getName()));
+        } finally {
+            logger.detachAppender(appender);
+        }
+    }
+
+    @Test
+    public void rejectsReservedOrDuplicateTypes() {
+        PrimaryKeyGenerator auto = new PrimaryKeyGenerator() {
+            @Override
+            public String getType() {
+                return "auto";
+            }
+
+            @Override
+            public long nextId() {
+                return 1;
+            }
+        };
+        assertThrows(IllegalStateException.class, () -> new PrimaryKeyGenerators(List.of(auto)));
+        assertThrows(IllegalStateException.class, () -> new PrimaryKeyGenerators(List.of(
+                new UuidIdGenerator(), new UuidIdGenerator())));
+    }
+
+    @Data
+    @CollectionName("snowflake_samples")
+    static class SnowflakeDO {
+        @PrimaryKey(type = "snowflake")
+        private Long id;
+        private float[] vector;
+    }
+
+    @Data
+    @CollectionName("uuid_samples")
+    static class UuidDO {
+        @PrimaryKey(type = "uuid")
+        private Long id;
+        private float[] vector;
+    }
+
+    @Data
+    @CollectionName("auto_samples")
+    static class AutoDO {
+        @PrimaryKey
+        private Long id;
+        private float[] vector;
+    }
+
+}
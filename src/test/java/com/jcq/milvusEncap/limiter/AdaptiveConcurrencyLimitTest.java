@@ -0,0 +1,95 @@
+package com.jcq.milvusEncap.limiter;
+
+import io.grpc.Status;
+import org.junit.jupiter.api.Test;
+
+import java.util.NoSuchElementException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 验证并发上限随延迟增长与收缩、超过上限时立即拒绝，以及失败类型对上限的影响
+ */
+public class AdaptiveConcurrencyLimitTest {
+
+    private static final long BASE_RTT = TimeUnit.MILLISECONDS.toNanos(10);
+
+    @Test
+    public void rejectsBeyondLimit() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(2, 1, 10, 2.0, 0.2);
+        assertTrue(limit.tryAcquire());
+        assertTrue(limit.tryAcquire());
+        assertFalse(limit.tryAcquire());
+        assertEquals(2, limit.getInFlight());
+
+        // 参数错误等失败只归还许可，不影响上限
+        limit.release(BASE_RTT, new IllegalArgumentException("bad filter"));
+        assertEquals(2, limit.getLimit());
+        assertTrue(limit.tryAcquire());
+    }
+
+    @Test
+    public void growsWhileLatencyIsStable() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(10, 4, 50, 2.0, 0.2);
+        saturate(limit, BASE_RTT, 200);
+        assertEquals(50, limit.getLimit());
+    }
+
+    @Test
+    public void shrinksWhenLatencyRises() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(40, 4, 50, 2.0, 0.2);
+        saturate(limit, BASE_RTT, 100);
+        int before = limit.getLimit();
+        // 延迟升高到基准的 5 倍（持续很久后会被当作新的基准，这里只看刚升高时的几轮）
+        saturate(limit, BASE_RTT * 5, 5);
+        assertTrue(limit.getLimit() < before / 2, "limit=" + limit.getLimit());
+        assertTrue(limit.getLimit() >= 4);
+
+        // 延迟恢复后重新增长
+        int shrunk = limit.getLimit();
+        saturate(limit, BASE_RTT, 200);
+        assertTrue(limit.getLimit() > shrunk);
+    }
+
+    @Test
+    public void idleTrafficDoesNotAdjust() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(20, 4, 50, 2.0, 0.2);
+        for (int i = 0; i < 100; i++) {
+            assertTrue(limit.tryAcquire());
+            limit.release(BASE_RTT * (i % 2 == 0 ? 1 : 10), null);
+        }
+        assertEquals(20, limit.getLimit());
+    }
+
+    @Test
+    public void overloadErrorsBackOff() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(20, 4, 50, 2.0, 0.2);
+        assertTrue(limit.tryAcquire());
+        limit.release(BASE_RTT, Status.DEADLINE_EXCEEDED.asRuntimeException());
+        assertEquals(18, limit.getLimit());
+        assertTrue(limit.tryAcquire());
+        // 连接池获取超时
+        limit.release(BASE_RTT, new IllegalStateException(new NoSuchElementException("Timeout waiting for idle object")));
+        assertEquals(16, limit.getLimit());
+        assertEquals(0, limit.getInFlight());
+    }
+
+    /**
+     * 并发占满上限时完成 rounds 轮请求
+     */
+    private static void saturate(AdaptiveConcurrencyLimit limit, long rttNanos, int rounds) {
+        for (int round = 0; round < rounds; round++) {
+            int acquired = 0;
+            while (limit.tryAcquire()) {
+                acquired++;
+            }
+            for (int i = 0; i < acquired; i++) {
+                limit.release(rttNanos, null);
+            }
+        }
+    }
+
+}
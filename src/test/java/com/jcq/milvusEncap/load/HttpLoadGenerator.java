@@ -0,0 +1,189 @@
+package com.jcq.milvusEncap.load;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * 开环压测驱动：按目标 RPS 在固定的时间点发出异步 HTTP 请求，不等待上一个请求完成
+ *
+ * <p>延迟从请求的计划发出时间开始计算，服务端变慢导致发送滞后时，排队时间也计入延迟（避免 coordinated omission），
+ * 各接口的延迟分别记录在 HdrHistogram 中</p>
+ */
+public class HttpLoadGenerator {
+
+    private static final long MAX_LATENCY_NANOS = TimeUnit.MINUTES.toNanos(5);
+
+    /**
+     * 一个被压测的接口，按 weight 的比例分配请求
+     */
+    public record Target(String name, int weight, Supplier<HttpRequest> request) {
+    }
+
+    /**
+     * 单个接口的统计结果
+     */
+    public static final class Stats {
+
+        private final Histogram latency = new ConcurrentHistogram(MAX_LATENCY_NANOS, 3);
+        private final AtomicLong requests = new AtomicLong();
+        private final AtomicLong errors = new AtomicLong();
+
+        public long getRequests() {
+            return requests.get();
+        }
+
+        public long getErrors() {
+            return errors.get();
+        }
+
+        /**
+         * 延迟百分位（毫秒）
+         */
+        public double percentileMillis(double percentile) {
+            return latency.getValueAtPercentile(percentile) / 1_000_000.0;
+        }
+
+        public double maxMillis() {
+            return latency.getMaxValue() / 1_000_000.0;
+        }
+
+        private void record(long latencyNanos, boolean error) {
+            requests.incrementAndGet();
+            latency.recordValue(Math.min(latencyNanos, MAX_LATENCY_NANOS));
+            if (error) {
+                errors.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * 一轮压测的结果
+     */
+    public record Result(int targetRps, Duration duration, Map<String, Stats> stats, Stats total) {
+
+        /**
+         * 输出各接口的请求数、错误数、实际吞吐与延迟百分位
+         */
+        public String format() {
+            StringBuilder report = new StringBuilder();
+            report.append(String.format(Locale.ROOT, "target %d rps, %d s%n", targetRps, duration.toSeconds()));
+            report.append(String.format(Locale.ROOT, "%-10s %9s %7s %9s %9s %9s %9s %9s %9s%n",
+                    "endpoint", "requests", "errors", "rps", "p50(ms)", "p90(ms)", "p99(ms)", "p99.9(ms)", "max(ms)"));
+            stats.forEach((name, stat) -> row(report, name, stat));
+            row(report, "total", total);
+            return report.toString();
+        }
+
+        private void row(StringBuilder report, String name, Stats stat) {
+            report.append(String.format(Locale.ROOT, "%-10s %9d %7d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                    name, stat.getRequests(), stat.getErrors(),
+                    stat.getRequests() / (double) Math.max(1, duration.toMillis()) * 1000,
+                    stat.percentileMillis(50), stat.percentileMillis(90), stat.percentileMillis(99),
+                    stat.percentileMillis(99.9), stat.maxMillis()));
+        }
+    }
+
+    private final HttpClient client;
+    private final List<Target> targets;
+    private final int totalWeight;
+
+    public HttpLoadGenerator(HttpClient client, List<Target> targets) {
+        if (targets.isEmpty()) {
+            throw new IllegalArgumentException("至少需要一个压测接口");
+        }
+        this.client = client;
+        this.targets = List.copyOf(targets);
+        this.totalWeight = targets.stream().mapToInt(Target::weight).sum();
+    }
+
+    /**
+     * 按目标 RPS 持续发送请求，结束后等待在途请求完成（最多 30 秒）
+     */
+    public Result run(int rps, Duration duration) throws InterruptedException {
+        Map<String, Stats> stats = new LinkedHashMap<>();
+        targets.forEach(target -> stats.put(target.name(), new Stats()));
+        Stats total = new Stats();
+        AtomicLong inFlight = new AtomicLong();
+
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / rps;
+        long count = duration.toNanos() / intervalNanos;
+        long start = System.nanoTime();
+        for (long i = 0; i < count; i++) {
+            long scheduled = start + i * intervalNanos;
+            long wait = scheduled - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            Target target = pick();
+            Stats targetStats = stats.get(target.name());
+            inFlight.incrementAndGet();
+            client.sendAsync(target.request().get(), HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, error) -> {
+                        long latency = System.nanoTime() - scheduled;
+                        boolean failed = error != null || response.statusCode() >= 400;
+                        targetStats.record(latency, failed);
+                        total.record(latency, failed);
+                        inFlight.decrementAndGet();
+                    });
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (inFlight.get() > 0 && System.nanoTime() < deadline) {
+            TimeUnit.MILLISECONDS.sleep(10);
+        }
+        return new Result(rps, duration, stats, total);
+    }
+
+    private Target pick() {
+        int dice = ThreadLocalRandom.current().nextInt(totalWeight);
+        for (Target target : targets) {
+            dice -= target.weight();
+            if (dice < 0) {
+                return target;
+            }
+        }
+        return targets.get(targets.size() - 1);
+    }
+
+    /**
+     * 解析 "get:6,page:4" 形式的接口权重
+     */
+    public static Map<String, Integer> parseMix(String mix) {
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        for (String part : mix.split(",")) {
+            String[] pair = part.trim().split(":");
+            weights.put(pair[0].trim(), pair.length > 1 ? Integer.parseInt(pair[1].trim()) : 1);
+        }
+        return weights;
+    }
+
+    static List<Target> select(Map<String, Integer> weights, Map<String, Supplier<HttpRequest>> requests) {
+        List<Target> selected = new ArrayList<>();
+        weights.forEach((name, weight) -> {
+            Supplier<HttpRequest> request = requests.get(name);
+            if (request == null) {
+                throw new IllegalArgumentException("未知的压测接口: " + name + "，可选: " + requests.keySet());
+            }
+            if (weight > 0) {
+                selected.add(new Target(name, weight, request));
+            }
+        });
+        return selected;
+    }
+
+}
@@ -0,0 +1,181 @@
+package com.jcq.milvusEncap.load;
+
+import com.google.gson.JsonObject;
+import com.jcq.milvusEncap.annotation.VectorField;
+import com.jcq.milvusEncap.codec.MilvusEntityCodecs;
+import com.jcq.milvusEncap.codec.MilvusEntityMetadata;
+import com.jcq.milvusEncap.dal.dataobject.agent.SamplesDO;
+import com.jcq.milvusEncap.standin.MilvusStandInServer;
+import com.jcq.milvusEncap.standin.StandInFaults;
+import io.milvus.v2.client.ConnectConfig;
+import io.milvus.v2.client.MilvusClientV2;
+import io.milvus.v2.service.vector.request.InsertReq;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 端到端压测：应用连接本地 Milvus 替身，按目标 RPS 请求 SamplesController 的接口并输出各接口的延迟百分位，
+ * 用于离线评估连接池、缓存、批处理等改动对服务吞吐与延迟的影响
+ *
+ * <p>只有指定 load.rps 时才运行，例如：</p>
+ * <pre>
+ * mvn test -Dtest=SamplesLoadTest -Dload.rps=500 -Dload.duration=60 -Dload.mix=get:6,page:4 \
+ *     -Dload.latency-ms=2 -Dload.jitter-ms=3 -Dload.error-rate=0.001 -Dmilvus.pool.max-total-per-key=8
+ * </pre>
+ *
+ * <ul>
+ *     <li>load.duration / load.warmup：压测与预热时长（秒），默认 30 / 5</li>
+ *     <li>load.mix：接口权重，可选 get、page、export、delete、create，默认 get:6,page:4；
+ *     create 依赖向量生成（SamplesServiceImpl 中的 todo），目前会全部失败</li>
+ *     <li>load.rows / load.agents：预置的数据行数与智能体数，默认 10000 / 100</li>
+ *     <li>load.latency-ms / load.jitter-ms / load.error-rate：替身每次数据操作注入的延迟与错误比例</li>
+ *     <li>应用配置（如 milvus.pool.*）同样可以通过 -D 覆盖</li>
+ * </ul>
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@EnabledIfSystemProperty(named = "load.rps", matches = "\\d+")
+public class SamplesLoadTest {
+
+    private static final int SEED_BATCH = 1000;
+
+    private static MilvusStandInServer standIn;
+
+    @LocalServerPort
+    private int port;
+
+    @Value("${server.servlet.context-path:}")
+    private String contextPath;
+
+    private final List<Long> sampleIds = new ArrayList<>();
+
+    @DynamicPropertySource
+    static void milvusProperties(DynamicPropertyRegistry registry) throws Exception {
+        standIn = new MilvusStandInServer("load-test").start();
+        URI uri = URI.create(standIn.getUri());
+        registry.add("milvus.host", () -> uri.getScheme() + "://" + uri.getHost());
+        registry.add("milvus.port", uri::getPort);
+    }
+
+    @AfterAll
+    static void stopStandIn() throws Exception {
+        if (standIn != null) {
+            standIn.close();
+        }
+    }
+
+    @Test
+    public void run() throws Exception {
+        int rps = Integer.getInteger("load.rps");
+        int agents = Integer.getInteger("load.agents", 100);
+        seed(Integer.getInteger("load.rows", 10_000), agents);
+        standIn.getFaults().latency(Long.getLong("load.latency-ms", 0L), Long.getLong("load.jitter-ms", 0L))
+                .errorRate(Double.parseDouble(System.getProperty("load.error-rate", "0")));
+
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+        List<HttpLoadGenerator.Target> targets = HttpLoadGenerator.select(
+                HttpLoadGenerator.parseMix(System.getProperty("load.mix", "get:6,page:4")), requests(agents));
+        HttpLoadGenerator generator = new HttpLoadGenerator(client, targets);
+
+        generator.run(rps, Duration.ofSeconds(Integer.getInteger("load.warmup", 5)));
+        HttpLoadGenerator.Result result = generator.run(rps, Duration.ofSeconds(Integer.getInteger("load.duration", 30)));
+
+        System.out.println(result.format());
+        for (StandInFaults.Operation operation : StandInFaults.Operation.values()) {
+            System.out.printf("stand-in %-7s calls=%d injectedErrors=%d%n", operation,
+                    standIn.getFaults().getCalls(operation), standIn.getFaults().getInjectedErrors(operation));
+        }
+        assertTrue(result.total().getRequests() > 0, "没有完成任何请求");
+    }
+
+    /**
+     * 直接通过 SDK 向替身写入数据，主键由替身生成
+     */
+    private void seed(int rows, int agents) {
+        MilvusEntityMetadata<SamplesDO> metadata = MilvusEntityCodecs.metadata(SamplesDO.class);
+        int dim = vectorDim();
+        Random random = new Random(42);
+        MilvusClientV2 client = new MilvusClientV2(ConnectConfig.builder().uri(standIn.getUri()).build());
+        try {
+            for (int offset = 0; offset < rows; offset += SEED_BATCH) {
+                List<JsonObject> data = new ArrayList<>();
+                for (int i = offset; i < Math.min(rows, offset + SEED_BATCH); i++) {
+                    float[] vector = new float[dim];
+                    for (int j = 0; j < dim; j++) {
+                        vector[j] = random.nextFloat() * 2 - 1;
+                    }
+                    long now = System.currentTimeMillis() / 1000;
+                    SamplesDO sample = SamplesDO.builder()
+                            .agentId((long) (i % agents))
+                            .agentName("agent-" + i % agents)
+                            .sampleQuestion("question " + i)
+                            .sampleAnswer("answer " + i)
+                            .sampleVector(vector)
+                            .sampleStatus(i % 10 == 0 ? "disabled" : "enabled")
+                            .createdTime(now)
+                            .updatedTime(now)
+                            .build();
+                    data.add(metadata.getCodec().toRow(sample));
+                }
+                client.insert(InsertReq.builder().collectionName(metadata.getCollectionName()).data(data).build())
+                        .getPrimaryKeys().forEach(id -> sampleIds.add((Long) id));
+            }
+        } finally {
+            client.close();
+        }
+    }
+
+    private static int vectorDim() {
+        try {
+            return SamplesDO.class.getDeclaredField("sampleVector")
+                    .getAnnotation(VectorField.class).dim();
+        } catch (NoSuchFieldException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private Map<String, Supplier<HttpRequest>> requests(int agents) {
+        String base = "http://localhost:" + port + contextPath + "/helper/samples";
+        Map<String, Supplier<HttpRequest>> requests = new LinkedHashMap<>();
+        requests.put("get", () -> get(base + "/get?sampleId=" + randomId()));
+        requests.put("page", () -> get(base + "/page?pageSize=10&pageNo=" + (ThreadLocalRandom.current().nextInt(5) + 1)
+                + "&agentId=" + ThreadLocalRandom.current().nextInt(agents)));
+        requests.put("export", () -> get(base + "/export?agentId=" + ThreadLocalRandom.current().nextInt(agents)));
+        requests.put("delete", () -> HttpRequest.newBuilder(URI.create(base + "/delete?sampleId=" + randomId()))
+                .DELETE().build());
+        requests.put("create", () -> HttpRequest.newBuilder(URI.create(base + "/create"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"agentId\":" + ThreadLocalRandom.current().nextInt(agents)
+                        + ",\"agentName\":\"load\",\"sampleQuestion\":\"q\",\"sampleAnswer\":\"a\",\"sampleStatus\":\"enabled\"}"))
+                .build());
+        return requests;
+    }
+
+    private long randomId() {
+        return sampleIds.get(ThreadLocalRandom.current().nextInt(sampleIds.size()));
+    }
+
+    private static HttpRequest get(String uri) {
+        return HttpRequest.newBuilder(URI.create(uri)).GET().build();
+    }
+
+}
@@ -0,0 +1,107 @@
+package com.jcq.milvusEncap.monitor;
+
+import com.jcq.milvusEncap.pool.MilvusClientPool;
+import com.jcq.milvusEncap.routing.MilvusEndpoint;
+import com.jcq.milvusEncap.routing.MilvusRouter;
+import com.jcq.milvusEncap.standin.MilvusStandInServer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.milvus.pool.PoolConfig;
+import io.milvus.v2.client.ConnectConfig;
+import io.milvus.v2.client.MilvusClientV2;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * 验证从集群、按 database 创建的连接池以及运行时新增的key都会注册带节点和 database 标签的连接池指标
+ */
+public class MilvusMetricsTest {
+
+    private static final String CLIENT_KEY = "client";
+
+    private final List<MilvusClientPool> pools = new ArrayList<>();
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private MilvusStandInServer server;
+    private MilvusRouter router;
+    private MilvusMetrics metrics;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        server = new MilvusStandInServer("stand-in").start();
+        MilvusEndpoint primary = new MilvusEndpoint("primary", MilvusEndpoint.Role.PRIMARY, createPool(),
+                database -> createPool());
+        MilvusEndpoint replica = new MilvusEndpoint("replica", MilvusEndpoint.Role.REPLICA, createPool());
+        router = new MilvusRouter(primary, List.of(replica), CLIENT_KEY, null, 2);
+        metrics = new MilvusMetrics(registry,
+                new StaticListableBeanFactory(Map.of("router", router)).getBeanProvider(MilvusRouter.class));
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        router.close();
+        pools.forEach(MilvusClientPool::close);
+        server.close();
+    }
+
+    @Test
+    public void refreshBindsEveryEndpointDatabaseAndKey() {
+        MilvusEndpoint primary = router.getEndpoints().get(0);
+        MilvusEndpoint replica = router.getEndpoints().get(1);
+        MilvusClientV2 held = primary.getPool("tenant_a").getClient(CLIENT_KEY + "-batch");
+        release(replica.getPool(), CLIENT_KEY, replica.getPool().getClient(CLIENT_KEY));
+
+        metrics.refreshPoolKeys();
+
+        assertEquals(1.0, gauge("milvus.pool.clients.active", "primary", "tenant_a", CLIENT_KEY + "-batch").value());
+        assertEquals(1.0, gauge("milvus.pool.clients.idle", "replica", MilvusEndpoint.DEFAULT_DATABASE, CLIENT_KEY).value());
+        assertNotNull(gauge("milvus.pool.clients.waiting", "replica", MilvusEndpoint.DEFAULT_DATABASE, CLIENT_KEY));
+        release(primary.getPool("tenant_a"), CLIENT_KEY + "-batch", held);
+        assertEquals(0.0, gauge("milvus.pool.clients.active", "primary", "tenant_a", CLIENT_KEY + "-batch").value());
+    }
+
+    @Test
+    public void bindsKeyBeforeFirstBorrow() {
+        MilvusClientPool pool = router.getEndpoints().get(0).getPool();
+        metrics.bindPoolKey("primary", null, pool, "new-key");
+        metrics.bindPoolKey("primary", null, pool, "new-key");
+        assertEquals(1, registry.find("milvus.pool.clients.idle").tag("key", "new-key").gauges().size());
+
+        MilvusClientV2 client = pool.getClient("new-key");
+        assertEquals(1.0, gauge("milvus.pool.clients.active", "primary", MilvusEndpoint.DEFAULT_DATABASE, "new-key").value());
+        release(pool, "new-key", client);
+    }
+
+    private Gauge gauge(String name, String endpoint, String database, String key) {
+        return registry.get(name).tag("endpoint", endpoint).tag("database", database).tag("key", key).gauge();
+    }
+
+    private static void release(MilvusClientPool pool, String key, MilvusClientV2 client) {
+        pool.returnClient(key, client);
+    }
+
+    private MilvusClientPool createPool() {
+        PoolConfig poolConfig = PoolConfig.builder()
+                .maxIdlePerKey(2)
+                .maxTotalPerKey(2)
+                .maxBlockWaitDuration(Duration.ofSeconds(2))
+                .build();
+        try {
+            MilvusClientPool pool = new MilvusClientPool(poolConfig, ConnectConfig.builder().uri(server.getUri()).build());
+            pools.add(pool);
+            return pool;
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+}
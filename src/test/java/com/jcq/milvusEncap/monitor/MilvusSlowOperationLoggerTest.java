@@ -0,0 +1,87 @@
+package com.jcq.milvusEncap.monitor;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import com.jcq.milvusEncap.service.milvus.MilvusOperation;
+import com.jcq.milvusEncap.service.milvus.MilvusOperationContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 验证慢日志按实际总耗时判断阈值、输出各阶段明细，以及过滤条件脱敏
+ */
+public class MilvusSlowOperationLoggerTest {
+
+    private final Logger logger = (Logger) LoggerFactory.getLogger("milvus-slow-operation");
+    private final ListAppender<ILoggingEvent> appender = new ListAppender<>();
+
+    @BeforeEach
+    public void setUp() {
+        appender.start();
+        logger.addAppender(appender);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        logger.detachAppender(appender);
+    }
+
+    @Test
+    public void thresholdUsesMeasuredTotal() {
+        MilvusSlowOperationLogger slowLogger = new MilvusSlowOperationLogger(true, 100, 0);
+
+        // 各阶段之和很小，但等待租户许可、合并等待等时间使实际耗时超过阈值
+        MilvusOperationContext slow = context(150, 20);
+        slow.setFilter("agent_id == 12 and name like \"%secret%\"");
+        slowLogger.record(slow, null);
+        assertEquals(1, appender.list.size());
+        ILoggingEvent event = appender.list.get(0);
+        assertEquals(Level.WARN, event.getLevel());
+        String message = event.getFormattedMessage();
+        assertTrue(message.contains("total=150.000ms"), message);
+        assertTrue(message.contains("wait=20.000ms"), message);
+        assertTrue(message.contains("server=3.000ms"), message);
+        assertTrue(message.contains("filter=agent_id == ? and name like ?"), message);
+
+        slowLogger.record(context(99, 0), null);
+        assertEquals(1, appender.list.size());
+    }
+
+    @Test
+    public void samplesFastOperations() {
+        MilvusSlowOperationLogger slowLogger = new MilvusSlowOperationLogger(true, 100, 1.0);
+        slowLogger.record(context(5, 0), new IllegalStateException());
+        assertEquals(1, appender.list.size());
+        assertEquals(Level.INFO, appender.list.get(0).getLevel());
+        assertTrue(appender.list.get(0).getFormattedMessage().contains("outcome=IllegalStateException"));
+    }
+
+    @Test
+    public void redactsLiterals() {
+        assertEquals("-", MilvusSlowOperationLogger.redact(null));
+        assertEquals("id in [?, ?] and score > ? and tag == ?",
+                MilvusSlowOperationLogger.redact("id in [1, 2] and score > -0.5 and tag == 'a\\'b'"));
+        assertEquals("field_2 == ?", MilvusSlowOperationLogger.redact("field_2 == 3e5"));
+    }
+
+    private static MilvusOperationContext context(long totalMillis, long waitMillis) {
+        MilvusOperationContext context = new MilvusOperationContext(MilvusOperation.SEARCH, "samples");
+        context.setBorrowNanos(TimeUnit.MILLISECONDS.toNanos(1));
+        context.setEncodeNanos(TimeUnit.MILLISECONDS.toNanos(1));
+        context.setServerNanos(TimeUnit.MILLISECONDS.toNanos(3));
+        context.setDecodeNanos(TimeUnit.MILLISECONDS.toNanos(1));
+        context.setWaitNanos(TimeUnit.MILLISECONDS.toNanos(waitMillis));
+        context.setTotalNanos(TimeUnit.MILLISECONDS.toNanos(totalMillis));
+        return context;
+    }
+
+}
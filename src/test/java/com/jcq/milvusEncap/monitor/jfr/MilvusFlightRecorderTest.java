@@ -0,0 +1,137 @@
+package com.jcq.milvusEncap.monitor.jfr;
+
+import com.jcq.milvusEncap.annotation.CollectionName;
+import com.jcq.milvusEncap.annotation.PrimaryKey;
+import com.jcq.milvusEncap.annotation.VectorField;
+import com.jcq.milvusEncap.backend.embedded.EmbeddedMilvusBackend;
+import com.jcq.milvusEncap.exception.ServiceException;
+import com.jcq.milvusEncap.service.milvus.EmbeddedServices;
+import com.jcq.milvusEncap.service.milvus.MilvusBaseService;
+import com.jcq.milvusEncap.service.milvus.MilvusOperation;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import lombok.Data;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 验证每次操作提交一个对应类型的 JFR 事件并带上集合、行数与结果，事件未开启时不创建也不提交
+ */
+public class MilvusFlightRecorderTest {
+
+    private static final String COLLECTION = "jfr_samples";
+
+    @Data
+    @CollectionName(COLLECTION)
+    public static class JfrDO {
+        @PrimaryKey
+        private Long id;
+        private String title;
+        @VectorField(dim = 4)
+        private float[] vector;
+    }
+
+    @TempDir
+    Path dir;
+
+    private final EmbeddedMilvusBackend backend = EmbeddedServices.backend();
+    private MilvusBaseService<JfrDO> service;
+
+    @BeforeEach
+    public void setUp() {
+        service = EmbeddedServices.wire(new MilvusBaseService<>(JfrDO.class) {
+        }, backend);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        backend.close();
+    }
+
+    @Test
+    public void eachOperationCommitsOneEvent() throws Exception {
+        List<RecordedEvent> events;
+        try (Recording recording = new Recording()) {
+            recording.enable(MilvusInsertEvent.class);
+            recording.enable(MilvusQueryEvent.class);
+            recording.enable(MilvusExportEvent.class);
+            recording.start();
+
+            List<Long> ids = service.insertBatch(List.of(entity("a"), entity("b")));
+            assertNotNull(service.getById(ids.get(0)));
+            assertEquals(2, service.export("", null, rows -> {
+            }));
+            assertThrows(ServiceException.class, () -> service.export("missing == 1", null, rows -> {
+            }));
+
+            recording.stop();
+            events = read(recording);
+        }
+
+        assertEquals(4, events.size());
+        assertEvent(events.get(0), "com.jcq.milvusEncap.Insert", 2, "success");
+        assertEvent(events.get(1), "com.jcq.milvusEncap.Query", 1, "success");
+        assertEvent(events.get(2), "com.jcq.milvusEncap.Export", 2, "success");
+        assertEvent(events.get(3), "com.jcq.milvusEncap.Export", 0, "error");
+        assertTrue(events.get(0).getLong("payloadBytes") > 0);
+    }
+
+    @Test
+    public void disabledEventsAreNotCommitted() throws Exception {
+        assertNull(MilvusFlightRecorder.beginOperation(MilvusOperation.QUERY));
+
+        List<RecordedEvent> events;
+        try (Recording recording = new Recording()) {
+            // 只开启 Query 事件
+            recording.enable(MilvusQueryEvent.class);
+            recording.start();
+            assertNull(MilvusFlightRecorder.beginOperation(MilvusOperation.INSERT));
+
+            service.insertBatch(List.of(entity("a")));
+            service.export("", null, rows -> {
+            });
+
+            recording.stop();
+            events = read(recording);
+        }
+        assertTrue(events.isEmpty(), () -> events.toString());
+        assertNull(MilvusFlightRecorder.beginOperation(MilvusOperation.QUERY));
+    }
+
+    private List<RecordedEvent> read(Recording recording) throws Exception {
+        Path file = dir.resolve("milvus-" + System.nanoTime() + ".jfr");
+        recording.dump(file);
+        return RecordingFile.readAllEvents(file).stream()
+                .filter(event -> event.getEventType().getName().startsWith("com.jcq.milvusEncap."))
+                .filter(event -> COLLECTION.equals(event.getString("collection")))
+                .sorted((a, b) -> a.getStartTime().compareTo(b.getStartTime()))
+                .toList();
+    }
+
+    private static void assertEvent(RecordedEvent event, String type, long rows, String outcome) {
+        assertEquals(type, event.getEventType().getName());
+        assertEquals(rows, event.getLong("rows"));
+        assertEquals(outcome, event.getString("outcome"));
+        assertTrue(event.getDuration().toNanos() >= event.getLong("serverNanos"));
+    }
+
+    private static JfrDO entity(String title) {
+        JfrDO entity = new JfrDO();
+        entity.setTitle(title);
+        entity.setVector(new float[]{1f, 0f, 0f, 0f});
+        return entity;
+    }
+
+}
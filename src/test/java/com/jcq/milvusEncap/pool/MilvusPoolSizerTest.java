@@ -0,0 +1,188 @@
+package com.jcq.milvusEncap.pool;
+
+import com.jcq.milvusEncap.routing.MilvusEndpoint;
+import com.jcq.milvusEncap.routing.MilvusRouter;
+import com.jcq.milvusEncap.standin.MilvusStandInServer;
+import io.milvus.pool.PoolConfig;
+import io.milvus.v2.client.ConnectConfig;
+import io.milvus.v2.client.MilvusClientV2;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * 验证获取客户端的统计窗口，扩容 -> 缩容 -> 扩容时空闲上限与预热随容量调整，以及从集群与各 database 的连接池分别调整
+ */
+public class MilvusPoolSizerTest {
+
+    private static final String KEY = "client";
+
+    private MilvusStandInServer server;
+    private MilvusClientPool pool;
+    private MilvusClientPool replicaPool;
+    private MilvusEndpoint primary;
+    private MilvusRouter router;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        server = new MilvusStandInServer("stand-in").start();
+        pool = newPool();
+        replicaPool = newPool();
+        // 只关心按 database 划分出的连接池，不需要客户端连接到对应的 database
+        primary = new MilvusEndpoint("primary", MilvusEndpoint.Role.PRIMARY, pool, database -> newPool());
+        router = new MilvusRouter(primary,
+                List.of(new MilvusEndpoint("replica", MilvusEndpoint.Role.REPLICA, replicaPool)), KEY, null, 2);
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        router.close();
+        pool.close();
+        server.close();
+    }
+
+    @Test
+    public void borrowWindowCountsWaitsAndPeak() {
+        List<MilvusClientV2> held = borrow(3);
+        assertThrows(RuntimeException.class, () -> borrow(2));
+
+        MilvusClientPool.BorrowSnapshot window = pool.drainBorrowWindow(KEY);
+        assertEquals(5, window.getBorrows());
+        assertEquals(1, window.getFailures());
+        assertEquals(4, window.getPeakInFlight());
+        assertEquals(true, window.getMaxWaitNanos() >= Duration.ofMillis(50).toNanos());
+
+        // 新窗口的峰值从当前活跃数开始
+        release(held);
+        MilvusClientPool.BorrowSnapshot next = pool.drainBorrowWindow(KEY);
+        assertEquals(0, next.getBorrows());
+        assertEquals(3, next.getPeakInFlight());
+        assertEquals(0, pool.drainBorrowWindow(KEY).getPeakInFlight());
+    }
+
+    @Test
+    public void idleCapacityFollowsGrowAfterShrink() {
+        MilvusPoolSizer sizer = sizer(1);
+        assertEquals(4, pool.getMaxTotalPerKey());
+        assertEquals(4, pool.getMaxIdlePerKey());
+
+        // 扩容：占满 4 个客户端后获取超时
+        List<MilvusClientV2> held = borrow(4);
+        assertThrows(RuntimeException.class, () -> borrow(1));
+        release(held);
+        sizer.adjust();
+        assertEquals(8, pool.getMaxTotalPerKey());
+        assertEquals(8, pool.getMaxIdlePerKey());
+
+        // 缩容：一个空闲窗口后收缩到下限
+        sizer.adjust();
+        assertEquals(2, pool.getMaxTotalPerKey());
+        assertEquals(2, pool.getMaxIdlePerKey());
+        assertEquals(PoolSizingDecision.Action.SHRINK, sizer.getHistory().get(0).getAction());
+        // 模拟驱逐策略回收缩容后多出的空闲客户端
+        pool.clear(KEY);
+
+        // 再次扩容：空闲上限一起恢复，预热不受缩容时的空闲上限限制
+        held = borrow(2);
+        assertThrows(RuntimeException.class, () -> borrow(1));
+        release(held);
+        assertEquals(2, pool.getIdleClientNumber(KEY));
+        sizer.adjust();
+        assertEquals(4, pool.getMaxTotalPerKey());
+        assertEquals(4, pool.getMaxIdlePerKey());
+        PoolSizingDecision grow = sizer.getHistory().get(0);
+        assertEquals(PoolSizingDecision.Action.GROW, grow.getAction());
+        // 峰值 2，预热目标 2 * 1.0 + 1 = 3 个空闲客户端
+        assertEquals(1, grow.getPrewarmed());
+        assertEquals(3, pool.getIdleClientNumber(KEY));
+
+        // 扩容后归还的客户端不会因超过空闲上限被销毁
+        held = borrow(4);
+        release(held);
+        assertEquals(4, pool.getIdleClientNumber(KEY));
+    }
+
+    @Test
+    public void sizesReplicaAndDatabasePools() {
+        MilvusPoolSizer sizer = sizer(3);
+        assertEquals(List.of("primary", "replica"), List.copyOf(sizer.getTargets().keySet()));
+        // database 连接池在首次访问时创建，下一个窗口开始参与调整
+        MilvusClientPool tenantPool = primary.getPool("tenant_a");
+
+        saturate(replicaPool);
+        saturate(tenantPool);
+        sizer.adjust();
+        assertEquals(8, replicaPool.getMaxTotalPerKey());
+        assertEquals(8, tenantPool.getMaxTotalPerKey());
+        assertEquals(8, tenantPool.getMaxIdlePerKey());
+        // 主集群默认 database 的连接池没有压力，容量不变
+        assertEquals(4, pool.getMaxTotalPerKey());
+        assertEquals(List.of("primary", "primary/tenant_a", "replica"), List.copyOf(sizer.getTargets().keySet()));
+        assertEquals(Map.of(KEY, 8), sizer.getTargets().get("primary/tenant_a"));
+        assertEquals(Map.of("replica", PoolSizingDecision.Action.GROW, "primary/tenant_a", PoolSizingDecision.Action.GROW),
+                sizer.getHistory().stream().collect(Collectors.toMap(PoolSizingDecision::getPool,
+                        PoolSizingDecision::getAction)));
+    }
+
+    private MilvusPoolSizer sizer(int shrinkWindows) {
+        return new MilvusPoolSizer(router, KEY, 2, 40, 5, 2.0, 1.3, 1.0, 0.3, shrinkWindows, 10);
+    }
+
+    private MilvusClientPool newPool() {
+        PoolConfig poolConfig = PoolConfig.builder()
+                .maxIdlePerKey(4)
+                .maxTotalPerKey(4)
+                .maxTotal(100)
+                .maxBlockWaitDuration(Duration.ofMillis(50))
+                .build();
+        try {
+            return new MilvusClientPool(poolConfig, ConnectConfig.builder().uri(server.getUri()).build());
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * 占满 4 个客户端后获取超时一次
+     */
+    private void saturate(MilvusClientPool target) {
+        List<MilvusClientV2> held = borrow(target, 4);
+        assertThrows(RuntimeException.class, () -> borrow(target, 1));
+        release(target, held);
+    }
+
+    private List<MilvusClientV2> borrow(int count) {
+        return borrow(pool, count);
+    }
+
+    private List<MilvusClientV2> borrow(MilvusClientPool target, int count) {
+        List<MilvusClientV2> clients = new ArrayList<>();
+        try {
+            for (int i = 0; i < count; i++) {
+                clients.add(target.getClient(KEY));
+            }
+            return clients;
+        } catch (RuntimeException e) {
+            release(target, clients);
+            throw e;
+        }
+    }
+
+    private void release(List<MilvusClientV2> clients) {
+        release(pool, clients);
+    }
+
+    private void release(MilvusClientPool target, List<MilvusClientV2> clients) {
+        clients.forEach(client -> target.returnClient(KEY, client));
+    }
+
+}
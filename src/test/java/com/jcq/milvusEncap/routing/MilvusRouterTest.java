@@ -0,0 +1,186 @@
+package com.jcq.milvusEncap.routing;
+
+import com.jcq.milvusEncap.pool.MilvusClientPool;
+import com.jcq.milvusEncap.service.milvus.MilvusOperation;
+import com.jcq.milvusEncap.standin.MilvusStandInServer;
+import io.milvus.pool.PoolConfig;
+import io.milvus.v2.client.ConnectConfig;
+import io.milvus.v2.client.MilvusClientV2;
+import io.milvus.v2.common.ConsistencyLevel;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 使用多个本地 Milvus 替身验证读写分离、按延迟分散读请求以及节点故障摘除
+ */
+public class MilvusRouterTest {
+
+    private static final String CLIENT_KEY = "test";
+    private static final int THREADS = 8;
+    private static final int READS_PER_THREAD = 50;
+
+    private final List<MilvusStandInServer> servers = new ArrayList<>();
+    private final List<MilvusClientPool> pools = new ArrayList<>();
+    private MilvusStandInServer primaryServer;
+    private MilvusRouter router;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        primaryServer = startServer("primary");
+        MilvusEndpoint primary = new MilvusEndpoint("primary", MilvusEndpoint.Role.PRIMARY, createPool(primaryServer));
+        List<MilvusEndpoint> replicas = new ArrayList<>();
+        for (String name : List.of("replica-a", "replica-b", "replica-c")) {
+            replicas.add(new MilvusEndpoint(name, MilvusEndpoint.Role.REPLICA, createPool(startServer(name))));
+        }
+        router = new MilvusRouter(primary, replicas, CLIENT_KEY, null, 2);
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        pools.forEach(MilvusClientPool::close);
+        for (MilvusStandInServer server : servers) {
+            server.close();
+        }
+    }
+
+    @Test
+    public void readsSpreadAcrossReplicas() throws Exception {
+        servers.forEach(server -> server.setDelayMillis(2));
+
+        runReads(ConsistencyLevel.BOUNDED);
+
+        long total = THREADS * READS_PER_THREAD;
+        assertEquals(0, primaryServer.getVersionCalls(), "Bounded读不应发往主集群");
+        for (MilvusStandInServer server : servers.subList(1, servers.size())) {
+            System.out.println(server.getName() + " reads: " + server.getVersionCalls());
+            assertTrue(server.getVersionCalls() > total / 10, server.getName() + "分到的读请求过少");
+        }
+    }
+
+    @Test
+    public void readsPreferLowLatencyReplica() throws Exception {
+        servers.get(1).setDelayMillis(1);
+        servers.get(2).setDelayMillis(20);
+        servers.get(3).setDelayMillis(20);
+
+        runReads(ConsistencyLevel.EVENTUALLY);
+
+        assertTrue(servers.get(1).getVersionCalls() > servers.get(2).getVersionCalls()
+                        && servers.get(1).getVersionCalls() > servers.get(3).getVersionCalls(),
+                "延迟最低的从集群应承担最多的读请求");
+    }
+
+    @Test
+    public void writesAndStrongReadsGoToPrimary() {
+        assertSame(router.getPrimary(), router.route(MilvusOperation.INSERT, ConsistencyLevel.EVENTUALLY, null));
+        assertSame(router.getPrimary(), router.route(MilvusOperation.DELETE, null, null));
+        assertSame(router.getPrimary(), router.route(MilvusOperation.QUERY, ConsistencyLevel.STRONG, null));
+        assertSame(router.getPrimary(), router.route(MilvusOperation.SEARCH, ConsistencyLevel.SESSION, null));
+        assertEquals(MilvusEndpoint.Role.REPLICA, router.route(MilvusOperation.SEARCH, null, null).getRole());
+    }
+
+    @Test
+    public void failedReplicaIsRemovedFromRouting() throws Exception {
+        MilvusStandInServer failed = servers.get(2);
+        failed.setHealthy(false);
+        router.checkHealth();
+        router.checkHealth();
+        MilvusEndpoint failedEndpoint = router.getReplicas().get(1);
+        assertFalse(failedEndpoint.isHealthy());
+
+        runReads(ConsistencyLevel.BOUNDED);
+        assertEquals(0, failed.getVersionCalls(), "不健康的节点不应再接收读请求");
+
+        // 恢复后重新加入路由
+        failed.setHealthy(true);
+        router.checkHealth();
+        assertTrue(failedEndpoint.isHealthy());
+    }
+
+    @Test
+    public void readsFallBackToPrimaryWhenAllReplicasDown() throws Exception {
+        for (MilvusStandInServer server : servers.subList(1, servers.size())) {
+            server.close();
+        }
+        router.checkHealth();
+        router.checkHealth();
+
+        runReads(ConsistencyLevel.BOUNDED);
+        assertEquals(THREADS * READS_PER_THREAD, primaryServer.getVersionCalls());
+    }
+
+    /**
+     * 按 MilvusBaseService 的方式并发发起读请求：选择节点、从节点连接池获取客户端、调用、记录延迟
+     */
+    private void runReads(ConsistencyLevel consistencyLevel) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                futures.add(executor.submit(() -> {
+                    for (int j = 0; j < READS_PER_THREAD; j++) {
+                        read(consistencyLevel);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private String read(ConsistencyLevel consistencyLevel) throws Exception {
+        MilvusEndpoint endpoint = router.route(MilvusOperation.QUERY, consistencyLevel, null);
+        return router.call(endpoint, target -> {
+            MilvusClientV2 client = target.getPool().getClient(CLIENT_KEY);
+            try {
+                long start = System.nanoTime();
+                String version = client.getServerVersion();
+                router.onSuccess(target, System.nanoTime() - start);
+                return version;
+            } finally {
+                target.getPool().returnClient(CLIENT_KEY, client);
+            }
+        });
+    }
+
+    private MilvusStandInServer startServer(String name) throws Exception {
+        MilvusStandInServer server = new MilvusStandInServer(name).start();
+        servers.add(server);
+        return server;
+    }
+
+    private MilvusClientPool createPool(MilvusStandInServer server) throws Exception {
+        ConnectConfig connectConfig = ConnectConfig.builder()
+                .uri(server.getUri())
+                .connectTimeoutMs(1000)
+                .rpcDeadlineMs(1000)
+                .build();
+        PoolConfig poolConfig = PoolConfig.builder()
+                .maxIdlePerKey(THREADS)
+                .maxTotalPerKey(THREADS)
+                .maxTotal(THREADS)
+                .maxBlockWaitDuration(Duration.ofSeconds(5))
+                .build();
+        MilvusClientPool pool = new MilvusClientPool(poolConfig, connectConfig);
+        pools.add(pool);
+        return pool;
+    }
+
+}
@@ -0,0 +1,189 @@
+package com.jcq.milvusEncap.schema;
+
+import com.jcq.milvusEncap.annotation.CollectionName;
+import com.jcq.milvusEncap.annotation.MaxLength;
+import com.jcq.milvusEncap.annotation.PartitionKey;
+import com.jcq.milvusEncap.annotation.PrimaryKey;
+import com.jcq.milvusEncap.annotation.ScalarIndex;
+import com.jcq.milvusEncap.annotation.VectorField;
+import io.milvus.v2.common.DataType;
+import io.milvus.v2.common.IndexParam;
+import io.milvus.v2.service.collection.request.CreateCollectionReq;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 验证实体注解到集合字段、索引参数与分区数量的映射，以及不支持的定义被拒绝
+ */
+public class EntitySchemaResolverTest {
+
+    @Data
+    public static class BaseDO {
+        @PrimaryKey
+        private Long id;
+        private Long createdTime;
+    }
+
+    @Data
+    @EqualsAndHashCode(callSuper = true)
+    @CollectionName(" resolver_samples ")
+    public static class ResolverDO extends BaseDO {
+        @PartitionKey(numPartitions = 32)
+        @ScalarIndex
+        private Long tenantId;
+        @MaxLength(64)
+        private String title;
+        private String content;
+        @MaxLength(16)
+        @ScalarIndex(IndexParam.IndexType.BITMAP)
+        private String status;
+        private int rank;
+        private Boolean enabled;
+        private Double score;
+        private Map<String, Object> extra;
+        @VectorField(dim = 8, metricType = IndexParam.MetricType.IP, indexType = IndexParam.IndexType.HNSW,
+                params = {"M=16", "efConstruction = 200", "radius=0.5", "level=high"})
+        private float[] titleVector;
+        private static final String IGNORED = "static";
+        private transient String ignored;
+    }
+
+    @Data
+    @CollectionName("client_key_resolver")
+    public static class ClientKeyDO {
+        @PrimaryKey(type = "snowflake")
+        private Long sampleId;
+        @VectorField(dim = 4, dataType = DataType.BFloat16Vector, indexType = IndexParam.IndexType.FLAT,
+                metricType = IndexParam.MetricType.L2)
+        private short[] sampleVector;
+    }
+
+    @Data
+    @CollectionName("no_primary_key")
+    public static class NoPrimaryKeyDO {
+        private Long id;
+    }
+
+    @Data
+    @CollectionName("no_vector_field")
+    public static class NoVectorFieldDO {
+        @PrimaryKey
+        private Long id;
+        private float[] vector;
+    }
+
+    @Data
+    @CollectionName("unsupported_type")
+    public static class UnsupportedTypeDO {
+        @PrimaryKey
+        private Long id;
+        private List<String> tags;
+    }
+
+    @Data
+    @CollectionName("bad_params")
+    public static class BadParamsDO {
+        @PrimaryKey
+        private Long id;
+        @VectorField(dim = 4, params = {"M"})
+        private float[] vector;
+    }
+
+    @Data
+    public static class UnnamedDO {
+        @PrimaryKey
+        private Long id;
+    }
+
+    @Test
+    public void mapsFieldsFromAnnotations() {
+        EntitySchema schema = EntitySchemaResolver.resolve(ResolverDO.class);
+        assertEquals(ResolverDO.class, schema.getEntityClass());
+        assertEquals("resolver_samples", schema.getCollectionName());
+        assertEquals(32, schema.getNumPartitions());
+
+        CreateCollectionReq.CollectionSchema collectionSchema = schema.getCollectionSchema();
+        // 父类字段在前，静态与 transient 字段不建列
+        assertEquals(List.of("id", "created_time", "tenant_id", "title", "content", "status", "rank", "enabled",
+                        "score", "extra", "title_vector"),
+                collectionSchema.getFieldSchemaList().stream().map(CreateCollectionReq.FieldSchema::getName).toList());
+
+        CreateCollectionReq.FieldSchema id = collectionSchema.getField("id");
+        assertEquals(DataType.Int64, id.getDataType());
+        assertTrue(id.getIsPrimaryKey());
+        assertTrue(id.getAutoID());
+
+        CreateCollectionReq.FieldSchema tenantId = collectionSchema.getField("tenant_id");
+        assertEquals(DataType.Int64, tenantId.getDataType());
+        assertTrue(tenantId.getIsPartitionKey());
+
+        assertEquals(DataType.VarChar, collectionSchema.getField("title").getDataType());
+        assertEquals(64, collectionSchema.getField("title").getMaxLength());
+        assertEquals(EntitySchemaResolver.DEFAULT_MAX_LENGTH, collectionSchema.getField("content").getMaxLength());
+        assertEquals(16, collectionSchema.getField("status").getMaxLength());
+        assertEquals(DataType.Int32, collectionSchema.getField("rank").getDataType());
+        assertEquals(DataType.Bool, collectionSchema.getField("enabled").getDataType());
+        assertEquals(DataType.Double, collectionSchema.getField("score").getDataType());
+        assertEquals(DataType.JSON, collectionSchema.getField("extra").getDataType());
+
+        CreateCollectionReq.FieldSchema vector = collectionSchema.getField("title_vector");
+        assertEquals(DataType.FloatVector, vector.getDataType());
+        assertEquals(8, vector.getDimension());
+    }
+
+    @Test
+    public void mapsIndexesFromAnnotations() {
+        List<IndexParam> indexParams = EntitySchemaResolver.resolve(ResolverDO.class).getIndexParams();
+        assertEquals(List.of("tenant_id", "status", "title_vector"),
+                indexParams.stream().map(IndexParam::getFieldName).toList());
+
+        IndexParam tenantIndex = indexParams.get(0);
+        assertEquals(IndexParam.IndexType.INVERTED, tenantIndex.getIndexType());
+        assertEquals(IndexParam.IndexType.BITMAP, indexParams.get(1).getIndexType());
+
+        IndexParam vectorIndex = indexParams.get(2);
+        assertEquals(IndexParam.IndexType.HNSW, vectorIndex.getIndexType());
+        assertEquals(IndexParam.MetricType.IP, vectorIndex.getMetricType());
+        // 整数、小数参数转换为数字，其余保持字符串
+        assertEquals(Map.of("M", 16, "efConstruction", 200, "radius", 0.5, "level", "high"),
+                vectorIndex.getExtraParams());
+    }
+
+    @Test
+    public void mapsClientKeyAndHalfVector() {
+        EntitySchema schema = EntitySchemaResolver.resolve(ClientKeyDO.class);
+        assertNull(schema.getNumPartitions());
+
+        CreateCollectionReq.FieldSchema sampleId = schema.getCollectionSchema().getField("sample_id");
+        assertTrue(sampleId.getIsPrimaryKey());
+        assertEquals(Boolean.FALSE, sampleId.getAutoID());
+
+        CreateCollectionReq.FieldSchema vector = schema.getCollectionSchema().getField("sample_vector");
+        assertEquals(DataType.BFloat16Vector, vector.getDataType());
+        assertEquals(4, vector.getDimension());
+
+        IndexParam index = schema.getIndexParams().get(0);
+        assertEquals(IndexParam.IndexType.FLAT, index.getIndexType());
+        assertEquals(IndexParam.MetricType.L2, index.getMetricType());
+        assertTrue(index.getExtraParams().isEmpty());
+    }
+
+    @Test
+    public void rejectsUnsupportedDefinitions() {
+        assertThrows(IllegalArgumentException.class, () -> EntitySchemaResolver.resolve(UnnamedDO.class));
+        assertThrows(IllegalArgumentException.class, () -> EntitySchemaResolver.resolve(NoPrimaryKeyDO.class));
+        assertThrows(IllegalArgumentException.class, () -> EntitySchemaResolver.resolve(NoVectorFieldDO.class));
+        assertThrows(IllegalArgumentException.class, () -> EntitySchemaResolver.resolve(UnsupportedTypeDO.class));
+        assertThrows(IllegalArgumentException.class, () -> EntitySchemaResolver.resolve(BadParamsDO.class));
+    }
+
+}
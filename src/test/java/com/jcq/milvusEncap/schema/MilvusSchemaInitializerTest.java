@@ -0,0 +1,169 @@
+package com.jcq.milvusEncap.schema;
+
+import com.jcq.milvusEncap.annotation.CollectionName;
+import com.jcq.milvusEncap.annotation.MaxLength;
+import com.jcq.milvusEncap.annotation.PartitionKey;
+import com.jcq.milvusEncap.annotation.PrimaryKey;
+import com.jcq.milvusEncap.annotation.ScalarIndex;
+import com.jcq.milvusEncap.annotation.VectorField;
+import com.jcq.milvusEncap.config.MilvusTenantProperties;
+import com.jcq.milvusEncap.monitor.MilvusMetrics;
+import com.jcq.milvusEncap.pool.MilvusClientPool;
+import com.jcq.milvusEncap.routing.MilvusEndpoint;
+import com.jcq.milvusEncap.routing.MilvusRouter;
+import com.jcq.milvusEncap.service.milvus.MilvusBaseService;
+import com.jcq.milvusEncap.standin.MilvusStandInServer;
+import com.jcq.milvusEncap.tenant.TenantRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.milvus.pool.PoolConfig;
+import io.milvus.v2.client.ConnectConfig;
+import io.milvus.v2.client.MilvusClientV2;
+import io.milvus.v2.common.DataType;
+import io.milvus.v2.common.IndexParam;
+import io.milvus.v2.service.collection.request.AddFieldReq;
+import io.milvus.v2.service.collection.request.CreateCollectionReq;
+import io.milvus.v2.service.collection.request.HasCollectionReq;
+import io.milvus.v2.service.index.request.ListIndexesReq;
+import lombok.Data;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 验证启动时按实体定义创建缺失的集合，已有集合的字段与索引差异报告，以及缺失索引的自动补建
+ */
+public class MilvusSchemaInitializerTest {
+
+    private static final String CLIENT_KEY = "client";
+    private static final String COLLECTION = "schema_drift";
+
+    @Data
+    @CollectionName(COLLECTION)
+    public static class DriftDO {
+        @PrimaryKey
+        private Long id;
+        @PartitionKey(numPartitions = 4)
+        private Long tenantId;
+        @MaxLength(64)
+        private String title;
+        @VectorField(dim = 4, metricType = IndexParam.MetricType.COSINE, params = {"M=16", "efConstruction=200"})
+        private float[] titleVector;
+        @MaxLength(16)
+        @ScalarIndex(IndexParam.IndexType.BITMAP)
+        private String status;
+        private Integer rank;
+    }
+
+    private MilvusStandInServer server;
+    private MilvusClientPool pool;
+    private MilvusRouter router;
+    private MilvusClientV2 client;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        server = new MilvusStandInServer("stand-in").start();
+        PoolConfig poolConfig = PoolConfig.builder()
+                .maxIdlePerKey(2)
+                .maxTotalPerKey(2)
+                .maxBlockWaitDuration(Duration.ofSeconds(2))
+                .build();
+        pool = new MilvusClientPool(poolConfig, ConnectConfig.builder().uri(server.getUri()).build());
+        router = new MilvusRouter(new MilvusEndpoint("primary", MilvusEndpoint.Role.PRIMARY, pool), List.of(),
+                CLIENT_KEY, null, 2);
+        client = new MilvusClientV2(ConnectConfig.builder().uri(server.getUri()).build());
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        client.close();
+        router.close();
+        pool.close();
+        server.close();
+    }
+
+    @Test
+    public void createsMissingCollection() throws Exception {
+        MilvusSchemaInitializer initializer = initializer(true, true);
+        initializer.run(null);
+        assertTrue(client.hasCollection(HasCollectionReq.builder().collectionName(COLLECTION).build()));
+        assertEquals(1, initializer.getSchemas().size());
+        assertTrue(initializer.getDrifts().isEmpty());
+
+        // 按实体定义创建的集合再次启动时没有差异
+        MilvusSchemaInitializer restarted = initializer(true, true);
+        restarted.run(null);
+        assertTrue(restarted.getDrifts().isEmpty(), () -> restarted.getDrifts().toString());
+    }
+
+    @Test
+    public void reportsDriftAndCreatesMissingIndex() throws Exception {
+        CreateCollectionReq.CollectionSchema schema = CreateCollectionReq.CollectionSchema.builder().build();
+        schema.addField(AddFieldReq.builder().fieldName("id").dataType(DataType.Int64).isPrimaryKey(true)
+                .autoID(false).build());
+        schema.addField(AddFieldReq.builder().fieldName("tenant_id").dataType(DataType.Int64).build());
+        schema.addField(AddFieldReq.builder().fieldName("title").dataType(DataType.VarChar).maxLength(32).build());
+        schema.addField(AddFieldReq.builder().fieldName("title_vector").dataType(DataType.FloatVector).dimension(8).build());
+        schema.addField(AddFieldReq.builder().fieldName("status").dataType(DataType.VarChar).maxLength(16).build());
+        schema.addField(AddFieldReq.builder().fieldName("legacy").dataType(DataType.Int32).build());
+        client.createCollection(CreateCollectionReq.builder()
+                .collectionName(COLLECTION)
+                .collectionSchema(schema)
+                .indexParams(List.of(IndexParam.builder()
+                        .fieldName("title_vector")
+                        .indexType(IndexParam.IndexType.HNSW)
+                        .metricType(IndexParam.MetricType.L2)
+                        .extraParams(Map.of("M", 8, "efConstruction", 200))
+                        .build()))
+                .build());
+
+        MilvusSchemaInitializer initializer = initializer(true, false);
+        initializer.run(null);
+        assertEquals(List.of(
+                        "id autoID true->false",
+                        "tenant_id partitionKey true->false",
+                        "title maxLength 64->32",
+                        "title_vector dimension 4->8",
+                        "rank field exists->missing",
+                        "legacy field missing->exists",
+                        "title_vector metricType COSINE->L2",
+                        "title_vector index.M 16->8",
+                        "status index status:BITMAP->missing (fixed)"),
+                initializer.getDrifts().stream().map(MilvusSchemaInitializerTest::describe).toList());
+
+        // 缺失的索引已补建，其余差异不修改集合
+        List<String> indexes = client.listIndexes(ListIndexesReq.builder().collectionName(COLLECTION).build());
+        assertEquals(2, indexes.size());
+        assertTrue(indexes.contains("status"));
+    }
+
+    @Test
+    public void failsOnDriftWithoutAutoCreate() {
+        MilvusSchemaInitializer initializer = initializer(false, true);
+        assertThrows(IllegalStateException.class, () -> initializer.run(null));
+        assertFalse(client.hasCollection(HasCollectionReq.builder().collectionName(COLLECTION).build()));
+    }
+
+    private MilvusSchemaInitializer initializer(boolean autoCreate, boolean failOnDrift) {
+        MilvusBaseService<DriftDO> service = new MilvusBaseService<>(DriftDO.class) {
+        };
+        TenantRegistry tenantRegistry = new TenantRegistry(new MilvusTenantProperties(),
+                new MilvusMetrics(new SimpleMeterRegistry(), null));
+        return new MilvusSchemaInitializer(List.of(service), router, tenantRegistry, autoCreate, failOnDrift);
+    }
+
+    private static String describe(SchemaDrift drift) {
+        assertEquals(COLLECTION, drift.getCollectionName());
+        return drift.getFieldName() + " " + drift.getItem() + " " + drift.getExpected() + "->" + drift.getActual()
+                + (drift.isFixed() ? " (fixed)" : "");
+    }
+
+}
@@ -0,0 +1,109 @@
+package com.jcq.milvusEncap.service.milvus;
+
+import com.jcq.milvusEncap.annotation.CollectionName;
+import com.jcq.milvusEncap.annotation.PrimaryKey;
+import com.jcq.milvusEncap.annotation.VectorField;
+import com.jcq.milvusEncap.backend.embedded.EmbeddedMilvusBackend;
+import io.milvus.v2.common.IndexParam;
+import lombok.Data;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * 验证客户端生成的多单词主键按下划线列名查询，单独查询与合并查询都能取回数据
+ */
+public class ClientKeyGetByIdTest {
+
+    private final EmbeddedMilvusBackend backend = EmbeddedServices.backend();
+    private ClientKeyService service;
+
+    @BeforeEach
+    public void setUp() {
+        service = EmbeddedServices.wire(new ClientKeyService(), backend);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        backend.close();
+    }
+
+    @Test
+    public void primaryKeyColumnIsSnakeCase() {
+        assertEquals("sample_id", service.getMetadata().getPrimaryKeyColumn());
+    }
+
+    @Test
+    public void getByIdFindsClientGeneratedKey() {
+        ClientKeyDO entity = entity("first");
+        Long id = service.insert(entity);
+        assertEquals(entity.getSampleId(), id);
+
+        ClientKeyDO loaded = service.getById(id);
+        assertNotNull(loaded);
+        assertEquals(id, loaded.getSampleId());
+        assertEquals("first", loaded.getSampleName());
+        assertNull(service.getById(id + 1));
+    }
+
+    @Test
+    public void batchedGetByIdFindsClientGeneratedKey() throws Exception {
+        ReflectionTestUtils.setField(service, "getByIdBatchEnabled", true);
+        List<Long> ids = service.insertBatch(List.of(entity("a"), entity("b"), entity("c")));
+
+        ExecutorService executor = Executors.newFixedThreadPool(ids.size());
+        try {
+            List<Future<ClientKeyDO>> futures = new ArrayList<>();
+            for (Long id : ids) {
+                futures.add(executor.submit(() -> service.getById(id)));
+            }
+            List<String> names = new ArrayList<>();
+            for (int i = 0; i < ids.size(); i++) {
+                ClientKeyDO loaded = futures.get(i).get(5, TimeUnit.SECONDS);
+                assertEquals(ids.get(i), loaded.getSampleId());
+                names.add(loaded.getSampleName());
+            }
+            assertEquals(List.of("a", "b", "c"), names);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static ClientKeyDO entity(String name) {
+        ClientKeyDO entity = new ClientKeyDO();
+        entity.setSampleName(name);
+        entity.setSampleVector(new float[]{1f, 0f, 0f, 0f});
+        return entity;
+    }
+
+    @Data
+    @CollectionName("client_key_samples")
+    public static class ClientKeyDO {
+        @PrimaryKey(type = "snowflake")
+        private Long sampleId;
+        private String sampleName;
+        @VectorField(dim = 4, metricType = IndexParam.MetricType.COSINE)
+        private float[] sampleVector;
+    }
+
+    static class ClientKeyService extends MilvusBaseService<ClientKeyDO> {
+
+        ClientKeyService() {
+            super(ClientKeyDO.class);
+        }
+
+    }
+
+}
@@ -0,0 +1,63 @@
+package com.jcq.milvusEncap.service.milvus;
+
+import com.jcq.milvusEncap.backend.MilvusStorageBackend;
+import com.jcq.milvusEncap.backend.embedded.EmbeddedMilvusBackend;
+import com.jcq.milvusEncap.config.MilvusTenantProperties;
+import com.jcq.milvusEncap.id.PrimaryKeyGenerators;
+import com.jcq.milvusEncap.id.SnowflakeIdGenerator;
+import com.jcq.milvusEncap.limiter.MilvusConcurrencyLimiter;
+import com.jcq.milvusEncap.monitor.MilvusMetrics;
+import com.jcq.milvusEncap.monitor.MilvusSlowOperationLogger;
+import com.jcq.milvusEncap.routing.MilvusRouter;
+import com.jcq.milvusEncap.tenant.TenantRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+/**
+ * 不启动 Spring 容器，在嵌入式存储后端上组装 MilvusBaseService，配置项使用各自的默认值
+ */
+public final class EmbeddedServices {
+
+    private EmbeddedServices() {
+    }
+
+    /**
+     * 使用堆外向量存储、不写快照的嵌入式后端
+     */
+    public static EmbeddedMilvusBackend backend() {
+        EmbeddedMilvusBackend backend = new EmbeddedMilvusBackend();
+        ReflectionTestUtils.setField(backend, "storage", "offheap");
+        ReflectionTestUtils.setField(backend, "dataDir", "");
+        ReflectionTestUtils.setField(backend, "efSearch", 64);
+        ReflectionTestUtils.setField(backend, "bruteForceThreshold", 1024);
+        ReflectionTestUtils.setField(backend, "compactRatio", 0.3);
+        return backend;
+    }
+
+    /**
+     * 注入 Service 依赖的组件并向后端注册集合
+     */
+    public static <S extends MilvusBaseService<?>> S wire(S service, MilvusStorageBackend backend) {
+        MilvusMetrics metrics = new MilvusMetrics(new SimpleMeterRegistry(), null);
+        ReflectionTestUtils.setField(service, "backend", backend);
+        ReflectionTestUtils.setField(service, "router", Mockito.mock(MilvusRouter.class));
+        ReflectionTestUtils.setField(service, "milvusMetrics", metrics);
+        ReflectionTestUtils.setField(service, "slowOperationLogger", new MilvusSlowOperationLogger(false, 500, 0));
+        ReflectionTestUtils.setField(service, "concurrencyLimiter",
+                new MilvusConcurrencyLimiter(metrics, false, 20, 4, 100, 2.0, 0.2));
+        ReflectionTestUtils.setField(service, "primaryKeyGenerators",
+                new PrimaryKeyGenerators(List.of(new SnowflakeIdGenerator(3))));
+        ReflectionTestUtils.setField(service, "tenantRegistry", new TenantRegistry(new MilvusTenantProperties(), metrics));
+        ReflectionTestUtils.setField(service, "exportBatchSize", 1000L);
+        ReflectionTestUtils.setField(service, "rescoreOversample", 1);
+        ReflectionTestUtils.setField(service, "coalesceWaitTimeoutMs", 10_000L);
+        ReflectionTestUtils.setField(service, "getByIdBatchWindowMs", 2L);
+        ReflectionTestUtils.setField(service, "getByIdBatchMaxSize", 100);
+        service.registerCollection();
+        return service;
+    }
+
+}
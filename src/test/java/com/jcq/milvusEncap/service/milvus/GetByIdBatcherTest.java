@@ -0,0 +1,104 @@
+package com.jcq.milvusEncap.service.milvus;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 验证并发的按主键查询在窗口内合并、批次上限、结果按主键分发与失败传播
+ */
+public class GetByIdBatcherTest {
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final List<List<Long>> batches = new CopyOnWriteArrayList<>();
+    private final List<Integer> sizes = new CopyOnWriteArrayList<>();
+
+    @AfterEach
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void concurrentCallsShareOneQuery() throws Exception {
+        // 窗口足够长，保证所有调用方都在同一个批次内
+        GetByIdBatcher<String> batcher = new GetByIdBatcher<>(TimeUnit.MILLISECONDS.toNanos(500), 100,
+                this::load, sizes::add);
+        List<Long> ids = List.of(1L, 2L, 3L, 2L, 404L);
+        List<Future<String>> results = new ArrayList<>();
+        for (Long id : ids) {
+            results.add(executor.submit(() -> batcher.load(id)));
+        }
+
+        assertEquals("row-1", results.get(0).get(5, TimeUnit.SECONDS));
+        assertEquals("row-2", results.get(1).get(5, TimeUnit.SECONDS));
+        assertEquals("row-3", results.get(2).get(5, TimeUnit.SECONDS));
+        assertEquals("row-2", results.get(3).get(5, TimeUnit.SECONDS));
+        // 不存在的主键返回 null
+        assertNull(results.get(4).get(5, TimeUnit.SECONDS));
+        // 重复的主键只查询一次
+        assertEquals(1, batches.size());
+        assertEquals(4, batches.get(0).size());
+        assertEquals(List.of(4), sizes);
+
+        // 上一个批次结束后重新开始收集
+        assertEquals("row-7", batcher.load(7L));
+        assertEquals(List.of(7L), batches.get(1));
+    }
+
+    @Test
+    public void fullBatchIsDispatchedImmediately() throws Exception {
+        GetByIdBatcher<String> batcher = new GetByIdBatcher<>(TimeUnit.SECONDS.toNanos(30), 3, this::load, sizes::add);
+        long start = System.nanoTime();
+        List<Future<String>> results = new ArrayList<>();
+        for (long id = 1; id <= 3; id++) {
+            long current = id;
+            results.add(executor.submit(() -> batcher.load(current)));
+        }
+        for (int i = 0; i < results.size(); i++) {
+            assertEquals("row-" + (i + 1), results.get(i).get(5, TimeUnit.SECONDS));
+        }
+        // 达到上限后不等待窗口结束
+        assertEquals(1, batches.size());
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5));
+    }
+
+    @Test
+    public void failurePropagatesToWholeBatch() throws Exception {
+        GetByIdBatcher<String> batcher = new GetByIdBatcher<>(TimeUnit.MILLISECONDS.toNanos(500), 2, ids -> {
+            throw new IllegalStateException("boom");
+        }, sizes::add);
+        Future<String> first = executor.submit(() -> batcher.load(1L));
+        Future<String> second = executor.submit(() -> batcher.load(2L));
+
+        assertInstanceOf(IllegalStateException.class, assertThrows(Exception.class, () -> first.get(5, TimeUnit.SECONDS)).getCause());
+        assertInstanceOf(IllegalStateException.class, assertThrows(Exception.class, () -> second.get(5, TimeUnit.SECONDS)).getCause());
+        assertEquals(List.of(2), sizes);
+    }
+
+    private Map<Long, String> load(List<Long> ids) {
+        batches.add(ids);
+        Map<Long, String> rows = new HashMap<>();
+        for (Long id : ids) {
+            if (id != 404L) {
+                rows.put(id, "row-" + id);
+            }
+        }
+        return rows;
+    }
+
+}
@@ -0,0 +1,47 @@
+package com.jcq.milvusEncap.service.milvus;
+
+import com.jcq.milvusEncap.dal.dataobject.agent.SamplesDO;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 验证 Partition Key 字段上的等于/in 条件单独识别并排在过滤条件最前面
+ */
+public class MilvusLambdaQueryWrapperTest {
+
+    @Test
+    public void eqOnPartitionKeyComesFirst() {
+        MilvusLambdaQueryWrapper<SamplesDO> wrapper = new MilvusLambdaQueryWrapper<SamplesDO>()
+                .likeIfPresent(SamplesDO::getSampleQuestion, "abc")
+                .eqIfPresent(SamplesDO::getAgentId, 12L);
+        assertTrue(wrapper.hasPartitionKeyFilter());
+        assertEquals("agent_id == 12 and sample_question like \"%abc%\"", wrapper.buildFilter());
+    }
+
+    @Test
+    public void inOnPartitionKeyComesFirst() {
+        MilvusLambdaQueryWrapper<SamplesDO> wrapper = new MilvusLambdaQueryWrapper<SamplesDO>()
+                .eqIfPresent(SamplesDO::getSampleStatus, "1")
+                .in(SamplesDO::getAgentId, List.of(1L, 2L))
+                .in(SamplesDO::getSampleId, 7L);
+        assertTrue(wrapper.hasPartitionKeyFilter());
+        assertEquals("agent_id in [1, 2] and sample_status == \"1\" and sample_id in [7]", wrapper.buildFilter());
+    }
+
+    @Test
+    public void otherConditionsDoNotScopePartitionKey() {
+        MilvusLambdaQueryWrapper<SamplesDO> wrapper = new MilvusLambdaQueryWrapper<SamplesDO>()
+                .eqIfPresent(SamplesDO::getAgentId, null)
+                .ne(SamplesDO::getAgentId, 3L)
+                .gt(SamplesDO::getCreatedTime, 100L);
+        assertFalse(wrapper.hasPartitionKeyFilter());
+        assertEquals("agent_id != 3 and created_time > 100", wrapper.buildFilter());
+        assertEquals("", new MilvusLambdaQueryWrapper<SamplesDO>().buildFilter());
+    }
+
+}
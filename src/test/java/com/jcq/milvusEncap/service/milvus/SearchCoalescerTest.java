@@ -0,0 +1,185 @@
+package com.jcq.milvusEncap.service.milvus;
+
+import io.grpc.Status;
+import io.milvus.v2.common.ConsistencyLevel;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 验证相同检索请求的合并、失败传播、等待超时与 leader 取消后的处理
+ */
+public class SearchCoalescerTest {
+
+    private static final SearchCoalescer.Key KEY = key(new float[]{1, 2, 3}, "agent_id == 1");
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final List<String> outcomes = new CopyOnWriteArrayList<>();
+
+    @AfterEach
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void identicalCallsShareOneExecution() throws Exception {
+        SearchCoalescer coalescer = new SearchCoalescer(5000, outcomes::add);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger executions = new AtomicInteger();
+        Callable<String> call = () -> {
+            executions.incrementAndGet();
+            release.await();
+            return "result";
+        };
+
+        Future<String> leader = submit(coalescer, KEY, call);
+        awaitInFlight(coalescer);
+        List<MilvusOperationContext> contexts = new CopyOnWriteArrayList<>();
+        List<Future<String>> followers = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            MilvusOperationContext context = context();
+            contexts.add(context);
+            // 向量内容相同即可，不要求同一个数组
+            followers.add(executor.submit(() -> coalescer.call(key(new float[]{1, 2, 3}, "agent_id == 1"), context, call)));
+        }
+        awaitWaiters(contexts);
+        release.countDown();
+
+        assertEquals("result", leader.get(5, TimeUnit.SECONDS));
+        for (Future<String> follower : followers) {
+            assertEquals("result", follower.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, executions.get());
+        assertEquals(List.of("shared", "shared", "shared", "shared"), outcomes);
+        assertTrue(contexts.stream().allMatch(MilvusOperationContext::isCoalesced));
+        assertEquals(0, coalescer.inFlight());
+
+        // 完成后不缓存结果，再次调用会重新执行
+        assertEquals("result", coalescer.call(KEY, context(), call));
+        assertEquals(2, executions.get());
+    }
+
+    @Test
+    public void failurePropagatesToWaiters() throws Exception {
+        SearchCoalescer coalescer = new SearchCoalescer(5000, outcomes::add);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<String> leader = submit(coalescer, KEY, () -> {
+            release.await();
+            throw new IllegalStateException("boom");
+        });
+        awaitInFlight(coalescer);
+        MilvusOperationContext context = context();
+        Future<String> follower = executor.submit(() -> coalescer.call(KEY, context, () -> "unused"));
+        awaitWaiters(List.of(context));
+        release.countDown();
+
+        assertInstanceOf(IllegalStateException.class, assertThrows(Exception.class, leader::get).getCause());
+        assertInstanceOf(IllegalStateException.class, assertThrows(Exception.class, follower::get).getCause());
+        assertEquals(List.of("shared"), outcomes);
+    }
+
+    @Test
+    public void waiterTimesOutWithoutAffectingLeader() throws Exception {
+        SearchCoalescer coalescer = new SearchCoalescer(50, outcomes::add);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<String> leader = submit(coalescer, KEY, () -> {
+            release.await();
+            return "result";
+        });
+        awaitInFlight(coalescer);
+
+        assertThrows(TimeoutException.class, () -> coalescer.call(KEY, context(), () -> "unused"));
+        assertEquals(List.of("timeout"), outcomes);
+        release.countDown();
+        assertEquals("result", leader.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void cancelledLeaderIsNotInherited() throws Exception {
+        SearchCoalescer coalescer = new SearchCoalescer(5000, outcomes::add);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<String> leader = submit(coalescer, KEY, () -> {
+            release.await();
+            throw Status.CANCELLED.withDescription("client cancelled").asRuntimeException();
+        });
+        awaitInFlight(coalescer);
+        AtomicInteger own = new AtomicInteger();
+        MilvusOperationContext context = context();
+        Future<String> follower = executor.submit(() -> coalescer.call(KEY, context, () -> {
+            own.incrementAndGet();
+            return "own";
+        }));
+        awaitWaiters(List.of(context));
+        release.countDown();
+
+        assertThrows(Exception.class, () -> leader.get(5, TimeUnit.SECONDS));
+        assertEquals("own", follower.get(5, TimeUnit.SECONDS));
+        assertEquals(1, own.get());
+        assertEquals(List.of("retried"), outcomes);
+    }
+
+    @Test
+    public void keyNormalization() {
+        float[] vector = {0.5f, -1f};
+        SearchCoalescer.Key key = key(vector, null);
+        assertEquals(key, key(new float[]{0.5f, -1f}, ""));
+        assertEquals(key.hashCode(), key(new float[]{0.5f, -1f}, "").hashCode());
+        // 调用方之后修改数组不影响已经登记的请求
+        vector[0] = 9;
+        assertNotEquals(key, key(vector, null));
+        assertNotEquals(key, new SearchCoalescer.Key(new float[]{0.5f, -1f}, 10, null, ConsistencyLevel.EVENTUALLY,
+                List.of(), 1));
+        assertNotEquals(key, new SearchCoalescer.Key(new float[]{0.5f, -1f}, 5, null, null, List.of(), 1));
+
+        assertTrue(SearchCoalescer.isCoalescable(null));
+        assertTrue(SearchCoalescer.isCoalescable(ConsistencyLevel.BOUNDED));
+        assertFalse(SearchCoalescer.isCoalescable(ConsistencyLevel.STRONG));
+        assertFalse(SearchCoalescer.isCoalescable(ConsistencyLevel.SESSION));
+    }
+
+    private static SearchCoalescer.Key key(float[] vector, String filter) {
+        return new SearchCoalescer.Key(vector, 10, filter, null, List.of(), 1);
+    }
+
+    private static MilvusOperationContext context() {
+        return new MilvusOperationContext(MilvusOperation.SEARCH, "coalesce_test");
+    }
+
+    private Future<String> submit(SearchCoalescer coalescer, SearchCoalescer.Key key, Callable<String> call) {
+        return executor.submit(() -> coalescer.call(key, context(), call));
+    }
+
+    private static void awaitInFlight(SearchCoalescer coalescer) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (coalescer.inFlight() == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertEquals(1, coalescer.inFlight());
+    }
+
+    private static void awaitWaiters(List<MilvusOperationContext> contexts) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!contexts.stream().allMatch(MilvusOperationContext::isCoalesced) && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+    }
+
+}
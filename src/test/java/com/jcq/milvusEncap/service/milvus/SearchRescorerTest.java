@@ -0,0 +1,121 @@
+package com.jcq.milvusEncap.service.milvus;
+
+import com.jcq.milvusEncap.vector.HalfFloats;
+import io.milvus.v2.common.DataType;
+import io.milvus.v2.common.IndexParam;
+import io.milvus.v2.service.vector.response.SearchResp;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * 验证精确重排按度量类型重新计算分数并取真正的前 topK 条
+ */
+public class SearchRescorerTest {
+
+    private static final float[] QUERY = {1, 0};
+
+    @Test
+    public void cosineReordersByExactScore() {
+        // 近似索引给出的顺序与分数都是错的
+        List<SearchResp.SearchResult> candidates = List.of(
+                candidate(1, 0.99f, 0, 1),
+                candidate(2, 0.50f, 1, 1),
+                candidate(3, 0.10f, 1, 0));
+        SearchRescorer.Rescored top = new SearchRescorer(IndexParam.MetricType.COSINE, "vector")
+                .rescore(QUERY, new ArrayList<>(candidates), 2);
+
+        assertEquals(List.of(3L, 2L), ids(top));
+        assertEquals(1f, top.scores()[0], 1e-6);
+        assertEquals((float) Math.sqrt(0.5), top.scores()[1], 1e-6);
+        // 合并检索的调用方共享候选，重排不修改候选的分数
+        assertEquals(0.10f, candidates.get(2).getScore());
+        assertEquals(0.50f, candidates.get(1).getScore());
+    }
+
+    @Test
+    public void l2SortsAscendingAndKeepsOrderOnTies() {
+        List<SearchResp.SearchResult> candidates = List.of(
+                candidate(1, 0, 3, 0),
+                candidate(2, 0, 1, 1),
+                candidate(3, 0, 1, -1),
+                candidate(4, 0, -1, 0));
+        SearchRescorer.Rescored top = new SearchRescorer(IndexParam.MetricType.L2, "vector")
+                .rescore(QUERY, new ArrayList<>(candidates), 3);
+
+        assertEquals(List.of(2L, 3L, 1L), ids(top));
+        assertEquals(1f, top.scores()[0], 1e-6);
+        assertEquals(4f, top.scores()[2], 1e-6);
+    }
+
+    @Test
+    public void innerProductHandlesNegativeScores() {
+        List<SearchResp.SearchResult> candidates = List.of(
+                candidate(1, 0, -2, 0),
+                candidate(2, 0, -1, 0),
+                candidate(3, 0, 0.5f, 0));
+        SearchRescorer.Rescored top = new SearchRescorer(IndexParam.MetricType.IP, "vector")
+                .rescore(QUERY, new ArrayList<>(candidates), 5);
+
+        assertEquals(List.of(3L, 2L, 1L), ids(top));
+    }
+
+    @Test
+    public void halfPrecisionCandidatesAreDecoded() {
+        List<SearchResp.SearchResult> candidates = List.of(
+                halfCandidate(1, HalfFloats.toFloat16Buffer(new float[]{0, 1})),
+                halfCandidate(2, HalfFloats.toFloat16Buffer(new float[]{0.5f, 0.5f})),
+                halfCandidate(3, HalfFloats.toFloat16Buffer(new float[]{2, 0})));
+        SearchRescorer.Rescored top = new SearchRescorer(IndexParam.MetricType.IP, "vector",
+                DataType.Float16Vector).rescore(QUERY, new ArrayList<>(candidates), 2);
+
+        assertEquals(List.of(3L, 2L), ids(top));
+        assertEquals(2f, top.scores()[0], 1e-6);
+    }
+
+    @Test
+    public void candidateCountIsCapped() {
+        assertEquals(40, SearchRescorer.candidateCount(10, 4));
+        assertEquals(SearchRescorer.MAX_TOP_K, SearchRescorer.candidateCount(5000, 10));
+        assertEquals(10, SearchRescorer.candidateCount(10, 0));
+    }
+
+    @Test
+    public void missingVectorIsRejected() {
+        SearchResp.SearchResult candidate = SearchResp.SearchResult.builder()
+                .id(1L).score(0f).entity(new HashMap<>()).build();
+        SearchRescorer rescorer = new SearchRescorer(IndexParam.MetricType.COSINE, "vector");
+        assertThrows(IllegalStateException.class, () -> rescorer.rescore(QUERY, List.of(candidate), 1));
+        assertThrows(IllegalArgumentException.class, () -> new SearchRescorer(IndexParam.MetricType.HAMMING, "vector"));
+    }
+
+    private static SearchResp.SearchResult candidate(long id, float score, float... vector) {
+        Map<String, Object> entity = new HashMap<>();
+        entity.put("id", id);
+        List<Float> values = new ArrayList<>();
+        for (float value : vector) {
+            values.add(value);
+        }
+        entity.put("vector", values);
+        return SearchResp.SearchResult.builder().id(id).score(score).entity(entity).build();
+    }
+
+    private static SearchResp.SearchResult halfCandidate(long id, ByteBuffer vector) {
+        Map<String, Object> entity = new HashMap<>();
+        entity.put("id", id);
+        entity.put("vector", vector);
+        return SearchResp.SearchResult.builder().id(id).score(0f).entity(entity).build();
+    }
+
+    private static List<Long> ids(SearchRescorer.Rescored rescored) {
+        return rescored.results().stream().map(result -> (Long) result.getId()).toList();
+    }
+
+}
@@ -0,0 +1,490 @@
+package com.jcq.milvusEncap.standin;
+
+import com.google.protobuf.ByteString;
+import com.google.protobuf.InvalidProtocolBufferException;
+import io.grpc.Server;
+import io.grpc.ServerBuilder;
+import io.grpc.stub.StreamObserver;
+import io.milvus.grpc.BoolResponse;
+import io.milvus.grpc.CheckHealthRequest;
+import io.milvus.grpc.CheckHealthResponse;
+import io.milvus.grpc.CollectionSchema;
+import io.milvus.grpc.ConnectRequest;
+import io.milvus.grpc.ConnectResponse;
+import io.milvus.grpc.CreateCollectionRequest;
+import io.milvus.grpc.CreateIndexRequest;
+import io.milvus.grpc.DataType;
+import io.milvus.grpc.DeleteRequest;
+import io.milvus.grpc.DescribeCollectionRequest;
+import io.milvus.grpc.DescribeCollectionResponse;
+import io.milvus.grpc.DescribeIndexRequest;
+import io.milvus.grpc.DescribeIndexResponse;
+import io.milvus.grpc.DropCollectionRequest;
+import io.milvus.grpc.FieldData;
+import io.milvus.grpc.GetLoadStateRequest;
+import io.milvus.grpc.GetLoadStateResponse;
+import io.milvus.grpc.GetVersionRequest;
+import io.milvus.grpc.GetVersionResponse;
+import io.milvus.grpc.HasCollectionRequest;
+import io.milvus.grpc.IDs;
+import io.milvus.grpc.IndexDescription;
+import io.milvus.grpc.InsertRequest;
+import io.milvus.grpc.KeyValuePair;
+import io.milvus.grpc.LoadCollectionRequest;
+import io.milvus.grpc.LoadState;
+import io.milvus.grpc.LongArray;
+import io.milvus.grpc.MilvusServiceGrpc;
+import io.milvus.grpc.MutationResult;
+import io.milvus.grpc.PlaceholderGroup;
+import io.milvus.grpc.QueryRequest;
+import io.milvus.grpc.QueryResults;
+import io.milvus.grpc.ReleaseCollectionRequest;
+import io.milvus.grpc.SearchRequest;
+import io.milvus.grpc.SearchResultData;
+import io.milvus.grpc.SearchResults;
+import io.milvus.grpc.Status;
+import io.milvus.grpc.UpsertRequest;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * 本地 Milvus 替身：在随机端口上启动 gRPC 服务，实现 SDK 建立连接、健康检查与版本查询所需的接口，
+ * 用于在没有真实 Milvus 的环境中启动多个实例测试连接池与路由
+ *
+ * <p>同时在内存中实现了集合与索引的创建、加载，以及 insert/upsert/delete/query/count/search，
+ * 应用把 milvus.host/port 指向替身即可端到端运行（连接池、SDK 编解码都是真实的），
+ * 通过 {@link #getFaults()} 按操作注入延迟与错误，用于离线压测</p>
+ *
+ * @author : jucunqi
+ * @since : 2025/10/16
+ */
+public class MilvusStandInServer extends MilvusServiceGrpc.MilvusServiceImplBase implements AutoCloseable {
+
+    private static final String COUNT_FIELD = "count(*)";
+
+    private final String name;
+    private final AtomicLong versionCalls = new AtomicLong();
+    private final AtomicLong healthCalls = new AtomicLong();
+    private volatile long delayMillis;
+    private volatile boolean healthy = true;
+    private volatile long lastGuaranteeTimestamp;
+    private volatile int loadingChecks;
+    private Server server;
+    private final Map<String, StandInCollection> collections = new ConcurrentHashMap<>();
+    private final StandInFaults faults = new StandInFaults();
+
+    public MilvusStandInServer(String name) {
+        this.name = name;
+    }
+
+    public MilvusStandInServer start() throws IOException {
+        server = ServerBuilder.forPort(0).addService(this).build().start();
+        return this;
+    }
+
+    public String getUri() {
+        return "http://localhost:" + server.getPort();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * 每次请求的处理延迟
+     */
+    public void setDelayMillis(long delayMillis) {
+        this.delayMillis = delayMillis;
+    }
+
+    public void setHealthy(boolean healthy) {
+        this.healthy = healthy;
+    }
+
+    /**
+     * 数据操作的延迟与故障注入配置
+     */
+    public StandInFaults getFaults() {
+        return faults;
+    }
+
+    /**
+     * 集合当前的行数，集合不存在时返回 -1
+     */
+    public int getRowCount(String collectionName) {
+        StandInCollection collection = collections.get(collectionName);
+        return collection == null ? -1 : collection.size();
+    }
+
+    /**
+     * 加载集合后，前 loadingChecks 次查询加载状态返回加载中，模拟加载耗时
+     */
+    public void setLoadingChecks(int loadingChecks) {
+        this.loadingChecks = loadingChecks;
+    }
+
+    /**
+     * 集合是否已经发起加载，集合不存在时返回 false
+     */
+    public boolean isLoadRequested(String collectionName) {
+        StandInCollection collection = collections.get(collectionName);
+        return collection != null && collection.isLoadRequested();
+    }
+
+    public long getVersionCalls() {
+        return versionCalls.get();
+    }
+
+    public long getHealthCalls() {
+        return healthCalls.get();
+    }
+
+    /**
+     * 最近一次查询或检索请求携带的保证时间戳
+     */
+    public long getLastGuaranteeTimestamp() {
+        return lastGuaranteeTimestamp;
+    }
+
+    @Override
+    public void connect(ConnectRequest request, StreamObserver<ConnectResponse> responseObserver) {
+        responseObserver.onNext(ConnectResponse.newBuilder().setStatus(success()).build());
+        responseObserver.onCompleted();
+    }
+
+    @Override
+    public void checkHealth(CheckHealthRequest request, StreamObserver<CheckHealthResponse> responseObserver) {
+        healthCalls.incrementAndGet();
+        responseObserver.onNext(CheckHealthResponse.newBuilder().setStatus(success()).setIsHealthy(healthy).build());
+        responseObserver.onCompleted();
+    }
+
+    @Override
+    public void getVersion(GetVersionRequest request, StreamObserver<GetVersionResponse> responseObserver) {
+        versionCalls.incrementAndGet();
+        sleep();
+        responseObserver.onNext(GetVersionResponse.newBuilder().setStatus(success()).setVersion(name).build());
+        responseObserver.onCompleted();
+    }
+
+    @Override
+    public void hasCollection(HasCollectionRequest request, StreamObserver<BoolResponse> responseObserver) {
+        respond(responseObserver, null, status -> BoolResponse.newBuilder().setStatus(status).build(),
+                () -> BoolResponse.newBuilder().setStatus(success())
+                        .setValue(collections.containsKey(request.getCollectionName())).build());
+    }
+
+    @Override
+    public void createCollection(CreateCollectionRequest request, StreamObserver<Status> responseObserver) {
+        respond(responseObserver, null, Function.identity(), () -> {
+            CollectionSchema schema;
+            try {
+                schema = CollectionSchema.parseFrom(request.getSchema());
+            } catch (InvalidProtocolBufferException e) {
+                throw new IllegalArgumentException("invalid schema", e);
+            }
+            StandInCollection collection = new StandInCollection(schema.toBuilder()
+                    .setName(request.getCollectionName()).build());
+            if (collections.putIfAbsent(request.getCollectionName(), collection) != null) {
+                throw new IllegalArgumentException("collection " + request.getCollectionName() + " already exists");
+            }
+            return success();
+        });
+    }
+
+    @Override
+    public void dropCollection(DropCollectionRequest request, StreamObserver<Status> responseObserver) {
+        respond(responseObserver, null, Function.identity(), () -> {
+            collections.remove(request.getCollectionName());
+            return success();
+        });
+    }
+
+    @Override
+    public void describeCollection(DescribeCollectionRequest request,
+                                   StreamObserver<DescribeCollectionResponse> responseObserver) {
+        respond(responseObserver, null, status -> DescribeCollectionResponse.newBuilder().setStatus(status).build(), () -> {
+            StandInCollection collection = collection(request.getCollectionName());
+            return DescribeCollectionResponse.newBuilder()
+                    .setStatus(success())
+                    .setCollectionName(request.getCollectionName())
+                    .setCollectionID(collection.getId())
+                    .setSchema(collection.getSchema())
+                    .setShardsNum(1)
+                    .build();
+        });
+    }
+
+    @Override
+    public void createIndex(CreateIndexRequest request, StreamObserver<Status> responseObserver) {
+        respond(responseObserver, null, Function.identity(), () -> {
+            collection(request.getCollectionName())
+                    .createIndex(request.getFieldName(), request.getIndexName(), request.getExtraParamsList());
+            return success();
+        });
+    }
+
+    @Override
+    public void describeIndex(DescribeIndexRequest request, StreamObserver<DescribeIndexResponse> responseObserver) {
+        respond(responseObserver, null, status -> DescribeIndexResponse.newBuilder().setStatus(status).build(), () -> {
+            List<IndexDescription> indexes = collection(request.getCollectionName())
+                    .describeIndexes(request.getFieldName(), request.getIndexName());
+            if (indexes.isEmpty()) {
+                // 与 Milvus 一致，没有索引时返回 IndexNotExist，SDK 的 listIndexes 会转换为空列表
+                return DescribeIndexResponse.newBuilder()
+                        .setStatus(failure(700, "index not found")).build();
+            }
+            return DescribeIndexResponse.newBuilder().setStatus(success()).addAllIndexDescriptions(indexes).build();
+        });
+    }
+
+    @Override
+    public void loadCollection(LoadCollectionRequest request, StreamObserver<Status> responseObserver) {
+        respond(responseObserver, null, Function.identity(), () -> {
+            collection(request.getCollectionName()).load(loadingChecks);
+            return success();
+        });
+    }
+
+    @Override
+    public void releaseCollection(ReleaseCollectionRequest request, StreamObserver<Status> responseObserver) {
+        respond(responseObserver, null, Function.identity(), () -> {
+            StandInCollection collection = collections.get(request.getCollectionName());
+            if (collection != null) {
+                collection.release();
+            }
+            return success();
+        });
+    }
+
+    @Override
+    public void getLoadState(GetLoadStateRequest request, StreamObserver<GetLoadStateResponse> responseObserver) {
+        respond(responseObserver, null, status -> GetLoadStateResponse.newBuilder().setStatus(status).build(), () -> {
+            // 替身中未加载的集合同样可以查询，加载状态只用于验证加载流程
+            return GetLoadStateResponse.newBuilder().setStatus(success())
+                    .setState(collection(request.getCollectionName()).loadState()).build();
+        });
+    }
+
+    @Override
+    public void insert(InsertRequest request, StreamObserver<MutationResult> responseObserver) {
+        respond(responseObserver, StandInFaults.Operation.INSERT, MilvusStandInServer::mutationFailure, () -> {
+            List<Long> ids = collection(request.getCollectionName()).write(request.getFieldsDataList(), false);
+            return mutationResult(ids).setInsertCnt(ids.size()).build();
+        });
+    }
+
+    @Override
+    public void upsert(UpsertRequest request, StreamObserver<MutationResult> responseObserver) {
+        respond(responseObserver, StandInFaults.Operation.UPSERT, MilvusStandInServer::mutationFailure, () -> {
+            List<Long> ids = collection(request.getCollectionName()).write(request.getFieldsDataList(), true);
+            return mutationResult(ids).setUpsertCnt(ids.size()).build();
+        });
+    }
+
+    @Override
+    public void delete(DeleteRequest request, StreamObserver<MutationResult> responseObserver) {
+        respond(responseObserver, StandInFaults.Operation.DELETE, MilvusStandInServer::mutationFailure, () -> {
+            int deleted = collection(request.getCollectionName()).delete(request.getExpr());
+            return mutationResult(Collections.emptyList()).setDeleteCnt(deleted).build();
+        });
+    }
+
+    @Override
+    public void query(QueryRequest request, StreamObserver<QueryResults> responseObserver) {
+        boolean count = request.getOutputFieldsList().contains(COUNT_FIELD);
+        lastGuaranteeTimestamp = request.getGuaranteeTimestamp();
+        respond(responseObserver, count ? StandInFaults.Operation.COUNT : StandInFaults.Operation.QUERY,
+                status -> QueryResults.newBuilder().setStatus(status).build(), () -> {
+            StandInCollection collection = collection(request.getCollectionName());
+            QueryResults.Builder builder = QueryResults.newBuilder()
+                    .setStatus(success())
+                    .setCollectionName(request.getCollectionName())
+                    .setPrimaryFieldName(collection.getPrimaryFieldName())
+                    .setSessionTs(timestamp());
+            if (count) {
+                long total = collection.count(request.getExpr());
+                return builder.addOutputFields(COUNT_FIELD)
+                        .addFieldsData(FieldData.newBuilder().setFieldName(COUNT_FIELD).setType(DataType.Int64)
+                                .setScalars(io.milvus.grpc.ScalarField.newBuilder()
+                                        .setLongData(LongArray.newBuilder().addData(total))))
+                        .build();
+            }
+            long offset = 0;
+            long limit = 0;
+            for (KeyValuePair param : request.getQueryParamsList()) {
+                if ("offset".equals(param.getKey())) {
+                    offset = Long.parseLong(param.getValue());
+                } else if ("limit".equals(param.getKey())) {
+                    limit = Long.parseLong(param.getValue());
+                }
+            }
+            List<String> outputFields = collection.resolveOutputFields(request.getOutputFieldsList());
+            List<Map<String, Object>> rows = collection.query(request.getExpr(), offset, limit);
+            return builder.addAllOutputFields(outputFields)
+                    .addAllFieldsData(collection.toFieldsData(rows, outputFields))
+                    .build();
+        });
+    }
+
+    @Override
+    public void search(SearchRequest request, StreamObserver<SearchResults> responseObserver) {
+        lastGuaranteeTimestamp = request.getGuaranteeTimestamp();
+        respond(responseObserver, StandInFaults.Operation.SEARCH,
+                status -> SearchResults.newBuilder().setStatus(status).build(), () -> {
+            StandInCollection collection = collection(request.getCollectionName());
+            String annsField = "";
+            String metricType = null;
+            int topK = 10;
+            int offset = 0;
+            for (KeyValuePair param : request.getSearchParamsList()) {
+                switch (param.getKey()) {
+                    case "anns_field" -> annsField = param.getValue();
+                    case "metric_type" -> metricType = param.getValue();
+                    case "topk" -> topK = Integer.parseInt(param.getValue());
+                    case "offset" -> offset = Integer.parseInt(param.getValue());
+                    default -> {
+                    }
+                }
+            }
+            List<String> outputFields = request.getOutputFieldsList().isEmpty()
+                    ? Collections.emptyList() : collection.resolveOutputFields(request.getOutputFieldsList());
+
+            SearchResultData.Builder data = SearchResultData.newBuilder()
+                    .setTopK(topK)
+                    .setPrimaryFieldName(collection.getPrimaryFieldName())
+                    .addAllOutputFields(outputFields);
+            List<Long> ids = new ArrayList<>();
+            List<Map<String, Object>> rows = new ArrayList<>();
+            List<float[]> targets = targets(request.getPlaceholderGroup());
+            for (float[] target : targets) {
+                List<StandInCollection.Hit> hits = collection.search(target, annsField, metricType, request.getDsl(),
+                        topK, offset);
+                for (StandInCollection.Hit hit : hits) {
+                    ids.add((Long) hit.row().get(collection.getPrimaryFieldName()));
+                    rows.add(hit.row());
+                    data.addScores(hit.score());
+                }
+                data.addTopks(hits.size());
+            }
+            data.setNumQueries(targets.size())
+                    .setIds(IDs.newBuilder().setIntId(LongArray.newBuilder().addAllData(ids)))
+                    .addAllFieldsData(collection.toFieldsData(rows, outputFields));
+            return SearchResults.newBuilder()
+                    .setStatus(success())
+                    .setCollectionName(request.getCollectionName())
+                    .setResults(data)
+                    .setSessionTs(timestamp())
+                    .build();
+        });
+    }
+
+    protected void sleep() {
+        long delay = delayMillis;
+        if (delay > 0) {
+            try {
+                TimeUnit.MILLISECONDS.sleep(delay);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    protected static Status success() {
+        return Status.newBuilder().setCode(0).build();
+    }
+
+    protected static Status failure(int code, String reason) {
+        return Status.newBuilder().setCode(code).setReason(reason).build();
+    }
+
+    private StandInCollection collection(String name) {
+        StandInCollection collection = collections.get(name);
+        if (collection == null) {
+            throw new NoSuchElementException("collection not found[collection=" + name + "]");
+        }
+        return collection;
+    }
+
+    /**
+     * 执行一次请求：先按配置注入延迟与故障，再把业务异常转换为 Milvus 的错误状态
+     */
+    private <R> void respond(StreamObserver<R> responseObserver, StandInFaults.Operation operation,
+                             Function<Status, R> failure, Supplier<R> body) {
+        StandInFaults.Outcome outcome = operation == null ? StandInFaults.Outcome.NONE : faults.apply(operation);
+        if (outcome == StandInFaults.Outcome.UNAVAILABLE) {
+            responseObserver.onError(io.grpc.Status.UNAVAILABLE.withDescription("injected unavailable").asRuntimeException());
+            return;
+        }
+        R response;
+        if (outcome == StandInFaults.Outcome.ERROR) {
+            response = failure.apply(failure(65535, "injected error"));
+        } else {
+            try {
+                response = body.get();
+            } catch (NoSuchElementException e) {
+                response = failure.apply(failure(100, e.getMessage()));
+            } catch (RuntimeException e) {
+                response = failure.apply(failure(1100, String.valueOf(e.getMessage())));
+            }
+        }
+        responseObserver.onNext(response);
+        responseObserver.onCompleted();
+    }
+
+    private static MutationResult mutationFailure(Status status) {
+        return MutationResult.newBuilder().setStatus(status).build();
+    }
+
+    private static MutationResult.Builder mutationResult(List<Long> ids) {
+        return MutationResult.newBuilder()
+                .setStatus(success())
+                .setIDs(IDs.newBuilder().setIntId(LongArray.newBuilder().addAllData(ids)))
+                .setTimestamp(timestamp());
+    }
+
+    /**
+     * 混合时间戳：物理时间（毫秒）左移 18 位
+     */
+    private static long timestamp() {
+        return System.currentTimeMillis() << 18;
+    }
+
+    /**
+     * 解析检索向量，PlaceholderGroup 中每个 FloatVector 都是小端序的 float 数组
+     */
+    private static List<float[]> targets(ByteString placeholderGroup) {
+        try {
+            List<float[]> targets = new ArrayList<>();
+            for (ByteString value : PlaceholderGroup.parseFrom(placeholderGroup).getPlaceholders(0).getValuesList()) {
+                ByteBuffer buffer = value.asReadOnlyByteBuffer().order(ByteOrder.LITTLE_ENDIAN);
+                float[] vector = new float[buffer.remaining() / Float.BYTES];
+                buffer.asFloatBuffer().get(vector);
+                targets.add(vector);
+            }
+            return targets;
+        } catch (InvalidProtocolBufferException e) {
+            throw new IllegalArgumentException("invalid placeholder group", e);
+        }
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        if (server != null) {
+            server.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+        }
+    }
+
+}
@@ -0,0 +1,170 @@
+package com.jcq.milvusEncap.standin;
+
+import com.google.gson.JsonObject;
+import com.jcq.milvusEncap.codec.MilvusRowValues;
+import io.milvus.v2.client.ConnectConfig;
+import io.milvus.v2.client.MilvusClientV2;
+import io.milvus.v2.common.DataType;
+import io.milvus.v2.common.IndexParam;
+import io.milvus.v2.exception.MilvusClientException;
+import io.milvus.v2.service.collection.request.AddFieldReq;
+import io.milvus.v2.service.collection.request.CreateCollectionReq;
+import io.milvus.v2.service.vector.request.DeleteReq;
+import io.milvus.v2.service.vector.request.InsertReq;
+import io.milvus.v2.service.vector.request.QueryReq;
+import io.milvus.v2.service.vector.request.SearchReq;
+import io.milvus.v2.service.vector.request.UpsertReq;
+import io.milvus.v2.service.vector.request.data.FloatVec;
+import io.milvus.v2.service.vector.response.InsertResp;
+import io.milvus.v2.service.vector.response.QueryResp;
+import io.milvus.v2.service.vector.response.SearchResp;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 通过真实的 SDK 客户端验证替身的数据操作与故障注入
+ */
+public class MilvusStandInServerTest {
+
+    private static final String COLLECTION = "stand_in_test";
+    private static final int DIM = 4;
+
+    private MilvusStandInServer server;
+    private MilvusClientV2 client;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        server = new MilvusStandInServer("stand-in").start();
+        client = new MilvusClientV2(ConnectConfig.builder().uri(server.getUri()).build());
+
+        CreateCollectionReq.CollectionSchema schema = CreateCollectionReq.CollectionSchema.builder().build();
+        schema.addField(AddFieldReq.builder().fieldName("id").dataType(DataType.Int64).isPrimaryKey(true)
+                .autoID(true).build());
+        schema.addField(AddFieldReq.builder().fieldName("agent_id").dataType(DataType.Int64).build());
+        schema.addField(AddFieldReq.builder().fieldName("name").dataType(DataType.VarChar).maxLength(64).build());
+        schema.addField(AddFieldReq.builder().fieldName("vector").dataType(DataType.FloatVector).dimension(DIM).build());
+        client.createCollection(CreateCollectionReq.builder()
+                .collectionName(COLLECTION)
+                .collectionSchema(schema)
+                .indexParams(Collections.singletonList(IndexParam.builder().fieldName("vector")
+                        .indexType(IndexParam.IndexType.HNSW).metricType(IndexParam.MetricType.COSINE).build()))
+                .build());
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        client.close();
+        server.close();
+    }
+
+    @Test
+    public void insertQueryCountDelete() {
+        List<Long> ids = insert(10);
+        assertEquals(10, ids.size());
+        assertEquals(10, server.getRowCount(COLLECTION));
+
+        QueryResp page = client.query(QueryReq.builder().collectionName(COLLECTION)
+                .filter("agent_id == 1 and name like \"%row%\"").outputFields(List.of("*")).offset(1).limit(2).build());
+        assertEquals(2, page.getQueryResults().size());
+        assertEquals(1L, page.getQueryResults().get(0).getEntity().get("agent_id"));
+        assertEquals(DIM, ((List<?>) page.getQueryResults().get(0).getEntity().get("vector")).size());
+
+        assertEquals(5L, count("agent_id in [1]"));
+        assertEquals(5L, count("(agent_id == 0 and name != \"row-0\") or id == " + ids.get(1) + " and agent_id > 0"));
+
+        assertEquals(2L, client.delete(DeleteReq.builder().collectionName(COLLECTION).ids(List.of(ids.get(0), ids.get(1)))
+                .build()).getDeleteCnt());
+        assertEquals(8L, count(""));
+    }
+
+    @Test
+    public void upsertReplacesRow() {
+        long id = insert(1).get(0);
+        JsonObject row = row(id, 7, "updated");
+        client.upsert(UpsertReq.builder().collectionName(COLLECTION).data(List.of(row)).build());
+
+        assertEquals(1, server.getRowCount(COLLECTION));
+        QueryResp resp = client.query(QueryReq.builder().collectionName(COLLECTION).filter("id == " + id)
+                .outputFields(List.of("name")).build());
+        assertEquals("updated", resp.getQueryResults().get(0).getEntity().get("name"));
+    }
+
+    @Test
+    public void searchRanksByMetric() {
+        insert(10);
+        SearchResp resp = client.search(SearchReq.builder().collectionName(COLLECTION).annsField("vector")
+                .data(List.of(new FloatVec(vector(3)))).topK(3).filter("agent_id == 1")
+                .outputFields(List.of("*")).build());
+
+        List<SearchResp.SearchResult> hits = resp.getSearchResults().get(0);
+        assertEquals(3, hits.size());
+        assertEquals("row-3", hits.get(0).getEntity().get("name"));
+        assertEquals(1f, hits.get(0).getScore(), 1e-5);
+        assertTrue(hits.get(0).getScore() >= hits.get(1).getScore());
+        hits.forEach(hit -> assertEquals(1L, hit.getEntity().get("agent_id")));
+    }
+
+    @Test
+    public void injectedErrors() {
+        insert(1);
+        server.getFaults().errorRate(StandInFaults.Operation.COUNT, 1.0);
+        assertThrows(MilvusClientException.class, () -> count(""));
+        assertEquals(1, server.getFaults().getInjectedErrors(StandInFaults.Operation.COUNT));
+
+        server.getFaults().reset().latency(StandInFaults.Operation.COUNT, 30, 0);
+        long start = System.nanoTime();
+        assertEquals(1L, count(""));
+        assertTrue(System.nanoTime() - start >= 30_000_000L);
+    }
+
+    @Test
+    public void unknownFieldFails() {
+        assertThrows(MilvusClientException.class, () -> count("missing == 1"));
+    }
+
+    private List<Long> insert(int rows) {
+        List<JsonObject> data = new ArrayList<>();
+        for (int i = 0; i < rows; i++) {
+            data.add(row(null, i % 2, "row-" + i));
+        }
+        InsertResp resp = client.insert(InsertReq.builder().collectionName(COLLECTION).data(data).build());
+        List<Long> ids = new ArrayList<>();
+        resp.getPrimaryKeys().forEach(id -> ids.add((Long) id));
+        return ids;
+    }
+
+    private JsonObject row(Long id, long agentId, String name) {
+        JsonObject row = new JsonObject();
+        if (id != null) {
+            row.addProperty("id", id);
+        }
+        row.addProperty("agent_id", agentId);
+        row.addProperty("name", name);
+        int seed = name.startsWith("row-") ? Integer.parseInt(name.substring(4)) : 0;
+        row.add("vector", MilvusRowValues.toJsonArray(vector(seed)));
+        return row;
+    }
+
+    private long count(String filter) {
+        QueryResp resp = client.query(QueryReq.builder().collectionName(COLLECTION).filter(filter)
+                .outputFields(List.of("count(*)")).build());
+        return (Long) resp.getQueryResults().get(0).getEntity().get("count(*)");
+    }
+
+    private static float[] vector(int seed) {
+        float[] vector = new float[DIM];
+        vector[seed % DIM] = 1f;
+        vector[(seed + 1) % DIM] = seed / 10f;
+        return vector;
+    }
+
+}
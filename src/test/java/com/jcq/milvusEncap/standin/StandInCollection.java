@@ -0,0 +1,332 @@
+package com.jcq.milvusEncap.standin;
+
+import com.jcq.milvusEncap.backend.embedded.FilterExpression;
+import io.milvus.grpc.CollectionSchema;
+import io.milvus.grpc.DataType;
+import io.milvus.grpc.FieldData;
+import io.milvus.grpc.FieldSchema;
+import io.milvus.grpc.IndexDescription;
+import io.milvus.grpc.IndexState;
+import io.milvus.grpc.KeyValuePair;
+import io.milvus.grpc.LoadState;
+import io.milvus.param.ParamUtils;
+import io.milvus.param.collection.FieldType;
+import io.milvus.response.FieldDataWrapper;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+/**
+ * 替身中的一个集合：保存建表时的 schema、索引参数与按主键排序的行数据，查询与检索均为暴力扫描
+ *
+ * <p>行数据以列名为 key，FloatVector 列保存为 float[]，其余列保存 FieldDataWrapper 解码出的值。
+ * 只支持 Int64 主键，分区名被忽略（Partition Key 集合的分区裁剪对结果没有影响）</p>
+ */
+class StandInCollection {
+
+    private static final AtomicLong COLLECTION_IDS = new AtomicLong(1000);
+
+    /**
+     * 检索命中的一行
+     */
+    record Hit(Map<String, Object> row, float score) {
+    }
+
+    private final long id = COLLECTION_IDS.incrementAndGet();
+    private final CollectionSchema schema;
+    private final FieldSchema primaryField;
+    private final Map<String, FieldType> fieldTypes = new LinkedHashMap<>();
+    private final Map<String, IndexDescription> indexes = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListMap<Long, Map<String, Object>> rows = new ConcurrentSkipListMap<>();
+    private final AtomicLong nextId = new AtomicLong(System.currentTimeMillis() << 8);
+    private final AtomicLong indexIds = new AtomicLong();
+    // 加载状态：未加载 -> 加载中（剩余若干次状态查询）-> 已加载
+    private volatile boolean loadRequested;
+    private final AtomicInteger remainingLoadingChecks = new AtomicInteger();
+
+    StandInCollection(CollectionSchema schema) {
+        this.schema = schema;
+        FieldSchema primary = null;
+        for (FieldSchema field : schema.getFieldsList()) {
+            fieldTypes.put(field.getName(), ParamUtils.ConvertField(field));
+            if (field.getIsPrimaryKey()) {
+                primary = field;
+            }
+        }
+        if (primary == null || primary.getDataType() != DataType.Int64) {
+            throw new IllegalArgumentException("替身只支持 Int64 主键: " + schema.getName());
+        }
+        this.primaryField = primary;
+    }
+
+    long getId() {
+        return id;
+    }
+
+    CollectionSchema getSchema() {
+        return schema;
+    }
+
+    String getPrimaryFieldName() {
+        return primaryField.getName();
+    }
+
+    int size() {
+        return rows.size();
+    }
+
+    void load(int loadingChecks) {
+        if (!loadRequested) {
+            remainingLoadingChecks.set(loadingChecks);
+            loadRequested = true;
+        }
+    }
+
+    void release() {
+        loadRequested = false;
+    }
+
+    boolean isLoadRequested() {
+        return loadRequested;
+    }
+
+    /**
+     * 查询一次加载状态，加载中的状态每查询一次减少一次
+     */
+    LoadState loadState() {
+        if (!loadRequested) {
+            return LoadState.LoadStateNotLoad;
+        }
+        return remainingLoadingChecks.getAndDecrement() > 0 ? LoadState.LoadStateLoading : LoadState.LoadStateLoaded;
+    }
+
+    void createIndex(String fieldName, String indexName, List<KeyValuePair> params) {
+        if (!fieldTypes.containsKey(fieldName)) {
+            throw new IllegalArgumentException("field " + fieldName + " not exist");
+        }
+        indexes.put(fieldName, IndexDescription.newBuilder()
+                .setIndexName(indexName.isEmpty() ? fieldName : indexName)
+                .setIndexID(indexIds.incrementAndGet())
+                .setFieldName(fieldName)
+                .addAllParams(params)
+                .setState(IndexState.Finished)
+                .build());
+    }
+
+    List<IndexDescription> describeIndexes(String fieldName, String indexName) {
+        List<IndexDescription> result = new ArrayList<>();
+        for (IndexDescription index : indexes.values()) {
+            if ((fieldName.isEmpty() || fieldName.equals(index.getFieldName()))
+                    && (indexName.isEmpty() || indexName.equals(index.getIndexName()))) {
+                long total = rows.size();
+                result.add(index.toBuilder().setIndexedRows(total).setTotalRows(total).build());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 写入列式数据，返回每行的主键；upsert 时按主键覆盖已有数据
+     */
+    List<Long> write(List<FieldData> columns, boolean upsert) {
+        Map<String, List<?>> values = new HashMap<>();
+        int rowCount = 0;
+        for (FieldData column : columns) {
+            if (column.getIsDynamic()) {
+                continue;
+            }
+            List<?> data = new FieldDataWrapper(column).getFieldData();
+            values.put(column.getFieldName(), data);
+            rowCount = data.size();
+        }
+        String primaryName = primaryField.getName();
+        boolean generateId = primaryField.getAutoID() && !upsert;
+        if (!generateId && !values.containsKey(primaryName)) {
+            throw new IllegalArgumentException("primary key " + primaryName + " is not provided");
+        }
+        List<Long> ids = new ArrayList<>(rowCount);
+        for (int i = 0; i < rowCount; i++) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            for (Map.Entry<String, FieldType> entry : fieldTypes.entrySet()) {
+                List<?> column = values.get(entry.getKey());
+                Object value = column == null ? null : column.get(i);
+                if (value instanceof List<?> list && entry.getValue().getDataType() == DataType.FloatVector) {
+                    float[] vector = new float[list.size()];
+                    for (int j = 0; j < vector.length; j++) {
+                        vector[j] = ((Number) list.get(j)).floatValue();
+                    }
+                    value = vector;
+                }
+                row.put(entry.getKey(), value);
+            }
+            long primaryKey = generateId ? nextId.incrementAndGet() : ((Number) row.get(primaryName)).longValue();
+            row.put(primaryName, primaryKey);
+            rows.put(primaryKey, row);
+            ids.add(primaryKey);
+        }
+        return ids;
+    }
+
+    int delete(String expr) {
+        Predicate<Map<String, Object>> predicate = FilterExpression.parse(expr, fieldTypes.keySet());
+        int deleted = 0;
+        for (Iterator<Map<String, Object>> iterator = rows.values().iterator(); iterator.hasNext(); ) {
+            if (predicate.test(iterator.next())) {
+                iterator.remove();
+                deleted++;
+            }
+        }
+        return deleted;
+    }
+
+    /**
+     * 按主键顺序返回满足条件的行，limit 不大于 0 时不限制条数
+     */
+    List<Map<String, Object>> query(String expr, long offset, long limit) {
+        Predicate<Map<String, Object>> predicate = FilterExpression.parse(expr, fieldTypes.keySet());
+        List<Map<String, Object>> result = new ArrayList<>();
+        long skipped = 0;
+        for (Map<String, Object> row : rows.values()) {
+            if (!predicate.test(row)) {
+                continue;
+            }
+            if (skipped++ < offset) {
+                continue;
+            }
+            result.add(row);
+            if (limit > 0 && result.size() >= limit) {
+                break;
+            }
+        }
+        return result;
+    }
+
+    long count(String expr) {
+        Predicate<Map<String, Object>> predicate = FilterExpression.parse(expr, fieldTypes.keySet());
+        return rows.values().stream().filter(predicate).count();
+    }
+
+    /**
+     * 暴力检索，COSINE/IP 分数越大越相似，L2 返回距离平方、越小越相似
+     */
+    List<Hit> search(float[] target, String annsField, String metricType, String expr, int topK, int offset) {
+        FieldType field = fieldTypes.get(annsField);
+        if (field == null || field.getDataType() != DataType.FloatVector) {
+            throw new IllegalArgumentException("anns field " + annsField + " is not a float vector field");
+        }
+        String metric = metricType == null || metricType.isEmpty() ? indexMetric(annsField) : metricType.toUpperCase();
+        boolean distance = "L2".equals(metric);
+        Predicate<Map<String, Object>> predicate = FilterExpression.parse(expr, fieldTypes.keySet());
+        int keep = topK + offset;
+        // 堆顶是当前保留结果中最差的一个
+        PriorityQueue<Hit> heap = new PriorityQueue<>(keep + 1, distance
+                ? (a, b) -> Float.compare(b.score(), a.score())
+                : (a, b) -> Float.compare(a.score(), b.score()));
+        for (Map<String, Object> row : rows.values()) {
+            if (!(row.get(annsField) instanceof float[] vector) || !predicate.test(row)) {
+                continue;
+            }
+            if (vector.length != target.length) {
+                throw new IllegalArgumentException(String.format("vector dimension mismatch, expected %d, actual %d",
+                        vector.length, target.length));
+            }
+            heap.offer(new Hit(row, score(metric, target, vector)));
+            if (heap.size() > keep) {
+                heap.poll();
+            }
+        }
+        List<Hit> hits = new ArrayList<>(heap);
+        hits.sort(heap.comparator().reversed());
+        return offset >= hits.size() ? Collections.emptyList() : hits.subList(offset, hits.size());
+    }
+
+    /**
+     * 解析输出字段：为空时只输出主键，* 展开为全部字段，主键始终输出
+     */
+    List<String> resolveOutputFields(List<String> requested) {
+        Set<String> fields = new LinkedHashSet<>();
+        fields.add(primaryField.getName());
+        for (String name : requested) {
+            if ("*".equals(name)) {
+                fields.addAll(fieldTypes.keySet());
+            } else if (fieldTypes.containsKey(name)) {
+                fields.add(name);
+            } else {
+                throw new IllegalArgumentException("field " + name + " not exist");
+            }
+        }
+        return new ArrayList<>(fields);
+    }
+
+    /**
+     * 将行数据编码为列式 FieldData，结果为空时不输出列
+     */
+    List<FieldData> toFieldsData(List<Map<String, Object>> result, List<String> outputFields) {
+        List<FieldData> columns = new ArrayList<>();
+        if (result.isEmpty()) {
+            return columns;
+        }
+        for (String name : outputFields) {
+            FieldType type = fieldTypes.get(name);
+            List<Object> values = new ArrayList<>(result.size());
+            for (Map<String, Object> row : result) {
+                Object value = row.get(name);
+                if (value instanceof float[] vector) {
+                    List<Float> list = new ArrayList<>(vector.length);
+                    for (float element : vector) {
+                        list.add(element);
+                    }
+                    value = list;
+                }
+                values.add(value);
+            }
+            columns.add(ParamUtils.genFieldData(type, values));
+        }
+        return columns;
+    }
+
+    private String indexMetric(String annsField) {
+        IndexDescription index = indexes.get(annsField);
+        if (index != null) {
+            for (KeyValuePair param : index.getParamsList()) {
+                if ("metric_type".equals(param.getKey())) {
+                    return param.getValue().toUpperCase();
+                }
+            }
+        }
+        return "L2";
+    }
+
+    private static float score(String metric, float[] a, float[] b) {
+        float dot = 0;
+        float normA = 0;
+        float normB = 0;
+        float l2 = 0;
+        for (int i = 0; i < a.length; i++) {
+            dot += a[i] * b[i];
+            normA += a[i] * a[i];
+            normB += b[i] * b[i];
+            float diff = a[i] - b[i];
+            l2 += diff * diff;
+        }
+        return switch (metric) {
+            case "IP" -> dot;
+            case "COSINE" -> normA == 0 || normB == 0 ? 0 : (float) (dot / Math.sqrt((double) normA * normB));
+            default -> l2;
+        };
+    }
+
+}
@@ -0,0 +1,135 @@
+package com.jcq.milvusEncap.standin;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 替身的延迟与故障注入配置，按操作类型分别设置：固定延迟 + 随机抖动、返回错误状态的比例、gRPC UNAVAILABLE 的比例
+ *
+ * <p>配置可以在压测过程中随时修改，对之后的请求生效</p>
+ */
+public class StandInFaults {
+
+    /**
+     * 替身支持的数据操作
+     */
+    public enum Operation {
+        INSERT, UPSERT, DELETE, QUERY, COUNT, SEARCH
+    }
+
+    /**
+     * 一次请求的注入结果
+     */
+    enum Outcome {
+        NONE, ERROR, UNAVAILABLE
+    }
+
+    private static final class Rule {
+        volatile long latencyMillis;
+        volatile long jitterMillis;
+        volatile double errorRate;
+        volatile double unavailableRate;
+        final AtomicLong calls = new AtomicLong();
+        final AtomicLong injectedErrors = new AtomicLong();
+    }
+
+    private final Map<Operation, Rule> rules = new EnumMap<>(Operation.class);
+
+    public StandInFaults() {
+        for (Operation operation : Operation.values()) {
+            rules.put(operation, new Rule());
+        }
+    }
+
+    /**
+     * 设置延迟，实际延迟为 latencyMillis + [0, jitterMillis) 的随机值
+     */
+    public StandInFaults latency(Operation operation, long latencyMillis, long jitterMillis) {
+        Rule rule = rules.get(operation);
+        rule.latencyMillis = latencyMillis;
+        rule.jitterMillis = jitterMillis;
+        return this;
+    }
+
+    public StandInFaults latency(long latencyMillis, long jitterMillis) {
+        for (Operation operation : Operation.values()) {
+            latency(operation, latencyMillis, jitterMillis);
+        }
+        return this;
+    }
+
+    /**
+     * 按比例返回非 0 的错误状态，SDK 抛出 MilvusClientException
+     */
+    public StandInFaults errorRate(Operation operation, double errorRate) {
+        rules.get(operation).errorRate = errorRate;
+        return this;
+    }
+
+    public StandInFaults errorRate(double errorRate) {
+        for (Operation operation : Operation.values()) {
+            errorRate(operation, errorRate);
+        }
+        return this;
+    }
+
+    /**
+     * 按比例直接以 gRPC UNAVAILABLE 结束调用，模拟节点不可用
+     */
+    public StandInFaults unavailableRate(Operation operation, double unavailableRate) {
+        rules.get(operation).unavailableRate = unavailableRate;
+        return this;
+    }
+
+    /**
+     * 清除所有延迟与故障配置
+     */
+    public StandInFaults reset() {
+        for (Rule rule : rules.values()) {
+            rule.latencyMillis = 0;
+            rule.jitterMillis = 0;
+            rule.errorRate = 0;
+            rule.unavailableRate = 0;
+        }
+        return this;
+    }
+
+    public long getCalls(Operation operation) {
+        return rules.get(operation).calls.get();
+    }
+
+    public long getInjectedErrors(Operation operation) {
+        return rules.get(operation).injectedErrors.get();
+    }
+
+    /**
+     * 执行一次操作前调用：按配置等待，并决定本次是否注入错误
+     */
+    Outcome apply(Operation operation) {
+        Rule rule = rules.get(operation);
+        rule.calls.incrementAndGet();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long delay = rule.latencyMillis + (rule.jitterMillis > 0 ? random.nextLong(rule.jitterMillis) : 0);
+        if (delay > 0) {
+            try {
+                TimeUnit.MILLISECONDS.sleep(delay);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        double dice = random.nextDouble();
+        if (dice < rule.unavailableRate) {
+            rule.injectedErrors.incrementAndGet();
+            return Outcome.UNAVAILABLE;
+        }
+        if (dice < rule.unavailableRate + rule.errorRate) {
+            rule.injectedErrors.incrementAndGet();
+            return Outcome.ERROR;
+        }
+        return Outcome.NONE;
+    }
+
+}
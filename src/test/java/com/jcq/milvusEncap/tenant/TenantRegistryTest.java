@@ -0,0 +1,198 @@
+package com.jcq.milvusEncap.tenant;
+
+import com.jcq.milvusEncap.config.MilvusTenantProperties;
+import com.jcq.milvusEncap.exception.ServiceException;
+import com.jcq.milvusEncap.exception.enums.ErrorCodeConstants;
+import com.jcq.milvusEncap.monitor.MilvusMetrics;
+import com.jcq.milvusEncap.pool.MilvusClientPool;
+import com.jcq.milvusEncap.routing.MilvusEndpoint;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.milvus.pool.PoolConfig;
+import io.milvus.v2.client.ConnectConfig;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * 验证租户到 database 的映射、租户并发上限（未配置的租户共用上限）、请求头设置租户，以及按 database 划分的连接池
+ */
+public class TenantRegistryTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    public void disabledRegistryUsesDefaultDatabase() {
+        MilvusTenantProperties properties = properties();
+        properties.setEnabled(false);
+        TenantRegistry tenantRegistry = new TenantRegistry(properties, metrics());
+        assertNull(tenantRegistry.database("tenant-a"));
+        // 未开启时不限制并发
+        tenantRegistry.acquire("tenant-a");
+        tenantRegistry.acquire("tenant-a").close();
+    }
+
+    @Test
+    public void tenantsMapToDatabases() {
+        TenantRegistry tenantRegistry = new TenantRegistry(properties(), metrics());
+        assertEquals("tenant_a", tenantRegistry.database("tenant-a"));
+        assertEquals("shared", tenantRegistry.database("tenant-b"));
+        assertEquals("shared", tenantRegistry.database("unknown"));
+        assertEquals("shared", tenantRegistry.database(null));
+        assertEquals(Set.of("shared", "tenant_a"), tenantRegistry.databases());
+    }
+
+    @Test
+    public void tenantCapRejectsBeyondLimit() {
+        TenantRegistry tenantRegistry = new TenantRegistry(properties(), metrics());
+        TenantRegistry.Permit first = tenantRegistry.acquire("tenant-a");
+        tenantRegistry.acquire("tenant-a");
+        ServiceException error = assertThrows(ServiceException.class, () -> tenantRegistry.acquire("tenant-a"));
+        assertEquals(ErrorCodeConstants.MILVUS_OVERLOADED.getCode(), error.getCode());
+        assertEquals(1.0, registry.get("milvus.tenant.rejected").tag("tenant", "tenant-a").counter().count());
+        assertEquals(2.0, registry.get("milvus.tenant.in-flight").tag("tenant", "tenant-a").gauge().value());
+
+        // 其他租户不受影响
+        tenantRegistry.acquire("tenant-b").close();
+        first.close();
+        tenantRegistry.acquire("tenant-a").close();
+
+        // 未配置的租户与匿名请求共用一个上限，指标合计为 other
+        TenantRegistry.Permit unknown = tenantRegistry.acquire("unknown");
+        assertThrows(ServiceException.class, () -> tenantRegistry.acquire("unknown"));
+        assertThrows(ServiceException.class, () -> tenantRegistry.acquire("another"));
+        assertThrows(ServiceException.class, () -> tenantRegistry.acquire(MilvusTenant.ANONYMOUS));
+        assertEquals(3.0, registry.get("milvus.tenant.rejected").tag("tenant", "other").counter().count());
+        unknown.close();
+        tenantRegistry.acquire("another").close();
+        // 线程上未指定租户的内部操作不受限制
+        tenantRegistry.acquire(null);
+        tenantRegistry.acquire(null).close();
+    }
+
+    @Test
+    public void randomTenantIdsShareOneLimit() {
+        MilvusTenantProperties properties = properties();
+        properties.setDefaultMaxConcurrency(3);
+        properties.setWaitTimeoutMs(0);
+        TenantRegistry tenantRegistry = new TenantRegistry(properties, metrics());
+        List<TenantRegistry.Permit> held = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            held.add(tenantRegistry.acquire(UUID.randomUUID().toString()));
+        }
+        for (int i = 0; i < 1000; i++) {
+            String tenantId = UUID.randomUUID().toString();
+            assertThrows(ServiceException.class, () -> tenantRegistry.acquire(tenantId));
+        }
+        assertEquals(3.0, registry.get("milvus.tenant.in-flight").tag("tenant", "other").gauge().value());
+        assertEquals(1000.0, registry.get("milvus.tenant.rejected").tag("tenant", "other").counter().count());
+
+        held.forEach(TenantRegistry.Permit::close);
+        for (int i = 0; i < 1000; i++) {
+            tenantRegistry.acquire(UUID.randomUUID().toString()).close();
+        }
+        // 只有已配置的租户与 other 的指标，不随租户标识增长
+        assertEquals(2, registry.find("milvus.tenant.in-flight").gauges().size());
+        assertEquals(0.0, registry.get("milvus.tenant.in-flight").tag("tenant", "other").gauge().value());
+    }
+
+    @Test
+    public void filterScopesTenantToRequest() throws Exception {
+        MilvusTenantFilter filter = new MilvusTenantFilter(properties());
+        AtomicReference<String> seen = new AtomicReference<>();
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("X-Tenant-Id", " tenant-a ");
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse resp) {
+                seen.set(MilvusTenant.current());
+            }
+        }));
+        assertEquals("tenant-a", seen.get());
+        assertNull(MilvusTenant.current());
+
+        // 未携带请求头的请求按匿名租户计入并发上限
+        filter.doFilter(new MockHttpServletRequest(), new MockHttpServletResponse(), new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse resp) {
+                seen.set(MilvusTenant.current());
+            }
+        }));
+        assertEquals(MilvusTenant.ANONYMOUS, seen.get());
+        assertNull(MilvusTenant.current());
+
+        try (MilvusTenant.Scope ignored = MilvusTenant.use("outer")) {
+            try (MilvusTenant.Scope nested = MilvusTenant.use("inner")) {
+                assertEquals("inner", MilvusTenant.current());
+            }
+            assertEquals("outer", MilvusTenant.current());
+        }
+        assertNull(MilvusTenant.current());
+    }
+
+    @Test
+    public void endpointPoolsPerDatabase() throws Exception {
+        List<String> created = new ArrayList<>();
+        MilvusClientPool main = pool(null);
+        MilvusEndpoint endpoint = new MilvusEndpoint("primary", MilvusEndpoint.Role.PRIMARY, main, database -> {
+            created.add(database);
+            return pool(database);
+        });
+        try {
+            assertSame(main, endpoint.getPool(null));
+            assertSame(main, endpoint.getPool(MilvusEndpoint.DEFAULT_DATABASE));
+            MilvusClientPool tenantPool = endpoint.getPool("tenant_a");
+            assertSame(tenantPool, endpoint.getPool("tenant_a"));
+            assertEquals(List.of("tenant_a"), created);
+            assertEquals(Set.of("tenant_a"), endpoint.getDatabasePools().keySet());
+
+            MilvusEndpoint single = new MilvusEndpoint("replica", MilvusEndpoint.Role.REPLICA, main);
+            assertThrows(IllegalStateException.class, () -> single.getPool("tenant_a"));
+        } finally {
+            endpoint.getDatabasePools().values().forEach(MilvusClientPool::close);
+            main.close();
+        }
+    }
+
+    private MilvusTenantProperties properties() {
+        MilvusTenantProperties properties = new MilvusTenantProperties();
+        properties.setEnabled(true);
+        properties.setDefaultDatabase("shared");
+        properties.setDefaultMaxConcurrency(1);
+        properties.setWaitTimeoutMs(20);
+        properties.getTenants().put("tenant-a", new MilvusTenantProperties.Tenant("tenant_a", 2));
+        properties.getTenants().put("tenant-b", new MilvusTenantProperties.Tenant(null, 0));
+        return properties;
+    }
+
+    private MilvusMetrics metrics() {
+        return new MilvusMetrics(registry, null);
+    }
+
+    private static MilvusClientPool pool(String database) {
+        ConnectConfig connectConfig = ConnectConfig.builder().uri("http://localhost:19530").build();
+        if (database != null) {
+            connectConfig.setDbName(database);
+        }
+        try {
+            return new MilvusClientPool(PoolConfig.builder().build(), connectConfig);
+        } catch (ClassNotFoundException | NoSuchMethodException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+}
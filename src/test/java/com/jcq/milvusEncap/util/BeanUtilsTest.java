@@ -0,0 +1,105 @@
+package com.jcq.milvusEncap.util;
+
+import cn.hutool.core.bean.BeanUtil;
+import com.jcq.milvusEncap.controller.samples.vo.SamplesRespVO;
+import com.jcq.milvusEncap.dal.dataobject.agent.SamplesDO;
+import com.jcq.milvusEncap.dal.pojo.PageResult;
+import lombok.Data;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * 验证 BeanCopier 的复制结果与 hutool BeanUtil 一致，以及数组的复制与共享
+ */
+public class BeanUtilsTest {
+
+    @Data
+    public static class SourceBean {
+        private Long id;
+        private Integer count;
+        private String tag;
+        private List<Integer> values;
+    }
+
+    @Data
+    public static class TargetBean {
+        private String id;
+        private int count;
+        private String tag;
+        private List<String> values;
+    }
+
+    @Test
+    public void matchesBeanUtil() {
+        SamplesDO sample = sample(1L);
+        SamplesRespVO expected = BeanUtil.toBean(sample, SamplesRespVO.class);
+        SamplesRespVO actual = BeanUtils.toBean(sample, SamplesRespVO.class);
+        assertEquals(expected, actual);
+        // 默认复制数组
+        assertNotSame(sample.getSampleVector(), actual.getSampleVector());
+
+        SamplesRespVO shared = BeanUtils.toBean(sample, SamplesRespVO.class, BeanCopier.ArrayMode.SHARE);
+        assertEquals(expected, shared);
+        assertSame(sample.getSampleVector(), shared.getSampleVector());
+    }
+
+    @Test
+    public void convertsIncompatibleTypes() {
+        SourceBean source = new SourceBean();
+        source.setId(42L);
+        source.setValues(Arrays.asList(1, 2));
+        TargetBean target = BeanUtils.toBean(source, TargetBean.class);
+        assertEquals("42", target.getId());
+        // 基本类型属性的源值为 null 时保持默认值
+        assertEquals(0, target.getCount());
+        assertNull(target.getTag());
+        assertEquals(List.of("1", "2"), target.getValues());
+
+        TargetBean existing = new TargetBean();
+        existing.setTag("old");
+        BeanUtils.copyProperties(source, existing);
+        assertNull(existing.getTag());
+    }
+
+    @Test
+    public void listAndPage() {
+        List<SamplesDO> list = Arrays.asList(sample(1L), null, sample(2L));
+        List<SamplesRespVO> result = BeanUtils.toBean(list, SamplesRespVO.class);
+        assertEquals(2, result.size());
+        assertEquals(2L, result.get(1).getSampleId());
+
+        PageResult<SamplesRespVO> page = BeanUtils.toBean(new PageResult<>(list, 10L), SamplesRespVO.class,
+                BeanCopier.ArrayMode.SHARE);
+        assertEquals(10L, page.getTotal());
+        assertSame(list.get(2).getSampleVector(), page.getList().get(1).getSampleVector());
+
+        // Map 由 BeanUtil 处理
+        SamplesRespVO fromMap = BeanUtils.toBean(Map.of("sampleId", 7L), SamplesRespVO.class);
+        assertEquals(7L, fromMap.getSampleId());
+
+        assertSame(BeanCopier.get(SamplesDO.class, SamplesRespVO.class, BeanCopier.ArrayMode.COPY),
+                BeanCopier.get(SamplesDO.class, SamplesRespVO.class, BeanCopier.ArrayMode.COPY));
+    }
+
+    private static SamplesDO sample(long id) {
+        return SamplesDO.builder()
+                .sampleId(id)
+                .agentId(3L)
+                .agentName("agent")
+                .sampleQuestion("question")
+                .sampleVector(new float[]{0.1f, 0.2f, 0.3f})
+                .sampleStatus("ENABLED")
+                .createdTime(1L)
+                .build();
+    }
+
+}
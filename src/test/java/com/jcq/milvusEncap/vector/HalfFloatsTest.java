@@ -0,0 +1,76 @@
+package com.jcq.milvusEncap.vector;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 验证 float16 / bfloat16 转换的舍入与特殊值，以及与 Milvus 小端字节格式的互转
+ */
+public class HalfFloatsTest {
+
+    @Test
+    public void float16RoundTripsEveryValue() {
+        for (int bits = 0; bits <= 0xFFFF; bits++) {
+            short half = (short) bits;
+            float value = HalfFloats.float16ToFloat(half);
+            if (Float.isNaN(value)) {
+                assertTrue(Float.isNaN(HalfFloats.float16ToFloat(HalfFloats.toFloat16(value))));
+                continue;
+            }
+            assertEquals(half, HalfFloats.toFloat16(value), "bits=" + Integer.toHexString(bits));
+        }
+    }
+
+    @Test
+    public void float16RoundsToNearest() {
+        Random random = new Random(7);
+        for (int i = 0; i < 100_000; i++) {
+            float value = (float) (random.nextGaussian() * Math.pow(10, random.nextInt(9) - 6));
+            short half = HalfFloats.toFloat16(value);
+            float error = Math.abs(value - HalfFloats.float16ToFloat(half));
+            // 相邻的两个半精度值都不会更接近（0 的相邻位可能是 NaN，比较结果为 false）
+            assertFalse(Math.abs(value - HalfFloats.float16ToFloat((short) (half + 1))) < error, "value=" + value);
+            assertFalse(Math.abs(value - HalfFloats.float16ToFloat((short) (half - 1))) < error, "value=" + value);
+        }
+        assertEquals(Float.POSITIVE_INFINITY, HalfFloats.float16ToFloat(HalfFloats.toFloat16(70000f)));
+        assertEquals(65504f, HalfFloats.float16ToFloat(HalfFloats.toFloat16(65504f)));
+        assertEquals(0x1p-24f, HalfFloats.float16ToFloat(HalfFloats.toFloat16(0x1p-24f)));
+        assertEquals(0f, HalfFloats.float16ToFloat(HalfFloats.toFloat16(0x1p-26f)));
+        assertEquals((short) 0x8000, HalfFloats.toFloat16(-0f));
+    }
+
+    @Test
+    public void bfloat16RoundsToNearestEven() {
+        assertEquals(1f, HalfFloats.bfloat16ToFloat(HalfFloats.toBFloat16(1f)));
+        // 1 + 2^-8 正好位于 1 与 1 + 2^-7 中间，取偶数 1
+        assertEquals(1f, HalfFloats.bfloat16ToFloat(HalfFloats.toBFloat16(1f + 0x1p-8f)));
+        assertEquals(1f + 0x1p-7f, HalfFloats.bfloat16ToFloat(HalfFloats.toBFloat16(1f + 0x1p-8f + 0x1p-20f)));
+        assertEquals(-3.140625f, HalfFloats.bfloat16ToFloat(HalfFloats.toBFloat16(-3.14159f)));
+        assertTrue(Float.isNaN(HalfFloats.bfloat16ToFloat(HalfFloats.toBFloat16(Float.NaN))));
+    }
+
+    @Test
+    public void bufferIsLittleEndian() {
+        float[] vector = {1f, -2f, 0.5f};
+        short[] half = HalfFloats.toFloat16(vector);
+        ByteBuffer buffer = HalfFloats.toBuffer(half);
+        assertEquals(6, buffer.remaining());
+        assertEquals(half[1], buffer.duplicate().order(ByteOrder.LITTLE_ENDIAN).getShort(2));
+        assertArrayEquals(buffer.array(), HalfFloats.toFloat16Buffer(vector).array());
+        assertArrayEquals(HalfFloats.toBuffer(HalfFloats.toBFloat16(vector)).array(),
+                HalfFloats.toBFloat16Buffer(vector).array());
+
+        assertArrayEquals(half, HalfFloats.fromBuffer(buffer));
+        assertEquals(0, buffer.position());
+        assertArrayEquals(vector, HalfFloats.float16ToFloat(HalfFloats.fromBuffer(buffer)));
+    }
+
+}
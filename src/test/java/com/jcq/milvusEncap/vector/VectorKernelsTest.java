@@ -0,0 +1,76 @@
+package com.jcq.milvusEncap.vector;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * 验证标量与 SIMD 内核的计算结果与双精度参考值一致，维度覆盖不足一个寄存器宽度的尾部
+ */
+public class VectorKernelsTest {
+
+    private static final int[] DIMS = {1, 3, 7, 8, 15, 16, 17, 31, 33, 64, 127, 128, 384, 768, 1023, 1024, 1536};
+
+    @Test
+    public void kernelsMatchReference() {
+        // surefire 添加了 jdk.incubator.vector 模块，SIMD 实现必须可用
+        assertNotNull(VectorKernels.simd());
+
+        List<VectorKernel> kernels = new ArrayList<>();
+        kernels.add(VectorKernels.scalar());
+        kernels.add(VectorKernels.simd());
+        Random random = new Random(42);
+        for (int dim : DIMS) {
+            float[] a = random(dim, random);
+            float[] b = random(dim, random);
+            double dot = 0;
+            double l2 = 0;
+            double normA = 0;
+            double normB = 0;
+            for (int i = 0; i < dim; i++) {
+                dot += (double) a[i] * b[i];
+                l2 += ((double) a[i] - b[i]) * ((double) a[i] - b[i]);
+                normA += (double) a[i] * a[i];
+                normB += (double) b[i] * b[i];
+            }
+            double cosine = dot / Math.sqrt(normA * normB);
+            for (VectorKernel kernel : kernels) {
+                String message = kernel.getClass().getSimpleName() + " dim=" + dim;
+                assertEquals(dot, kernel.dot(a, b, dim), 1e-4 * Math.max(1, Math.sqrt(dim)), message);
+                assertEquals(l2, kernel.squaredL2(a, b, dim), 1e-4 * Math.max(1, l2), message);
+                assertEquals(cosine, kernel.cosine(a, b, dim), 1e-5, message);
+            }
+        }
+    }
+
+    @Test
+    public void zeroVectorCosine() {
+        float[] zero = new float[16];
+        float[] other = random(16, new Random(1));
+        assertEquals(0, VectorKernels.scalar().cosine(zero, other, 16));
+        assertEquals(0, VectorKernels.simd().cosine(zero, other, 16));
+    }
+
+    @Test
+    public void lengthLimitsComputation() {
+        float[] a = {1, 2, 3, 100};
+        float[] b = {4, 5, 6, 100};
+        assertEquals(32, VectorKernels.scalar().dot(a, b, 3));
+        assertEquals(32, VectorKernels.simd().dot(a, b, 3));
+        assertEquals(27, VectorKernels.simd().squaredL2(a, b, 3));
+    }
+
+    private static float[] random(int dim, Random random) {
+        float[] vector = new float[dim];
+        for (int i = 0; i < dim; i++) {
+            vector[i] = random.nextFloat() * 2 - 1;
+        }
+        return vector;
+    }
+
+}
@@ -0,0 +1,184 @@
+package com.jcq.milvusEncap.warmup;
+
+import com.jcq.milvusEncap.annotation.CollectionName;
+import com.jcq.milvusEncap.annotation.PrimaryKey;
+import com.jcq.milvusEncap.annotation.VectorField;
+import com.jcq.milvusEncap.config.MilvusWarmUpProperties;
+import com.jcq.milvusEncap.pool.MilvusClientPool;
+import com.jcq.milvusEncap.routing.MilvusEndpoint;
+import com.jcq.milvusEncap.routing.MilvusRouter;
+import com.jcq.milvusEncap.schema.EntitySchema;
+import com.jcq.milvusEncap.schema.EntitySchemaResolver;
+import com.jcq.milvusEncap.service.milvus.MilvusBaseService;
+import com.jcq.milvusEncap.standin.MilvusStandInServer;
+import com.jcq.milvusEncap.standin.StandInFaults;
+import io.milvus.pool.PoolConfig;
+import io.milvus.v2.client.ConnectConfig;
+import io.milvus.v2.client.MilvusClientV2;
+import io.milvus.v2.service.collection.request.CreateCollectionReq;
+import io.milvus.v2.service.collection.request.ReleaseCollectionReq;
+import lombok.Data;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.health.Status;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 验证预热加载集合、执行预热查询与检索，readiness 从 OUT_OF_SERVICE 变为 UP，以及预热失败时按 required 决定是否就绪
+ */
+public class MilvusWarmUpTest {
+
+    private static final String CLIENT_KEY = "client";
+    private static final String COLLECTION = "warm_up_samples";
+
+    @Data
+    @CollectionName(COLLECTION)
+    public static class WarmUpDO {
+        @PrimaryKey
+        private Long id;
+        private String title;
+        @VectorField(dim = 4)
+        private float[] vector;
+    }
+
+    @Data
+    @CollectionName("warm_up_missing")
+    public static class MissingDO {
+        @PrimaryKey
+        private Long id;
+        @VectorField(dim = 4)
+        private float[] vector;
+    }
+
+    private MilvusStandInServer server;
+    private MilvusClientPool pool;
+    private MilvusRouter router;
+    private final MilvusWarmUpProperties properties = new MilvusWarmUpProperties();
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        server = new MilvusStandInServer("stand-in").start();
+        PoolConfig poolConfig = PoolConfig.builder()
+                .maxIdlePerKey(4)
+                .maxTotalPerKey(4)
+                .maxBlockWaitDuration(Duration.ofSeconds(2))
+                .build();
+        pool = new MilvusClientPool(poolConfig, ConnectConfig.builder().uri(server.getUri()).build());
+        router = new MilvusRouter(new MilvusEndpoint("primary", MilvusEndpoint.Role.PRIMARY, pool), List.of(),
+                CLIENT_KEY, null, 2);
+
+        // 创建后释放，预热需要重新加载
+        MilvusClientV2 client = new MilvusClientV2(ConnectConfig.builder().uri(server.getUri()).build());
+        try {
+            EntitySchema schema = EntitySchemaResolver.resolve(WarmUpDO.class);
+            client.createCollection(CreateCollectionReq.builder()
+                    .collectionName(COLLECTION)
+                    .collectionSchema(schema.getCollectionSchema())
+                    .indexParams(schema.getIndexParams())
+                    .build());
+            client.releaseCollection(ReleaseCollectionReq.builder().collectionName(COLLECTION).build());
+        } finally {
+            client.close();
+        }
+
+        properties.setEnabled(true);
+        properties.setLoadCheckIntervalMs(5);
+        properties.setPrewarmClients(2);
+        properties.getDefaults().setQueries(List.of("", "id > 0"));
+        properties.getDefaults().setSearches(3);
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        router.close();
+        pool.close();
+        server.close();
+    }
+
+    @Test
+    public void becomesReadyAfterLoadingAndWarmUp() throws Exception {
+        server.setLoadingChecks(3);
+        MilvusWarmUp warmUp = new MilvusWarmUp(List.of(service(WarmUpDO.class)), router, properties);
+        MilvusWarmUpHealthIndicator indicator = new MilvusWarmUpHealthIndicator(warmUp);
+        assertEquals(MilvusWarmUp.State.PENDING, warmUp.getState());
+        assertEquals(Status.OUT_OF_SERVICE, indicator.health().getStatus());
+        assertFalse(server.isLoadRequested(COLLECTION));
+
+        warmUp.run(null);
+        awaitFinished(warmUp);
+
+        assertEquals(MilvusWarmUp.State.READY, warmUp.getState());
+        assertEquals(Status.UP, indicator.health().getStatus());
+        assertTrue(server.isLoadRequested(COLLECTION));
+        assertEquals(2, server.getFaults().getCalls(StandInFaults.Operation.QUERY));
+        assertEquals(3, server.getFaults().getCalls(StandInFaults.Operation.SEARCH));
+        assertTrue(warmUp.getDetails().get("primary/" + COLLECTION).startsWith("ready"));
+        assertEquals(2, pool.getIdleClientNumber(CLIENT_KEY));
+    }
+
+    @Test
+    public void requiredWarmUpStaysOutOfServiceOnFailure() throws Exception {
+        properties.setRequired(true);
+        MilvusWarmUp warmUp = new MilvusWarmUp(List.of(service(WarmUpDO.class), service(MissingDO.class)), router,
+                properties);
+        MilvusWarmUpHealthIndicator indicator = new MilvusWarmUpHealthIndicator(warmUp);
+
+        warmUp.run(null);
+        awaitFinished(warmUp);
+
+        assertEquals(MilvusWarmUp.State.FAILED, warmUp.getState());
+        assertEquals(Status.OUT_OF_SERVICE, indicator.health().getStatus());
+        // 一个集合失败不影响其他集合的预热
+        assertTrue(warmUp.getDetails().get("primary/" + COLLECTION).startsWith("ready"));
+        assertTrue(warmUp.getDetails().get("primary/warm_up_missing").startsWith("failed"));
+    }
+
+    @Test
+    public void loadTimeoutFailsButOptionalWarmUpIsReady() throws Exception {
+        server.setLoadingChecks(Integer.MAX_VALUE);
+        properties.setLoadTimeoutMs(50);
+        MilvusWarmUp warmUp = new MilvusWarmUp(List.of(service(WarmUpDO.class)), router, properties);
+
+        warmUp.run(null);
+        awaitFinished(warmUp);
+
+        assertEquals(MilvusWarmUp.State.FAILED, warmUp.getState());
+        assertTrue(warmUp.getDetails().get("primary/" + COLLECTION).contains("超时"));
+        assertEquals(0, server.getFaults().getCalls(StandInFaults.Operation.QUERY));
+        // 未要求预热成功时照常接收流量
+        assertEquals(Status.UP, new MilvusWarmUpHealthIndicator(warmUp).health().getStatus());
+    }
+
+    @Test
+    public void disabledWarmUpIsReadyImmediately() {
+        properties.setEnabled(false);
+        MilvusWarmUp warmUp = new MilvusWarmUp(List.of(service(WarmUpDO.class)), router, properties);
+        assertEquals(Status.UP, new MilvusWarmUpHealthIndicator(warmUp).health().getStatus());
+
+        warmUp.run(null);
+        assertEquals(MilvusWarmUp.State.READY, warmUp.getState());
+        assertFalse(server.isLoadRequested(COLLECTION));
+    }
+
+    private static void awaitFinished(MilvusWarmUp warmUp) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (warmUp.getState() == MilvusWarmUp.State.PENDING || warmUp.getState() == MilvusWarmUp.State.RUNNING) {
+            assertTrue(System.nanoTime() < deadline, "预热未在 10 秒内结束");
+            TimeUnit.MILLISECONDS.sleep(10);
+        }
+    }
+
+    private static <T> MilvusBaseService<T> service(Class<T> entityClass) {
+        return new MilvusBaseService<>(entityClass) {
+        };
+    }
+
+}
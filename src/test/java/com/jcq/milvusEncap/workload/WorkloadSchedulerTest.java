@@ -0,0 +1,146 @@
+package com.jcq.milvusEncap.workload;
+
+import com.jcq.milvusEncap.config.MilvusWorkloadProperties;
+import com.jcq.milvusEncap.exception.ServiceException;
+import com.jcq.milvusEncap.exception.enums.ErrorCodeConstants;
+import com.jcq.milvusEncap.monitor.MilvusMetrics;
+import com.jcq.milvusEncap.service.milvus.MilvusOperation;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * 验证负载类别的配额、加权公平调度、排队超时与线程上的类别作用域
+ */
+public class WorkloadSchedulerTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    @AfterEach
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void disabledSchedulerSharesClientKey() throws Exception {
+        WorkloadScheduler scheduler = scheduler(false, 1, 5000, 1, 1);
+        assertEquals("client", scheduler.poolKey("client", WorkloadClass.BATCH));
+        // 未开启时不限制并发
+        scheduler.acquire(WorkloadClass.BATCH);
+        scheduler.acquire(WorkloadClass.BATCH).close();
+    }
+
+    @Test
+    public void batchQuotaLeavesRoomForInteractive() throws Exception {
+        WorkloadScheduler scheduler = scheduler(true, 4, 5000, 2, 1);
+        assertEquals("client", scheduler.poolKey("client", WorkloadClass.INTERACTIVE));
+        assertEquals("client-batch", scheduler.poolKey("client", WorkloadClass.BATCH));
+
+        WorkloadScheduler.Permit first = scheduler.acquire(WorkloadClass.BATCH);
+        scheduler.acquire(WorkloadClass.BATCH);
+        Future<WorkloadScheduler.Permit> third = executor.submit(() -> scheduler.acquire(WorkloadClass.BATCH));
+        awaitQueued(WorkloadClass.BATCH, 1);
+        assertFalse(third.isDone());
+
+        // 批量任务占满配额时在线请求不需要排队
+        scheduler.acquire(WorkloadClass.INTERACTIVE).close();
+        scheduler.acquire(WorkloadClass.INTERACTIVE).close();
+
+        first.close();
+        third.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void contendedCapacityIsSharedByWeight() throws Exception {
+        // 容量为 1，在线请求权重 3，批量权重 1
+        WorkloadScheduler scheduler = scheduler(true, 1, 5000, 10, 1);
+        WorkloadScheduler.Permit holder = scheduler.acquire(WorkloadClass.INTERACTIVE);
+        List<WorkloadClass> order = new CopyOnWriteArrayList<>();
+        List<Future<?>> waiters = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            for (WorkloadClass workloadClass : List.of(WorkloadClass.INTERACTIVE, WorkloadClass.BATCH)) {
+                waiters.add(executor.submit(() -> {
+                    try (WorkloadScheduler.Permit ignored = scheduler.acquire(workloadClass)) {
+                        order.add(workloadClass);
+                    }
+                    return null;
+                }));
+            }
+        }
+        awaitQueued(WorkloadClass.INTERACTIVE, 6);
+        awaitQueued(WorkloadClass.BATCH, 6);
+        holder.close();
+        for (Future<?> waiter : waiters) {
+            waiter.get(5, TimeUnit.SECONDS);
+        }
+
+        assertEquals(12, order.size());
+        long interactive = order.subList(0, 8).stream().filter(c -> c == WorkloadClass.INTERACTIVE).count();
+        assertEquals(6, interactive, order.toString());
+    }
+
+    @Test
+    public void queueTimeoutIsRejected() throws Exception {
+        WorkloadScheduler scheduler = scheduler(true, 1, 50, 1, 1);
+        scheduler.acquire(WorkloadClass.BATCH);
+        ServiceException error = assertThrows(ServiceException.class, () -> scheduler.acquire(WorkloadClass.INTERACTIVE));
+        assertEquals(ErrorCodeConstants.MILVUS_OVERLOADED.getCode(), error.getCode());
+        assertEquals(1.0, registry.get("milvus.workload.rejected").tag("workload", "interactive").counter().count());
+        assertEquals(0.0, queued(WorkloadClass.INTERACTIVE));
+    }
+
+    @Test
+    public void workloadScope() {
+        assertNull(MilvusWorkload.current());
+        assertEquals(WorkloadClass.INTERACTIVE, MilvusWorkload.resolve(MilvusOperation.SEARCH));
+        assertEquals(WorkloadClass.BATCH, MilvusWorkload.resolve(MilvusOperation.EXPORT));
+        try (MilvusWorkload.Scope ignored = MilvusWorkload.use(WorkloadClass.BACKGROUND)) {
+            assertEquals(WorkloadClass.BACKGROUND, MilvusWorkload.resolve(MilvusOperation.EXPORT));
+            try (MilvusWorkload.Scope nested = MilvusWorkload.useIfAbsent(WorkloadClass.BATCH)) {
+                assertEquals(WorkloadClass.BACKGROUND, MilvusWorkload.current());
+            }
+            try (MilvusWorkload.Scope nested = MilvusWorkload.use(WorkloadClass.INTERACTIVE)) {
+                assertEquals(WorkloadClass.INTERACTIVE, MilvusWorkload.current());
+            }
+            assertEquals(WorkloadClass.BACKGROUND, MilvusWorkload.current());
+        }
+        assertNull(MilvusWorkload.current());
+    }
+
+    private WorkloadScheduler scheduler(boolean enabled, int capacity, long waitTimeoutMs, int batchQuota, int batchWeight) {
+        MilvusWorkloadProperties properties = new MilvusWorkloadProperties();
+        properties.setEnabled(enabled);
+        properties.setCapacity(capacity);
+        properties.setWaitTimeoutMs(waitTimeoutMs);
+        properties.getClasses().put(WorkloadClass.INTERACTIVE, new MilvusWorkloadProperties.ClassQuota(capacity, 3));
+        properties.getClasses().put(WorkloadClass.BATCH, new MilvusWorkloadProperties.ClassQuota(batchQuota, batchWeight));
+        return new WorkloadScheduler(properties, new MilvusMetrics(registry, null));
+    }
+
+    private double queued(WorkloadClass workloadClass) {
+        return registry.get("milvus.workload.queued").tag("workload", workloadClass.getMetricName()).gauge().value();
+    }
+
+    private void awaitQueued(WorkloadClass workloadClass, int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (queued(workloadClass) < expected && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertEquals(expected, queued(workloadClass));
+    }
+
+}